@@ -0,0 +1,498 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+import com.bolivartech.crypto.cuaimacrypt.utils.CuaimaBinary;
+import com.bolivartech.crypto.interfaces.CryptoBinary;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt.
+ *
+ * Mide el rendimiento del nucleo de CuaimaCrypt:
+ *
+ * <ul>
+ * <li>Codec: CuaimaCrypt.Codec(byte[], int, int) en MB/s, de 2 a 32
+ * bloques.</li>
+ * <li>Decodec: CuaimaCrypt.Decodec(byte[], int, int) en MB/s, de 2 a 32
+ * bloques.</li>
+ * <li>Specialized: Codec con el codificador especializado de
+ * CuaimaCrypt.Specialize en MB/s, de 2 a 32 bloques.</li>
+ * <li>Interleaving y DeInterleaving de un bloque en ns/op.</li>
+ * <li>Password: latencia de la derivacion de la clave en us/op, de 2 a 32
+ * bloques.</li>
+ * <li>SeedHop: salto de las semillas del motor empaquetado en ns/op, de 2 a
+ * 32 bloques.</li>
+ * <li>Lanes: CuaimaLanes con 1 a 16 carriles sobre mensajes de 64 bytes en
+ * MB/s.</li>
+ * <li>LanesBaseline: los mismos mensajes con una sola instancia de
+ * CuaimaCrypt, con Reset y Codec por mensaje, como referencia de Lanes.</li>
+ * <li>Binary: CuaimaBinary.Codec de punta a punta en MB/s, con cargas de 16 B
+ * a 64 MB.</li>
+ * <li>Construct, ConstructKeyed y ConstructClosed: creacion de instancias sin
+ * clave, a partir de una programacion de clave y cerradas con close en ns/op,
+ * con el tiempo de las pausas del
+ * recolector de basura (.gc, ms por segundo) y la tasa de asignacion de
+ * memoria (.alloc, MB/s) durante la medicion.</li>
+ * </ul>
+ *
+ * Cada medicion ejecuta iteraciones de calentamiento y de medicion de tiempo
+ * fijo en una sola hebra, y el resultado se escribe en JSON con la misma
+ * estructura de resultados que usa JMH (benchmark, mode, params y
+ * primaryMetric), de forma que se puede comparar entre versiones con las
+ * herramientas que leen ese formato. El error es el intervalo de confianza
+ * del 99.9% de la media.
+ *
+ * Uso: java CuaimaBench [-wi N] [-i N] [-t ms] [-f filtro] [-o archivo.json]
+ *
+ * Se ejecuta desde ant con el objetivo 'bench'.
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+public final class CuaimaBench {
+
+    // Numero de bloques de RakeCodecs medidos
+    private static final int NUMRCA[] = {2, 4, 8, 9, 16, 32};
+    // Cargas de CuaimaBinary en bytes
+    private static final int PAYLOADS[] = {16, 1024, 65536, 1048576, 16777216, 67108864};
+    // Tamaño del buffer de Codec y Decodec
+    private static final int BUFFERSIZE = 1048576;
+    // Carriles de CuaimaLanes, numero y tamaño de los mensajes
+    private static final int LANES[] = {1, 4, 8, 16};
+    private static final int MESSAGES = 1024;
+    private static final int MESSAGESIZE = 64;
+    private static final String PASSWORD = "Bench#Password2026";
+    // Cuantil del 99.9% de la distribucion normal
+    private static final double Z999 = 3.291;
+
+    // Evita que el compilador elimine los resultados de las operaciones
+    private static volatile long Sink;
+
+    private int WarmupIterations = 3;
+    private int Iterations = 5;
+    private long IterationTime = 500;
+    private String Filter = null;
+    private String Output = "bench-results.json";
+    private final List<String> Results = new ArrayList<String>();
+    // Tiempo de recoleccion y tasa de asignacion de cada iteracion de la
+    // ultima medicion, AllocSamples es null si la JVM no mide la asignacion
+    private double GcSamples[];
+    private double AllocSamples[];
+
+    /**
+     * Operacion medida, que se ejecuta 'Count' veces y retorna un valor
+     * derivado del resultado
+     */
+    private interface Op {
+
+        long Run(int Count) throws Exception;
+    }
+
+    private CuaimaBench() {
+    }
+
+    /**
+     * Ejecuta las mediciones
+     *
+     * @param args Opciones de la linea de comandos
+     * @throws Exception si falla alguna operacion medida o la escritura del
+     * resultado
+     */
+    public static void main(String[] args) throws Exception {
+        CuaimaBench Bench;
+        int i;
+
+        Bench = new CuaimaBench();
+        for (i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi":
+                    Bench.WarmupIterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-i":
+                    Bench.Iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-t":
+                    Bench.IterationTime = Long.parseLong(args[++i]);
+                    break;
+                case "-f":
+                    Bench.Filter = args[++i];
+                    break;
+                case "-o":
+                    Bench.Output = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if ((Bench.Iterations < 2) || (Bench.WarmupIterations < 0) || (Bench.IterationTime < 1)) {
+            throw new IllegalArgumentException("At least 2 iterations of 1 ms are required");
+        }
+        Bench.RunCore();
+        Bench.RunBinary();
+        Bench.RunAlloc();
+        Bench.Write();
+    }
+
+    /**
+     * Mide las operaciones del nucleo de CuaimaCrypt
+     */
+    private void RunCore() throws Exception {
+        final byte Buffer[];
+        final long Block[];
+        int NumRCA;
+
+        Buffer = new byte[BUFFERSIZE];
+        new Random(1).nextBytes(Buffer);
+        for (int n = 0; n < NUMRCA.length; n++) {
+            NumRCA = NUMRCA[n];
+            final CuaimaCrypt CCPT = new CuaimaCrypt(NumRCA);
+            CCPT.Password(PASSWORD);
+            Measure("Codec", "NumRCA", NumRCA, "thrpt", BUFFERSIZE, Count -> {
+                for (int c = 0; c < Count; c++) {
+                    CCPT.Codec(Buffer, 0, Buffer.length);
+                }
+                return Buffer[0];
+            });
+            Measure("Decodec", "NumRCA", NumRCA, "thrpt", BUFFERSIZE, Count -> {
+                for (int c = 0; c < Count; c++) {
+                    CCPT.Decodec(Buffer, 0, Buffer.length);
+                }
+                return Buffer[0];
+            });
+            final CuaimaCrypt Special = CCPT.Copy();
+            if (Special.Specialize()) {
+                Measure("Specialized", "NumRCA", NumRCA, "thrpt", BUFFERSIZE, Count -> {
+                    for (int c = 0; c < Count; c++) {
+                        Special.Codec(Buffer, 0, Buffer.length);
+                    }
+                    return Buffer[0];
+                });
+            }
+            Measure("Password", "NumRCA", NumRCA, "avgt", 0, Count -> {
+                long Salida = 0;
+                for (int c = 0; c < Count; c++) {
+                    Salida += CCPT.Password(PASSWORD);
+                }
+                return Salida;
+            });
+            CuaimaKeySchedule Schedule = CCPT.GetKeySchedule();
+            final PackedCodec Engine = PackedCodec.Pack(Schedule.BuildRakes());
+            final int Perm[] = PackedCodec.CompileHop(Schedule.GetSeedHopping(), Schedule.GetNumSeeds());
+            Measure("SeedHop", "NumRCA", NumRCA, "avgt", 0, Count -> {
+                for (int c = 0; c < Count; c++) {
+                    Engine.SeedHop(Perm);
+                }
+                return Engine.NumSeeds();
+            });
+        }
+        final CuaimaCrypt CCPT = new CuaimaCrypt();
+        Block = new long[]{0x0123456789ABCDEFL, 0xFEDCBA9876543210L};
+        Measure("Interleaving", null, 0, "avgt", 0, Count -> {
+            for (int c = 0; c < Count; c++) {
+                CCPT.Interleaving(Block);
+            }
+            return Block[0];
+        });
+        Measure("DeInterleaving", null, 0, "avgt", 0, Count -> {
+            for (int c = 0; c < Count; c++) {
+                CCPT.DeInterleaving(Block);
+            }
+            return Block[1];
+        });
+        CCPT.Password(PASSWORD);
+        final long Messages[][] = new long[MESSAGES][MESSAGESIZE / 8];
+        final int FirstBlock[] = new int[MESSAGES];
+        Measure("LanesBaseline", null, 0, "thrpt", MESSAGES * MESSAGESIZE, Count -> {
+            for (int c = 0; c < Count; c++) {
+                for (int m = 0; m < MESSAGES; m++) {
+                    CCPT.Reset();
+                    CCPT.Codec(Messages[m], 0, MESSAGESIZE / 16);
+                }
+            }
+            return Messages[0][0];
+        });
+        for (int l = 0; l < LANES.length; l++) {
+            final CuaimaLanes Engine = new CuaimaLanes(CCPT.GetKeySchedule(), LANES[l]);
+            Measure("Lanes", "Lanes", LANES[l], "thrpt", MESSAGES * MESSAGESIZE, Count -> {
+                for (int c = 0; c < Count; c++) {
+                    Engine.Codec(Messages, FirstBlock);
+                }
+                return Messages[0][0];
+            });
+        }
+    }
+
+    /**
+     * Mide CuaimaBinary.Codec de punta a punta
+     */
+    private void RunBinary() throws Exception {
+        final CuaimaBinary Binary;
+
+        Binary = new CuaimaBinary(PASSWORD);
+        for (int p = 0; p < PAYLOADS.length; p++) {
+            if (Selected("Binary")) {
+                final byte Input[] = new byte[PAYLOADS[p]];
+                new Random(p).nextBytes(Input);
+                Measure("Binary", "Payload", PAYLOADS[p], "thrpt", PAYLOADS[p], Count -> {
+                    long Salida = 0;
+                    for (int c = 0; c < Count; c++) {
+                        Salida += Binary.Codec(Input, CryptoBinary.NO_HASH).length;
+                    }
+                    return Salida;
+                });
+            }
+        }
+    }
+
+    /**
+     * Mide la creacion de instancias, con el impacto en el recolector de
+     * basura
+     */
+    private void RunAlloc() throws Exception {
+        final CuaimaKeySchedule Schedule;
+        CuaimaCrypt CCPT;
+
+        CCPT = new CuaimaCrypt();
+        CCPT.Password(PASSWORD);
+        Schedule = CCPT.GetKeySchedule();
+        Allocation("Construct", Count -> {
+            long Salida = 0;
+            for (int c = 0; c < Count; c++) {
+                Salida += new CuaimaCrypt().GetNumSeeds();
+            }
+            return Salida;
+        });
+        Allocation("ConstructKeyed", Count -> {
+            long Salida = 0;
+            for (int c = 0; c < Count; c++) {
+                Salida += new CuaimaCrypt(Schedule).GetNumSeeds();
+            }
+            return Salida;
+        });
+        Allocation("ConstructClosed", Count -> {
+            long Salida = 0;
+            for (int c = 0; c < Count; c++) {
+                try (CuaimaCrypt Instancia = new CuaimaCrypt(Schedule)) {
+                    Salida += Instancia.GetNumSeeds();
+                }
+            }
+            return Salida;
+        });
+    }
+
+    /**
+     * Mide la operacion 'Name' y reporta ademas el tiempo de recoleccion y la
+     * tasa de asignacion de memoria de cada iteracion
+     */
+    private void Allocation(String Name, Op Task) throws Exception {
+
+        if (!Selected(Name)) {
+            return;
+        }
+        Measure(Name, null, 0, "avgt", 0, Task);
+        Report(Name + ".gc", null, 0, "avgt", "ms/s", GcSamples);
+        if (AllocSamples != null) {
+            Report(Name + ".alloc", null, 0, "thrpt", "MB/s", AllocSamples);
+        }
+    }
+
+    /**
+     * @return Tiempo acumulado de los recolectores de basura en ms
+     */
+    private static long GcTime() {
+        long Salida;
+
+        Salida = 0;
+        for (GarbageCollectorMXBean Gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            Salida += Math.max(0, Gc.getCollectionTime());
+        }
+        return Salida;
+    }
+
+    /**
+     * @return Bytes asignados por la hebra actual o -1 si la JVM no lo mide
+     */
+    private static long Allocated() {
+        ThreadMXBean Threads;
+
+        Threads = ManagementFactory.getThreadMXBean();
+        if (Threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) Threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * @return TRUE si la medicion 'Name' pasa el filtro
+     */
+    private boolean Selected(String Name) {
+        return (Filter == null) || Name.contains(Filter);
+    }
+
+    /**
+     * Ejecuta la medicion 'Name' y guarda su resultado.
+     *
+     * En modo "thrpt" el resultado es MB/s procesando 'Bytes' por operacion y
+     * en modo "avgt" es el tiempo promedio por operacion, en us para Password
+     * y en ns para el resto.
+     */
+    private void Measure(String Name, String Param, int Value, String Mode, long Bytes, Op Task) throws Exception {
+        double Samples[];
+        double NsPerOp;
+        int Count, i;
+        long Start, Elapsed, Gc, Bytes0;
+        String Unit;
+
+        if (!Selected(Name)) {
+            return;
+        }
+        // Calibra el numero de operaciones por iteracion
+        Count = 1;
+        Start = System.nanoTime();
+        Sink += Task.Run(Count);
+        Elapsed = System.nanoTime() - Start;
+        while ((Elapsed < (IterationTime * 100000L)) && (Count < (1 << 28))) {
+            Count <<= 1;
+            Start = System.nanoTime();
+            Sink += Task.Run(Count);
+            Elapsed = System.nanoTime() - Start;
+        }
+        Count = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (Count * IterationTime * 1000000L) / Math.max(1, Elapsed)));
+        for (i = 0; i < WarmupIterations; i++) {
+            Sink += Task.Run(Count);
+        }
+        Unit = Mode.equals("thrpt") ? "MB/s" : (Name.equals("Password") ? "us/op" : "ns/op");
+        Samples = new double[Iterations];
+        GcSamples = new double[Iterations];
+        AllocSamples = (Allocated() >= 0) ? new double[Iterations] : null;
+        for (i = 0; i < Iterations; i++) {
+            Gc = GcTime();
+            Bytes0 = Allocated();
+            Start = System.nanoTime();
+            Sink += Task.Run(Count);
+            Elapsed = System.nanoTime() - Start;
+            GcSamples[i] = (GcTime() - Gc) / (Elapsed / 1e9);
+            if (AllocSamples != null) {
+                AllocSamples[i] = ((Allocated() - Bytes0) / 1048576.0) / (Elapsed / 1e9);
+            }
+            NsPerOp = (double) Elapsed / Count;
+            if (Mode.equals("thrpt")) {
+                Samples[i] = (Bytes / 1048576.0) / (NsPerOp / 1e9);
+            } else if (Unit.equals("us/op")) {
+                Samples[i] = NsPerOp / 1000.0;
+            } else {
+                Samples[i] = NsPerOp;
+            }
+        }
+        Report(Name, Param, Value, Mode, Unit, Samples);
+    }
+
+    /**
+     * Agrega el resultado de una medicion a la salida JSON y lo muestra
+     */
+    private void Report(String Name, String Param, int Value, String Mode, String Unit, double Samples[]) {
+        StringBuilder Json;
+        double Mean, Var, Error;
+        int i;
+
+        Mean = 0;
+        for (i = 0; i < Samples.length; i++) {
+            Mean += Samples[i];
+        }
+        Mean /= Samples.length;
+        Var = 0;
+        for (i = 0; i < Samples.length; i++) {
+            Var += (Samples[i] - Mean) * (Samples[i] - Mean);
+        }
+        Var /= (Samples.length - 1);
+        Error = Z999 * Math.sqrt(Var / Samples.length);
+        System.out.println(String.format(Locale.ROOT, "%-16s %-8s %10s %14.3f ± %10.3f %s", Name,
+                (Param != null) ? Param : "", (Param != null) ? Integer.toString(Value) : "", Mean, Error, Unit));
+        Json = new StringBuilder();
+        Json.append("    {\n");
+        Json.append("        \"benchmark\" : \"").append(CuaimaBench.class.getName()).append('.').append(Name).append("\",\n");
+        Json.append("        \"mode\" : \"").append(Mode).append("\",\n");
+        Json.append("        \"threads\" : 1,\n");
+        Json.append("        \"forks\" : 1,\n");
+        Json.append("        \"jdkVersion\" : \"").append(Escape(System.getProperty("java.version"))).append("\",\n");
+        Json.append("        \"vmName\" : \"").append(Escape(System.getProperty("java.vm.name"))).append("\",\n");
+        Json.append("        \"vmVersion\" : \"").append(Escape(System.getProperty("java.vm.version"))).append("\",\n");
+        Json.append("        \"warmupIterations\" : ").append(WarmupIterations).append(",\n");
+        Json.append("        \"warmupTime\" : \"").append(IterationTime).append(" ms\",\n");
+        Json.append("        \"measurementIterations\" : ").append(Iterations).append(",\n");
+        Json.append("        \"measurementTime\" : \"").append(IterationTime).append(" ms\",\n");
+        if (Param != null) {
+            Json.append("        \"params\" : {\n");
+            Json.append("            \"").append(Param).append("\" : \"").append(Value).append("\"\n");
+            Json.append("        },\n");
+        }
+        Json.append("        \"primaryMetric\" : {\n");
+        Json.append("            \"score\" : ").append(Number(Mean)).append(",\n");
+        Json.append("            \"scoreError\" : ").append(Number(Error)).append(",\n");
+        Json.append("            \"scoreConfidence\" : [").append(Number(Mean - Error)).append(", ").append(Number(Mean + Error)).append("],\n");
+        Json.append("            \"scoreUnit\" : \"").append(Unit).append("\",\n");
+        Json.append("            \"rawData\" : [[");
+        for (i = 0; i < Samples.length; i++) {
+            if (i > 0) {
+                Json.append(", ");
+            }
+            Json.append(Number(Samples[i]));
+        }
+        Json.append("]]\n");
+        Json.append("        }\n");
+        Json.append("    }");
+        Results.add(Json.toString());
+    }
+
+    /**
+     * Formatea un numero para JSON
+     */
+    private static String Number(double Value) {
+
+        if (Double.isNaN(Value) || Double.isInfinite(Value)) {
+            return "null";
+        }
+        return String.format(Locale.ROOT, "%.6f", Value);
+    }
+
+    /**
+     * Escapa una cadena para JSON
+     */
+    private static String Escape(String Value) {
+
+        if (Value == null) {
+            return "";
+        }
+        return Value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Escribe los resultados en el archivo de salida
+     */
+    private void Write() throws IOException {
+        int i;
+
+        try (Writer Out = new OutputStreamWriter(new FileOutputStream(Output), StandardCharsets.UTF_8)) {
+            Out.write("[\n");
+            for (i = 0; i < Results.size(); i++) {
+                Out.write(Results.get(i));
+                Out.write((i < (Results.size() - 1)) ? ",\n" : "\n");
+            }
+            Out.write("]\n");
+        }
+        System.out.println("Results written to " + Output);
+    }
+}
@@ -0,0 +1,113 @@
+package com.bolivartech.crypto.aes;
+
+import java.util.Arrays;
+import javax.security.auth.Destroyable;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * Claves de ronda de un CuaimaAES, obtenidas con CuaimaAES.GetKeySchedule,
+ * que permiten inicializar otra instancia con CuaimaAES.SetKeySchedule sin
+ * repetir la derivacion de la clave a partir del password.
+ *
+ * Es inmutable hasta que se llama destroy, que borra las claves de la memoria.
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+public final class AESKeySchedule implements Destroyable {
+
+    // Numero de rondas
+    private final int numRounds;
+    // Claves de ronda de encriptacion y desencriptacion
+    private final byte[][] Ke;
+    private final byte[][] Kd;
+    // TRUE si las claves fueron borradas
+    private boolean Destroyed;
+
+    /**
+     * Copia las claves de ronda de un CuaimaAES
+     *
+     * @param numRounds Numero de rondas
+     * @param Ke Claves de ronda de encriptacion
+     * @param Kd Claves de ronda de desencriptacion
+     */
+    AESKeySchedule(int numRounds, byte[][] Ke, byte[][] Kd) {
+        this.numRounds = numRounds;
+        this.Ke = Copy(Ke);
+        this.Kd = Copy(Kd);
+        this.Destroyed = false;
+    }
+
+    /**
+     * Retorna una copia profunda de las claves de ronda 'K'
+     */
+    static byte[][] Copy(byte[][] K) {
+        byte[][] Salida;
+        int r;
+
+        Salida = new byte[K.length][];
+        for (r = 0; r < K.length; r++) {
+            Salida[r] = K[r].clone();
+        }
+        return Salida;
+    }
+
+    /**
+     * Verifica que las claves no hayan sido borradas
+     */
+    private void CheckDestroyed() {
+
+        if (Destroyed) {
+            throw new IllegalStateException("The key schedule was destroyed");
+        }
+    }
+
+    /**
+     * @return Numero de rondas
+     */
+    synchronized int getRounds() {
+        CheckDestroyed();
+        return numRounds;
+    }
+
+    /**
+     * @return Copia de las claves de ronda de encriptacion
+     */
+    synchronized byte[][] getKe() {
+        CheckDestroyed();
+        return Copy(Ke);
+    }
+
+    /**
+     * @return Copia de las claves de ronda de desencriptacion
+     */
+    synchronized byte[][] getKd() {
+        CheckDestroyed();
+        return Copy(Kd);
+    }
+
+    /**
+     * Borra de la memoria las claves de ronda, las cuales no se pueden usar
+     * despues para inicializar un CuaimaAES
+     */
+    @Override
+    public synchronized void destroy() {
+        int r;
+
+        for (r = 0; r < Ke.length; r++) {
+            Arrays.fill(Ke[r], (byte) 0);
+            Arrays.fill(Kd[r], (byte) 0);
+        }
+        Destroyed = true;
+    }
+
+    /**
+     * @return TRUE si las claves fueron borradas con destroy
+     */
+    @Override
+    public synchronized boolean isDestroyed() {
+        return Destroyed;
+    }
+}
@@ -39,12 +39,14 @@ import java.util.*;
  * public void setKey(byte[] key)
  *
  * @author Julian Bolivar
- * @version 3.0.0
+ * @version 3.1.0
  *
  * 
  * Change Log:
  * 
  * <ul>
+ * <li>v3.1.0 (2026-10-18) Se agregaron GetKeySchedule y SetKeySchedule para
+ * reutilizar las claves de ronda sin derivarlas del password.</li>
  * <li>v3.0.0 - Se realiza la estandarizacion del generador de llaves para usar
  * la clase KaosRand y PasswordSparker de BolivarTech Utils.
  * Minor Speed Optimizations.</li>
@@ -879,4 +881,38 @@ public class CuaimaAES {
         }
         return salida;
     }
+
+    /**
+     * Retorna una copia de las claves de ronda establecidas con setKey o
+     * Password, que se puede usar con SetKeySchedule para inicializar otras
+     * instancias con la misma clave.
+     *
+     * @return Claves de ronda de la instancia
+     * @throws IllegalStateException si no se ha establecido la clave
+     */
+    public synchronized AESKeySchedule GetKeySchedule() {
+
+        if ((Ke == null) || (Kd == null)) {
+            throw new IllegalStateException("The AES key was not set");
+        }
+        return new AESKeySchedule(numRounds, Ke, Kd);
+    }
+
+    /**
+     * Establece las claves de ronda a partir de una copia de 'Schedule',
+     * equivalente a llamar setKey con la clave que la genero.
+     *
+     * @param Schedule Claves de ronda obtenidas con GetKeySchedule
+     * @throws IllegalArgumentException si 'Schedule' es null
+     * @throws IllegalStateException si 'Schedule' fue borrado con destroy
+     */
+    public synchronized void SetKeySchedule(AESKeySchedule Schedule) {
+
+        if (Schedule == null) {
+            throw new IllegalArgumentException("The key schedule can't be null");
+        }
+        numRounds = Schedule.getRounds();
+        Ke = Schedule.getKe();
+        Kd = Schedule.getKd();
+    }
 }
@@ -1,6 +1,8 @@
 package com.bolivartech.crypto.aes.utils;
 
+import com.bolivartech.crypto.aes.AESKeySchedule;
 import com.bolivartech.crypto.aes.CuaimaAES;
+import com.bolivartech.crypto.cuaimacrypt.utils.KeyScheduleCache;
 import com.bolivartech.crypto.digest.BaseHash;
 import com.bolivartech.crypto.digest.CRC32;
 import com.bolivartech.crypto.digest.CRC64;
@@ -48,12 +50,14 @@ import java.util.Arrays;
  * 
  * @author Julian Bolivar
  * @since 2007 | 2016-03-25
- * @version 2.0.1
+ * @version 2.1.0
  * 
  * <p>
  * Change Log:
  * </p>
  * <ul>
+ * <li>v2.1.0 (2026-10-18) Se agrego setKeyCache para obtener las claves de ronda
+ * de un KeyScheduleCache compartido.</li>
  * <li>v2.0.1 (2016-03-25) Se agrego el codigo de localizacion para la excepcion
  * y bitacoras.</li>
  * </ul>
@@ -66,6 +70,7 @@ public class AESBinary implements CryptoBinary {
     private CuaimaAES AES;
     private int PasswdLength;
     private double HeadPos;
+    private KeyScheduleCache<AESKeySchedule> KeyCache;
     
     /** Mascara para recuperar el valor del algoritmo de HASH  */
     private final static int HASHMASK = 62;
@@ -127,6 +132,26 @@ public class AESBinary implements CryptoBinary {
     public static String getCLASSID() {
         return CLASSID;
     }
+
+    /**
+     * Establece el cache de claves de ronda que utiliza Password, o null para
+     * derivar la clave en cada llamada (por defecto). El cache se puede
+     * compartir entre varias instancias.
+     *
+     * @param KeyCache Cache de claves de ronda o null
+     */
+    public void setKeyCache(KeyScheduleCache<AESKeySchedule> KeyCache) {
+        this.KeyCache = KeyCache;
+    }
+
+    /**
+     * Retorna el cache de claves de ronda que utiliza Password
+     *
+     * @return Cache de claves de ronda o null
+     */
+    public KeyScheduleCache<AESKeySchedule> getKeyCache() {
+        return KeyCache;
+    }
     
     /**
      * Establece la clave que utiliza AESText para codificar el texto, la
@@ -138,12 +163,26 @@ public class AESBinary implements CryptoBinary {
      */
     @Override
     public boolean Password(String Passw) throws UtilsException {
-        boolean salida;
+        boolean salida, Error;
 
         salida = false;
         PasswdLength = -1;
         if (AES != null) {
-            if (AES.Password(Passw) != 0) {
+            if (KeyCache != null) {
+                // Obtiene las claves de ronda del cache o las deriva con AES
+                Error = !KeyCache.Apply(Passw, "CuaimaAES",
+                        P -> (AES.Password(P) == 0) ? AES.GetKeySchedule() : null,
+                        S -> {
+                            if (S == null) {
+                                return false;
+                            }
+                            AES.SetKeySchedule(S);
+                            return true;
+                        });
+            } else {
+                Error = (AES.Password(Passw) != 0);
+            }
+            if (Error) {
                 throw new UtilsException("ERROR: NO se pudo inicializar la clave en AESText", ERROR_PASSWD,AESBinary.CLASSID+"001");
             } else {
                 PasswdLength = Passw.length();
@@ -1,6 +1,10 @@
 package com.bolivartech.crypto.aes.utils;
 
 import com.bolivartech.crypto.aes.CuaimaAES;
+import com.bolivartech.crypto.cuaimacrypt.utils.BufferPool;
+import com.bolivartech.crypto.cuaimacrypt.utils.MappedFileCodec;
+import com.bolivartech.crypto.cuaimacrypt.utils.ParallelHash;
+import com.bolivartech.crypto.cuaimacrypt.utils.ProgressMeter;
 import com.bolivartech.crypto.digest.BaseHash;
 import com.bolivartech.crypto.digest.CRC32;
 import com.bolivartech.crypto.digest.CRC64;
@@ -25,6 +29,8 @@ import com.bolivartech.crypto.digest.Whirlpool;
 import com.bolivartech.crypto.digest.Whirlpool2000;
 import com.bolivartech.crypto.digest.Whirlpool2003;
 import com.bolivartech.crypto.interfaces.CryptoFile;
+import com.bolivartech.crypto.interfaces.CryptoFileListener;
+import com.bolivartech.crypto.interfaces.CryptoFileProgress;
 import com.bolivartech.utils.array.ArrayUtils;
 import com.bolivartech.utils.converters.Converter;
 import com.bolivartech.utils.exception.UtilsException;
@@ -35,7 +41,14 @@ import com.bolivartech.utils.random.MersenneTwisterPlus;
 import com.bolivartech.utils.btthreads.annotations.GuardedBy;
 import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
 import com.bolivartech.utils.log.LoggerFormatter;
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 
 /**
@@ -58,17 +71,28 @@ import java.util.Arrays;
  *
  * <ul>
  * <li>Class ID: "TR74ID6"</li>
- * <li>Loc: 000-038</li>
+ * <li>Loc: 000-050</li>
  * </ul>
  *
  * @author Julian Bolivar
  * @since 2007 | 2016-03-25
- * @version 3.1.2
+ * @version 3.6.0
  *
  * <p>
  * Change Log:
  * </p>
  * <ul>
+ * <li>v3.6.0 (2026-10-18) El buffer de entrada se toma del pool compartido
+ * BufferPool y se devuelve al concluir el proceso.</li>
+ * <li>v3.5.0 (2026-10-18) Se agrega setProgressListener para recibir el
+ * avance de los procesos sin consultar Progress.</li>
+ * <li>v3.4.0 (2026-10-18) Se agregan CodecSync y DecodecSync, que procesan el
+ * archivo en la hebra que los invoca, usados por CryptoFileBatch.</li>
+ * <li>v3.3.0 (2026-10-18) El HASH se calcula con ParallelHash en su propia
+ * hebra, en paralelo con la codificacion.</li>
+ * <li>v3.2.0 (2026-10-18) Se agrega la opcion setMappedIO para codificar y
+ * decodificar con archivos mapeados en memoria, sin el buffer de lectura en el
+ * heap.</li>
  * <li>v3.1.2 (2016-03-25) Se agrego el codigo de localizacion para la excepcion
  * y bitacoras.</li>
  * <li>v3.1.1 - Se solventa bug al recuperar el valor del tamaño de
@@ -98,13 +122,24 @@ public class AESFile implements CryptoFile, Runnable {
     @GuardedBy("this")
     private int BufferSize; // Tamaño del buffer de lectura en 
     @GuardedBy("this")
-    private int Progress;
+    private boolean MappedIO; // Usa archivos mapeados en memoria
+    private volatile int Progress;
+    @GuardedBy("this")
+    private CryptoFileListener Listener; // Receptor del avance de los procesos
+    @GuardedBy("this")
+    private long ListenerInterval = ProgressMeter.INTERVAL; // Intervalo entre notificaciones en milisegundos
+    @GuardedBy("this")
+    private long ListenerStep; // Bytes entre notificaciones, 0 solo por tiempo
+    // Medidor del avance del proceso en ejecucion
+    private volatile ProgressMeter Meter = new ProgressMeter(null, ProgressMeter.INTERVAL, 0);
     @GuardedBy("FileParameters")
     private FileOperationParameters FileParameters;
     // Hebra de ejecucion de la codificacion o Decodificacion
     private Thread Ejecutando = null;
     // TRUE si es para codificar y FALSE si es para Decodificar
     private boolean Coding = true;
+    // Buffer del pool compartido usado por el proceso en ejecucion
+    private byte Pooled[];
     @GuardedBy("this")
     int ErrorCode = 0;  // Codigo de Error de la Ejecicion
 
@@ -265,6 +300,60 @@ public class AESFile implements CryptoFile, Runnable {
         }
     }
 
+    /**
+     * Retorna si la codificacion y decodificacion se realiza con archivos
+     * mapeados en memoria.
+     *
+     * @return true si usa archivos mapeados en memoria
+     */
+    public synchronized boolean isMappedIO() {
+        return MappedIO;
+    }
+
+    /**
+     * Establece si la codificacion y decodificacion se realiza con archivos
+     * mapeados en memoria (FileChannel.map) en lugar de leer y escribir a
+     * traves de un buffer en el heap; en ese caso el tamaño del buffer es el
+     * tamaño de las ventanas mapeadas.
+     *
+     * Los archivos generados son identicos en formato, por lo que un archivo
+     * codificado con un motor se puede decodificar con el otro.
+     *
+     * @param MappedIO true para usar archivos mapeados en memoria
+     */
+    public synchronized void setMappedIO(boolean MappedIO) {
+        this.MappedIO = MappedIO;
+    }
+
+    /**
+     * Establece el receptor que es notificado del avance de los procesos de
+     * codificacion y decodificacion, como maximo cada 250 milisegundos; null
+     * lo elimina. Aplica a partir del proximo proceso.
+     *
+     * @param Listener Receptor del avance o null
+     */
+    @Override
+    public void setProgressListener(CryptoFileListener Listener) {
+        setProgressListener(Listener, ProgressMeter.INTERVAL, 0);
+    }
+
+    /**
+     * Establece el receptor que es notificado del avance de los procesos de
+     * codificacion y decodificacion, como maximo cada 'Interval' milisegundos
+     * o, si Step es mayor a 0, cada Step bytes; null lo elimina. Aplica a
+     * partir del proximo proceso.
+     *
+     * @param Listener Receptor del avance o null
+     * @param Interval Intervalo minimo entre notificaciones en milisegundos
+     * @param Step Bytes entre notificaciones, 0 para usar solo el tiempo
+     */
+    @Override
+    public synchronized void setProgressListener(CryptoFileListener Listener, long Interval, long Step) {
+        this.Listener = Listener;
+        this.ListenerInterval = Interval;
+        this.ListenerStep = Step;
+    }
+
     /**
      * Realiza la codificacion de un archivo, del que recibe en Input el objeto
      * que lo define, en base a la clave con la cual se inicializo el algoritmo;
@@ -306,6 +395,7 @@ public class AESFile implements CryptoFile, Runnable {
         String OutputFileName;
         int HashType;
         BaseHash Hash;
+        ParallelHash Hasher;
         boolean HeaderAdded;
         byte[] Temp;
         FileManager Input;
@@ -417,6 +507,7 @@ public class AESFile implements CryptoFile, Runnable {
                         if (InputFileLength < 0) {
                             InputFileLength = 0;
                         }
+                        Meter.Total(InputFileLength);
                         InputFileName = Input.getFileName();
                         InputFilePath = Input.getFilePath(); //  getPath(); // getAbsolutePath();
                         Separador = Input.getSeparador();
@@ -484,6 +575,14 @@ public class AESFile implements CryptoFile, Runnable {
                                 throw new UtilsException("ERROR: NO se pudo borrar el archivo de salida existente", ERROR_DELETEOUTFILE, AESFile.CLASSID + "003");
                             }
                         }
+                        // Codifica con archivos mapeados en memoria si fue seleccionado
+                        if (isMappedIO()) {
+                            CodecMapped(Input, Output, Header, HPosc, OutputCodecFileLength, Hash, Rand);
+                            synchronized (this) {
+                                this.Progress = 100;
+                            }
+                            return;
+                        }
                         try {
                             Output.Open(FileManager.WRITE, false);
                         } catch (UtilsException ex) {
@@ -515,14 +614,15 @@ public class AESFile implements CryptoFile, Runnable {
                             Header[i] = CBuffer[0];
                             Header[i + 1] = CBuffer[1];
                         }
+                        Meter.Phase(CryptoFileProgress.PHASE_BODY);
                         // Codifica el archivo de entrada
-                        synchronized (this) {
-                            InputBuffer = new byte[this.BufferSize]; // Buffer de Entrada
-                        }
+                        InputBuffer = PooledBuffer(); // Buffer de Entrada
                         SubInputBuffer = new byte[16];
                         NumBytesReads = InputBuffer.length;
                         NumBlockWrite = 0;
                         HeaderAdded = false;
+                        // El Hash se calcula en su propia hebra mientras se codifica
+                        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
                         // Lectura del archivo de entrada
                         while (InputBuffer.length == NumBytesReads) {
                             try {
@@ -537,9 +637,10 @@ public class AESFile implements CryptoFile, Runnable {
                             // Verifica si se leyeron datos
                             if (NumBytesReads > 0) {
                                 // Actualiza el Hash
-                                if (Hash != null) {
-                                    Hash.update(InputBuffer, 0, (int) NumBytesReads);
+                                if (Hasher != null) {
+                                    Hasher.Update(InputBuffer, 0, (int) NumBytesReads);
                                 }
+                                Meter.Add(NumBytesReads);
                                 // Verifica si se llego al final del archivo
                                 if (NumBytesReads < InputBuffer.length) {
                                     DTemp = NumBytesReads;
@@ -557,10 +658,14 @@ public class AESFile implements CryptoFile, Runnable {
                                             NumBytesReads = (int) (8 * (OutputCodecFileLength - NumBlockWrite - Header.length));
                                         }
                                     }
-                                    InputBuffer = (byte[]) ArrayUtils.resizeArray(InputBuffer, (int) NumBytesReads);
+                                    // Solo crece el buffer si el Hash no cabe en el espacio libre
+                                    if (NumBytesReads > InputBuffer.length) {
+                                        InputBuffer = (byte[]) ArrayUtils.resizeArray(InputBuffer, (int) NumBytesReads);
+                                    }
                                     // Agrega el Hash del archivo original al buffer 
                                     if (Hash != null) {
-                                        ArrayUtils.arrayCopy(Hash.digest(), 0, InputBuffer, (int) DTemp, Hash.hashSize());
+                                        Meter.Phase(CryptoFileProgress.PHASE_HASH);
+                                        ArrayUtils.arrayCopy(Hasher.Digest(), 0, InputBuffer, (int) DTemp, Hash.hashSize());
                                         // Completa los datos agregados con numeros aleatorios
                                         for (i = (int) (DTemp + Hash.hashSize()); i < NumBytesReads; i++) {
                                             InputBuffer[i] = Rand.nextByte();
@@ -573,16 +678,20 @@ public class AESFile implements CryptoFile, Runnable {
                                     }
                                 }
                                 // Realiza la codificacion del buffer leido desde el archivo
-                                for (i = 0; i < NumBytesReads; i += 16) {
-                                    for (j = 0; j < 16; j++) {
-                                        SubInputBuffer[j] = InputBuffer[i + j];
-                                    }
-                                    // Codifica el bloque de 128 bits
-                                    synchronized (AES) {
-                                        SubInputBuffer = AES.Encrypt(SubInputBuffer);
-                                    }
-                                    for (j = 0; j < 16; j++) {
-                                        InputBuffer[i + j] = SubInputBuffer[j];
+                                if (Hasher != null) {
+                                    Hasher.Codec(InputBuffer, 0, (int) NumBytesReads, Buf -> AESBlocks(Buf, true));
+                                } else {
+                                    for (i = 0; i < NumBytesReads; i += 16) {
+                                        for (j = 0; j < 16; j++) {
+                                            SubInputBuffer[j] = InputBuffer[i + j];
+                                        }
+                                        // Codifica el bloque de 128 bits
+                                        synchronized (AES) {
+                                            SubInputBuffer = AES.Encrypt(SubInputBuffer);
+                                        }
+                                        for (j = 0; j < 16; j++) {
+                                            InputBuffer[i + j] = SubInputBuffer[j];
+                                        }
                                     }
                                 }
                                 // Escribe en el archivo de salida, agregando el encabezado en el lugar calculado
@@ -713,6 +822,7 @@ public class AESFile implements CryptoFile, Runnable {
         byte SubInputBuffer[];
         int HashType;
         BaseHash Hash;
+        ParallelHash Hasher;
         byte[] OrgDigest = null;
         byte[] NewDigest = null;
         int Version;
@@ -961,6 +1071,16 @@ public class AESFile implements CryptoFile, Runnable {
                                             throw new UtilsException("ERROR: NO se pudo borrar el archivo " + Output.getAbsoluteFilePath(), ERROR_DELETEOUTFILE, AESFile.CLASSID + "020");
                                         }
                                     }
+                                    Meter.Total(OutputFileLength);
+                                    Meter.Phase(CryptoFileProgress.PHASE_BODY);
+                                    // Decodifica con archivos mapeados en memoria si fue seleccionado
+                                    if (isMappedIO()) {
+                                        DecodecMapped(Input, Output, HPosc, HeaderLength, OutputFileLength, Hash);
+                                        synchronized (this) {
+                                            this.Progress = 100;
+                                        }
+                                        return;
+                                    }
                                     // Abre el archivo de salida
                                     try {
                                         Output.Open(FileManager.WRITE, false);
@@ -981,14 +1101,18 @@ public class AESFile implements CryptoFile, Runnable {
                                         }
                                         throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, AESFile.CLASSID + "022");
                                     }
-                                    synchronized (this) {
-                                        InputBuffer = new byte[this.BufferSize]; // Buffer de Entrada
-                                    }
+                                    InputBuffer = PooledBuffer(); // Buffer de Entrada
                                     SubInputBuffer = new byte[16];
                                     NumBytesReads = InputBuffer.length;
                                     NumBytesWrite = 0;
                                     NumBlocksRead = 0;
+                                    // El Hash se calcula en su propia hebra sobre los datos decodificados
+                                    Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
                                     while (InputBuffer.length == NumBytesReads) {
+                                        // Espera que el Hash libere el buffer
+                                        if (Hasher != null) {
+                                            Hasher.Sync();
+                                        }
                                         try {
                                             // Lectura del archivo de entrada
                                             NumBytesReads = Input.Read(InputBuffer);
@@ -1056,16 +1180,21 @@ public class AESFile implements CryptoFile, Runnable {
                                                 SubInputBuffer = new byte[16];
                                             }
                                             // Realiza la decodificacion del buffer leido desde el archivo
-                                            for (i = 0; i < NumBytesReads; i += 16) {
-                                                for (j = 0; j < 16; j++) {
-                                                    SubInputBuffer[j] = InputBuffer[i + j];
-                                                }
-                                                // Decodifica el bloque de 128 bits
-                                                synchronized (AES) {
-                                                    SubInputBuffer = AES.Decrypt(SubInputBuffer);
-                                                }
-                                                for (j = 0; j < 16; j++) {
-                                                    InputBuffer[i + j] = SubInputBuffer[j];
+                                            // entregando al Hash solo los bytes del archivo original
+                                            if (Hasher != null) {
+                                                Hasher.Decodec(InputBuffer, 0, (int) ((NumBytesReads + 15) & ~15L), (int) Math.max(0, Math.min(NumBytesReads, OutputFileLength - NumBytesWrite)), Buf -> AESBlocks(Buf, false));
+                                            } else {
+                                                for (i = 0; i < NumBytesReads; i += 16) {
+                                                    for (j = 0; j < 16; j++) {
+                                                        SubInputBuffer[j] = InputBuffer[i + j];
+                                                    }
+                                                    // Decodifica el bloque de 128 bits
+                                                    synchronized (AES) {
+                                                        SubInputBuffer = AES.Decrypt(SubInputBuffer);
+                                                    }
+                                                    for (j = 0; j < 16; j++) {
+                                                        InputBuffer[i + j] = SubInputBuffer[j];
+                                                    }
                                                 }
                                             }
                                             // Verifica si se llego al final del archivo
@@ -1117,10 +1246,6 @@ public class AESFile implements CryptoFile, Runnable {
                                                     }
                                                 }
                                             }
-                                            // Calcula el HASH
-                                            if (Hash != null) {
-                                                Hash.update(InputBuffer, 0, (int) NumBytesReads);
-                                            }
                                             try {
                                                 Output.Write(InputBuffer, 0, (int) NumBytesReads);
                                             } catch (UtilsException ex) {
@@ -1131,6 +1256,7 @@ public class AESFile implements CryptoFile, Runnable {
                                                 throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, AESFile.CLASSID + "027");
                                             }
                                             NumBytesWrite += NumBytesReads;
+                                            Meter.Add(NumBytesReads);
                                             NumBlocksRead += NumBytesReads / 8;
                                         }
                                         // Calcula el Porcentaje de Avance en al decodificacion del Archivo
@@ -1147,7 +1273,8 @@ public class AESFile implements CryptoFile, Runnable {
                                         }
                                     }
                                     if (Hash != null) {
-                                        NewDigest = Hash.digest();
+                                        Meter.Phase(CryptoFileProgress.PHASE_HASH);
+                                        NewDigest = Hasher.Digest();
                                         if (!Arrays.equals(OrgDigest, NewDigest)) {
                                             synchronized (this) {
                                                 this.Progress = -1;
@@ -1217,6 +1344,245 @@ public class AESFile implements CryptoFile, Runnable {
         }
     }
 
+    /**
+     * Codifica el archivo Input en el formato clasico con archivos mapeados en
+     * memoria, codificando el encabezado con AES y colocandolo en la palabra
+     * HPosc del archivo Output, el cual se pre-dimensiona a
+     * 'OutputCodecFileLength' palabras de 64 bits.
+     *
+     * @param Input Archivo original
+     * @param Output Archivo codificado
+     * @param Header Encabezado sin codificar
+     * @param HPosc Posicion del encabezado en palabras de 64 bits
+     * @param OutputCodecFileLength Tamaño del archivo codificado en palabras de
+     * 64 bits
+     * @param Hash Algoritmo de HASH o null
+     * @param Rand Generador del relleno aleatorio
+     * @throws UtilsException
+     */
+    private void CodecMapped(FileManager Input, FileManager Output, long Header[], long HPosc, long OutputCodecFileLength, BaseHash Hash, MersenneTwisterPlus Rand) throws UtilsException {
+        FileChannel In;
+        RandomAccessFile Out;
+        long InputFileLength;
+        long DataLength;
+        long CBuffer[];
+        byte[] Temp;
+        int Window;
+        int i;
+
+        InputFileLength = Header[3];
+        try {
+            In = FileChannel.open(Paths.get(Input.getAbsoluteFilePath()), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, AESFile.CLASSID + "039");
+        }
+        try {
+            Out = new RandomAccessFile(Output.getAbsoluteFilePath(), "rw");
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo crear el archivo " + Output.getAbsoluteFilePath(), ERROR_CREATEOUTFILE, AESFile.CLASSID + "040");
+        }
+        // Codifica el Encabezado del archivo
+        CBuffer = new long[2];
+        for (i = 0; i < Header.length; i += 2) {
+            CBuffer[0] = Header[i];
+            CBuffer[1] = Header[i + 1];
+            Temp = Converter.long2byte(CBuffer);
+            synchronized (AES) {
+                Temp = AES.Encrypt(Temp);
+            }
+            CBuffer = Converter.byte2long(Temp);
+            Header[i] = CBuffer[0];
+            Header[i + 1] = CBuffer[1];
+        }
+        Meter.Phase(CryptoFileProgress.PHASE_BODY);
+        synchronized (this) {
+            Window = this.BufferSize;
+        }
+        // Los bytes del flujo de datos incluyen el HASH y el relleno aleatorio
+        DataLength = 8 * (OutputCodecFileLength - Header.length);
+        try {
+            MappedFileCodec.Codec(In, InputFileLength, Out.getChannel(), Converter.long2byte(Header), HPosc, OutputCodecFileLength, Hash, Rand, Window, Buf -> AESBlocks(Buf, true), Count -> {
+                Meter.Set(Math.min(Count, InputFileLength));
+                if ((Hash != null) && (Count >= InputFileLength)) {
+                    Meter.Phase(CryptoFileProgress.PHASE_HASH);
+                }
+                this.Progress = (int) Math.min(99, (Count * 100) / DataLength);
+            });
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, AESFile.CLASSID + "041");
+        }
+        try {
+            In.close();
+        } catch (IOException ex) {
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, AESFile.CLASSID + "042");
+        }
+        try {
+            Out.close();
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Output.getAbsoluteFilePath(), ERROR_CLOSEOUTFILE, AESFile.CLASSID + "043");
+        }
+    }
+
+    /**
+     * Decodifica con archivos mapeados en memoria el archivo Input del formato
+     * clasico, cuyo encabezado ya fue decodificado, en el archivo Output y
+     * verifica su HASH.
+     *
+     * @param Input Archivo codificado, abierto para lectura
+     * @param Output Archivo decodificado
+     * @param HPosc Posicion del encabezado en palabras de 64 bits
+     * @param HeaderLength Tamaño del encabezado en palabras de 64 bits
+     * @param OutputFileLength Tamaño del archivo original en bytes
+     * @param Hash Algoritmo de HASH o null
+     * @throws UtilsException
+     */
+    private void DecodecMapped(FileManager Input, FileManager Output, long HPosc, int HeaderLength, long OutputFileLength, BaseHash Hash) throws UtilsException {
+        FileChannel In;
+        RandomAccessFile Out;
+        byte[] OrgDigest;
+        int Window;
+
+        try {
+            Input.Close();
+        } catch (UtilsException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, AESFile.CLASSID + "044");
+        }
+        try {
+            In = FileChannel.open(Paths.get(Input.getAbsoluteFilePath()), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, AESFile.CLASSID + "045");
+        }
+        try {
+            Out = new RandomAccessFile(Output.getAbsoluteFilePath(), "rw");
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo crear el archivo " + Output.getAbsoluteFilePath(), ERROR_CREATEOUTFILE, AESFile.CLASSID + "046");
+        }
+        synchronized (this) {
+            Window = this.BufferSize;
+        }
+        try {
+            OrgDigest = MappedFileCodec.Decodec(In, HPosc, HeaderLength, Out.getChannel(), OutputFileLength, Hash, Window, Buf -> AESBlocks(Buf, false), Count -> {
+                Meter.Set(Count);
+                this.Progress = (int) Math.min(99, (Count * 100) / Math.max(1, OutputFileLength));
+            });
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo Decodificar el archivo " + Input.getAbsoluteFilePath(), ERROR_DECODEC, AESFile.CLASSID + "047");
+        }
+        try {
+            In.close();
+        } catch (IOException ex) {
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, AESFile.CLASSID + "048");
+        }
+        try {
+            Out.close();
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Output.getAbsoluteFilePath(), ERROR_CLOSEOUTFILE, AESFile.CLASSID + "049");
+        }
+        Meter.Set(OutputFileLength);
+        if (Hash != null) {
+            Meter.Phase(CryptoFileProgress.PHASE_HASH);
+        }
+        if ((Hash != null) && !Arrays.equals(OrgDigest, Hash.digest())) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH, AESFile.CLASSID + "050");
+        }
+    }
+
+    /**
+     * Codifica o decodifica con AES en sitio los bloques de 16 bytes de Buf
+     * entre position y limit
+     *
+     * @param Buf Buffer a procesar
+     * @param Encrypt true para codificar y false para decodificar
+     */
+    private void AESBlocks(ByteBuffer Buf, boolean Encrypt) {
+        byte Block[];
+        int i;
+
+        Block = new byte[16];
+        for (i = Buf.position(); i < Buf.limit(); i += 16) {
+            Buf.get(Block);
+            synchronized (AES) {
+                Block = Encrypt ? AES.Encrypt(Block) : AES.Decrypt(Block);
+            }
+            Buf.position(i);
+            Buf.put(Block);
+        }
+    }
+
+    /**
+     * Toma del pool compartido el buffer de entrada del proceso, el cual se
+     * devuelve al pool cuando el proceso concluye
+     *
+     * @return Buffer de BufferSize bytes
+     */
+    private byte[] PooledBuffer() {
+        int Size;
+
+        synchronized (this) {
+            Size = this.BufferSize;
+        }
+        this.Pooled = BufferPool.Shared().Acquire(Size);
+        return this.Pooled;
+    }
+
+    /**
+     * Cierra el recurso ignorando los errores, en las rutas de error donde ya
+     * se reporta una excepcion
+     *
+     * @param Resource Recurso a cerrar
+     */
+    private static void CloseQuietly(Closeable Resource) {
+        try {
+            Resource.close();
+        } catch (IOException ex) {
+            // Se reporta la excepcion original
+        }
+    }
+
     /**
      * Realiza la codificacion de un archivo, del que recibe en Input el objeto
      * que lo define, en base a la clave con la cual se inicializo el algoritmo;
@@ -1285,8 +1651,68 @@ public class AESFile implements CryptoFile, Runnable {
         }
     }
 
+    /**
+     * Realiza la codificacion de un archivo igual que Codec, pero en la hebra
+     * que lo invoca, retornando cuando el proceso concluye; permite reutilizar
+     * la instancia, con su clave ya inicializada, desde una hebra de trabajo
+     * propia sin crear una hebra por archivo.
+     *
+     * @param Input Objeto que define el archivo a codificar
+     * @param Output Objeto que define el archivo codificado
+     * @param Opciones Parametros de configuracion del codificador
+     * @return Codigo de Error del proceso, 0 si concluyo sin errores
+     * @throws IllegalStateException si la instancia esta procesando otro
+     * archivo
+     */
+    @Override
+    public int CodecSync(FileManager Input, FileManager Output, int Opciones) {
+        return RunSync(Input, Output, Opciones, true);
+    }
+
+    /**
+     * Realiza la decodificacion de un archivo igual que Decodec, pero en la
+     * hebra que lo invoca, retornando cuando el proceso concluye.
+     *
+     * @param Input Archivo a decodificar
+     * @param Output Archivo de salida
+     * @return Codigo de Error del proceso, 0 si concluyo sin errores
+     * @throws IllegalStateException si la instancia esta procesando otro
+     * archivo
+     */
     @Override
-    public synchronized int Progress() {
+    public int DecodecSync(FileManager Input, FileManager Output) {
+        return RunSync(Input, Output, 0, false);
+    }
+
+    /**
+     * Ejecuta el proceso en la hebra que lo invoca, la cual ocupa el lugar de
+     * la hebra de ejecucion mientras dura el proceso
+     */
+    private int RunSync(FileManager Input, FileManager Output, int Opciones, boolean Coding) {
+        Thread Previous;
+
+        synchronized (this) {
+            if ((this.Ejecutando != null) && (this.Ejecutando.getState() != Thread.State.TERMINATED)) {
+                throw new IllegalStateException("The instance is already processing a file");
+            }
+            Previous = this.Ejecutando;
+            this.Progress = 0;
+            this.FileParameters = new FileOperationParameters(Input, Output, Opciones);
+            this.Coding = Coding;
+            this.Ejecutando = Thread.currentThread();
+        }
+        try {
+            this.run();
+        } finally {
+            synchronized (this) {
+                this.Ejecutando = Previous;
+            }
+        }
+        return this.getErrorCode();
+    }
+
+    @Override
+    public int Progress() {
         return this.Progress;
     }
 
@@ -1345,28 +1771,47 @@ public class AESFile implements CryptoFile, Runnable {
      */
     @Override
     public void run() {
+        ProgressMeter Medidor;
+        int Error;
 
         synchronized (this) {
             this.ErrorCode = 0;
+            Medidor = new ProgressMeter(this.Listener, this.ListenerInterval, this.ListenerStep);
+            this.Meter = Medidor;
         }
-        if (this.Coding) {
-            try {
-                this.PrivCodec();
-            } catch (UtilsException ex) {
-                synchronized (this) {
-                    this.ErrorCode = ex.getErrorCode();
+        try {
+            if (this.Coding) {
+                try {
+                    this.PrivCodec();
+                } catch (UtilsException ex) {
+                    synchronized (this) {
+                        this.ErrorCode = ex.getErrorCode();
+                    }
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, AESFile.CLASSID, "037");
                 }
-                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, AESFile.CLASSID, "037");
-            }
-        } else {
-            try {
-                this.PrivDecodec();
-            } catch (UtilsException ex) {
-                synchronized (this) {
-                    this.ErrorCode = ex.getErrorCode();
+            } else {
+                try {
+                    this.PrivDecodec();
+                } catch (UtilsException ex) {
+                    synchronized (this) {
+                        this.ErrorCode = ex.getErrorCode();
+                    }
+                    this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, AESFile.CLASSID, "038");
                 }
-                this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, AESFile.CLASSID, "038");
             }
+        } finally {
+            // Devuelve el buffer del proceso al pool compartido
+            BufferPool.Shared().Release(this.Pooled);
+            this.Pooled = null;
+        }
+        // Notifica la conclusion del proceso al receptor del avance
+        synchronized (this) {
+            Error = this.ErrorCode;
+        }
+        if ((Error == 0) && (this.Progress == 100)) {
+            Medidor.Complete();
+        } else {
+            Medidor.Error(Error);
         }
     }
 
@@ -0,0 +1,168 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt.
+ *
+ * Kernel de permutacion de bits usado por el Interleaving y DeInterleaving de
+ * CuaimaCrypt.
+ *
+ * Las transposiciones de la matriz de 8x8 bits se realizan con tres
+ * "delta swaps" y los cruces de bytes entre las palabras con mascaras y
+ * corrimientos, sin ramificaciones ni tablas dependientes de los datos, por lo
+ * que el tiempo de ejecucion es constante. El resultado es identico bit a bit
+ * al de los metodos originales basados en GetBit y Get8Bits.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+final class BitPermutation {
+
+    private static final long SPREAD16 = 0x0000FFFF0000FFFFL;
+    private static final long SPREAD8 = 0x00FF00FF00FF00FFL;
+    private static final long LOW32 = 0x00000000FFFFFFFFL;
+
+    private BitPermutation() {
+    }
+
+    /**
+     * Transpone la matriz de 8x8 bits contenida en 'x', donde el byte 'r' es
+     * la fila 'r' y el bit 'c' de cada byte es la columna 'c'.
+     *
+     * @param x Matriz de 8x8 bits
+     * @return Matriz transpuesta
+     */
+    static long transpose8x8(long x) {
+        long t;
+
+        t = (x ^ (x >>> 7)) & 0x00AA00AA00AA00AAL;
+        x = x ^ t ^ (t << 7);
+        t = (x ^ (x >>> 14)) & 0x0000CCCC0000CCCCL;
+        x = x ^ t ^ (t << 14);
+        t = (x ^ (x >>> 28)) & 0x00000000F0F0F0F0L;
+        x = x ^ t ^ (t << 28);
+        return x;
+    }
+
+    /**
+     * Equivalente a CuaimaCrypt.TransposeLeft
+     *
+     * @param x Entrada
+     * @return Transposicion a la izquierda de 'x'
+     */
+    static long transposeLeft(long x) {
+        return Long.reverseBytes(transpose8x8(x));
+    }
+
+    /**
+     * Equivalente a CuaimaCrypt.TransposeRight
+     *
+     * @param x Entrada
+     * @return Transposicion a la derecha de 'x'
+     */
+    static long transposeRight(long x) {
+        return Long.reverse(Long.reverseBytes(transpose8x8(x)));
+    }
+
+    /**
+     * Distribuye los 4 bytes de 'x' en los bytes pares de la salida, el byte
+     * mas significativo de 'x' queda en el byte 6 de la salida.
+     *
+     * @param x Entrada de 32 bits
+     * @return Bytes de 'x' espaciados
+     */
+    private static long spreadBytes(long x) {
+
+        x &= LOW32;
+        x = (x | (x << 16)) & SPREAD16;
+        x = (x | (x << 8)) & SPREAD8;
+        return x;
+    }
+
+    /**
+     * Reune los bytes pares de 'x' en 32 bits, el byte 6 de 'x' queda como el
+     * mas significativo de la salida.
+     *
+     * @param x Entrada de 64 bits
+     * @return Bytes pares de 'x' compactados
+     */
+    private static long evenBytes(long x) {
+
+        x &= SPREAD8;
+        x = (x | (x >>> 8)) & SPREAD16;
+        x = (x | (x >>> 16)) & LOW32;
+        return x;
+    }
+
+    /**
+     * Reune los bytes impares de 'x' en 32 bits, el byte 7 de 'x' queda como
+     * el mas significativo de la salida.
+     *
+     * @param x Entrada de 64 bits
+     * @return Bytes impares de 'x' compactados
+     */
+    private static long oddBytes(long x) {
+        return evenBytes(x >>> 8);
+    }
+
+    /**
+     * Intercala byte a byte los 32 bits mas significativos de 'a' y 'b',
+     * empezando por 'a'.
+     *
+     * @param a Primera entrada
+     * @param b Segunda entrada
+     * @return a0 b0 a1 b1 a2 b2 a3 b3 (del mas al menos significativo)
+     */
+    private static long zipHigh(long a, long b) {
+        return (spreadBytes(a >>> 32) << 8) | spreadBytes(b >>> 32);
+    }
+
+    /**
+     * Realiza el Interleaving de las palabras in[off] e in[off+1], identico a
+     * CuaimaCrypt.Interleaving
+     *
+     * @param in Arreglo de palabras
+     * @param off Posicion de la primera palabra
+     */
+    static void interleave(long[] in, int off) {
+        long a, b, t0, t1;
+
+        a = in[off];
+        b = in[off + 1];
+        // Cruce de las primeras filas de A con las ultimas de B y viceversa
+        t0 = zipHigh(Long.reverseBytes(a), b);
+        t1 = zipHigh(a, Long.reverseBytes(b));
+        a = transposeRight(t0);
+        b = transposeLeft(t1);
+        // Cruce de las filas de A con las de B
+        t0 = Long.reverseBytes(a);
+        t1 = Long.reverseBytes(b);
+        a = zipHigh(t0, t1);
+        b = zipHigh(t0 << 32, t1 << 32);
+        in[off] = transposeRight(a);
+        in[off + 1] = transposeLeft(b);
+    }
+
+    /**
+     * Realiza el DeInterleaving de las palabras in[off] e in[off+1], identico a
+     * CuaimaCrypt.DeInterleaving
+     *
+     * @param in Arreglo de palabras
+     * @param off Posicion de la primera palabra
+     */
+    static void deinterleave(long[] in, int off) {
+        long c, d, t0, t1;
+
+        c = Long.reverseBytes(transposeLeft(in[off]));
+        d = Long.reverseBytes(transposeRight(in[off + 1]));
+        // Separa las filas de A y de B
+        t0 = (evenBytes(d) << 32) | evenBytes(c);
+        t1 = (oddBytes(d) << 32) | oddBytes(c);
+        c = transposeLeft(t0);
+        d = transposeRight(t1);
+        // Deshace el cruce de las primeras filas de A con las ultimas de B
+        in[off] = (oddBytes(d) << 32) | evenBytes(Long.reverseBytes(c));
+        in[off + 1] = (evenBytes(c) << 32) | oddBytes(Long.reverseBytes(d));
+    }
+}
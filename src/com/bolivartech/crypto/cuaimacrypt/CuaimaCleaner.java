@@ -0,0 +1,101 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt.
+ *
+ * Red de seguridad que borra de la memoria la clave de las instancias de
+ * CuaimaCrypt que no se destruyeron explicitamente.
+ *
+ * Cada instancia registra una accion de borrado que no la referencia; cuando
+ * la instancia deja de ser alcanzable el recolector encola su referencia
+ * fantasma y una hebra de servicio ejecuta la accion. A diferencia de
+ * finalize, el objeto no revive ni retrasa su recoleccion, y se registra una
+ * sola referencia por CuaimaCrypt en lugar de un objeto finalizable por cada
+ * ShiftCodec.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+final class CuaimaCleaner {
+
+    // Cola de las referencias de las instancias recolectadas
+    private static final ReferenceQueue<Object> Queue = new ReferenceQueue<Object>();
+    // Referencias registradas y pendientes, mantiene vivas las referencias
+    private static final Set<Cleanable> Pending = Collections.newSetFromMap(new ConcurrentHashMap<Cleanable, Boolean>());
+
+    static {
+        Thread Service;
+
+        Service = new Thread(CuaimaCleaner::Run, "CuaimaCrypt Cleaner");
+        Service.setDaemon(true);
+        Service.start();
+    }
+
+    private CuaimaCleaner() {
+    }
+
+    /**
+     * Accion de borrado registrada para una instancia
+     */
+    static final class Cleanable extends PhantomReference<Object> {
+
+        private final Runnable Action;
+
+        private Cleanable(Object Owner, Runnable Action) {
+            super(Owner, Queue);
+            this.Action = Action;
+        }
+
+        /**
+         * Ejecuta la accion de borrado si no se ha ejecutado y elimina el
+         * registro; se llama desde destroy o desde la hebra de servicio
+         */
+        void clean() {
+
+            if (Pending.remove(this)) {
+                clear();
+                Action.run();
+            }
+        }
+    }
+
+    /**
+     * Registra la accion 'Action' que se ejecuta cuando 'Owner' deja de ser
+     * alcanzable, la cual no debe referenciar a 'Owner'
+     *
+     * @param Owner Instancia a vigilar
+     * @param Action Accion de borrado
+     * @return Registro de la accion, para ejecutarla explicitamente
+     */
+    static Cleanable Register(Object Owner, Runnable Action) {
+        Cleanable Salida;
+
+        Salida = new Cleanable(Owner, Action);
+        Pending.add(Salida);
+        return Salida;
+    }
+
+    /**
+     * Ciclo de la hebra de servicio
+     */
+    private static void Run() {
+
+        while (true) {
+            try {
+                ((Cleanable) Queue.remove()).clean();
+            } catch (InterruptedException ex) {
+                // La hebra de servicio vive mientras viva la JVM
+            } catch (RuntimeException ex) {
+                // Una accion fallida no detiene el borrado de las demas
+            }
+        }
+    }
+}
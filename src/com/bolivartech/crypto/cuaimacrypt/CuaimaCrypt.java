@@ -1,5 +1,10 @@
 package com.bolivartech.crypto.cuaimacrypt;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import javax.security.auth.Destroyable;
+
 import com.bolivartech.utils.random.KAOSrand;
 import com.bolivartech.utils.random.sparkers.PasswordSparker;
 
@@ -23,12 +28,49 @@ import com.bolivartech.utils.random.sparkers.PasswordSparker;
  * 
  * 
  * @author Julian Bolivar
- * @version 3.1.0
+ * @version 3.10.3
  * 
  *          <p>
  *          Change Log:
  *          </p>
  *          <ul>
+ *          <li>v3.10.3 - When the RakeCodec configuration can not be packed
+ *          the failure is remembered until the configuration changes, so
+ *          Codec and Decodec no longer retry PackedCodec.Pack on every
+ *          block.</li>
+ *          <li>v3.10.2 - Specialize emits the codec class bytecode directly
+ *          instead of compiling Java source with the JDK compiler, so it
+ *          also works on a JRE and the first call costs milliseconds.</li>
+ *          <li>v3.10.1 - Once GetShiftCodec hands out a ShiftCodec the
+ *          instance codes over the RakeCodec and ShiftCodec graph instead of
+ *          the packed engine, so the returned object stays live across Codec
+ *          and Decodec as it was before v3.4.0.</li>
+ *          <li>v3.10.0 - GetRunState and SetRunState save and restore the
+ *          registers and the last input and output of every ShiftCodec, to
+ *          continue a codification from a checkpoint.</li>
+ *          <li>v3.9.0 - destroy and close clear the key from memory, with a
+ *          phantom reference cleanup (CuaimaCleaner) as safety net in place
+ *          of the ShiftCodec finalizers.</li>
+ *          <li>v3.8.0 - The Walsh code table is built once and shared by
+ *          all the instances; the ShiftCodec seeds of a new instance are drawn
+ *          from a per thread generator.</li>
+ *          <li>v3.7.0 - Specialize generates and caches a codec class for the
+ *          current key configuration (CuaimaSpecializer) with the round
+ *          unrolled and the configuration as constants.</li>
+ *          <li>v3.6.1 - The CrossByte operations are static so they are
+ *          shared with the CuaimaLanes multi-message engine.</li>
+ *          <li>v3.6.0 - Copy and CuaimaKeySchedule to create new instances
+ *          from an already derived key without running Password again.</li>
+ *          <li>v3.5.0 - The seed hopping sequence is compiled into one
+ *          permutation when it is defined and applied as a single gather per
+ *          block.</li>
+ *          <li>v3.4.0 - Codec and Decodec run over a packed flat array copy of
+ *          the shift registers (PackedCodec); the RakeCodec and ShiftCodec
+ *          objects stay as the configuration front end.</li>
+ *          <li>v3.3.0 - Bulk in place Codec and Decodec over long[], byte[] and
+ *          ByteBuffer ranges without per block allocations.</li>
+ *          <li>v3.2.0 - Interleaving and DeInterleaving use a constant time
+ *          bit permutation kernel (delta swaps) instead of per bit loops.</li>
  *          <li>v3.1.0 - Optimization at Seed Hopping Definition.</li>
  *          <li>v3.0.1 - The password used new Random.nextInt(number).</li>
  *          <li>v3.0.0 - Se realiza la estandarizacion del generador de llaves
@@ -40,21 +82,82 @@ import com.bolivartech.utils.random.sparkers.PasswordSparker;
  *          class MersenneTwisterPlus that was implemente by BolivarTech.</li>
  *          </ul>
  */
-public class CuaimaCrypt {
+public class CuaimaCrypt implements Destroyable, AutoCloseable {
 
 	// Generador de numeros aleatorios
 	private KAOSrand RLorenz;
 
 	private RakeCodec RCA[];
+
+	// Motor empaquetado con el estado de ejecucion de los RakeCodec, es null
+	// cuando el estado vigente esta en el grafo de RakeCodec y ShiftCodec
+	private PackedCodec Engine;
+	// Codificador especializado para la configuracion vigente, es null si no
+	// se llamo Specialize o si la configuracion cambio
+	private SpecializedCodec Special;
+	// Accion de borrado de la clave y su registro en la red de seguridad
+	private final Scrub Scrubber;
+	private final CuaimaCleaner.Cleanable Cleaner;
+	// TRUE si la clave fue borrada con destroy
+	private boolean Destroyed;
+	// TRUE si GetShiftCodec entrego un ShiftCodec del grafo, en cuyo caso se
+	// codifica sobre el grafo para que el apuntador siga vigente
+	private boolean Shared;
+	// TRUE si PackedCodec.Pack no pudo empaquetar la configuracion vigente,
+	// en cuyo caso no se vuelve a intentar hasta que la configuracion cambie
+	private boolean Unpackable;
+
+	// Tamano en bytes del bloque de codificacion
+	public static final int BLOCKSIZE = 16;
+
+	// Bloque de trabajo para los codec de bytes
+	private final long Bloque[] = new long[2];
 	private int CrossBitsSecuen[];
 	private int SeedHoppingSeq[];
+	// Permutacion equivalente a SeedHoppingSeq, ver PackedCodec.CompileHop
+	private int SeedHopPerm[];
 	private long WalshCodes[][];
 	private int WalshCode;
+	// Tabla de codigos Walsh, constante y compartida por todas las instancias
+	private static final long WALSHCODES[][] = InitWalshCode();
+
+	/**
+	 * Borra los RakeCodec y el motor empaquetado de una instancia; no
+	 * referencia a la instancia para que la red de seguridad pueda ejecutarla
+	 * cuando esta deja de ser alcanzable
+	 */
+	private static final class Scrub implements Runnable {
+
+		private final RakeCodec Rakes[];
+		private volatile PackedCodec Engine;
+
+		Scrub(RakeCodec Rakes[]) {
+			this.Rakes = Rakes;
+			this.Engine = null;
+		}
+
+		@Override
+		public void run() {
+			PackedCodec Actual;
+			int i;
+
+			for (i = 0; i < Rakes.length; i++) {
+				Rakes[i].destroy();
+			}
+			Actual = Engine;
+			if (Actual != null) {
+				Actual.Clear();
+			}
+		}
+	}
 
 	/**
 	 * Inicializa los codigos Walsh a utilizar en el spread de los datos
+	 * 
+	 * @return Tabla de codigos Walsh
 	 */
-	private void InitWalshCode() {
+	private static long[][] InitWalshCode() {
+		long WalshCodes[][];
 
 		WalshCodes = new long[128][2];
 		WalshCodes[0][0] = 0L;
@@ -313,20 +416,23 @@ public class CuaimaCrypt {
 		WalshCodes[125][1] = 6531808643310570000L;
 		WalshCodes[126][1] = 4378557928475210000L;
 		WalshCodes[127][1] = -1614938036126520000L;
+		return WalshCodes;
 	}
 
 	/**
 	 * @param entrada
 	 *            [2] * Realiza el cruce de la parte interna de las variables
 	 *            '0' y '1' de entrada
+	 * @param off
+	 *            posicion de la palabra '0' en entrada
 	 */
-	private void InnerCrossByte(long entrada[]) {
+	private static void InnerCrossByte(long entrada[], int off) {
 		long a1, b1, a2, b2;
 
-		a1 = entrada[0];
-		b1 = entrada[1];
-		a2 = entrada[0];
-		b2 = entrada[1];
+		a1 = entrada[off];
+		b1 = entrada[off + 1];
+		a2 = entrada[off];
+		b2 = entrada[off + 1];
 		a1 = a1 << 32;
 		a2 = a2 >>> 32;
 		a2 = a2 << 32;
@@ -335,8 +441,8 @@ public class CuaimaCrypt {
 		b2 = b2 >>> 32;
 		a2 = a2 | b2;
 		b1 = b1 | a1;
-		entrada[0] = a2;
-		entrada[1] = b1;
+		entrada[off] = a2;
+		entrada[off + 1] = b1;
 	}
 
 	/**
@@ -345,14 +451,16 @@ public class CuaimaCrypt {
 	 * 
 	 *            Realiza el cruce de la parte externa de las variables '0' y
 	 *            '1' de entrada
+	 * @param off
+	 *            posicion de la palabra '0' en entrada
 	 */
-	private void OutneerCrossByte(long entrada[]) {
+	private static void OutneerCrossByte(long entrada[], int off) {
 		long a1, b1, a2, b2;
 
-		a1 = entrada[0];
-		b1 = entrada[1];
-		a2 = entrada[0];
-		b2 = entrada[1];
+		a1 = entrada[off];
+		b1 = entrada[off + 1];
+		a2 = entrada[off];
+		b2 = entrada[off + 1];
 		a1 = a1 << 32;
 		a1 = a1 >>> 32;
 		a2 = a2 >>> 32;
@@ -361,8 +469,8 @@ public class CuaimaCrypt {
 		b2 = b2 << 32;
 		a1 = a1 | b1;
 		b2 = b2 | a2;
-		entrada[0] = a1;
-		entrada[1] = b2;
+		entrada[off] = a1;
+		entrada[off + 1] = b2;
 	}
 
 	/**
@@ -371,22 +479,24 @@ public class CuaimaCrypt {
 	 * 
 	 *            Realiza el cruce de la parte mas significativa y la menos
 	 *            significativa de cada una de las variables
+	 * @param off
+	 *            posicion de la palabra '0' en entrada
 	 */
-	private void InterCrossByte(long entrada[]) {
+	private static void InterCrossByte(long entrada[], int off) {
 		long a1, b1, a2, b2;
 
-		a1 = entrada[0];
-		b1 = entrada[1];
-		a2 = entrada[0];
-		b2 = entrada[1];
+		a1 = entrada[off];
+		b1 = entrada[off + 1];
+		a2 = entrada[off];
+		b2 = entrada[off + 1];
 		a1 = a1 << 32;
 		a2 = a2 >>> 32;
 		b1 = b1 << 32;
 		b2 = b2 >>> 32;
 		a1 = a1 | a2;
 		b1 = b1 | b2;
-		entrada[0] = a1;
-		entrada[1] = b1;
+		entrada[off] = a1;
+		entrada[off + 1] = b1;
 	}
 
 	/**
@@ -396,22 +506,24 @@ public class CuaimaCrypt {
 	 *            Realiza el cruce de la parte mas significativa y la menos
 	 *            significativa de cada una de las variables y realiza el Swap
 	 *            de los bytes en la posicion 0 y 1
+	 * @param off
+	 *            posicion de la palabra '0' en entrada
 	 */
-	private void SwapByte(long entrada[]) {
+	private static void SwapByte(long entrada[], int off) {
 		long a1, b1, a2, b2;
 
-		a1 = entrada[0];
-		b1 = entrada[1];
-		a2 = entrada[0];
-		b2 = entrada[1];
+		a1 = entrada[off];
+		b1 = entrada[off + 1];
+		a2 = entrada[off];
+		b2 = entrada[off + 1];
 		a1 = a1 << 32;
 		a2 = a2 >>> 32;
 		b1 = b1 << 32;
 		b2 = b2 >>> 32;
 		a1 = a1 | a2;
 		b1 = b1 | b2;
-		entrada[1] = a1;
-		entrada[0] = b1;
+		entrada[off + 1] = a1;
+		entrada[off] = b1;
 	}
 
 	/**
@@ -421,21 +533,23 @@ public class CuaimaCrypt {
 	 *            los valores '0' y '1' de entrada. Num puede ser: 0 para
 	 *            InnerCrossByte 1 para OutneerCrossByte 2 para InterCrossByte 3
 	 *            para SwapByte
+	 * @param off
+	 *            posicion de la palabra '0' en entrada
 	 */
-	private void CrossByte(int Num, long entrada[]) {
+	static void CrossByte(int Num, long entrada[], int off) {
 
 		switch (Num) {
 		case 0:
-			this.InnerCrossByte(entrada);
+			InnerCrossByte(entrada, off);
 			break;
 		case 1:
-			this.OutneerCrossByte(entrada);
+			OutneerCrossByte(entrada, off);
 			break;
 		case 2:
-			this.InterCrossByte(entrada);
+			InterCrossByte(entrada, off);
 			break;
 		case 3:
-			this.SwapByte(entrada);
+			SwapByte(entrada, off);
 			break;
 		}
 	}
@@ -483,18 +597,7 @@ public class CuaimaCrypt {
 	 *         esta operacion
 	 */
 	public long TransposeLeft(long in) {
-		int grupo, bit;
-		long SR, Temp;
-
-		SR = 0;
-		for (bit = 0; bit < 8; bit++) {
-			for (grupo = 7; grupo >= 0; grupo--) {
-				SR = SR << 1;
-				Temp = GetBit(in, (8 * grupo + bit));
-				SR = SR | Temp;
-			}
-		}
-		return SR;
+		return BitPermutation.transposeLeft(in);
 	}
 
 	/**
@@ -506,18 +609,7 @@ public class CuaimaCrypt {
 	 *         esta operacion
 	 */
 	public long TransposeRight(long in) {
-		int grupo, bit;
-		long SR, Temp;
-
-		SR = 0;
-		for (bit = 7; bit >= 0; bit--) {
-			for (grupo = 0; grupo < 8; grupo++) {
-				SR = SR << 1;
-				Temp = GetBit(in, (8 * grupo + bit));
-				SR = SR | Temp;
-			}
-		}
-		return SR;
+		return BitPermutation.transposeRight(in);
 	}
 
 	/**
@@ -544,50 +636,8 @@ public class CuaimaCrypt {
 	 *            Realiza el Interleaving de las entradas in[0] e in[1]
 	 */
 	public void Interleaving(long in[]) {
-		long[] Temporal;
-		int i;
-
-		Temporal = new long[2];
-		// Realiza el cruce de las primeras filas de la matriz A
-		// con las ultimas de la matriz B
-		for (i = 0; i < 4; i++) {
-			Temporal[0] = Temporal[0] << 8;
-			Temporal[0] = Temporal[0] | Get8Bits(in[0], (8 * i));
-			Temporal[0] = Temporal[0] << 8;
-			Temporal[0] = Temporal[0] | Get8Bits(in[1], (8 * (7 - i)));
-		}
-		// Realiza el cruce de las ultimas filas de la matriz A
-		// con las primeras de la matriz B
-		for (i = 0; i < 4; i++) {
-			Temporal[1] = Temporal[1] << 8;
-			Temporal[1] = Temporal[1] | Get8Bits(in[0], (8 * (7 - i)));
-			Temporal[1] = Temporal[1] << 8;
-			Temporal[1] = Temporal[1] | Get8Bits(in[1], (8 * i));
-		}
-		// Realiza la Transposicion de los bits
-		in[0] = TransposeRight(Temporal[0]);
-		in[1] = TransposeLeft(Temporal[1]);
-		Temporal[0] = in[0];
-		Temporal[1] = in[1];
-		// Realiza el cruce de las filas de la matriz A
-		// con las de la matriz B
-		for (i = 0; i < 4; i++) {
-			Temporal[0] = Temporal[0] << 8;
-			Temporal[0] = Temporal[0] | Get8Bits(in[0], (8 * i));
-			Temporal[0] = Temporal[0] << 8;
-			Temporal[0] = Temporal[0] | Get8Bits(in[1], (8 * i));
-		}
-		// Realiza el cruce de las filas de la matriz A
-		// con las de la matriz B
-		for (i = 4; i < 8; i++) {
-			Temporal[1] = Temporal[1] << 8;
-			Temporal[1] = Temporal[1] | Get8Bits(in[0], (8 * i));
-			Temporal[1] = Temporal[1] << 8;
-			Temporal[1] = Temporal[1] | Get8Bits(in[1], (8 * i));
-		}
-		// Realiza la Transposicion de los bits
-		in[0] = TransposeRight(Temporal[0]);
-		in[1] = TransposeLeft(Temporal[1]);
+
+		BitPermutation.interleave(in, 0);
 	}
 
 	/**
@@ -596,56 +646,8 @@ public class CuaimaCrypt {
 	 *            Realiza el DeInterleaving de las entradas in[0] e in[1]
 	 */
 	public void DeInterleaving(long in[]) {
-		long[] Temporal;
-		int i;
-
-		Temporal = new long[2];
-		// Realiza la Transposicion de los bits
-		Temporal[0] = TransposeLeft(in[0]);
-		Temporal[1] = TransposeRight(in[1]);
-		in[0] = Temporal[0];
-		in[1] = Temporal[1];
-		Temporal[0] = 0L;
-		Temporal[1] = 0L;
-		// Realiza el cruce de las filas de la matriz A
-		// con las de la matriz B
-		for (i = 0; i < 8; i += 2) {
-			Temporal[0] = Temporal[0] << 8;
-			Temporal[0] = Temporal[0] | Get8Bits(in[1], (8 * (i + 1)));
-			Temporal[1] = Temporal[1] << 8;
-			Temporal[1] = Temporal[1] | Get8Bits(in[1], (8 * i));
-		}
-		// Realiza el cruce de las filas de la matriz A
-		// con las de la matriz B
-		for (i = 0; i < 8; i += 2) {
-			Temporal[0] = Temporal[0] << 8;
-			Temporal[0] = Temporal[0] | Get8Bits(in[0], (8 * (i + 1)));
-			Temporal[1] = Temporal[1] << 8;
-			Temporal[1] = Temporal[1] | Get8Bits(in[0], (8 * i));
-		}
-		// Realiza la Transposicion de los bits
-		in[0] = TransposeLeft(Temporal[0]);
-		in[1] = TransposeRight(Temporal[1]);
-		Temporal[0] = 0L;
-		Temporal[1] = 0L;
-		// Realiza el cruce de las primeras filas de la matriz A
-		// con las ultimas de la matriz B
-		for (i = 7; i >= 0; i -= 2) {
-			Temporal[0] = Temporal[0] << 8;
-			Temporal[0] = Temporal[0] | Get8Bits(in[1], (8 * i));
-			Temporal[1] = Temporal[1] << 8;
-			Temporal[1] = Temporal[1] | Get8Bits(in[0], (8 * (i - 1)));
-		}
-		// Realiza el cruce de las ultimas filas de la matriz A
-		// con las primeras de la matriz B
-		for (i = 0; i < 8; i += 2) {
-			Temporal[0] = Temporal[0] << 8;
-			Temporal[0] = Temporal[0] | Get8Bits(in[0], (8 * (i + 1)));
-			Temporal[1] = Temporal[1] << 8;
-			Temporal[1] = Temporal[1] | Get8Bits(in[1], (8 * i));
-		}
-		in[0] = Temporal[0];
-		in[1] = Temporal[1];
+
+		BitPermutation.deinterleave(in, 0);
 	}
 
 	/**
@@ -682,8 +684,11 @@ public class CuaimaCrypt {
 				j = 0;
 			}
 		}
-		InitWalshCode();
+		SeedHopPerm = PackedCodec.CompileHop(SeedHoppingSeq, SeedHoppingSeq.length);
+		WalshCodes = WALSHCODES;
 		WalshCode = 0;
+		Scrubber = new Scrub(RCA);
+		Cleaner = CuaimaCleaner.Register(this, Scrubber);
 	}
 
 	/**
@@ -725,8 +730,122 @@ public class CuaimaCrypt {
 				j = 0;
 			}
 		}
-		InitWalshCode();
+		SeedHopPerm = PackedCodec.CompileHop(SeedHoppingSeq, SeedHoppingSeq.length);
+		WalshCodes = WALSHCODES;
 		WalshCode = 0;
+		Scrubber = new Scrub(RCA);
+		Cleaner = CuaimaCleaner.Register(this, Scrubber);
+	}
+
+	/**
+	 * Constructor a partir de un grafo de RakeCodecs ya construido, usado por
+	 * Copy y por CuaimaCrypt(CuaimaKeySchedule)
+	 */
+	private CuaimaCrypt(RakeCodec RCA[], int CrossBitsSecuen[], int SeedHoppingSeq[], int WalshCode,
+			long WalshCodes[][]) {
+
+		RLorenz = null;
+		this.RCA = RCA;
+		this.CrossBitsSecuen = CrossBitsSecuen;
+		this.SeedHoppingSeq = SeedHoppingSeq;
+		SeedHopPerm = PackedCodec.CompileHop(SeedHoppingSeq, SeedHoppingSeq.length);
+		this.WalshCodes = WalshCodes;
+		this.WalshCode = WalshCode;
+		Scrubber = new Scrub(RCA);
+		Cleaner = CuaimaCleaner.Register(this, Scrubber);
+	}
+
+	/**
+	 * Constructor a partir de la programacion de una clave ya derivada, el
+	 * CuaimaCrypt creado queda en el estado de las semillas (Reset) y es
+	 * equivalente a uno inicializado con el mismo Password, sin repetir la
+	 * derivacion de la clave.
+	 * 
+	 * @param KeySchedule
+	 *            Programacion de la clave obtenida con GetKeySchedule
+	 */
+	public CuaimaCrypt(CuaimaKeySchedule KeySchedule) {
+
+		this(KeySchedule.BuildRakes(), KeySchedule.GetCrossBits(), KeySchedule.GetSeedHopping(),
+				KeySchedule.GetWalshCode(), KeySchedule.GetWalshCodes());
+	}
+
+	/**
+	 * Retorna la programacion de la clave vigente (semillas y configuracion),
+	 * la cual es inmutable y se puede compartir entre hebras para crear nuevas
+	 * instancias con CuaimaCrypt(CuaimaKeySchedule).
+	 * 
+	 * @return Programacion de la clave
+	 * @throws IllegalStateException
+	 *             si alguna cadena de ShiftCodec fue enlazada fuera de este
+	 *             CuaimaCrypt
+	 */
+	public CuaimaKeySchedule GetKeySchedule() {
+
+		CheckDestroyed();
+		Unpack();
+		return new CuaimaKeySchedule(RCA, CrossBitsSecuen, SeedHoppingSeq, WalshCode, WalshCodes);
+	}
+
+	/**
+	 * Retorna una copia independiente de este CuaimaCrypt, con la misma clave
+	 * y el mismo estado de ejecucion, de forma que ambos producen la misma
+	 * salida a partir de este punto. Las cadenas entre los ShiftCodecs se
+	 * vuelven a enlazar en la copia; una cadena hacia un ShiftCodec externo se
+	 * conserva tal cual.
+	 * 
+	 * @return Copia de este CuaimaCrypt
+	 */
+	public CuaimaCrypt Copy() {
+		CuaimaCrypt Salida;
+		RakeCodec Rakes[];
+		ShiftCodec Origen[], Copia[], Teeth[];
+		ShiftCodec Up, Down;
+		int i, j, k, NumSC;
+
+		CheckDestroyed();
+		Unpack();
+		NumSC = 0;
+		for (i = 0; i < RCA.length; i++) {
+			NumSC += RCA[i].GetNumSC();
+		}
+		Origen = new ShiftCodec[NumSC];
+		Copia = new ShiftCodec[NumSC];
+		k = 0;
+		for (i = 0; i < RCA.length; i++) {
+			for (j = 0; j < RCA[i].GetNumSC(); j++) {
+				Origen[k] = RCA[i].GetShiftCodec(j);
+				Copia[k] = new ShiftCodec(Origen[k]);
+				k++;
+			}
+		}
+		// Enlaza las cadenas de la copia
+		for (i = 0; i < NumSC; i++) {
+			Up = Origen[i].getUpChain();
+			Down = Origen[i].getDownChain();
+			for (j = 0; j < NumSC; j++) {
+				if (Origen[j] == Origen[i].getUpChain()) {
+					Up = Copia[j];
+				}
+				if (Origen[j] == Origen[i].getDownChain()) {
+					Down = Copia[j];
+				}
+			}
+			Copia[i].Chain(Up, Down);
+		}
+		Rakes = new RakeCodec[RCA.length];
+		k = 0;
+		for (i = 0; i < RCA.length; i++) {
+			Teeth = new ShiftCodec[RCA[i].GetNumSC()];
+			for (j = 0; j < Teeth.length; j++) {
+				Teeth[j] = Copia[k];
+				k++;
+			}
+			Rakes[i] = new RakeCodec(Teeth);
+		}
+		Salida = new CuaimaCrypt(Rakes, CrossBitsSecuen.clone(), SeedHoppingSeq.clone(), WalshCode, WalshCodes);
+		Salida.Special = Special;
+		return Salida;
 	}
 
 	/**
@@ -735,6 +854,7 @@ public class CuaimaCrypt {
 	public void Reset() {
 		int NRCA, NumRCA;
 
+		Reconfigure();
 		NumRCA = this.RCA.length;
 		for (NRCA = 0; NRCA < NumRCA; NRCA++) {
 			RCA[NRCA].Reset();
@@ -762,6 +882,7 @@ public class CuaimaCrypt {
 	public void SetSeed(int ns, long seed) {
 		int TotalSeeds, PosRCA, NumSC;
 
+		Unpack();
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (ns < TotalSeeds) {
 			PosRCA = (int) ns / (RCA[0].GetNumSC());
@@ -780,6 +901,7 @@ public class CuaimaCrypt {
 		int TotalSeeds, PosRCA, NumSC;
 		long Salida;
 
+		Unpack();
 		Salida = 0;
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (ns < TotalSeeds) {
@@ -791,15 +913,40 @@ public class CuaimaCrypt {
 	}
 
 	/**
-	 * Retorna un apuntador al ShiftCodec 'SC'
+	 * Retorna un apuntador al ShiftCodec 'SC' con el estado vigente.
+	 * 
+	 * El apuntador sigue vigente en las siguientes codificaciones: los cambios
+	 * hechos sobre el se toman en cuenta y refleja el estado despues de cada
+	 * Codec o Decodec. Para ello, a partir de la primera llamada la instancia
+	 * codifica sobre el grafo de RakeCodec y ShiftCodec en lugar del motor
+	 * empaquetado (PackedCodec) y no usa el codificador especializado, lo que
+	 * es mas lento; las instancias creadas con Copy o
+	 * CuaimaCrypt(CuaimaKeySchedule) vuelven a usar el motor empaquetado. Para
+	 * leer o cambiar el estado sin esta penalidad se deben usar GetState,
+	 * SetState, GetRunState y SetRunState.
 	 * 
 	 * @param SC
 	 * @return ShiftCodec Pointer
 	 */
 	public ShiftCodec GetShiftCodec(int SC) {
+		ShiftCodec Salida;
+
+		Salida = ShiftCodecAt(SC);
+		if (Salida != null) {
+			Shared = true;
+		}
+		return Salida;
+	}
+
+	/**
+	 * Retorna el ShiftCodec 'SC' del grafo con el estado vigente, para uso
+	 * interno sin marcar la instancia como compartida
+	 */
+	private ShiftCodec ShiftCodecAt(int SC) {
 		int TotalSeeds, PosRCA, NumSC;
 		ShiftCodec Salida;
 
+		Unpack();
 		Salida = null;
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
@@ -820,6 +967,7 @@ public class CuaimaCrypt {
 		int TotalSeeds, PosRCA, NumSC;
 		long Salida;
 
+		Unpack();
 		Salida = 0;
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
@@ -839,6 +987,7 @@ public class CuaimaCrypt {
 	public void SetState(int ns, long state) {
 		int TotalSeeds, PosRCA, NumSC;
 
+		Unpack();
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (ns < TotalSeeds) {
 			PosRCA = (int) ns / (RCA[0].GetNumSC());
@@ -847,6 +996,68 @@ public class CuaimaCrypt {
 		}
 	}
 
+	/**
+	 * Retorna el estado de ejecucion completo del algoritmo, esto es el
+	 * registro de desplazamiento y la ultima entrada y salida de cada
+	 * ShiftCodec, dos palabras por ShiftCodec en el orden de las semillas. Con
+	 * SetRunState sobre una instancia con la misma clave se continua la
+	 * codificacion desde este punto.
+	 * 
+	 * @return Estado de ejecucion
+	 */
+	public long[] GetRunState() {
+		long Salida[], Regs[];
+		int IO[];
+		ShiftCodec SC;
+		int i, NumSeeds;
+
+		CheckDestroyed();
+		NumSeeds = GetNumSeeds();
+		Salida = new long[2 * NumSeeds];
+		if (Engine != null) {
+			// Lee el estado del motor empaquetado sin devolverlo al grafo
+			Regs = Engine.GetRegs();
+			IO = Engine.GetIO();
+			for (i = 0; i < NumSeeds; i++) {
+				Salida[2 * i] = Regs[i];
+				Salida[(2 * i) + 1] = ((long) IO[2 * i] << 32) | (IO[(2 * i) + 1] & 0xFFFFFFFFL);
+			}
+		} else {
+			for (i = 0; i < NumSeeds; i++) {
+				SC = ShiftCodecAt(i);
+				Salida[2 * i] = SC.getShiftCodec_state();
+				Salida[(2 * i) + 1] = ((long) SC.getEntrada() << 32) | (SC.getSalida() & 0xFFFFFFFFL);
+			}
+		}
+		return Salida;
+	}
+
+	/**
+	 * Establece el estado de ejecucion retornado por GetRunState
+	 * 
+	 * @param State
+	 *            Estado de ejecucion
+	 * @throws IllegalArgumentException
+	 *             si State no corresponde al numero de ShiftCodecs
+	 */
+	public void SetRunState(long State[]) {
+		ShiftCodec SC;
+		int i, NumSeeds;
+
+		CheckDestroyed();
+		NumSeeds = GetNumSeeds();
+		if ((State == null) || (State.length != 2 * NumSeeds)) {
+			throw new IllegalArgumentException("The run state doesn't match the number of ShiftCodecs");
+		}
+		Unpack();
+		for (i = 0; i < NumSeeds; i++) {
+			SC = ShiftCodecAt(i);
+			SC.setShiftCodec_state(State[2 * i]);
+			SC.setEntrada((int) (State[(2 * i) + 1] >>> 32));
+			SC.setSalida((int) State[(2 * i) + 1]);
+		}
+	}
+
 	/**
 	 * 
 	 * @param SC
@@ -858,6 +1069,7 @@ public class CuaimaCrypt {
 	public void SetPostUp(int SC, int postup) {
 		int TotalSeeds, PosRCA, NumSC;
 
+		Reconfigure();
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
 			PosRCA = (int) SC / (RCA[0].GetNumSC());
@@ -876,6 +1088,7 @@ public class CuaimaCrypt {
 		int TotalSeeds, PosRCA, NumSC;
 		int Salida;
 
+		Unpack();
 		Salida = 0;
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
@@ -897,6 +1110,7 @@ public class CuaimaCrypt {
 		int TotalSeeds, PosRCA, NumSC;
 		int Salida;
 
+		Unpack();
 		Salida = 0;
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
@@ -918,6 +1132,7 @@ public class CuaimaCrypt {
 	public void SetShiftLeap(int SC, int shiftleap) {
 		int TotalSeeds, PosRCA, NumSC;
 
+		Reconfigure();
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
 			PosRCA = (int) SC / (RCA[0].GetNumSC());
@@ -937,6 +1152,7 @@ public class CuaimaCrypt {
 	public void SetWinA(int SC, int WinA) {
 		int TotalSeeds, PosRCA, NumSC;
 
+		Reconfigure();
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
 			PosRCA = (int) SC / (RCA[0].GetNumSC());
@@ -956,6 +1172,7 @@ public class CuaimaCrypt {
 		int TotalSeeds, PosRCA, NumSC;
 		int Salida;
 
+		Unpack();
 		Salida = 0;
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
@@ -977,6 +1194,7 @@ public class CuaimaCrypt {
 	public void SetWinB(int SC, int WinB) {
 		int TotalSeeds, PosRCA, NumSC;
 
+		Reconfigure();
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
 			PosRCA = (int) SC / (RCA[0].GetNumSC());
@@ -996,6 +1214,7 @@ public class CuaimaCrypt {
 		int TotalSeeds, PosRCA, NumSC;
 		int Salida;
 
+		Unpack();
 		Salida = 0;
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
@@ -1017,6 +1236,7 @@ public class CuaimaCrypt {
 	public void SetPostDown(int SC, int postdown) {
 		int TotalSeeds, PosRCA, NumSC;
 
+		Reconfigure();
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
 			PosRCA = (int) SC / (RCA[0].GetNumSC());
@@ -1035,6 +1255,7 @@ public class CuaimaCrypt {
 		int TotalSeeds, PosRCA, NumSC;
 		int Salida;
 
+		Unpack();
 		Salida = 0;
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
@@ -1054,6 +1275,7 @@ public class CuaimaCrypt {
 	public void SetUpChain(int SC, ShiftCodec ShCo) {
 		int TotalSeeds, PosRCA, NumSC;
 
+		Reconfigure();
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
 			PosRCA = (int) SC / (RCA[0].GetNumSC());
@@ -1071,6 +1293,7 @@ public class CuaimaCrypt {
 	public void SetDownChain(int SC, ShiftCodec ShCo) {
 		int TotalSeeds, PosRCA, NumSC;
 
+		Reconfigure();
 		TotalSeeds = RCA[0].GetNumSC() * RCA.length;
 		if (SC < TotalSeeds) {
 			PosRCA = (int) SC / (RCA[0].GetNumSC());
@@ -1101,6 +1324,7 @@ public class CuaimaCrypt {
 		if (Pos < CrossBitsSecuen.length) {
 			if (CrossBit < 4) {
 				CrossBitsSecuen[Pos] = CrossBit;
+				Special = null;
 			}
 		}
 	}
@@ -1134,6 +1358,8 @@ public class CuaimaCrypt {
 		if ((Seed >= 0) && (Seed < SeedHoppingSeq.length)) {
 			if ((HopTo >= 0) && (HopTo < SeedHoppingSeq.length)) {
 				SeedHoppingSeq[Seed] = HopTo;
+				SeedHopPerm = PackedCodec.CompileHop(SeedHoppingSeq, SeedHoppingSeq.length);
+				Special = null;
 			}
 		}
 	}
@@ -1222,6 +1448,8 @@ public class CuaimaCrypt {
 		int i, j, k, NumSeedHopping, SystemNumSeed;
 		int ChainSeq[];
 
+		CheckDestroyed();
+		Special = null;
 		// Genera el Sparker a partir del password y verifica si cumple
 		PassSpark = new PasswordSparker(passw, null);
 		salida = PassSpark.PasswordOK();
@@ -1240,17 +1468,18 @@ public class CuaimaCrypt {
 			// Establece la secuencia de saltos de semillas
 			NumSeedHopping = SeedHoppingSeq.length;
 			SeedHoppingSeq=RandDistribuidor(NumSeedHopping); 
+			SeedHopPerm = PackedCodec.CompileHop(SeedHoppingSeq, NumSeedHopping);
 			// Establece la secuenca cruces de semillas hacia arriba
 			ChainSeq = new int[SystemNumSeed];
 			NumSeedHopping = ChainSeq.length;
 			ChainSeq=RandDistribuidor(NumSeedHopping);
 			for(j=0;j<NumSeedHopping;j++){
-				this.SetUpChain(j, this.GetShiftCodec(ChainSeq[j]));
+				this.SetUpChain(j, this.ShiftCodecAt(ChainSeq[j]));
 			}
 			// Establece el cruce de semillas hacia abajo
 			ChainSeq=RandDistribuidor(NumSeedHopping);
 			for(j=0;j<NumSeedHopping;j++){
-				this.SetDownChain(j, this.GetShiftCodec(ChainSeq[j]));
+				this.SetDownChain(j, this.ShiftCodecAt(ChainSeq[j]));
 			}
 			// Establece los puntos de inicio de las ventanas de 32 bits en el
 			// cruce del UpChain
@@ -1298,21 +1527,256 @@ public class CuaimaCrypt {
 	 *            entrada[2]
 	 */
 	public void Codec(long entrada[]) {
+
+		CodecBlock(entrada, 0);
+	}
+
+	/**
+	 * @param entrada
+	 * 
+	 *            Decodifica las dos palabras '0' y '1' pasadas por referencia
+	 *            en entrada[2]
+	 */
+	public void Decodec(long entrada[]) {
+
+		DecodecBlock(entrada, 0);
+	}
+
+	/**
+	 * Codifica en sitio 'blocks' bloques consecutivos de dos palabras a partir
+	 * de words[off], el resultado es identico a llamar Codec(long[]) bloque a
+	 * bloque pero sin copiar las palabras a un arreglo temporal.
+	 * 
+	 * @param words
+	 *            Arreglo de palabras
+	 * @param off
+	 *            Posicion de la primera palabra
+	 * @param blocks
+	 *            Numero de bloques de 128 bits a codificar
+	 * @throws IllegalArgumentException
+	 *             si el rango esta fuera del arreglo
+	 */
+	public void Codec(long[] words, int off, int blocks) {
+		int i, end;
+
+		CheckWords(words, off, blocks);
+		end = off + 2 * blocks;
+		for (i = off; i < end; i += 2) {
+			CodecBlock(words, i);
+		}
+	}
+
+	/**
+	 * Decodifica en sitio 'blocks' bloques consecutivos de dos palabras a
+	 * partir de words[off], el resultado es identico a llamar Decodec(long[])
+	 * bloque a bloque pero sin copiar las palabras a un arreglo temporal.
+	 * 
+	 * @param words
+	 *            Arreglo de palabras
+	 * @param off
+	 *            Posicion de la primera palabra
+	 * @param blocks
+	 *            Numero de bloques de 128 bits a decodificar
+	 * @throws IllegalArgumentException
+	 *             si el rango esta fuera del arreglo
+	 */
+	public void Decodec(long[] words, int off, int blocks) {
+		int i, end;
+
+		CheckWords(words, off, blocks);
+		end = off + 2 * blocks;
+		for (i = off; i < end; i += 2) {
+			DecodecBlock(words, i);
+		}
+	}
+
+	/**
+	 * Codifica en sitio los 'len' bytes de buf a partir de buf[off]. Cada
+	 * bloque de 16 bytes se interpreta como dos palabras de 64 bits en orden
+	 * big-endian, igual que Converter.byte2long, por lo que el resultado es
+	 * identico al de convertir, codificar y volver a convertir bloque a bloque.
+	 * 
+	 * @param buf
+	 *            Buffer de bytes
+	 * @param off
+	 *            Posicion del primer byte
+	 * @param len
+	 *            Numero de bytes, multiplo de 16
+	 * @throws IllegalArgumentException
+	 *             si el rango esta fuera del buffer o len no es multiplo de 16
+	 */
+	public void Codec(byte[] buf, int off, int len) {
+		int i, end;
+
+		CheckBytes(buf, off, len);
+		end = off + len;
+		for (i = off; i < end; i += BLOCKSIZE) {
+			Bloque[0] = GetLong(buf, i);
+			Bloque[1] = GetLong(buf, i + 8);
+			CodecBlock(Bloque, 0);
+			PutLong(buf, i, Bloque[0]);
+			PutLong(buf, i + 8, Bloque[1]);
+		}
+		Bloque[0] = 0;
+		Bloque[1] = 0;
+	}
+
+	/**
+	 * Decodifica en sitio los 'len' bytes de buf a partir de buf[off]. Cada
+	 * bloque de 16 bytes se interpreta como dos palabras de 64 bits en orden
+	 * big-endian.
+	 * 
+	 * @param buf
+	 *            Buffer de bytes
+	 * @param off
+	 *            Posicion del primer byte
+	 * @param len
+	 *            Numero de bytes, multiplo de 16
+	 * @throws IllegalArgumentException
+	 *             si el rango esta fuera del buffer o len no es multiplo de 16
+	 */
+	public void Decodec(byte[] buf, int off, int len) {
+		int i, end;
+
+		CheckBytes(buf, off, len);
+		end = off + len;
+		for (i = off; i < end; i += BLOCKSIZE) {
+			Bloque[0] = GetLong(buf, i);
+			Bloque[1] = GetLong(buf, i + 8);
+			DecodecBlock(Bloque, 0);
+			PutLong(buf, i, Bloque[0]);
+			PutLong(buf, i + 8, Bloque[1]);
+		}
+		Bloque[0] = 0;
+		Bloque[1] = 0;
+	}
+
+	/**
+	 * Codifica en sitio los bytes restantes de buf (de position a limit), los
+	 * cuales deben ser multiplo de 16. Las palabras se leen en orden
+	 * big-endian sin importar el orden del buffer, el cual se restaura al
+	 * terminar. Al retornar position es igual a limit.
+	 * 
+	 * @param buf
+	 *            Buffer a codificar
+	 * @throws IllegalArgumentException
+	 *             si los bytes restantes no son multiplo de 16
+	 * @throws java.nio.ReadOnlyBufferException
+	 *             si el buffer es de solo lectura
+	 */
+	public void Codec(ByteBuffer buf) {
+		ByteOrder order;
+		int i, end;
+
+		if (buf.hasArray()) {
+			Codec(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+			buf.position(buf.limit());
+			return;
+		}
+		CheckRemaining(buf);
+		order = buf.order();
+		try {
+			buf.order(ByteOrder.BIG_ENDIAN);
+			end = buf.limit();
+			for (i = buf.position(); i < end; i += BLOCKSIZE) {
+				Bloque[0] = buf.getLong(i);
+				Bloque[1] = buf.getLong(i + 8);
+				CodecBlock(Bloque, 0);
+				buf.putLong(i, Bloque[0]);
+				buf.putLong(i + 8, Bloque[1]);
+			}
+			buf.position(end);
+		} finally {
+			buf.order(order);
+			Bloque[0] = 0;
+			Bloque[1] = 0;
+		}
+	}
+
+	/**
+	 * Decodifica en sitio los bytes restantes de buf (de position a limit), los
+	 * cuales deben ser multiplo de 16. Las palabras se leen en orden
+	 * big-endian sin importar el orden del buffer, el cual se restaura al
+	 * terminar. Al retornar position es igual a limit.
+	 * 
+	 * @param buf
+	 *            Buffer a decodificar
+	 * @throws IllegalArgumentException
+	 *             si los bytes restantes no son multiplo de 16
+	 * @throws java.nio.ReadOnlyBufferException
+	 *             si el buffer es de solo lectura
+	 */
+	public void Decodec(ByteBuffer buf) {
+		ByteOrder order;
+		int i, end;
+
+		if (buf.hasArray()) {
+			Decodec(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+			buf.position(buf.limit());
+			return;
+		}
+		CheckRemaining(buf);
+		order = buf.order();
+		try {
+			buf.order(ByteOrder.BIG_ENDIAN);
+			end = buf.limit();
+			for (i = buf.position(); i < end; i += BLOCKSIZE) {
+				Bloque[0] = buf.getLong(i);
+				Bloque[1] = buf.getLong(i + 8);
+				DecodecBlock(Bloque, 0);
+				buf.putLong(i, Bloque[0]);
+				buf.putLong(i + 8, Bloque[1]);
+			}
+			buf.position(end);
+		} finally {
+			buf.order(order);
+			Bloque[0] = 0;
+			Bloque[1] = 0;
+		}
+	}
+
+	/**
+	 * Codifica las palabras entrada[off] y entrada[off+1]
+	 * 
+	 * @param entrada
+	 *            Arreglo de palabras
+	 * @param off
+	 *            posicion de la palabra '0' en entrada
+	 */
+	private void CodecBlock(long entrada[], int off) {
 		int i, NumRCA;
 
+		CheckDestroyed();
 		NumRCA = RCA.length;
 		// Realiza la ortogonalizacion de los bits usando el codigo Walsh
-		entrada[0] = entrada[0] ^ WalshCodes[WalshCode][0];
-		entrada[1] = entrada[1] ^ WalshCodes[WalshCode][1];
+		entrada[off] = entrada[off] ^ WalshCodes[WalshCode][0];
+		entrada[off + 1] = entrada[off + 1] ^ WalshCodes[WalshCode][1];
 		// Realiza el Interleaving de los bits de entrada
-		Interleaving(entrada);
+		BitPermutation.interleave(entrada, off);
+		if ((Engine != null) || Pack()) {
+			if (Special != null) {
+				// Codifica las entradas con el codificador especializado
+				Special.RakeCodec(Engine.GetRegs(), Engine.GetIO(), entrada, off);
+				Special.ShiftCodec(Engine.GetRegs(), Engine.GetIO());
+				return;
+			}
+			// Codifica las entradas sobre el motor empaquetado
+			for (i = 0; i < NumRCA - 1; i++) {
+				Engine.Rake(i, entrada, off);
+				CrossByte(CrossBitsSecuen[i], entrada, off);
+			}
+			Engine.Rake(i, entrada, off);
+			Engine.Shift(false);
+			Engine.SeedHop(SeedHopPerm);
+			return;
+		}
 		// Codifica las entradas y realiza el cruce de bits
 		for (i = 0; i < NumRCA - 1; i++) {
-			RCA[i].Codec(entrada);
-			CrossByte(CrossBitsSecuen[i], entrada);
+			RCA[i].Codec(entrada, off);
+			CrossByte(CrossBitsSecuen[i], entrada, off);
 		}
 		// Realiza la ultima codificacion
-		RCA[i].Codec(entrada);
+		RCA[i].Codec(entrada, off);
 		// Realiza el corrimiento de las semillas
 		for (i = 0; i < NumRCA; i++) {
 			RCA[i].ShiftCodec();
@@ -1322,26 +1786,50 @@ public class CuaimaCrypt {
 	}
 
 	/**
-	 * @param entrada
+	 * Decodifica las palabras entrada[off] y entrada[off+1]
 	 * 
-	 *            Decodifica las dos palabras '0' y '1' pasadas por referencia
-	 *            en entrada[2]
+	 * @param entrada
+	 *            Arreglo de palabras
+	 * @param off
+	 *            posicion de la palabra '0' en entrada
 	 */
-	public void Decodec(long entrada[]) {
+	private void DecodecBlock(long entrada[], int off) {
 		int i, NumRCA;
 
+		CheckDestroyed();
 		NumRCA = RCA.length;
-		// Realiza la Decodificacion de los datos de entrada
-		for (i = NumRCA - 1; i > 0; i--) {
-			RCA[i].Decodec(entrada);
-			CrossByte(CrossBitsSecuen[i - 1], entrada);
+		if (((Engine != null) || Pack()) && (Special != null)) {
+			// Decodifica las entradas con el codificador especializado
+			Special.RakeDecodec(Engine.GetRegs(), Engine.GetIO(), entrada, off);
+		} else if (Engine != null) {
+			// Decodifica las entradas sobre el motor empaquetado
+			for (i = NumRCA - 1; i > 0; i--) {
+				Engine.Rake(i, entrada, off);
+				CrossByte(CrossBitsSecuen[i - 1], entrada, off);
+			}
+			Engine.Rake(0, entrada, off);
+		} else {
+			// Realiza la Decodificacion de los datos de entrada
+			for (i = NumRCA - 1; i > 0; i--) {
+				RCA[i].Decodec(entrada, off);
+				CrossByte(CrossBitsSecuen[i - 1], entrada, off);
+			}
+			RCA[0].Decodec(entrada, off);
 		}
-		RCA[0].Decodec(entrada);
 		// Realiza el DeInterleaving de los bits de Salida
-		DeInterleaving(entrada);
+		BitPermutation.deinterleave(entrada, off);
 		// Realiza el deortogonalizacion de los bits usando el codigo Walsh
-		entrada[0] = entrada[0] ^ WalshCodes[WalshCode][0];
-		entrada[1] = entrada[1] ^ WalshCodes[WalshCode][1];
+		entrada[off] = entrada[off] ^ WalshCodes[WalshCode][0];
+		entrada[off + 1] = entrada[off + 1] ^ WalshCodes[WalshCode][1];
+		if (Special != null) {
+			Special.ShiftDecodec(Engine.GetRegs(), Engine.GetIO());
+			return;
+		}
+		if (Engine != null) {
+			Engine.Shift(true);
+			Engine.SeedHop(SeedHopPerm);
+			return;
+		}
 		// Realiza el corrimiento de las semillas
 		for (i = 0; i < NumRCA; i++) {
 			RCA[i].ShiftDecodec();
@@ -1350,6 +1838,208 @@ public class CuaimaCrypt {
 		SeedHop();
 	}
 
+	/**
+	 * Construye el motor empaquetado a partir de los RakeCodec si la
+	 * configuracion lo permite y ningun ShiftCodec fue entregado por
+	 * GetShiftCodec, y descarta el codificador especializado si la
+	 * configuracion ya no es la que se especializo
+	 * 
+	 * @return true si el motor quedo disponible
+	 */
+	private boolean Pack() {
+
+		if ((!Shared) && (!Unpackable) && (SeedHoppingSeq.length == GetNumSeeds())) {
+			Engine = PackedCodec.Pack(RCA);
+			Scrubber.Engine = Engine;
+			Unpackable = (Engine == null);
+		}
+		if ((Special != null) && ((Engine == null)
+				|| !Special.Matches(CuaimaSpecializer.Snapshot(Engine.GetConf(), CrossBitsSecuen, SeedHopPerm)))) {
+			Special = null;
+		}
+		return Engine != null;
+	}
+
+	/**
+	 * Genera un codificador especializado para la configuracion de la clave
+	 * vigente, con los cruces de bytes, ventanas, posiciones de cruce, saltos,
+	 * cadenas y saltos de las semillas como constantes y el ciclo de la ronda
+	 * desenrollado, y lo usa en Codec y Decodec. La salida es identica a la
+	 * del motor normal.
+	 * 
+	 * El bytecode de la clase se genera directamente y se guarda en un cache
+	 * compartido; la primera llamada para una clave genera y carga la clase,
+	 * por lo que solo conviene en procesos que cifran grandes volumenes con la
+	 * misma clave, y las siguientes instancias con la misma clave (por ejemplo
+	 * creadas con Copy o CuaimaCrypt(CuaimaKeySchedule)) la reutilizan.
+	 * Cualquier cambio posterior de la configuracion descarta el codificador
+	 * especializado.
+	 * 
+	 * @return true si el codificador especializado quedo activo, false si la
+	 *         configuracion no se puede especializar (mas de 32 RakeCodec),
+	 *         si la clase no se puede cargar o si GetShiftCodec entrego un
+	 *         ShiftCodec
+	 */
+	public boolean Specialize() {
+
+		CheckDestroyed();
+		if ((Engine != null) || Pack()) {
+			Special = CuaimaSpecializer.Compile(
+					CuaimaSpecializer.Snapshot(Engine.GetConf(), CrossBitsSecuen, SeedHopPerm),
+					CrossBitsSecuen.length);
+		}
+		return Special != null;
+	}
+
+	/**
+	 * @return true si Codec y Decodec usan un codificador especializado
+	 */
+	public boolean IsSpecialized() {
+
+		if (Special != null) {
+			if ((Engine != null) || Pack()) {
+				return Special != null;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Devuelve el estado de ejecucion del motor empaquetado a los RakeCodec y
+	 * descarta el motor, de forma que el grafo de objetos quede vigente
+	 */
+	private void Unpack() {
+
+		if (Engine != null) {
+			Engine.Unpack();
+			Engine.Clear();
+			Engine = null;
+			Scrubber.Engine = null;
+		}
+	}
+
+	/**
+	 * Descarta el motor empaquetado antes de un cambio de la configuracion de
+	 * los RakeCodec o ShiftCodec, despues del cual se vuelve a intentar
+	 * empaquetar
+	 */
+	private void Reconfigure() {
+
+		Unpack();
+		Unpackable = false;
+	}
+
+	/**
+	 * Verifica que la clave no haya sido borrada
+	 */
+	private void CheckDestroyed() {
+
+		if (Destroyed) {
+			throw new IllegalStateException("The CuaimaCrypt was destroyed");
+		}
+	}
+
+	/**
+	 * Borra de la memoria las semillas, los registros y la configuracion de
+	 * todos los RakeCodec y ShiftCodec y la secuencia de cruces y de saltos;
+	 * despues no se puede codificar ni definir un nuevo password.
+	 * 
+	 * Si no se llama, la clave se borra cuando el recolector de basura
+	 * descubre que la instancia dejo de ser alcanzable.
+	 */
+	@Override
+	public void destroy() {
+
+		Unpack();
+		Special = null;
+		Cleaner.clean();
+		Arrays.fill(CrossBitsSecuen, 0);
+		Arrays.fill(SeedHoppingSeq, 0);
+		Arrays.fill(SeedHopPerm, 0);
+		Arrays.fill(Bloque, 0L);
+		WalshCode = 0;
+		RLorenz = null;
+		Destroyed = true;
+	}
+
+	/**
+	 * @return TRUE si la clave fue borrada con destroy
+	 */
+	@Override
+	public boolean isDestroyed() {
+		return Destroyed;
+	}
+
+	/**
+	 * Equivalente a destroy, para usar el CuaimaCrypt en try-with-resources
+	 */
+	@Override
+	public void close() {
+		destroy();
+	}
+
+	/**
+	 * Verifica que 'blocks' bloques a partir de words[off] esten dentro del
+	 * arreglo
+	 */
+	private static void CheckWords(long[] words, int off, int blocks) {
+
+		if ((words == null) || (off < 0) || (blocks < 0) || (off > words.length - 2L * blocks)) {
+			throw new IllegalArgumentException("Invalid word range: off=" + off + " blocks=" + blocks);
+		}
+	}
+
+	/**
+	 * Verifica que buf[off..off+len) este dentro del buffer y que len sea
+	 * multiplo de 16
+	 */
+	private static void CheckBytes(byte[] buf, int off, int len) {
+
+		if ((buf == null) || (off < 0) || (len < 0) || (off > buf.length - len)) {
+			throw new IllegalArgumentException("Invalid byte range: off=" + off + " len=" + len);
+		}
+		if ((len % BLOCKSIZE) != 0) {
+			throw new IllegalArgumentException("Length must be a multiple of " + BLOCKSIZE + ": " + len);
+		}
+	}
+
+	/**
+	 * Verifica que los bytes restantes en buf sean multiplo de 16
+	 */
+	private static void CheckRemaining(ByteBuffer buf) {
+
+		if ((buf.remaining() % BLOCKSIZE) != 0) {
+			throw new IllegalArgumentException("Remaining bytes must be a multiple of " + BLOCKSIZE + ": "
+					+ buf.remaining());
+		}
+	}
+
+	/**
+	 * Lee la palabra big-endian en buf[off..off+8)
+	 */
+	private static long GetLong(byte[] buf, int off) {
+
+		return ((long) buf[off] << 56) | ((long) (buf[off + 1] & 0xFF) << 48) | ((long) (buf[off + 2] & 0xFF) << 40)
+				| ((long) (buf[off + 3] & 0xFF) << 32) | ((long) (buf[off + 4] & 0xFF) << 24)
+				| ((long) (buf[off + 5] & 0xFF) << 16) | ((long) (buf[off + 6] & 0xFF) << 8)
+				| ((long) (buf[off + 7] & 0xFF));
+	}
+
+	/**
+	 * Escribe la palabra 'v' en buf[off..off+8) en orden big-endian
+	 */
+	private static void PutLong(byte[] buf, int off, long v) {
+
+		buf[off] = (byte) (v >>> 56);
+		buf[off + 1] = (byte) (v >>> 48);
+		buf[off + 2] = (byte) (v >>> 40);
+		buf[off + 3] = (byte) (v >>> 32);
+		buf[off + 4] = (byte) (v >>> 24);
+		buf[off + 5] = (byte) (v >>> 16);
+		buf[off + 6] = (byte) (v >>> 8);
+		buf[off + 7] = (byte) v;
+	}
+
 	/**
 	 * Realiza el Salto de las Distintas Semillas Acorde con la Secuencia
 	 * especificada
@@ -0,0 +1,251 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+import java.util.Arrays;
+import javax.security.auth.Destroyable;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt.
+ *
+ * Programacion de la clave de un CuaimaCrypt: semillas, ventanas, posiciones
+ * de cruce, saltos, cadenas, cruces de bytes, secuencia de saltos de semillas
+ * y codigo Walsh que deriva CuaimaCrypt.Password.
+ *
+ * Es inmutable y no contiene el estado de ejecucion de los registros, de forma
+ * que se puede compartir entre hebras para crear con
+ * CuaimaCrypt(CuaimaKeySchedule) instancias independientes, en el estado de
+ * Reset, sin repetir la derivacion de la clave. Las cadenas se guardan como
+ * indices de ShiftCodec y se vuelven a enlazar en cada instancia creada.
+ *
+ * Con destroy se borra la programacion de la memoria; las instancias ya
+ * creadas no se ven afectadas porque tienen su propia copia.
+ *
+ * @author Julian Bolivar
+ * @version 1.1.0
+ *
+ * <p>
+ * Change Log:
+ * </p>
+ * <ul>
+ * <li>v1.1.0 - Implements Destroyable to clear the schedule from memory.</li>
+ * </ul>
+ */
+public final class CuaimaKeySchedule implements Destroyable {
+
+    // Numero de ShiftCodec por RakeCodec
+    private final int Teeths;
+    // Configuracion de cada ShiftCodec, en el orden de las semillas
+    private final long Seeds[];
+    private final int PosUp[];
+    private final int PosDown[];
+    private final int ShiftLeap[];
+    private final int WinA[];
+    private final int WinB[];
+    private final int UpChain[];
+    private final int DownChain[];
+    // Configuracion del CuaimaCrypt
+    private final int CrossBits[];
+    private final int SeedHopping[];
+    private final int WalshCode;
+    // Tabla de codigos Walsh, constante y compartida con las instancias
+    private final long WalshCodes[][];
+    // TRUE si la programacion fue borrada
+    private boolean Destroyed;
+
+    /**
+     * Captura la programacion de la clave a partir de los RakeCodec de un
+     * CuaimaCrypt, cuyo estado de ejecucion debe estar en el grafo de objetos.
+     *
+     * @param RCA RakeCodecs del CuaimaCrypt
+     * @param CrossBits Secuencia de cruces de bytes
+     * @param SeedHopping Secuencia de saltos de las semillas
+     * @param WalshCode Codigo Walsh seleccionado
+     * @param WalshCodes Tabla de codigos Walsh
+     * @throws IllegalStateException si alguna cadena es nula o apunta a un
+     * ShiftCodec que no pertenece a RCA
+     */
+    CuaimaKeySchedule(RakeCodec RCA[], int CrossBits[], int SeedHopping[], int WalshCode, long WalshCodes[][]) {
+        ShiftCodec SC[];
+        ShiftCodec Codec;
+        int i, j, NumSC;
+
+        Teeths = RCA[0].GetNumSC();
+        NumSC = RCA.length * Teeths;
+        SC = new ShiftCodec[NumSC];
+        for (i = 0; i < RCA.length; i++) {
+            if (RCA[i].GetNumSC() != Teeths) {
+                throw new IllegalStateException("All RakeCodecs must have " + Teeths + " ShiftCodecs");
+            }
+            for (j = 0; j < Teeths; j++) {
+                SC[(i * Teeths) + j] = RCA[i].GetShiftCodec(j);
+            }
+        }
+        Seeds = new long[NumSC];
+        PosUp = new int[NumSC];
+        PosDown = new int[NumSC];
+        ShiftLeap = new int[NumSC];
+        WinA = new int[NumSC];
+        WinB = new int[NumSC];
+        UpChain = new int[NumSC];
+        DownChain = new int[NumSC];
+        for (i = 0; i < NumSC; i++) {
+            Codec = SC[i];
+            Seeds[i] = Codec.getSeed();
+            PosUp[i] = Codec.getPosUp();
+            PosDown[i] = Codec.getPosDown();
+            ShiftLeap[i] = Codec.getShiftLeap();
+            WinA[i] = Codec.getWinA();
+            WinB[i] = Codec.getWinB();
+            UpChain[i] = IndexOf(SC, Codec.getUpChain());
+            DownChain[i] = IndexOf(SC, Codec.getDownChain());
+            if ((UpChain[i] < 0) || (DownChain[i] < 0)) {
+                throw new IllegalStateException("ShiftCodec " + i + " is chained outside of its CuaimaCrypt");
+            }
+        }
+        this.CrossBits = CrossBits.clone();
+        this.SeedHopping = SeedHopping.clone();
+        this.WalshCode = WalshCode;
+        this.WalshCodes = WalshCodes;
+        this.Destroyed = false;
+    }
+
+    /**
+     * Retorna la posicion de 'Codec' en 'SC' o -1 si no esta
+     */
+    private static int IndexOf(ShiftCodec SC[], ShiftCodec Codec) {
+        int i;
+
+        if (Codec != null) {
+            for (i = 0; i < SC.length; i++) {
+                if (SC[i] == Codec) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Genera un nuevo grafo de RakeCodecs y ShiftCodecs con la programacion de
+     * la clave, en el estado de las semillas y con las cadenas enlazadas
+     *
+     * @return RakeCodecs del nuevo CuaimaCrypt
+     * @throws IllegalStateException si la programacion fue borrada
+     */
+    synchronized RakeCodec[] BuildRakes() {
+        RakeCodec RCA[];
+        ShiftCodec SC[];
+        ShiftCodec Teeth[];
+        int i, NumSC;
+
+        CheckDestroyed();
+        NumSC = Seeds.length;
+        SC = new ShiftCodec[NumSC];
+        for (i = 0; i < NumSC; i++) {
+            SC[i] = new ShiftCodec(Seeds[i]);
+            SC[i].setPosUp(PosUp[i]);
+            SC[i].setPosDown(PosDown[i]);
+            SC[i].setShiftLeap(ShiftLeap[i]);
+            SC[i].setWinA(WinA[i]);
+            SC[i].setWinB(WinB[i]);
+        }
+        for (i = 0; i < NumSC; i++) {
+            SC[i].Chain(SC[UpChain[i]], SC[DownChain[i]]);
+        }
+        RCA = new RakeCodec[NumSC / Teeths];
+        for (i = 0; i < RCA.length; i++) {
+            Teeth = new ShiftCodec[Teeths];
+            System.arraycopy(SC, i * Teeths, Teeth, 0, Teeths);
+            RCA[i] = new RakeCodec(Teeth);
+        }
+        return RCA;
+    }
+
+    /**
+     * Retorna el numero de bloques de RakeCodecs de la programacion
+     *
+     * @return Numero de bloques de RakeCodecs
+     */
+    public int GetNumBlocks() {
+        return Seeds.length / Teeths;
+    }
+
+    /**
+     * Retorna el numero de semillas de la programacion
+     *
+     * @return Numero de semillas
+     */
+    public int GetNumSeeds() {
+        return Seeds.length;
+    }
+
+    /**
+     * @return Copia de la secuencia de cruces de bytes
+     */
+    synchronized int[] GetCrossBits() {
+        CheckDestroyed();
+        return CrossBits.clone();
+    }
+
+    /**
+     * @return Copia de la secuencia de saltos de las semillas
+     */
+    synchronized int[] GetSeedHopping() {
+        CheckDestroyed();
+        return SeedHopping.clone();
+    }
+
+    /**
+     * @return Codigo Walsh seleccionado
+     */
+    synchronized int GetWalshCode() {
+        CheckDestroyed();
+        return WalshCode;
+    }
+
+    /**
+     * @return Tabla de codigos Walsh
+     */
+    long[][] GetWalshCodes() {
+        return WalshCodes;
+    }
+
+    /**
+     * Verifica que la programacion no haya sido borrada
+     */
+    private void CheckDestroyed() {
+
+        if (Destroyed) {
+            throw new IllegalStateException("The key schedule was destroyed");
+        }
+    }
+
+    /**
+     * Borra de la memoria las semillas y la configuracion de la programacion,
+     * la cual no se puede usar despues para crear instancias
+     */
+    @Override
+    public synchronized void destroy() {
+
+        Arrays.fill(Seeds, 0L);
+        Arrays.fill(PosUp, 0);
+        Arrays.fill(PosDown, 0);
+        Arrays.fill(ShiftLeap, 0);
+        Arrays.fill(WinA, 0);
+        Arrays.fill(WinB, 0);
+        Arrays.fill(UpChain, 0);
+        Arrays.fill(DownChain, 0);
+        Arrays.fill(CrossBits, 0);
+        Arrays.fill(SeedHopping, 0);
+        Destroyed = true;
+    }
+
+    /**
+     * @return TRUE si la programacion fue borrada con destroy
+     */
+    @Override
+    public synchronized boolean isDestroyed() {
+        return Destroyed;
+    }
+}
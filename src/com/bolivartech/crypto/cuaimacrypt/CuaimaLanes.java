@@ -0,0 +1,420 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+import java.util.Arrays;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt.
+ *
+ * Motor que avanza en paralelo varias instancias independientes de
+ * CuaimaCrypt con la misma programacion de clave, una por carril (lane), para
+ * codificar muchos mensajes cortos.
+ *
+ * Un solo flujo de CuaimaCrypt es serial, porque cada bloque depende del
+ * estado que dejo el anterior, pero los mensajes distintos son independientes.
+ * Este motor guarda los registros de todos los carriles como estructura de
+ * arreglos, con los carriles de un mismo ShiftCodec contiguos, y ejecuta cada
+ * paso de la ronda para todos los carriles en un ciclo sin saltos, de forma
+ * que el compilador JIT lo puede vectorizar. La configuracion del
+ * CuaimaCrypt (ventanas, cadenas, cruces, saltos y codigo Walsh) es la misma
+ * para todos los carriles.
+ *
+ * El resultado de cada carril es identico bit a bit al de un
+ * CuaimaCrypt(KeySchedule) que procesa los mismos bloques desde el estado de
+ * Reset.
+ *
+ * La ganancia frente a una sola instancia con Reset y Codec por mensaje
+ * depende del procesador y del numero de carriles; se mide con CuaimaBench
+ * comparando Lanes contra LanesBaseline (ant bench -Dbench.args="-f Lanes").
+ *
+ * No es seguro para el uso concurrente; cada hebra debe tener su propio
+ * motor.
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+public final class CuaimaLanes {
+
+    // Numero de carriles por defecto
+    public static final int LANES = 8;
+
+    private final int Lanes;
+    private final int NumSC;
+    private final int NumRCA;
+    // Configuracion de cada ShiftCodec
+    private final int WinA[];
+    private final int WinB[];
+    private final int PosUp[];
+    private final int PosDown[];
+    private final int Leap[];
+    private final int Up[];
+    private final int Down[];
+    // Semillas de cada ShiftCodec
+    private final long Seeds[];
+    // Configuracion del CuaimaCrypt
+    private final int CrossBits[];
+    private final int Perm[];
+    private final long Walsh0;
+    private final long Walsh1;
+    // Registros, entradas y salidas; el carril 'l' del ShiftCodec 'k' esta
+    // en la posicion k*Lanes+l
+    private long Regs[];
+    private long Spare[];
+    private final int Ent[];
+    private final int Sal[];
+    // Bloques de trabajo de Codec(long[][], int[]) y Decodec(long[][], int[])
+    private final long Blocks[];
+
+    /**
+     * Construye el motor con 'Lanes' carriles en el estado de Reset
+     *
+     * @param KeySchedule Programacion de la clave de todos los carriles
+     * @param Lanes Numero de carriles, mayor a 0
+     * @throws IllegalArgumentException si Lanes es menor a 1
+     * @throws IllegalStateException si la programacion fue borrada o no puede
+     * ser representada por el motor empaquetado
+     */
+    public CuaimaLanes(CuaimaKeySchedule KeySchedule, int Lanes) {
+        PackedCodec Packed;
+        int Conf[];
+        int k, c;
+
+        if (Lanes < 1) {
+            throw new IllegalArgumentException("At least one lane is required");
+        }
+        Packed = PackedCodec.Pack(KeySchedule.BuildRakes());
+        if (Packed == null) {
+            throw new IllegalStateException("The key schedule is not supported by the lane engine");
+        }
+        this.Lanes = Lanes;
+        NumSC = Packed.NumSeeds();
+        NumRCA = NumSC / PackedCodec.TEETHS;
+        Conf = Packed.GetConf();
+        WinA = new int[NumSC];
+        WinB = new int[NumSC];
+        PosUp = new int[NumSC];
+        PosDown = new int[NumSC];
+        Leap = new int[NumSC];
+        Up = new int[NumSC];
+        Down = new int[NumSC];
+        for (k = 0; k < NumSC; k++) {
+            c = k * PackedCodec.CONFSIZE;
+            WinA[k] = Conf[c + PackedCodec.WINA];
+            WinB[k] = Conf[c + PackedCodec.WINB];
+            PosUp[k] = Conf[c + PackedCodec.POSUP];
+            PosDown[k] = Conf[c + PackedCodec.POSDOWN];
+            Leap[k] = Conf[c + PackedCodec.LEAP];
+            Up[k] = Conf[c + PackedCodec.UP] * Lanes;
+            Down[k] = Conf[c + PackedCodec.DOWN] * Lanes;
+        }
+        Seeds = Packed.GetRegs().clone();
+        CrossBits = KeySchedule.GetCrossBits();
+        Perm = PackedCodec.CompileHop(KeySchedule.GetSeedHopping(), NumSC);
+        Walsh0 = KeySchedule.GetWalshCodes()[KeySchedule.GetWalshCode()][0];
+        Walsh1 = KeySchedule.GetWalshCodes()[KeySchedule.GetWalshCode()][1];
+        Regs = new long[NumSC * Lanes];
+        Spare = new long[NumSC * Lanes];
+        Ent = new int[NumSC * Lanes];
+        Sal = new int[NumSC * Lanes];
+        Blocks = new long[2 * Lanes];
+        Reset();
+    }
+
+    /**
+     * Construye el motor con LANES carriles en el estado de Reset
+     *
+     * @param KeySchedule Programacion de la clave de todos los carriles
+     */
+    public CuaimaLanes(CuaimaKeySchedule KeySchedule) {
+        this(KeySchedule, LANES);
+    }
+
+    /**
+     * @return Numero de carriles del motor
+     */
+    public int GetLanes() {
+        return Lanes;
+    }
+
+    /**
+     * Reinicia todos los carriles al estado de las semillas
+     */
+    public void Reset() {
+        int k;
+
+        for (k = 0; k < NumSC; k++) {
+            Arrays.fill(Regs, k * Lanes, (k + 1) * Lanes, Seeds[k]);
+        }
+    }
+
+    /**
+     * Reinicia el carril 'Lane' al estado de las semillas, sin afectar a los
+     * demas
+     *
+     * @param Lane Numero del carril
+     * @throws IllegalArgumentException si el carril no existe
+     */
+    public void Reset(int Lane) {
+        int k;
+
+        CheckLane(Lane);
+        for (k = 0; k < NumSC; k++) {
+            Regs[(k * Lanes) + Lane] = Seeds[k];
+        }
+    }
+
+    /**
+     * Codifica en sitio un bloque por carril; el bloque del carril 'l' son las
+     * palabras words[2*l] y words[2*l+1]. Todos los carriles avanzan un bloque.
+     *
+     * @param words Bloques de los carriles, 2*GetLanes() palabras
+     * @throws IllegalArgumentException si words no tiene 2*GetLanes() palabras
+     */
+    public void Codec(long words[]) {
+        int r, l;
+
+        CheckBlocks(words);
+        for (l = 0; l < Lanes; l++) {
+            words[2 * l] ^= Walsh0;
+            words[(2 * l) + 1] ^= Walsh1;
+            BitPermutation.interleave(words, 2 * l);
+        }
+        for (r = 0; r < NumRCA - 1; r++) {
+            Rake(r, words);
+            for (l = 0; l < Lanes; l++) {
+                CuaimaCrypt.CrossByte(CrossBits[r], words, 2 * l);
+            }
+        }
+        Rake(r, words);
+        Shift(Ent);
+        SeedHop();
+    }
+
+    /**
+     * Decodifica en sitio un bloque por carril; el bloque del carril 'l' son
+     * las palabras words[2*l] y words[2*l+1]. Todos los carriles avanzan un
+     * bloque.
+     *
+     * @param words Bloques de los carriles, 2*GetLanes() palabras
+     * @throws IllegalArgumentException si words no tiene 2*GetLanes() palabras
+     */
+    public void Decodec(long words[]) {
+        int r, l;
+
+        CheckBlocks(words);
+        for (r = NumRCA - 1; r > 0; r--) {
+            Rake(r, words);
+            for (l = 0; l < Lanes; l++) {
+                CuaimaCrypt.CrossByte(CrossBits[r - 1], words, 2 * l);
+            }
+        }
+        Rake(0, words);
+        for (l = 0; l < Lanes; l++) {
+            BitPermutation.deinterleave(words, 2 * l);
+            words[2 * l] ^= Walsh0;
+            words[(2 * l) + 1] ^= Walsh1;
+        }
+        Shift(Sal);
+        SeedHop();
+    }
+
+    /**
+     * Codifica en sitio cada mensaje Messages[m] desde el estado de Reset,
+     * repartiendo los mensajes entre los carriles. Los bloques de cada mensaje
+     * se procesan en orden circular a partir del bloque FirstBlock[m], es
+     * decir FirstBlock[m], ..., n-1, 0, ..., FirstBlock[m]-1, igual que
+     * CuaimaCrypt.Codec(long[], int, int) sobre esos rangos. Al terminar, los
+     * carriles quedan en un estado indefinido.
+     *
+     * @param Messages Mensajes, cada uno con un numero par de palabras
+     * @param FirstBlock Primer bloque de cada mensaje o null para empezar en
+     * el bloque 0
+     * @throws IllegalArgumentException si algun mensaje tiene un numero impar
+     * de palabras o algun primer bloque esta fuera del mensaje
+     */
+    public void Codec(long Messages[][], int FirstBlock[]) {
+        Run(Messages, FirstBlock, false);
+    }
+
+    /**
+     * Decodifica en sitio cada mensaje Messages[m] desde el estado de Reset,
+     * en el mismo orden de bloques que Codec(long[][], int[]). Al terminar,
+     * los carriles quedan en un estado indefinido.
+     *
+     * @param Messages Mensajes, cada uno con un numero par de palabras
+     * @param FirstBlock Primer bloque de cada mensaje o null para empezar en
+     * el bloque 0
+     * @throws IllegalArgumentException si algun mensaje tiene un numero impar
+     * de palabras o algun primer bloque esta fuera del mensaje
+     */
+    public void Decodec(long Messages[][], int FirstBlock[]) {
+        Run(Messages, FirstBlock, true);
+    }
+
+    /**
+     * Reparte los mensajes entre los carriles; cuando un carril termina su
+     * mensaje se reinicia y toma el siguiente, y los carriles sin mensaje
+     * procesan bloques en cero cuyo resultado se descarta.
+     */
+    private void Run(long Messages[][], int FirstBlock[], boolean Decodec) {
+        int Message[], Done[], Count[], Start[];
+        int m, l, b, Next, Active;
+
+        if ((FirstBlock != null) && (FirstBlock.length != Messages.length)) {
+            throw new IllegalArgumentException("FirstBlock must have one entry per message");
+        }
+        for (m = 0; m < Messages.length; m++) {
+            if ((Messages[m].length % 2) != 0) {
+                throw new IllegalArgumentException("Message " + m + " has an odd number of words");
+            }
+            if ((FirstBlock != null) && ((FirstBlock[m] < 0)
+                    || ((FirstBlock[m] > 0) && (FirstBlock[m] >= (Messages[m].length / 2))))) {
+                throw new IllegalArgumentException("Invalid first block of message " + m + ": " + FirstBlock[m]);
+            }
+        }
+        Message = new int[Lanes];
+        Done = new int[Lanes];
+        Count = new int[Lanes];
+        Start = new int[Lanes];
+        Arrays.fill(Message, -1);
+        Next = 0;
+        do {
+            Active = 0;
+            for (l = 0; l < Lanes; l++) {
+                if ((Message[l] >= 0) && (Done[l] == Count[l])) {
+                    Message[l] = -1;
+                }
+                while ((Message[l] < 0) && (Next < Messages.length)) {
+                    if (Messages[Next].length > 0) {
+                        Message[l] = Next;
+                        Count[l] = Messages[Next].length / 2;
+                        Start[l] = (FirstBlock != null) ? FirstBlock[Next] : 0;
+                        Done[l] = 0;
+                        Reset(l);
+                    }
+                    Next++;
+                }
+                if (Message[l] >= 0) {
+                    b = 2 * ((Start[l] + Done[l]) % Count[l]);
+                    Blocks[2 * l] = Messages[Message[l]][b];
+                    Blocks[(2 * l) + 1] = Messages[Message[l]][b + 1];
+                    Active++;
+                } else {
+                    Blocks[2 * l] = 0;
+                    Blocks[(2 * l) + 1] = 0;
+                }
+            }
+            if (Active > 0) {
+                if (Decodec) {
+                    Decodec(Blocks);
+                } else {
+                    Codec(Blocks);
+                }
+                for (l = 0; l < Lanes; l++) {
+                    if (Message[l] >= 0) {
+                        b = 2 * ((Start[l] + Done[l]) % Count[l]);
+                        Messages[Message[l]][b] = Blocks[2 * l];
+                        Messages[Message[l]][b + 1] = Blocks[(2 * l) + 1];
+                        Done[l]++;
+                    }
+                }
+            }
+        } while (Active > 0);
+        Arrays.fill(Blocks, 0L);
+    }
+
+    /**
+     * Aplica el RakeCodec 'NRCA' al bloque de cada carril, equivalente a
+     * PackedCodec.Rake
+     */
+    private void Rake(int NRCA, long words[]) {
+        int k, j, l, i;
+        int Ent0, Ent1, Sal0, Sal1;
+        long w;
+
+        k = NRCA * PackedCodec.TEETHS;
+        for (j = 0; j < 2; j++) {
+            i = k * Lanes;
+            for (l = 0; l < Lanes; l++) {
+                w = words[(2 * l) + j];
+                Ent0 = (int) w;
+                Ent1 = (int) (w >>> 32);
+                Sal0 = Ent0 ^ (int) Regs[i + l];
+                Sal1 = Ent1 ^ (int) Regs[i + Lanes + l];
+                Ent[i + l] = Ent0;
+                Sal[i + l] = Sal0;
+                Ent[i + Lanes + l] = Ent1;
+                Sal[i + Lanes + l] = Sal1;
+                words[(2 * l) + j] = (Sal0 & 0xFFFFFFFFL) | ((long) Sal1 << 32);
+            }
+            k += 2;
+        }
+    }
+
+    /**
+     * Realiza el corrimiento de los registros de todos los carriles,
+     * equivalente a PackedCodec.Shift; IO es Ent para la codificacion y Sal
+     * para la decodificacion
+     */
+    private void Shift(int IO[]) {
+        int k, l, i, u, d, wa, wb, pu, pd, lp;
+        int a, b;
+        long SR;
+
+        for (k = 0; k < NumSC; k++) {
+            i = k * Lanes;
+            u = Up[k];
+            d = Down[k];
+            wa = WinA[k];
+            wb = WinB[k];
+            pu = PosUp[k];
+            pd = PosDown[k];
+            lp = Leap[k];
+            for (l = 0; l < Lanes; l++) {
+                SR = Regs[i + l];
+                a = (int) (SR >>> wa) ^ (int) (Regs[u + l] >>> pu);
+                b = (int) (SR >>> wb) ^ (int) (Regs[d + l] >>> pd);
+                b = a ^ b ^ IO[i + l];
+                Regs[i + l] = (SR >>> lp) ^ ((long) b << 31);
+            }
+        }
+    }
+
+    /**
+     * Realiza el salto de los registros de todos los carriles, equivalente a
+     * PackedCodec.SeedHop
+     */
+    private void SeedHop() {
+        int i;
+        long Temp[];
+
+        for (i = 0; i < NumSC; i++) {
+            System.arraycopy(Regs, Perm[i] * Lanes, Spare, i * Lanes, Lanes);
+        }
+        Temp = Regs;
+        Regs = Spare;
+        Spare = Temp;
+    }
+
+    /**
+     * Verifica que el carril exista
+     */
+    private void CheckLane(int Lane) {
+
+        if ((Lane < 0) || (Lane >= Lanes)) {
+            throw new IllegalArgumentException("Invalid lane: " + Lane);
+        }
+    }
+
+    /**
+     * Verifica que words tenga un bloque por carril
+     */
+    private void CheckBlocks(long words[]) {
+
+        if ((words == null) || (words.length != (2 * Lanes))) {
+            throw new IllegalArgumentException("Exactly " + (2 * Lanes) + " words are required");
+        }
+    }
+}
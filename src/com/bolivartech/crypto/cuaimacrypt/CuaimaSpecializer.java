@@ -0,0 +1,904 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt.
+ *
+ * Generador de codificadores especializados para una configuracion de clave.
+ *
+ * Despues de Password la secuencia de cruces de bytes, las ventanas, las
+ * posiciones de cruce, los saltos, las cadenas y la permutacion de los saltos
+ * de las semillas son constantes. Este generador emite directamente el
+ * bytecode de una clase con esos valores como constantes, con el ciclo de los
+ * RakeCodec, el corrimiento y el salto desenrollados, y la carga en su propio
+ * ClassLoader, de forma que el JIT puede propagar las constantes y eliminar los
+ * accesos a la configuracion y la seleccion del cruce de bytes en cada bloque.
+ * Los metodos generados no tienen saltos, por lo que la clase (version 52,
+ * Java 8) no requiere StackMapTable, y el corrimiento se divide en metodos de
+ * SHIFTSEEDS semillas para que ninguno exceda el limite de compilacion del JIT.
+ * No se requiere el compilador del JDK, funciona igual en un JRE.
+ *
+ * Los codificadores se guardan en un cache acotado por configuracion, de forma
+ * que las instancias creadas con la misma clave reutilizan la clase generada.
+ * Si la configuracion excede MAXSEEDS semillas o la clase no se puede definir
+ * (por ejemplo por un SecurityManager), Compile retorna null y CuaimaCrypt
+ * sigue usando el motor empaquetado.
+ *
+ * <ul>
+ * <li>Change Log:
+ * <ul>
+ * <li>v1.1.0 - Emite el bytecode de la clase en lugar de compilar una fuente
+ * Java con javax.tools, que no existe en un JRE.</li>
+ * <li>v1.0.0 - Version inicial.</li>
+ * </ul>
+ * </li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @version 1.1.0
+ */
+final class CuaimaSpecializer {
+
+    // Maximo numero de semillas especializadas, limita el tamaño de los
+    // metodos generados por debajo del limite de compilacion del JIT
+    static final int MAXSEEDS = 128;
+    // Maximo numero de semillas por cada metodo generado del corrimiento
+    static final int SHIFTSEEDS = 32;
+    // Maximo numero de codificadores en el cache
+    static final int MAXCODECS = 16;
+    // Paquete de las clases generadas
+    private static final String PACKAGE = "com.bolivartech.crypto.cuaimacrypt.gen";
+    // Clase base de las clases generadas
+    private static final String BASE = "com/bolivartech/crypto/cuaimacrypt/SpecializedCodec";
+    // Descriptores de los metodos generados
+    private static final String RAKE = "([J[I[JI)V";
+    private static final String SHIFT = "([J[I)V";
+
+    // Codificadores generados, en orden de acceso
+    @GuardedBy("CuaimaSpecializer.class")
+    private static final LinkedHashMap<IntBuffer, SpecializedCodec> Codecs = new LinkedHashMap<IntBuffer, SpecializedCodec>(16, 0.75f, true);
+    // Numero de clases generadas, usado para sus nombres
+    @GuardedBy("CuaimaSpecializer.class")
+    private static int Generated = 0;
+
+    private CuaimaSpecializer() {
+    }
+
+    /**
+     * ClassLoader propio de cada clase generada, de forma que la clase se
+     * descarga cuando sale del cache y no quedan instancias
+     */
+    private static final class Loader extends ClassLoader {
+
+        Loader(ClassLoader Parent) {
+            super(Parent);
+        }
+
+        Class<?> Define(String Name, byte Code[]) {
+            return defineClass(Name, Code, 0, Code.length);
+        }
+    }
+
+    /**
+     * Calcula la configuracion que determina el codificador especializado: el
+     * numero de semillas, las ventanas, posiciones de cruce, saltos y cadenas
+     * de cada ShiftCodec, la secuencia de cruces de bytes y la permutacion de
+     * los saltos de las semillas
+     *
+     * @param Conf Configuracion del motor empaquetado
+     * @param CrossBits Secuencia de cruces de bytes
+     * @param Perm Permutacion de los saltos de las semillas
+     * @return Configuracion del codificador
+     */
+    static int[] Snapshot(int Conf[], int CrossBits[], int Perm[]) {
+        int Salida[];
+        int i, j, p, NumSC;
+
+        NumSC = Perm.length;
+        Salida = new int[1 + (NumSC * (PackedCodec.DOWN + 1)) + CrossBits.length + NumSC];
+        p = 0;
+        Salida[p++] = NumSC;
+        for (i = 0; i < NumSC; i++) {
+            for (j = PackedCodec.WINA; j <= PackedCodec.DOWN; j++) {
+                Salida[p++] = Conf[(i * PackedCodec.CONFSIZE) + j];
+            }
+        }
+        for (i = 0; i < CrossBits.length; i++) {
+            Salida[p++] = CrossBits[i];
+        }
+        for (i = 0; i < NumSC; i++) {
+            Salida[p++] = Perm[i];
+        }
+        return Salida;
+    }
+
+    /**
+     * Obtiene el codificador especializado para la configuracion 'Config',
+     * generandolo si no esta en el cache
+     *
+     * @param Config Configuracion calculada con Snapshot
+     * @param NumCrossBits Numero de cruces de bytes de la configuracion
+     * @return Codificador especializado o null si no se pudo generar
+     */
+    static synchronized SpecializedCodec Compile(int Config[], int NumCrossBits) {
+        SpecializedCodec Salida;
+        Iterator<SpecializedCodec> It;
+        IntBuffer Llave;
+        int NumSC;
+
+        NumSC = Config[0];
+        if ((NumSC > MAXSEEDS) || ((NumSC % PackedCodec.TEETHS) != 0) || (NumCrossBits != ((NumSC / PackedCodec.TEETHS) - 1))) {
+            return null;
+        }
+        Llave = IntBuffer.wrap(Config);
+        Salida = Codecs.get(Llave);
+        if (Salida == null) {
+            Salida = Generate(Config, NumSC, NumCrossBits);
+            if (Salida != null) {
+                Salida.SetConfig(Config);
+                Codecs.put(Llave, Salida);
+                It = Codecs.values().iterator();
+                while (Codecs.size() > MAXCODECS) {
+                    It.next();
+                    It.remove();
+                }
+            }
+        }
+        return Salida;
+    }
+
+    /**
+     * Genera y carga la clase especializada
+     */
+    private static SpecializedCodec Generate(int Config[], int NumSC, int NumCrossBits) {
+        String Name;
+        byte Code[];
+
+        Name = "Specialized" + Generated;
+        Generated++;
+        Code = Write(Name, Config, NumSC, NumCrossBits);
+        try {
+            return (SpecializedCodec) new Loader(SpecializedCodec.class.getClassLoader())
+                    .Define(PACKAGE + "." + Name, Code).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | SecurityException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Escribe el bytecode de la clase especializada para la configuracion
+     */
+    private static byte[] Write(String Name, int Config[], int NumSC, int NumCrossBits) {
+        ClassFile Clase;
+        Method Code;
+        String This;
+        int CrossBits[];
+        int Perm[];
+        int i, NumRCA, Parte, Partes;
+
+        NumRCA = NumSC / PackedCodec.TEETHS;
+        CrossBits = Arrays.copyOfRange(Config, 1 + (NumSC * (PackedCodec.DOWN + 1)), 1 + (NumSC * (PackedCodec.DOWN + 1)) + NumCrossBits);
+        Perm = Arrays.copyOfRange(Config, Config.length - NumSC, Config.length);
+        This = PACKAGE.replace('.', '/') + "/" + Name;
+        Clase = new ClassFile(This, BASE);
+        // Constructor
+        Code = new Method(Clase, 1);
+        Code.ALoad(0);
+        Code.Invoke(Method.INVOKESPECIAL, BASE, "<init>", "()V", -1);
+        Code.Op(Method.RETURN, 0);
+        Clase.Add(ClassFile.PUBLIC, "<init>", "()V", Code);
+        // Codificacion de los RakeCodec
+        Code = Method.Rake(Clase);
+        for (i = 0; i < NumRCA - 1; i++) {
+            WriteRake(Code, i);
+            WriteCrossByte(Code, CrossBits[i]);
+        }
+        WriteRake(Code, i);
+        Clase.Add(ClassFile.PUBLIC, "RakeCodec", RAKE, Method.Store(Code));
+        // Decodificacion de los RakeCodec
+        Code = Method.Rake(Clase);
+        for (i = NumRCA - 1; i > 0; i--) {
+            WriteRake(Code, i);
+            WriteCrossByte(Code, CrossBits[i - 1]);
+        }
+        WriteRake(Code, 0);
+        Clase.Add(ClassFile.PUBLIC, "RakeDecodec", RAKE, Method.Store(Code));
+        // Corrimientos, por partes de SHIFTSEEDS semillas, seguidos del salto
+        Partes = (NumSC + SHIFTSEEDS - 1) / SHIFTSEEDS;
+        for (i = 0; i < 2; i++) {
+            for (Parte = 0; Parte < Partes; Parte++) {
+                // g, io y s
+                Code = new Method(Clase, 4);
+                WriteShift(Code, Config, Parte * SHIFTSEEDS, Math.min(NumSC, (Parte + 1) * SHIFTSEEDS), i);
+                Code.Op(Method.RETURN, 0);
+                Clase.Add(ClassFile.PRIVATE | ClassFile.STATIC, "Shift" + i + "_" + Parte, SHIFT, Code);
+            }
+            // this, g, io y el temporal del salto
+            Code = new Method(Clase, 5);
+            for (Parte = 0; Parte < Partes; Parte++) {
+                Code.ALoad(1);
+                Code.ALoad(2);
+                Code.Invoke(Method.INVOKESTATIC, This, "Shift" + i + "_" + Parte, SHIFT, -2);
+            }
+            WriteHop(Code, Perm);
+            Code.Op(Method.RETURN, 0);
+            Clase.Add(ClassFile.PUBLIC, (i == 0) ? "ShiftCodec" : "ShiftDecodec", SHIFT, Code);
+        }
+        return Clase.ToBytes();
+    }
+
+    /**
+     * Escribe la codificacion de las dos palabras con el RakeCodec 'NRCA',
+     * equivalente a PackedCodec.Rake
+     */
+    private static void WriteRake(Method Code, int NRCA) {
+        int j, k, x;
+
+        k = NRCA * PackedCodec.TEETHS;
+        for (j = 0; j < 2; j++) {
+            x = (j == 0) ? Method.X0 : Method.X1;
+            // e0 = (int) xj
+            Code.LLoad(x);
+            Code.Op(Method.L2I, -1);
+            Code.IStore(Method.E0);
+            // e1 = (int) (xj >>> 32)
+            Code.LLoad(x);
+            Code.Int(32);
+            Code.Op(Method.LUSHR, -1);
+            Code.Op(Method.L2I, -1);
+            Code.IStore(Method.E1);
+            // s0 = e0 ^ (int) g[k]
+            Code.ILoad(Method.E0);
+            Code.ALoad(1);
+            Code.Int(k);
+            Code.Op(Method.LALOAD, 0);
+            Code.Op(Method.L2I, -1);
+            Code.Op(Method.IXOR, -1);
+            Code.IStore(Method.S0);
+            // s1 = e1 ^ (int) g[k + 1]
+            Code.ILoad(Method.E1);
+            Code.ALoad(1);
+            Code.Int(k + 1);
+            Code.Op(Method.LALOAD, 0);
+            Code.Op(Method.L2I, -1);
+            Code.Op(Method.IXOR, -1);
+            Code.IStore(Method.S1);
+            // io[2k] = e0, io[2k + 1] = s0, io[2k + 2] = e1, io[2k + 3] = s1
+            Code.IAStore(2 * k, Method.E0);
+            Code.IAStore((2 * k) + 1, Method.S0);
+            Code.IAStore((2 * k) + 2, Method.E1);
+            Code.IAStore((2 * k) + 3, Method.S1);
+            // xj = (s0 & 0xFFFFFFFFL) | ((long) s1 << 32)
+            Code.ILoad(Method.S0);
+            Code.Op(Method.I2L, 1);
+            Code.Long(0xFFFFFFFFL);
+            Code.Op(Method.LAND, -2);
+            Code.ILoad(Method.S1);
+            Code.Op(Method.I2L, 1);
+            Code.Int(32);
+            Code.Op(Method.LSHL, -1);
+            Code.Op(Method.LOR, -2);
+            Code.LStore(x);
+            k += 2;
+        }
+    }
+
+    /**
+     * Escribe el cruce de bytes 'Num', equivalente a CuaimaCrypt.CrossByte
+     */
+    private static void WriteCrossByte(Method Code, int Num) {
+
+        switch (Num) {
+            case 0:
+                // t = (x0 & 0xFFFFFFFF00000000L) | (x1 >>> 32)
+                Code.Mask(Method.X0, 0xFFFFFFFF00000000L);
+                Code.Shift(Method.X1, Method.LUSHR);
+                Code.Op(Method.LOR, -2);
+                Code.LStore(Method.T);
+                // x1 = (x1 & 0xFFFFFFFFL) | (x0 << 32)
+                Code.Mask(Method.X1, 0xFFFFFFFFL);
+                Code.Shift(Method.X0, Method.LSHL);
+                Code.Op(Method.LOR, -2);
+                Code.LStore(Method.X1);
+                Code.LLoad(Method.T);
+                Code.LStore(Method.X0);
+                break;
+            case 1:
+                // t = (x0 & 0xFFFFFFFFL) | (x1 << 32)
+                Code.Mask(Method.X0, 0xFFFFFFFFL);
+                Code.Shift(Method.X1, Method.LSHL);
+                Code.Op(Method.LOR, -2);
+                Code.LStore(Method.T);
+                // x1 = (x1 & 0xFFFFFFFF00000000L) | (x0 >>> 32)
+                Code.Mask(Method.X1, 0xFFFFFFFF00000000L);
+                Code.Shift(Method.X0, Method.LUSHR);
+                Code.Op(Method.LOR, -2);
+                Code.LStore(Method.X1);
+                Code.LLoad(Method.T);
+                Code.LStore(Method.X0);
+                break;
+            case 2:
+                // x0 = (x0 << 32) | (x0 >>> 32), x1 = (x1 << 32) | (x1 >>> 32)
+                Code.Rotate(Method.X0);
+                Code.LStore(Method.X0);
+                Code.Rotate(Method.X1);
+                Code.LStore(Method.X1);
+                break;
+            case 3:
+                // t = (x1 << 32) | (x1 >>> 32), x1 = (x0 << 32) | (x0 >>> 32)
+                Code.Rotate(Method.X1);
+                Code.LStore(Method.T);
+                Code.Rotate(Method.X0);
+                Code.LStore(Method.X1);
+                Code.LLoad(Method.T);
+                Code.LStore(Method.X0);
+                break;
+        }
+    }
+
+    /**
+     * Escribe el corrimiento de los registros 'Desde' a 'Hasta' (exclusivo),
+     * equivalente a PackedCodec.Shift. 'Sel' es 0 para la codificacion y 1
+     * para la decodificacion.
+     */
+    private static void WriteShift(Method Code, int Config[], int Desde, int Hasta, int Sel) {
+        int k, c;
+
+        for (k = Desde; k < Hasta; k++) {
+            c = 1 + (k * (PackedCodec.DOWN + 1));
+            // s = g[k]
+            Code.ALoad(0);
+            Code.Int(k);
+            Code.Op(Method.LALOAD, 0);
+            Code.LStore(2);
+            // g[k] = (s >>> LEAP) ^ ((long) ((int) (s >>> WINA) ^ (int) (g[UP] >>> POSUP)
+            //        ^ (int) (s >>> WINB) ^ (int) (g[DOWN] >>> POSDOWN) ^ io[2k + Sel]) << 31)
+            Code.ALoad(0);
+            Code.Int(k);
+            Code.LLoad(2);
+            Code.Int(Config[c + PackedCodec.LEAP]);
+            Code.Op(Method.LUSHR, -1);
+            Code.LLoad(2);
+            Code.Int(Config[c + PackedCodec.WINA]);
+            Code.Op(Method.LUSHR, -1);
+            Code.Op(Method.L2I, -1);
+            Code.ALoad(0);
+            Code.Int(Config[c + PackedCodec.UP]);
+            Code.Op(Method.LALOAD, 0);
+            Code.Int(Config[c + PackedCodec.POSUP]);
+            Code.Op(Method.LUSHR, -1);
+            Code.Op(Method.L2I, -1);
+            Code.Op(Method.IXOR, -1);
+            Code.LLoad(2);
+            Code.Int(Config[c + PackedCodec.WINB]);
+            Code.Op(Method.LUSHR, -1);
+            Code.Op(Method.L2I, -1);
+            Code.Op(Method.IXOR, -1);
+            Code.ALoad(0);
+            Code.Int(Config[c + PackedCodec.DOWN]);
+            Code.Op(Method.LALOAD, 0);
+            Code.Int(Config[c + PackedCodec.POSDOWN]);
+            Code.Op(Method.LUSHR, -1);
+            Code.Op(Method.L2I, -1);
+            Code.Op(Method.IXOR, -1);
+            Code.ALoad(1);
+            Code.Int((2 * k) + Sel);
+            Code.Op(Method.IALOAD, -1);
+            Code.Op(Method.IXOR, -1);
+            Code.Op(Method.I2L, 1);
+            Code.Int(31);
+            Code.Op(Method.LSHL, -1);
+            Code.Op(Method.LXOR, -2);
+            Code.Op(Method.LASTORE, -4);
+        }
+    }
+
+    /**
+     * Escribe el salto de las semillas, equivalente a PackedCodec.SeedHop,
+     * recorriendo cada ciclo de la permutacion con un solo temporal
+     */
+    private static void WriteHop(Method Code, int Perm[]) {
+        boolean Hecho[];
+        int i, j;
+
+        Hecho = new boolean[Perm.length];
+        for (i = 0; i < Perm.length; i++) {
+            if ((!Hecho[i]) && (Perm[i] != i)) {
+                // t = g[i]
+                Code.ALoad(1);
+                Code.Int(i);
+                Code.Op(Method.LALOAD, 0);
+                Code.LStore(3);
+                // g[j] = g[Perm[j]] hasta cerrar el ciclo
+                j = i;
+                while (Perm[j] != i) {
+                    Hecho[j] = true;
+                    Code.ALoad(1);
+                    Code.Int(j);
+                    Code.ALoad(1);
+                    Code.Int(Perm[j]);
+                    Code.Op(Method.LALOAD, 0);
+                    Code.Op(Method.LASTORE, -4);
+                    j = Perm[j];
+                }
+                Hecho[j] = true;
+                // g[j] = t
+                Code.ALoad(1);
+                Code.Int(j);
+                Code.LLoad(3);
+                Code.Op(Method.LASTORE, -4);
+            }
+        }
+    }
+
+    /**
+     * Arreglo de bytes que crece segun se requiera, en el orden big endian
+     * del formato de las clases
+     */
+    private static final class Bytes {
+
+        private byte Data[];
+        private int Size;
+
+        Bytes() {
+            Data = new byte[256];
+            Size = 0;
+        }
+
+        void U1(int Value) {
+            if (Size == Data.length) {
+                Data = Arrays.copyOf(Data, 2 * Data.length);
+            }
+            Data[Size++] = (byte) Value;
+        }
+
+        void U2(int Value) {
+            U1(Value >>> 8);
+            U1(Value);
+        }
+
+        void U4(int Value) {
+            U2(Value >>> 16);
+            U2(Value);
+        }
+
+        void Put(Bytes Other) {
+            int i;
+
+            for (i = 0; i < Other.Size; i++) {
+                U1(Other.Data[i]);
+            }
+        }
+
+        int Size() {
+            return Size;
+        }
+
+        byte[] ToArray() {
+            return Arrays.copyOf(Data, Size);
+        }
+    }
+
+    /**
+     * Clase generada: constantes, metodos y encabezado
+     */
+    private static final class ClassFile {
+
+        static final int PUBLIC = 0x0001;
+        static final int PRIVATE = 0x0002;
+        static final int STATIC = 0x0008;
+        static final int FINAL = 0x0010;
+        static final int SUPER = 0x0020;
+
+        // Version 52, Java 8
+        private static final int VERSION = 52;
+        private static final int UTF8 = 1;
+        private static final int LONG = 5;
+        private static final int CLASS = 7;
+        private static final int METHODREF = 10;
+        private static final int NAMEANDTYPE = 12;
+
+        private final Bytes Pool;
+        private final HashMap<String, Integer> Entries;
+        private final Bytes Methods;
+        private final int This;
+        private final int Super;
+        private final int CodeName;
+        private int PoolCount;
+        private int MethodCount;
+
+        ClassFile(String This, String Super) {
+            Pool = new Bytes();
+            Entries = new HashMap<String, Integer>();
+            Methods = new Bytes();
+            PoolCount = 1;
+            MethodCount = 0;
+            this.This = ClassRef(This);
+            this.Super = ClassRef(Super);
+            CodeName = Utf8("Code");
+        }
+
+        /**
+         * Indice de la constante Utf8 'Value', solo caracteres ASCII
+         */
+        int Utf8(String Value) {
+            Integer Index;
+            int i;
+
+            Index = Entries.get("U" + Value);
+            if (Index == null) {
+                Pool.U1(UTF8);
+                Pool.U2(Value.length());
+                for (i = 0; i < Value.length(); i++) {
+                    Pool.U1(Value.charAt(i));
+                }
+                Index = New("U" + Value, 1);
+            }
+            return Index;
+        }
+
+        /**
+         * Indice de la constante de la clase 'Name', en formato interno
+         */
+        int ClassRef(String Name) {
+            Integer Index;
+            int Nombre;
+
+            Index = Entries.get("C" + Name);
+            if (Index == null) {
+                Nombre = Utf8(Name);
+                Pool.U1(CLASS);
+                Pool.U2(Nombre);
+                Index = New("C" + Name, 1);
+            }
+            return Index;
+        }
+
+        /**
+         * Indice de la constante long 'Value'
+         */
+        int LongRef(long Value) {
+            Integer Index;
+
+            Index = Entries.get("L" + Value);
+            if (Index == null) {
+                Pool.U1(LONG);
+                Pool.U4((int) (Value >>> 32));
+                Pool.U4((int) Value);
+                Index = New("L" + Value, 2);
+            }
+            return Index;
+        }
+
+        /**
+         * Indice de la referencia al metodo 'Name' de la clase 'Owner'
+         */
+        int MethodRef(String Owner, String Name, String Desc) {
+            Integer Index;
+            int Clase, Nombre, Tipo, Firma;
+
+            Index = Entries.get("M" + Owner + "." + Name + Desc);
+            if (Index == null) {
+                Clase = ClassRef(Owner);
+                Nombre = Utf8(Name);
+                Tipo = Utf8(Desc);
+                Pool.U1(NAMEANDTYPE);
+                Pool.U2(Nombre);
+                Pool.U2(Tipo);
+                Firma = New("N" + Name + Desc, 1);
+                Pool.U1(METHODREF);
+                Pool.U2(Clase);
+                Pool.U2(Firma);
+                Index = New("M" + Owner + "." + Name + Desc, 1);
+            }
+            return Index;
+        }
+
+        /**
+         * Registra la ultima constante escrita, que ocupa 'Slots' entradas
+         */
+        private int New(String Key, int Slots) {
+            int Index;
+
+            Index = PoolCount;
+            PoolCount += Slots;
+            Entries.put(Key, Index);
+            return Index;
+        }
+
+        /**
+         * Agrega el metodo 'Name' con el codigo 'Code'
+         */
+        void Add(int Access, String Name, String Desc, Method Code) {
+            int Nombre, Firma;
+
+            Nombre = Utf8(Name);
+            Firma = Utf8(Desc);
+            Methods.U2(Access);
+            Methods.U2(Nombre);
+            Methods.U2(Firma);
+            Methods.U2(1);
+            Methods.U2(CodeName);
+            Methods.U4(12 + Code.Out.Size());
+            Methods.U2(Code.MaxStack);
+            Methods.U2(Code.MaxLocals);
+            Methods.U4(Code.Out.Size());
+            Methods.Put(Code.Out);
+            Methods.U2(0);
+            Methods.U2(0);
+            MethodCount++;
+        }
+
+        /**
+         * @return Bytes de la clase
+         */
+        byte[] ToBytes() {
+            Bytes Salida;
+
+            Salida = new Bytes();
+            Salida.U4(0xCAFEBABE);
+            Salida.U2(0);
+            Salida.U2(VERSION);
+            Salida.U2(PoolCount);
+            Salida.Put(Pool);
+            Salida.U2(PUBLIC | FINAL | SUPER);
+            Salida.U2(This);
+            Salida.U2(Super);
+            Salida.U2(0);
+            Salida.U2(0);
+            Salida.U2(MethodCount);
+            Salida.Put(Methods);
+            Salida.U2(0);
+            return Salida.ToArray();
+        }
+    }
+
+    /**
+     * Codigo de un metodo generado, sin saltos, con el calculo de la
+     * profundidad maxima de la pila en palabras de 32 bits
+     */
+    private static final class Method {
+
+        static final int LCONST_0 = 0x09;
+        static final int ICONST_0 = 0x03;
+        static final int BIPUSH = 0x10;
+        static final int SIPUSH = 0x11;
+        static final int LDC2_W = 0x14;
+        static final int ILOAD = 0x15;
+        static final int LLOAD = 0x16;
+        static final int ALOAD = 0x19;
+        static final int IALOAD = 0x2E;
+        static final int LALOAD = 0x2F;
+        static final int ISTORE = 0x36;
+        static final int LSTORE = 0x37;
+        static final int IASTORE = 0x4F;
+        static final int LASTORE = 0x50;
+        static final int IADD = 0x60;
+        static final int LSHL = 0x79;
+        static final int LUSHR = 0x7D;
+        static final int LAND = 0x7F;
+        static final int LOR = 0x81;
+        static final int IXOR = 0x82;
+        static final int LXOR = 0x83;
+        static final int I2L = 0x85;
+        static final int L2I = 0x88;
+        static final int RETURN = 0xB1;
+        static final int INVOKESPECIAL = 0xB7;
+        static final int INVOKESTATIC = 0xB8;
+
+        // Variables locales de RakeCodec y RakeDecodec, despues de this, g,
+        // io, e y off
+        static final int X0 = 5;
+        static final int X1 = 7;
+        static final int T = 9;
+        static final int E0 = 11;
+        static final int E1 = 12;
+        static final int S0 = 13;
+        static final int S1 = 14;
+        private static final int RAKELOCALS = 15;
+
+        final Bytes Out;
+        private final ClassFile Clase;
+        private int Stack;
+        int MaxStack;
+        int MaxLocals;
+
+        Method(ClassFile Clase, int Locals) {
+            this.Out = new Bytes();
+            this.Clase = Clase;
+            this.Stack = 0;
+            this.MaxStack = 0;
+            this.MaxLocals = Locals;
+        }
+
+        /**
+         * Inicio de RakeCodec y RakeDecodec: x0 = e[off], x1 = e[off + 1]
+         */
+        static Method Rake(ClassFile Clase) {
+            Method Salida;
+
+            Salida = new Method(Clase, RAKELOCALS);
+            Salida.Word(0);
+            Salida.Op(LALOAD, 0);
+            Salida.LStore(X0);
+            Salida.Word(1);
+            Salida.Op(LALOAD, 0);
+            Salida.LStore(X1);
+            return Salida;
+        }
+
+        /**
+         * Final de RakeCodec y RakeDecodec: e[off] = x0, e[off + 1] = x1
+         */
+        static Method Store(Method Code) {
+
+            Code.Word(0);
+            Code.LLoad(X0);
+            Code.Op(LASTORE, -4);
+            Code.Word(1);
+            Code.LLoad(X1);
+            Code.Op(LASTORE, -4);
+            Code.Op(RETURN, 0);
+            return Code;
+        }
+
+        /**
+         * Apila e y off + 'Word'
+         */
+        private void Word(int Word) {
+
+            ALoad(3);
+            Local(ILOAD, 4, 1);
+            if (Word != 0) {
+                Int(Word);
+                Op(IADD, -1);
+            }
+        }
+
+        /**
+         * Instruccion sin operandos que cambia la pila en 'Delta' palabras
+         */
+        void Op(int Code, int Delta) {
+
+            Out.U1(Code);
+            Push(Delta);
+        }
+
+        void ALoad(int Index) {
+            Local(ALOAD, Index, 1);
+        }
+
+        void ILoad(int Index) {
+            Local(ILOAD, Index, 1);
+        }
+
+        void LLoad(int Index) {
+            Local(LLOAD, Index, 2);
+        }
+
+        void IStore(int Index) {
+            Local(ISTORE, Index, -1);
+        }
+
+        void LStore(int Index) {
+            Local(LSTORE, Index, -2);
+        }
+
+        /**
+         * io[Index] = Local
+         */
+        void IAStore(int Index, int Local) {
+
+            ALoad(2);
+            Int(Index);
+            ILoad(Local);
+            Op(IASTORE, -3);
+        }
+
+        /**
+         * Apila (Local & Mask)
+         */
+        void Mask(int Local, long Mask) {
+
+            LLoad(Local);
+            Long(Mask);
+            Op(LAND, -2);
+        }
+
+        /**
+         * Apila (Local Code 32) con Code LSHL o LUSHR
+         */
+        void Shift(int Local, int Code) {
+
+            LLoad(Local);
+            Int(32);
+            Op(Code, -1);
+        }
+
+        /**
+         * Apila (Local << 32) | (Local >>> 32)
+         */
+        void Rotate(int Local) {
+
+            Shift(Local, LSHL);
+            Shift(Local, LUSHR);
+            Op(LOR, -2);
+        }
+
+        /**
+         * Apila la constante entera 'Value'
+         */
+        void Int(int Value) {
+
+            if ((Value >= -1) && (Value <= 5)) {
+                Op(ICONST_0 + Value, 1);
+            } else if ((Value >= Byte.MIN_VALUE) && (Value <= Byte.MAX_VALUE)) {
+                Out.U1(BIPUSH);
+                Out.U1(Value);
+                Push(1);
+            } else {
+                Out.U1(SIPUSH);
+                Out.U2(Value);
+                Push(1);
+            }
+        }
+
+        /**
+         * Apila la constante long 'Value'
+         */
+        void Long(long Value) {
+
+            if ((Value == 0L) || (Value == 1L)) {
+                Op(LCONST_0 + (int) Value, 2);
+            } else {
+                Out.U1(LDC2_W);
+                Out.U2(Clase.LongRef(Value));
+                Push(2);
+            }
+        }
+
+        /**
+         * Invoca el metodo 'Name' de 'Owner', que cambia la pila en 'Delta'
+         * palabras
+         */
+        void Invoke(int Code, String Owner, String Name, String Desc, int Delta) {
+
+            Out.U1(Code);
+            Out.U2(Clase.MethodRef(Owner, Name, Desc));
+            Push(Delta);
+        }
+
+        /**
+         * Carga o almacena la variable local 'Index', usando la forma corta
+         * para las primeras cuatro
+         */
+        private void Local(int Code, int Index, int Delta) {
+
+            if (Index <= 3) {
+                // xLOAD_n y xSTORE_n siguen a xLOAD y xSTORE en grupos de 4
+                // por tipo (int, long, float, double, referencia)
+                Out.U1((Code < ISTORE ? 0x1A + ((Code - ILOAD) * 4) : 0x3B + ((Code - ISTORE) * 4)) + Index);
+            } else {
+                Out.U1(Code);
+                Out.U1(Index);
+            }
+            Push(Delta);
+        }
+
+        private void Push(int Delta) {
+
+            Stack += Delta;
+            if (Stack > MaxStack) {
+                MaxStack = Stack;
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+import java.util.Arrays;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt.
+ *
+ * Motor de codificacion que mantiene el estado de todos los ShiftCodec de un
+ * CuaimaCrypt en arreglos primitivos contiguos.
+ *
+ * Los registros de desplazamiento se guardan en un arreglo de long, y las
+ * ventanas, posiciones de cruce, saltos e indices de las cadenas de cada
+ * ShiftCodec se guardan juntos en un arreglo de int con CONFSIZE enteros por
+ * ShiftCodec, de forma que el ciclo completo de la ronda recorre memoria
+ * contigua sin seguir apuntadores entre objetos.
+ *
+ * El grafo de RakeCodec y ShiftCodec sigue siendo la configuracion del
+ * algoritmo; este motor se construye a partir de el con Pack y el estado de
+ * ejecucion se devuelve al grafo con Unpack. El resultado es identico bit a
+ * bit al de RakeCodec.Codec, ShiftCodec.ShiftCdec y CuaimaCrypt.SeedHop.
+ *
+ * La configuracion y los registros tambien se usan para construir el motor de
+ * varios mensajes en paralelo CuaimaLanes y los codificadores especializados
+ * de CuaimaSpecializer.
+ *
+ * @author Julian Bolivar
+ * @version 1.3.0
+ */
+final class PackedCodec {
+
+    // Numero de ShiftCodec por RakeCodec soportado por el motor
+    static final int TEETHS = 4;
+
+    // Distribucion de la configuracion de cada ShiftCodec en Conf
+    static final int WINA = 0;
+    static final int WINB = 1;
+    static final int POSUP = 2;
+    static final int POSDOWN = 3;
+    static final int LEAP = 4;
+    static final int UP = 5;
+    static final int DOWN = 6;
+    static final int CONFSIZE = 8;
+
+    // Registros de desplazamiento
+    private long Regs[];
+    // Registros de respaldo para aplicar la permutacion de los saltos
+    private long Spare[];
+    // Configuracion de los ShiftCodec, CONFSIZE enteros por ShiftCodec
+    private final int Conf[];
+    // Entrada y salida de cada ShiftCodec en la ultima codificacion
+    private final int IO[];
+    // ShiftCodec de origen, en el orden de las semillas de CuaimaCrypt
+    private final ShiftCodec Source[];
+
+    private PackedCodec(ShiftCodec Source[]) {
+        int NumSC;
+
+        NumSC = Source.length;
+        this.Source = Source;
+        Regs = new long[NumSC];
+        Spare = new long[NumSC];
+        Conf = new int[NumSC * CONFSIZE];
+        IO = new int[2 * NumSC];
+    }
+
+    /**
+     * Construye el motor a partir de los RakeCodec de un CuaimaCrypt.
+     *
+     * Retorna null si la configuracion no puede ser representada por el motor,
+     * esto es si algun RakeCodec no tiene TEETHS ShiftCodecs, si alguna cadena
+     * es nula o apunta a un ShiftCodec que no pertenece a RCA, o si alguna
+     * ventana esta fuera de rango. En ese caso se debe usar el grafo de objetos.
+     *
+     * @param RCA RakeCodecs del CuaimaCrypt
+     * @return Motor con el estado actual de RCA o null
+     */
+    static PackedCodec Pack(RakeCodec RCA[]) {
+        PackedCodec Salida;
+        ShiftCodec SC[];
+        ShiftCodec Codec;
+        int i, j, c, NumSC;
+
+        NumSC = RCA.length * TEETHS;
+        SC = new ShiftCodec[NumSC];
+        for (i = 0; i < RCA.length; i++) {
+            if (RCA[i].GetNumSC() != TEETHS) {
+                return null;
+            }
+            for (j = 0; j < TEETHS; j++) {
+                SC[(i * TEETHS) + j] = RCA[i].GetShiftCodec(j);
+            }
+        }
+        Salida = new PackedCodec(SC);
+        for (i = 0; i < NumSC; i++) {
+            Codec = SC[i];
+            c = i * CONFSIZE;
+            Salida.Regs[i] = Codec.getShiftCodec_state();
+            Salida.IO[2 * i] = Codec.getEntrada();
+            Salida.IO[(2 * i) + 1] = Codec.getSalida();
+            Salida.Conf[c + WINA] = Codec.getWinA();
+            Salida.Conf[c + WINB] = Codec.getWinB();
+            Salida.Conf[c + POSUP] = Codec.getPosUp();
+            Salida.Conf[c + POSDOWN] = Codec.getPosDown();
+            Salida.Conf[c + LEAP] = Codec.getShiftLeap();
+            Salida.Conf[c + UP] = IndexOf(SC, Codec.getUpChain());
+            Salida.Conf[c + DOWN] = IndexOf(SC, Codec.getDownChain());
+            if ((Salida.Conf[c + UP] < 0) || (Salida.Conf[c + DOWN] < 0)) {
+                return null;
+            }
+            for (j = WINA; j <= POSDOWN; j++) {
+                if ((Salida.Conf[c + j] < 0) || (Salida.Conf[c + j] >= 32)) {
+                    return null;
+                }
+            }
+        }
+        return Salida;
+    }
+
+    /**
+     * Retorna el numero de registros del motor
+     *
+     * @return Numero de ShiftCodec empaquetados
+     */
+    int NumSeeds() {
+        return Regs.length;
+    }
+
+    /**
+     * Retorna la configuracion de los ShiftCodec, CONFSIZE enteros por
+     * ShiftCodec, sin copiarla
+     *
+     * @return Configuracion del motor
+     */
+    int[] GetConf() {
+        return Conf;
+    }
+
+    /**
+     * Retorna los registros de desplazamiento vigentes, sin copiarlos
+     *
+     * @return Registros del motor
+     */
+    long[] GetRegs() {
+        return Regs;
+    }
+
+    /**
+     * Retorna las entradas y salidas de los ShiftCodec en la ultima
+     * codificacion, sin copiarlas
+     *
+     * @return Entradas y salidas del motor
+     */
+    int[] GetIO() {
+        return IO;
+    }
+
+    /**
+     * Retorna la posicion de 'Codec' en 'SC' o -1 si no esta
+     */
+    private static int IndexOf(ShiftCodec SC[], ShiftCodec Codec) {
+        int i;
+
+        if (Codec != null) {
+            for (i = 0; i < SC.length; i++) {
+                if (SC[i] == Codec) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Devuelve el estado de ejecucion (registros, entradas y salidas) a los
+     * ShiftCodec de origen
+     */
+    void Unpack() {
+        int i, NumSC;
+
+        NumSC = Source.length;
+        for (i = 0; i < NumSC; i++) {
+            Source[i].setShiftCodec_state(Regs[i]);
+            Source[i].setEntrada(IO[2 * i]);
+            Source[i].setSalida(IO[(2 * i) + 1]);
+        }
+    }
+
+    /**
+     * Borra de la memoria los registros, la configuracion y las entradas y
+     * salidas del motor, el cual no se debe usar despues
+     */
+    void Clear() {
+
+        Arrays.fill(Regs, 0L);
+        Arrays.fill(Spare, 0L);
+        Arrays.fill(Conf, 0);
+        Arrays.fill(IO, 0);
+    }
+
+    /**
+     * Codifica o decodifica las palabras entrada[off] y entrada[off+1] con el
+     * RakeCodec 'NRCA', equivalente a RakeCodec.Codec y RakeCodec.Decodec
+     *
+     * @param NRCA Numero de RakeCodec
+     * @param entrada Arreglo de palabras
+     * @param off posicion de la palabra '0' en entrada
+     */
+    void Rake(int NRCA, long entrada[], int off) {
+        int k, j, Ent0, Ent1, Sal0, Sal1;
+        long w;
+
+        k = NRCA * TEETHS;
+        for (j = 0; j < 2; j++) {
+            w = entrada[off + j];
+            Ent0 = (int) w;
+            Ent1 = (int) (w >>> 32);
+            Sal0 = Ent0 ^ (int) Regs[k];
+            Sal1 = Ent1 ^ (int) Regs[k + 1];
+            IO[2 * k] = Ent0;
+            IO[(2 * k) + 1] = Sal0;
+            IO[(2 * k) + 2] = Ent1;
+            IO[(2 * k) + 3] = Sal1;
+            entrada[off + j] = (Sal0 & 0xFFFFFFFFL) | ((long) Sal1 << 32);
+            k += 2;
+        }
+    }
+
+    /**
+     * Realiza el corrimiento de todos los registros en orden, equivalente a
+     * llamar ShiftCodec (codificacion) o ShiftDecodec (decodificacion) de cada
+     * RakeCodec
+     *
+     * @param Decodec true para el corrimiento de decodificacion
+     */
+    void Shift(boolean Decodec) {
+        int k, c, a, b, NumSC, Sel;
+        long SR;
+
+        NumSC = Regs.length;
+        Sel = Decodec ? 1 : 0;
+        for (k = 0, c = 0; k < NumSC; k++, c += CONFSIZE) {
+            SR = Regs[k];
+            a = (int) (SR >>> Conf[c + WINA]) ^ (int) (Regs[Conf[c + UP]] >>> Conf[c + POSUP]);
+            b = (int) (SR >>> Conf[c + WINB]) ^ (int) (Regs[Conf[c + DOWN]] >>> Conf[c + POSDOWN]);
+            b = a ^ b ^ IO[(2 * k) + Sel];
+            Regs[k] = (SR >>> Conf[c + LEAP]) ^ ((long) b << 31);
+        }
+    }
+
+    /**
+     * Realiza el salto de los registros aplicando la permutacion 'Perm'
+     * calculada por CompileHop, equivalente a CuaimaCrypt.SeedHop. El nuevo
+     * registro 'i' es el registro Perm[i] anterior.
+     *
+     * @param Perm Permutacion de los saltos de las semillas
+     */
+    void SeedHop(int Perm[]) {
+        int i, NumSeed;
+        long Temp[];
+
+        NumSeed = Regs.length;
+        for (i = 0; i < NumSeed; i++) {
+            Spare[i] = Regs[Perm[i]];
+        }
+        Temp = Regs;
+        Regs = Spare;
+        Spare = Temp;
+    }
+
+    /**
+     * Compila la secuencia de saltos 'Hop' en una sola permutacion.
+     *
+     * CuaimaCrypt.SeedHop intercambia en orden los registros 'i' y Hop[i],
+     * ignorando los saltos fuera de rango. Como la secuencia es fija, el efecto
+     * neto es una permutacion constante que se obtiene repitiendo los
+     * intercambios sobre los indices de los registros.
+     *
+     * @param Hop Secuencia de saltos de las semillas
+     * @param NumSeed Numero de registros
+     * @return Permutacion donde el nuevo registro 'i' es el registro Perm[i]
+     */
+    static int[] CompileHop(int Hop[], int NumSeed) {
+        int Perm[];
+        int i, h, Temp;
+
+        Perm = new int[NumSeed];
+        for (i = 0; i < NumSeed; i++) {
+            Perm[i] = i;
+        }
+        for (i = 0; (i < Hop.length) && (i < NumSeed); i++) {
+            h = Hop[i];
+            if ((h >= 0) && (h < Hop.length) && (h < NumSeed)) {
+                Temp = Perm[h];
+                Perm[h] = Perm[i];
+                Perm[i] = Temp;
+            }
+        }
+        return Perm;
+    }
+}
@@ -1,21 +1,26 @@
 package com.bolivartech.crypto.cuaimacrypt;
 
+import javax.security.auth.Destroyable;
+
 /**
  * Copyright 2007,2009,2010 BolivarTech C.A.
  * 
  *   This Class is part of CuaimaCrypt.
  * 
  * @author Julian Bolivar
- * @version 2.0.0
+ * @version 2.3.0
  *
  * <p>
  * Change Log:
  * </p>
  * <ul>
+ *  <li>v2.3.0 - Destroy clears the seeds and state of all the ShiftCodecs.</li>
+ *  <li>v2.2.0 - Constructor over already built ShiftCodecs, used to copy a CuaimaCrypt.</li>
+ *  <li>v2.1.0 - Codec and Decodec accept an offset into the word array.</li>
  *  <li>v2.0.0 - The Random generator is initializated using the new class MersenneTwisterPlus that was implemente by BolivarTech.</li>
  * </ul>
  */
-public class RakeCodec {
+public class RakeCodec implements Destroyable, AutoCloseable {
 
 	private ShiftCodec rake[];
 
@@ -46,6 +51,17 @@ public class RakeCodec {
 		}
 	}
 
+	/**
+	 * @param rake
+	 * 
+	 * Genera un RakeCodec con los ShiftCodecs de 'rake', las cadenas de los
+	 * ShiftCodecs no se modifican
+	 */
+	RakeCodec(ShiftCodec rake[]) {
+
+		this.rake = rake;
+	}
+
 	/**
 	 * @param SC
 	 * @param seed
@@ -146,6 +162,43 @@ public class RakeCodec {
 		}
 	}
 
+	/**
+	 * Borra de la memoria las semillas, los registros y la configuracion de
+	 * todos los ShiftCodecs del Rake Codec
+	 */
+	@Override
+	public void destroy() {
+		int raketeeths, i;
+
+		raketeeths = rake.length;
+		for (i = 0; i < raketeeths; i++) {
+			rake[i].destroy();
+		}
+	}
+
+	/**
+	 * @return TRUE si todos los ShiftCodecs fueron borrados con destroy
+	 */
+	@Override
+	public boolean isDestroyed() {
+		boolean Salida;
+		int i;
+
+		Salida = true;
+		for (i = 0; ((i < rake.length) && Salida); i++) {
+			Salida = rake[i].isDestroyed();
+		}
+		return Salida;
+	}
+
+	/**
+	 * Equivalente a destroy, para usar el Rake Codec en try-with-resources
+	 */
+	@Override
+	public void close() {
+		destroy();
+	}
+
 	/**
 	 * Reinicia el Rake Codec a sus semillas
 	 */
@@ -347,6 +400,20 @@ public class RakeCodec {
 	 * y 4 rakecodec
 	 */
 	public int Codec(long entrada[]) {
+
+		return Codec(entrada, 0);
+	}
+
+	/**
+	 * @param entrada
+	 * @param off posicion de la palabra '0' en entrada
+	 * @return -1 si no cumple el numero de entradas con el numero de teeths
+	 *         0 codifico todo ok
+	 * 
+	 * Realiza la codificacion de las entradas de 64 bits a partir de
+	 * entrada[off], sin copiar el bloque a un arreglo temporal
+	 */
+	public int Codec(long entrada[], int off) {
 		long salida, BitSal;
 		int BitEnt, i,j, raketeeths,numentradas;
 
@@ -365,14 +432,14 @@ public class RakeCodec {
 			for (j = 0; j < numentradas; j++) {
 			   salida = 0;
 			   for (i = 0; i < raketeeths; i++) {
-				   BitEnt = (int)(entrada[j] >>> i*32);
+				   BitEnt = (int)(entrada[off+j] >>> i*32);
 				   BitSal = (int)(rake[(raketeeths*j)+i].BitsCodec(BitEnt));
 				   BitSal = BitSal << i*32;
 				   salida = salida << i*32;
 				   salida = salida >>> i*32;
 				   salida = salida | BitSal;
 			   }
-			   entrada[j] = salida; 
+			   entrada[off+j] = salida; 
 			}
 //		}
 //		else return -1;
@@ -390,6 +457,20 @@ public class RakeCodec {
 	 * y 4 rakecodec
 	 */
 	public int Decodec(long entrada[]) {
+
+		return Decodec(entrada, 0);
+	}
+
+	/**
+	 * @param entrada
+	 * @param off posicion de la palabra '0' en entrada
+	 * @return -1 si no cumple el numero de entradas con el numero de teeths
+	 *         0 codifico todo ok
+	 * 
+	 * Realiza la decodificacion de los 64 bits de la entrada a partir de
+	 * entrada[off], sin copiar el bloque a un arreglo temporal
+	 */
+	public int Decodec(long entrada[], int off) {
 		long salida, BitSal;
 		int BitEnt, i,j, raketeeths,numentradas;
 
@@ -408,14 +489,14 @@ public class RakeCodec {
 			for (j = 0; j < numentradas; j++) {
 			   salida = 0;
 			   for (i = 0; i < raketeeths; i++) {
-				   BitEnt = (int)(entrada[j] >>> i*32);
+				   BitEnt = (int)(entrada[off+j] >>> i*32);
 				   BitSal = rake[(raketeeths*j)+i].BitsDecodec(BitEnt);
 				   BitSal = BitSal << i*32;
 				   salida = salida << i*32;
 				   salida = salida >>> i*32;
 				   salida |= BitSal;
 			   }
-			   entrada[j] = salida; 
+			   entrada[off+j] = salida; 
 			}
 //		}
 //		else return -1;
@@ -1,6 +1,7 @@
 package com.bolivartech.crypto.cuaimacrypt;
 
 import com.bolivartech.utils.random.MersenneTwisterPlus;
+import javax.security.auth.Destroyable;
 
 /**
  * Copyright 2007,2009,2010 BolivarTech C.A.
@@ -8,23 +9,33 @@ import com.bolivartech.utils.random.MersenneTwisterPlus;
  * This Class is part of CuaimaCrypt.
  *
  * @author Julian Bolivar
- * @version 2.1.0
+ * @version 2.5.0
  *
  * <p>
  * Change Log:
  * </p>
  * <ul>
+ * <li>v2.5.0 - The finalize method was replaced by an explicit destroy; the
+ * owner CuaimaCrypt registers one cleanup action for all its ShiftCodecs.</li>
+ * <li>v2.4.0 - The random seeds are drawn from a per thread generator instead
+ * of creating a MersenneTwisterPlus for each ShiftCodec.</li>
+ * <li>v2.3.0 - Copy constructor for CuaimaCrypt.Copy and CuaimaKeySchedule;
+ * the random generator is created only when it is needed.</li>
+ * <li>v2.2.0 - Package access to the chains, entrada and salida for the
+ * packed codec engine.</li>
  * <li>v2.1.0 - Finalize method was improved to be safer.</li>
  * <li>v2.0.0 - The Random generator is initializated using the new class
  * MersenneTwisterPlus that was implemente by BolivarTech.</li>
  * </ul>
  */
-public class ShiftCodec {
+public class ShiftCodec implements Destroyable, AutoCloseable {
 
     private long seed, shift_register;
     private int posup, posdown, ShiftLeap, win_a, win_b, entrada, salida;
     private ShiftCodec upchain, downchain;
-    private MersenneTwisterPlus rnd;
+    private boolean destroyed;
+    // Generador de las semillas aleatorias, uno por hebra y creado al usarse
+    private static final ThreadLocal<MersenneTwisterPlus> RND = ThreadLocal.withInitial(MersenneTwisterPlus::new);
 
     /**
      * Default Constructor
@@ -33,8 +44,7 @@ public class ShiftCodec {
      */
     ShiftCodec() {
 
-        rnd = new MersenneTwisterPlus();
-        seed = rnd.nextLong();
+        seed = Rnd().nextLong();
         shift_register = seed;
         upchain = null;
         downchain = null;
@@ -90,30 +100,72 @@ public class ShiftCodec {
         salida = 0;
     }
 
-    /*
+    /**
+     * @param Source
+     *
+     * Copy constructor, copies the seed, the state and the configuration of
+     * Source but not the chains, which must be linked by the caller
+     */
+    ShiftCodec(ShiftCodec Source) {
+
+        seed = Source.seed;
+        shift_register = Source.shift_register;
+        upchain = null;
+        downchain = null;
+        posup = Source.posup;
+        posdown = Source.posdown;
+        ShiftLeap = Source.ShiftLeap;
+        win_a = Source.win_a;
+        win_b = Source.win_b;
+        entrada = Source.entrada;
+        salida = Source.salida;
+    }
+
+    /**
+     * Retorna el generador de numeros aleatorios de la hebra actual,
+     * creandolo si no existe
      *
-     * 
-     * @see java.lang.Object#finalize()
-     * 
-     * Clear the seed and the shiftcodec state for security
+     * @return Generador de numeros aleatorios
+     */
+    private static MersenneTwisterPlus Rnd() {
+        return RND.get();
+    }
+
+    /**
+     * Borra de la memoria la semilla, el registro y la configuracion del
+     * ShiftCodec y rompe sus cadenas
      */
     @Override
-    protected void finalize() throws Throwable {
-        try {
-            seed = rnd.nextLong();
-            shift_register = rnd.nextLong();
-            posup = rnd.nextInt();
-            posdown = rnd.nextInt();
-            ShiftLeap = rnd.nextInt();
-            win_a = rnd.nextInt();
-            win_b = rnd.nextInt();
-            entrada = rnd.nextInt();
-            salida = rnd.nextInt();
-        } catch (Throwable t) {
-            throw t;
-        } finally {
-            super.finalize();
-        }
+    public void destroy() {
+
+        seed = 0;
+        shift_register = 0;
+        posup = 0;
+        posdown = 0;
+        ShiftLeap = 0;
+        win_a = 0;
+        win_b = 0;
+        entrada = 0;
+        salida = 0;
+        upchain = null;
+        downchain = null;
+        destroyed = true;
+    }
+
+    /**
+     * @return TRUE si el ShiftCodec fue borrado con destroy
+     */
+    @Override
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * Equivalente a destroy, para usar el ShiftCodec en try-with-resources
+     */
+    @Override
+    public void close() {
+        destroy();
     }
 
     /**
@@ -166,7 +218,7 @@ public class ShiftCodec {
     public void RamdomSeed() {
 
         //MersenneTwister rnd = new MersenneTwister();
-        seed = rnd.nextLong();
+        seed = Rnd().nextLong();
         shift_register = seed;
     }
 
@@ -416,6 +468,40 @@ public class ShiftCodec {
         return salida;
     }
 
+    /**
+     * @param entrada
+     *
+     * Establece la entrada almacenada en el ShiftCodec, usado por PackedCodec
+     * al devolver el estado al ShiftCodec
+     */
+    void setEntrada(int entrada) {
+        this.entrada = entrada;
+    }
+
+    /**
+     * @param salida
+     *
+     * Establece la salida almacenada en el ShiftCodec, usado por PackedCodec
+     * al devolver el estado al ShiftCodec
+     */
+    void setSalida(int salida) {
+        this.salida = salida;
+    }
+
+    /**
+     * @return el ShiftCodec encadenado hacia arriba
+     */
+    ShiftCodec getUpChain() {
+        return upchain;
+    }
+
+    /**
+     * @return el ShiftCodec encadenado hacia abajo
+     */
+    ShiftCodec getDownChain() {
+        return downchain;
+    }
+
     /**
      * Realiza la verificacion de que el UpChain no sea NULL
      *
@@ -0,0 +1,91 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+import java.util.Arrays;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt.
+ *
+ * Clase base de los codificadores especializados que genera CuaimaSpecializer
+ * para una configuracion de clave; no es parte del API de CuaimaCrypt y solo
+ * es publica porque las clases generadas se cargan en su propio ClassLoader.
+ *
+ * Los codificadores generados no tienen estado: operan sobre los registros y
+ * las entradas y salidas del motor empaquetado (PackedCodec) que reciben como
+ * parametros, por lo que una misma instancia se comparte entre todos los
+ * CuaimaCrypt con la misma configuracion.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+public abstract class SpecializedCodec {
+
+    // Configuracion con la que fue generado el codificador
+    private int Config[];
+
+    protected SpecializedCodec() {
+        Config = null;
+    }
+
+    /**
+     * Codifica las palabras entrada[off] y entrada[off+1] con todos los
+     * RakeCodec y sus cruces de bytes, equivalente al ciclo de
+     * PackedCodec.Rake y CuaimaCrypt.CrossByte de la codificacion
+     *
+     * @param Regs Registros del motor empaquetado
+     * @param IO Entradas y salidas del motor empaquetado
+     * @param entrada Arreglo de palabras
+     * @param off posicion de la palabra '0' en entrada
+     */
+    public abstract void RakeCodec(long Regs[], int IO[], long entrada[], int off);
+
+    /**
+     * Decodifica las palabras entrada[off] y entrada[off+1] con todos los
+     * RakeCodec y sus cruces de bytes en orden inverso
+     *
+     * @param Regs Registros del motor empaquetado
+     * @param IO Entradas y salidas del motor empaquetado
+     * @param entrada Arreglo de palabras
+     * @param off posicion de la palabra '0' en entrada
+     */
+    public abstract void RakeDecodec(long Regs[], int IO[], long entrada[], int off);
+
+    /**
+     * Realiza el corrimiento y el salto de los registros despues de una
+     * codificacion, equivalente a PackedCodec.Shift(false) y
+     * PackedCodec.SeedHop
+     *
+     * @param Regs Registros del motor empaquetado
+     * @param IO Entradas y salidas del motor empaquetado
+     */
+    public abstract void ShiftCodec(long Regs[], int IO[]);
+
+    /**
+     * Realiza el corrimiento y el salto de los registros despues de una
+     * decodificacion, equivalente a PackedCodec.Shift(true) y
+     * PackedCodec.SeedHop
+     *
+     * @param Regs Registros del motor empaquetado
+     * @param IO Entradas y salidas del motor empaquetado
+     */
+    public abstract void ShiftDecodec(long Regs[], int IO[]);
+
+    /**
+     * Asigna la configuracion con la que fue generado el codificador
+     */
+    final void SetConfig(int Config[]) {
+        this.Config = Config;
+    }
+
+    /**
+     * Verifica si el codificador fue generado para la configuracion 'Config',
+     * calculada con CuaimaSpecializer.Snapshot
+     *
+     * @param Config Configuracion vigente
+     * @return true si el codificador corresponde a la configuracion
+     */
+    final boolean Matches(int Config[]) {
+        return Arrays.equals(this.Config, Config);
+    }
+}
@@ -0,0 +1,333 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Pool de buffers de bytes compartido por todo el proceso, usado por
+ * CuaimaFile, AESFile, CuaimaStream y PipelinedFileCodec para reutilizar sus
+ * buffers de lectura en lugar de crear uno nuevo por trabajo.</p>
+ *
+ * <p>
+ * Los buffers se agrupan en clases por su tamaño exacto, porque los codecs
+ * leen el buffer completo y su tamaño define los bloques del archivo; como el
+ * tamaño del buffer se configura por instancia, en la practica hay pocas
+ * clases. Acquire entrega un buffer libre de la clase o crea uno nuevo y
+ * Release lo devuelve borrado con ceros, ya que contiene datos del archivo
+ * original.</p>
+ *
+ * <p>
+ * El presupuesto limita los bytes en uso mas los bytes libres retenidos:
+ * Acquire espera hasta MaxWait milisegundos a que otro trabajo libere
+ * memoria y, si no ocurre, crea el buffer excediendo el presupuesto para no
+ * bloquear a los trabajos que usan varios buffers; los buffers libres que no
+ * caben en el presupuesto se descartan para el recolector de basura.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+@ThreadSafe
+public final class BufferPool {
+
+    /**
+     * Tiempo maximo de espera por memoria del presupuesto en milisegundos
+     */
+    public static final long MAXWAIT = 1000;
+
+    // Pool compartido del proceso
+    private static final BufferPool SHARED = new BufferPool(Runtime.getRuntime().maxMemory() / 4, MAXWAIT);
+
+    // Buffers libres por tamaño
+    @GuardedBy("this")
+    private final Map<Integer, ArrayDeque<byte[]>> Classes;
+    // Bytes maximos en uso y libres
+    @GuardedBy("this")
+    private long Budget;
+    // Tiempo maximo de espera en milisegundos
+    @GuardedBy("this")
+    private long MaxWait;
+    // Bytes entregados y no devueltos
+    @GuardedBy("this")
+    private long InUse;
+    // Bytes de los buffers libres retenidos
+    @GuardedBy("this")
+    private long Idle;
+    // Metricas
+    @GuardedBy("this")
+    private long Hits;
+    @GuardedBy("this")
+    private long Misses;
+    @GuardedBy("this")
+    private long Waits;
+    @GuardedBy("this")
+    private long Overflows;
+
+    /**
+     * Constructor con el presupuesto de memoria y el tiempo maximo de espera
+     *
+     * @param Budget Bytes maximos en uso y libres
+     * @param MaxWait Tiempo maximo de espera por memoria en milisegundos
+     * @throws IllegalArgumentException si Budget o MaxWait son negativos
+     */
+    public BufferPool(long Budget, long MaxWait) {
+
+        if ((Budget < 0) || (MaxWait < 0)) {
+            throw new IllegalArgumentException("Invalid budget or wait: " + Budget + " " + MaxWait);
+        }
+        this.Classes = new HashMap<Integer, ArrayDeque<byte[]>>();
+        this.Budget = Budget;
+        this.MaxWait = MaxWait;
+    }
+
+    /**
+     * @return Pool compartido del proceso, con un presupuesto de la cuarta
+     * parte de la memoria maxima de la JVM
+     */
+    public static BufferPool Shared() {
+        return SHARED;
+    }
+
+    /**
+     * Entrega un buffer de exactamente Size bytes, reutilizando uno libre de
+     * la misma clase si existe; su contenido no esta definido.
+     *
+     * @param Size Tamaño del buffer en bytes
+     * @return Buffer, que se debe devolver con Release
+     * @throws IllegalArgumentException si Size es negativo
+     */
+    public byte[] Acquire(int Size) {
+        ArrayDeque<byte[]> Free;
+        byte Salida[];
+        long Limit, Now;
+        boolean Interrupted;
+
+        if (Size < 0) {
+            throw new IllegalArgumentException("Invalid buffer size: " + Size);
+        }
+        Interrupted = false;
+        synchronized (this) {
+            // Espera que otro trabajo devuelva memoria del presupuesto
+            if ((InUse > 0) && (InUse + Size > Budget)) {
+                Waits++;
+                Limit = System.currentTimeMillis() + MaxWait;
+                Now = System.currentTimeMillis();
+                while ((InUse > 0) && (InUse + Size > Budget) && (Now < Limit)) {
+                    try {
+                        wait(Limit - Now);
+                    } catch (InterruptedException ex) {
+                        Interrupted = true;
+                        break;
+                    }
+                    Now = System.currentTimeMillis();
+                }
+                if (InUse + Size > Budget) {
+                    Overflows++;
+                }
+            }
+            InUse += Size;
+            Free = Classes.get(Size);
+            if ((Free != null) && (!Free.isEmpty())) {
+                Hits++;
+                Idle -= Size;
+                Salida = Free.pop();
+            } else {
+                Misses++;
+                // Libera buffers de otras clases para que el nuevo quepa en el presupuesto
+                Evict(InUse + Idle - Budget);
+                Salida = null;
+            }
+        }
+        if (Interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return (Salida != null) ? Salida : new byte[Size];
+    }
+
+    /**
+     * Devuelve al pool un buffer entregado por Acquire, borrando su
+     * contenido; el buffer no se debe usar despues.
+     *
+     * @param Buffer Buffer a devolver, null no hace nada
+     */
+    public void Release(byte Buffer[]) {
+        ArrayDeque<byte[]> Free;
+
+        if (Buffer == null) {
+            return;
+        }
+        Arrays.fill(Buffer, (byte) 0);
+        synchronized (this) {
+            InUse = Math.max(0, InUse - Buffer.length);
+            if (InUse + Idle + Buffer.length <= Budget) {
+                Free = Classes.get(Buffer.length);
+                if (Free == null) {
+                    Free = new ArrayDeque<byte[]>();
+                    Classes.put(Buffer.length, Free);
+                }
+                Free.push(Buffer);
+                Idle += Buffer.length;
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Descarta un buffer entregado por Acquire sin devolverlo al pool, cuando
+     * todavia puede estar en uso por otra hebra
+     *
+     * @param Buffer Buffer a descartar, null no hace nada
+     */
+    public void Discard(byte Buffer[]) {
+
+        if (Buffer == null) {
+            return;
+        }
+        synchronized (this) {
+            InUse = Math.max(0, InUse - Buffer.length);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Descarta todos los buffers libres
+     */
+    public synchronized void Clear() {
+        Classes.clear();
+        Idle = 0;
+    }
+
+    /**
+     * @return Presupuesto de memoria en bytes
+     */
+    public synchronized long getBudget() {
+        return Budget;
+    }
+
+    /**
+     * Establece el presupuesto de memoria en bytes, descartando los buffers
+     * libres que no caben
+     *
+     * @param Budget Bytes maximos en uso y libres
+     * @throws IllegalArgumentException si Budget es negativo
+     */
+    public synchronized void setBudget(long Budget) {
+
+        if (Budget < 0) {
+            throw new IllegalArgumentException("Invalid budget: " + Budget);
+        }
+        this.Budget = Budget;
+        Evict(InUse + Idle - Budget);
+        notifyAll();
+    }
+
+    /**
+     * @return Tiempo maximo de espera por memoria en milisegundos
+     */
+    public synchronized long getMaxWait() {
+        return MaxWait;
+    }
+
+    /**
+     * Establece el tiempo maximo que Acquire espera por memoria del
+     * presupuesto antes de excederlo
+     *
+     * @param MaxWait Tiempo en milisegundos, 0 para no esperar
+     * @throws IllegalArgumentException si MaxWait es negativo
+     */
+    public synchronized void setMaxWait(long MaxWait) {
+
+        if (MaxWait < 0) {
+            throw new IllegalArgumentException("Invalid wait: " + MaxWait);
+        }
+        this.MaxWait = MaxWait;
+    }
+
+    /**
+     * @return Bytes de los buffers entregados y no devueltos
+     */
+    public synchronized long getInUseBytes() {
+        return InUse;
+    }
+
+    /**
+     * @return Bytes de los buffers libres retenidos
+     */
+    public synchronized long getIdleBytes() {
+        return Idle;
+    }
+
+    /**
+     * @return Buffers entregados reutilizando uno libre
+     */
+    public synchronized long getHits() {
+        return Hits;
+    }
+
+    /**
+     * @return Buffers creados porque no habia uno libre de su clase
+     */
+    public synchronized long getMisses() {
+        return Misses;
+    }
+
+    /**
+     * @return Veces que Acquire espero por memoria del presupuesto
+     */
+    public synchronized long getWaits() {
+        return Waits;
+    }
+
+    /**
+     * @return Buffers entregados excediendo el presupuesto
+     */
+    public synchronized long getOverflows() {
+        return Overflows;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BufferPool[budget=" + Budget + " inUse=" + InUse + " idle=" + Idle + " hits=" + Hits
+                + " misses=" + Misses + " waits=" + Waits + " overflows=" + Overflows + "]";
+    }
+
+    /**
+     * Descarta buffers libres hasta liberar al menos Bytes bytes
+     */
+    @GuardedBy("this")
+    private void Evict(long Bytes) {
+        Iterator<ArrayDeque<byte[]>> Iter;
+        ArrayDeque<byte[]> Free;
+
+        Iter = Classes.values().iterator();
+        while ((Bytes > 0) && Iter.hasNext()) {
+            Free = Iter.next();
+            while ((Bytes > 0) && (!Free.isEmpty())) {
+                Bytes -= Free.peek().length;
+                Idle -= Free.pop().length;
+            }
+            if (Free.isEmpty()) {
+                Iter.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,548 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.interfaces.CryptoFile;
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.files.FileManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Codifica o decodifica lotes de archivos (por ejemplo arboles de directorios)
+ * con un numero acotado de hebras de trabajo, cada una con su propia instancia
+ * de CryptoFile (CuaimaFile, AESFile) creada y con la clave inicializada una
+ * sola vez al iniciar el lote; cada hebra procesa sus archivos uno tras otro
+ * con CodecSync o DecodecSync, sin crear una hebra por archivo.</p>
+ *
+ * <p>
+ * Los archivos se procesan del mas grande al mas pequeño, para que los
+ * ultimos en terminar sean los cortos y todas las hebras se mantengan
+ * ocupadas hasta el final sin tener mas archivos abiertos que hebras.</p>
+ *
+ * <p>
+ * Progress, getProcessedBytes y getThroughput reportan el avance agregado del
+ * lote y getResults el resultado de cada archivo, incluyendo su codigo de
+ * error; un archivo con error no detiene el lote.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+@ThreadSafe
+public final class CryptoFileBatch {
+
+    /**
+     * Codigo de error de un archivo cuyo proceso termino con una excepcion
+     * inesperada, disponible en Result.getFailure
+     */
+    public final static int ERROR_EXCEPTION = -1;
+
+    /**
+     * Crea las instancias de CryptoFile de las hebras de trabajo, con la clave
+     * ya inicializada
+     */
+    public interface CipherFactory {
+
+        /**
+         * @return Nueva instancia de CryptoFile con la clave inicializada
+         * @throws UtilsException si no se pudo inicializar la instancia
+         */
+        CryptoFile Create() throws UtilsException;
+    }
+
+    /**
+     * Resultado del proceso de un archivo del lote
+     */
+    public static final class Result {
+
+        private final FileManager Input;
+        private final FileManager Output;
+        private final long Length;
+        private final int ErrorCode;
+        private final RuntimeException Failure;
+        private final long Nanos;
+
+        private Result(FileManager Input, FileManager Output, long Length, int ErrorCode, RuntimeException Failure, long Nanos) {
+            this.Input = Input;
+            this.Output = Output;
+            this.Length = Length;
+            this.ErrorCode = ErrorCode;
+            this.Failure = Failure;
+            this.Nanos = Nanos;
+        }
+
+        /**
+         * @return Archivo de entrada
+         */
+        public FileManager getInput() {
+            return Input;
+        }
+
+        /**
+         * @return Archivo de salida generado o el solicitado si no se conoce
+         */
+        public FileManager getOutput() {
+            return Output;
+        }
+
+        /**
+         * @return Tamaño del archivo de entrada en bytes
+         */
+        public long getLength() {
+            return Length;
+        }
+
+        /**
+         * @return Codigo de Error del archivo, 0 si concluyo sin errores
+         */
+        public int getErrorCode() {
+            return ErrorCode;
+        }
+
+        /**
+         * @return TRUE si el archivo termino con error
+         */
+        public boolean hasError() {
+            return ErrorCode != 0;
+        }
+
+        /**
+         * @return Excepcion inesperada si el codigo es ERROR_EXCEPTION o null
+         */
+        public RuntimeException getFailure() {
+            return Failure;
+        }
+
+        /**
+         * @return Duracion del proceso del archivo en nanosegundos
+         */
+        public long getNanos() {
+            return Nanos;
+        }
+    }
+
+    /**
+     * Archivo pendiente del lote
+     */
+    private static final class Job {
+
+        private final FileManager Input;
+        private final FileManager Output;
+        private final long Length;
+
+        private Job(FileManager Input, FileManager Output) {
+            this.Input = Input;
+            this.Output = Output;
+            this.Length = Math.max(0, Input.getFileLength());
+        }
+    }
+
+    // Fabrica de las instancias de CryptoFile
+    private final CipherFactory Factory;
+    // Maximo numero de hebras de trabajo
+    private final int Workers;
+    // Archivos agregados para el proximo lote
+    @GuardedBy("this")
+    private final List<Job> Pending;
+    // Instancias de CryptoFile, una por hebra, reutilizadas entre lotes
+    @GuardedBy("this")
+    private final List<CryptoFile> Ciphers;
+    // Lote en ejecucion, ordenado por tamaño descendente
+    @GuardedBy("this")
+    private Job Queue[];
+    // Archivo en proceso por cada hebra de trabajo y su instancia
+    @GuardedBy("this")
+    private Job Current[];
+    @GuardedBy("this")
+    private CryptoFile Active[];
+    // Resultados en orden de conclusion
+    @GuardedBy("this")
+    private final List<Result> Results;
+    // Bytes del lote y de los archivos concluidos
+    @GuardedBy("this")
+    private long TotalBytes;
+    @GuardedBy("this")
+    private long DoneBytes;
+    // Inicio y fin del lote en nanosegundos
+    @GuardedBy("this")
+    private long StartTime;
+    @GuardedBy("this")
+    private long EndTime;
+    // Hebras de trabajo que no han terminado
+    @GuardedBy("this")
+    private int Alive;
+    // Proximo archivo del lote a procesar
+    private final AtomicInteger Next;
+
+    /**
+     * Constructor con la fabrica de instancias de CryptoFile y el maximo
+     * numero de hebras de trabajo
+     *
+     * @param Factory Fabrica de instancias de CryptoFile con la clave
+     * inicializada
+     * @param Workers Maximo numero de hebras de trabajo, mayor a 0
+     * @throws IllegalArgumentException si Factory es null o Workers es menor a
+     * 1
+     */
+    public CryptoFileBatch(CipherFactory Factory, int Workers) {
+
+        if (Factory == null) {
+            throw new IllegalArgumentException("The cipher factory can't be null");
+        }
+        if (Workers < 1) {
+            throw new IllegalArgumentException("The batch needs at least one worker");
+        }
+        this.Factory = Factory;
+        this.Workers = Workers;
+        this.Pending = new ArrayList<Job>();
+        this.Ciphers = new ArrayList<CryptoFile>(Workers);
+        this.Results = new ArrayList<Result>();
+        this.Queue = new Job[0];
+        this.Alive = 0;
+        this.Next = new AtomicInteger();
+    }
+
+    /**
+     * Constructor con una hebra de trabajo por procesador
+     *
+     * @param Factory Fabrica de instancias de CryptoFile con la clave
+     * inicializada
+     * @throws IllegalArgumentException si Factory es null
+     */
+    public CryptoFileBatch(CipherFactory Factory) {
+        this(Factory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Agrega un archivo al proximo lote; Output tiene el mismo significado que
+     * en CryptoFile.Codec y CryptoFile.Decodec, puede ser null o un directorio
+     *
+     * @param Input Archivo a procesar
+     * @param Output Archivo o directorio de salida, o null
+     * @throws IllegalArgumentException si Input es null
+     * @throws IllegalStateException si hay un lote en ejecucion
+     */
+    public synchronized void Add(FileManager Input, FileManager Output) {
+
+        if (Input == null) {
+            throw new IllegalArgumentException("The input file can't be null");
+        }
+        if (Alive > 0) {
+            throw new IllegalStateException("A batch is already running");
+        }
+        Pending.add(new Job(Input, Output));
+    }
+
+    /**
+     * Agrega al proximo lote los archivos de una lista con la misma salida
+     *
+     * @param Inputs Archivos a procesar
+     * @param Output Directorio de salida o null para dejar cada archivo junto
+     * al original
+     * @throws IllegalArgumentException si Inputs o alguno de sus elementos es
+     * null
+     * @throws IllegalStateException si hay un lote en ejecucion
+     */
+    public synchronized void Add(List<FileManager> Inputs, FileManager Output) {
+
+        if (Inputs == null) {
+            throw new IllegalArgumentException("The input list can't be null");
+        }
+        for (FileManager Input : Inputs) {
+            Add(Input, Output);
+        }
+    }
+
+    /**
+     * Agrega al proximo lote los archivos del directorio Directory y, si
+     * Recursive, los de sus subdirectorios; si Output no es null los archivos
+     * de salida se colocan en Output replicando la estructura de
+     * subdirectorios, la cual se crea si no existe
+     *
+     * @param Directory Directorio a procesar
+     * @param Output Directorio de salida o null para dejar cada archivo junto
+     * al original
+     * @param Recursive TRUE para incluir los subdirectorios
+     * @return Numero de archivos agregados
+     * @throws IOException si no se pudo recorrer Directory o crear un
+     * directorio de salida
+     * @throws IllegalArgumentException si Directory no es un directorio
+     * @throws IllegalStateException si hay un lote en ejecucion
+     */
+    public synchronized int AddDirectory(FileManager Directory, FileManager Output, boolean Recursive) throws IOException {
+        List<Path> Entries;
+        Path Root, Target;
+        int Count;
+
+        if ((Directory == null) || !Directory.isDirectory()) {
+            throw new IllegalArgumentException("The input must be a directory");
+        }
+        if (Alive > 0) {
+            throw new IllegalStateException("A batch is already running");
+        }
+        Root = Paths.get(Directory.getAbsoluteFilePath());
+        Entries = new ArrayList<Path>();
+        try (Stream<Path> Walk = Files.walk(Root, Recursive ? Integer.MAX_VALUE : 1)) {
+            Walk.filter(Files::isRegularFile).forEach(Entries::add);
+        }
+        Count = 0;
+        for (Path Entry : Entries) {
+            Target = null;
+            if (Output != null) {
+                Target = Paths.get(Output.getAbsoluteFilePath()).resolve(Root.relativize(Entry.getParent()));
+                Files.createDirectories(Target);
+            }
+            Pending.add(new Job(new FileManager(Entry.toString()), Target != null ? new FileManager(Target.toString()) : null));
+            Count++;
+        }
+        return Count;
+    }
+
+    /**
+     * Inicia la codificacion de los archivos agregados con las opciones de
+     * CryptoFile.Codec y retorna sin esperar a que concluya
+     *
+     * @param Opciones Parametros de configuracion del codificador
+     * @throws UtilsException si no se pudo crear una instancia de CryptoFile
+     * @throws IllegalStateException si hay un lote en ejecucion
+     */
+    public void Codec(int Opciones) throws UtilsException {
+        Start(true, Opciones);
+    }
+
+    /**
+     * Inicia la decodificacion de los archivos agregados y retorna sin esperar
+     * a que concluya
+     *
+     * @throws UtilsException si no se pudo crear una instancia de CryptoFile
+     * @throws IllegalStateException si hay un lote en ejecucion
+     */
+    public void Decodec() throws UtilsException {
+        Start(false, 0);
+    }
+
+    /**
+     * Espera a que el lote en ejecucion concluya
+     *
+     * @throws InterruptedException si la espera fue interrumpida
+     */
+    public synchronized void Await() throws InterruptedException {
+
+        while (Alive > 0) {
+            wait();
+        }
+    }
+
+    /**
+     * @return TRUE si no hay un lote en ejecucion
+     */
+    public synchronized boolean isDone() {
+        return Alive == 0;
+    }
+
+    /**
+     * @return Porcentaje de avance del lote, por bytes, de 0 a 100
+     */
+    public synchronized int Progress() {
+
+        if (Alive == 0) {
+            return (Queue.length > 0) || (EndTime > 0) ? 100 : 0;
+        }
+        if (TotalBytes == 0) {
+            return (int) Math.min(99, (100L * Results.size()) / Math.max(1, Queue.length));
+        }
+        return (int) Math.min(99, (100 * getProcessedBytes()) / TotalBytes);
+    }
+
+    /**
+     * @return Bytes procesados del lote, incluyendo el avance de los archivos
+     * en proceso
+     */
+    public synchronized long getProcessedBytes() {
+        long Salida;
+        int i, Percent;
+
+        Salida = DoneBytes;
+        if (Current != null) {
+            for (i = 0; i < Current.length; i++) {
+                if (Current[i] != null) {
+                    Percent = Active[i].Progress();
+                    if (Percent > 0) {
+                        Salida += (Current[i].Length * Math.min(Percent, 99)) / 100;
+                    }
+                }
+            }
+        }
+        return Salida;
+    }
+
+    /**
+     * @return Bytes totales del lote
+     */
+    public synchronized long getTotalBytes() {
+        return TotalBytes;
+    }
+
+    /**
+     * @return Velocidad promedio del lote en bytes por segundo
+     */
+    public synchronized double getThroughput() {
+        long Elapsed;
+
+        if (StartTime == 0) {
+            return 0;
+        }
+        Elapsed = ((Alive > 0) ? System.nanoTime() : EndTime) - StartTime;
+        if (Elapsed <= 0) {
+            return 0;
+        }
+        return (getProcessedBytes() * 1e9) / Elapsed;
+    }
+
+    /**
+     * @return Resultados de los archivos concluidos, en orden de conclusion
+     */
+    public synchronized List<Result> getResults() {
+        return Collections.unmodifiableList(new ArrayList<Result>(Results));
+    }
+
+    /**
+     * @return Resultados de los archivos que terminaron con error
+     */
+    public synchronized List<Result> getErrors() {
+        List<Result> Salida;
+
+        Salida = new ArrayList<Result>();
+        for (Result R : Results) {
+            if (R.hasError()) {
+                Salida.add(R);
+            }
+        }
+        return Collections.unmodifiableList(Salida);
+    }
+
+    /**
+     * @return Maximo numero de hebras de trabajo
+     */
+    public int getWorkers() {
+        return Workers;
+    }
+
+    /**
+     * Inicia el lote con los archivos agregados, creando las instancias de
+     * CryptoFile que falten antes de iniciar las hebras
+     */
+    private synchronized void Start(boolean Coding, int Opciones) throws UtilsException {
+        Thread Hebra;
+        int i, Count;
+
+        if (Alive > 0) {
+            throw new IllegalStateException("A batch is already running");
+        }
+        Queue = Pending.toArray(new Job[Pending.size()]);
+        Pending.clear();
+        Arrays.sort(Queue, (A, B) -> Long.compare(B.Length, A.Length));
+        Count = Math.min(Workers, Queue.length);
+        while (Ciphers.size() < Count) {
+            Ciphers.add(Factory.Create());
+        }
+        Results.clear();
+        TotalBytes = 0;
+        for (Job J : Queue) {
+            TotalBytes += J.Length;
+        }
+        DoneBytes = 0;
+        StartTime = System.nanoTime();
+        EndTime = 0;
+        Next.set(0);
+        Current = new Job[Count];
+        Active = new CryptoFile[Count];
+        if (Count == 0) {
+            EndTime = StartTime;
+            return;
+        }
+        Alive = Count;
+        for (i = 0; i < Count; i++) {
+            final int Worker = i;
+            Active[i] = Ciphers.get(i);
+            Hebra = new Thread(() -> Work(Worker, Coding, Opciones), "CryptoFileBatch[" + i + "]");
+            Hebra.start();
+        }
+    }
+
+    /**
+     * Ciclo de una hebra de trabajo: toma el proximo archivo del lote hasta
+     * agotarlo
+     */
+    private void Work(int Worker, boolean Coding, int Opciones) {
+        CryptoFile Cipher;
+        FileManager Output;
+        RuntimeException Failure;
+        Job Lote[];
+        Job J;
+        long Begin;
+        int Code, i;
+
+        synchronized (this) {
+            Cipher = Active[Worker];
+            Lote = Queue;
+        }
+        try {
+            while ((i = Next.getAndIncrement()) < Lote.length) {
+                J = Lote[i];
+                synchronized (this) {
+                    Current[Worker] = J;
+                }
+                Begin = System.nanoTime();
+                Failure = null;
+                try {
+                    if (Coding) {
+                        Code = Cipher.CodecSync(J.Input, J.Output, Opciones);
+                    } else {
+                        Code = Cipher.DecodecSync(J.Input, J.Output);
+                    }
+                } catch (RuntimeException ex) {
+                    Code = ERROR_EXCEPTION;
+                    Failure = ex;
+                }
+                Output = Cipher.getOutputFile();
+                synchronized (this) {
+                    Current[Worker] = null;
+                    DoneBytes += J.Length;
+                    Results.add(new Result(J.Input, Output != null ? Output : J.Output, J.Length, Code, Failure, System.nanoTime() - Begin));
+                }
+            }
+        } finally {
+            synchronized (this) {
+                Alive--;
+                if (Alive == 0) {
+                    EndTime = System.nanoTime();
+                }
+                notifyAll();
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.bolivartech.crypto.cuaimacrypt.utils;
 
 import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import com.bolivartech.crypto.cuaimacrypt.CuaimaKeySchedule;
+import com.bolivartech.crypto.cuaimacrypt.CuaimaLanes;
 import com.bolivartech.crypto.digest.BaseHash;
 import com.bolivartech.crypto.digest.CRC32;
 import com.bolivartech.crypto.digest.CRC64;
@@ -30,7 +32,9 @@ import com.bolivartech.utils.converters.Converter;
 import com.bolivartech.utils.exception.UtilsException;
 import com.bolivartech.utils.random.MersenneTwisterPlus;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech C.A.
@@ -45,16 +49,20 @@ import java.util.Arrays;
  *   en Base64
  *
  * Class ID: "TR74ID1" 
- * Loc: 000-007
+ * Loc: 000-010
  * 
  * @author Julian Bolivar
  * @since 2007 - March 25, 2016.
- * @version 3.0.2
+ * @version 3.3.0
  * 
  * <p>
  * Change Log:
  * </p>
  * <ul>
+ * <li>v3.3.0 (2026-10-18) Constructor con un CuaimaCryptPool compartido, del que Codec y Decodec toman prestada la instancia de CuaimaCrypt.</li>
+ * <li>v3.2.0 (2026-10-18) Codec y Decodec en lote sobre List, que procesan varios mensajes en paralelo con CuaimaLanes.</li>
+ * <li>v3.1.0 (2026-10-18) Se agrego setKeyCache para obtener la programacion de la clave de un KeyScheduleCache compartido.</li>
+ * <li>v3.0.3 (2026-10-18) El buffer se codifica en bloque con CuaimaCrypt.Codec(long[], int, int).</li>
  * <li>v3.0.2 (2016-03-25) Se agrego el codigo de localizacion para la excepcion y bitacoras.</li>
  * <li>v3.0.1 - Se forza la utilizacion del US-ASCII para las marcas del encabezado.</li>
  * <li>v3.0.0 - Se realiza la estandarizacion de la mascara para el control de Versiones.</li>
@@ -71,6 +79,8 @@ public class CuaimaBinary implements CryptoBinary {
     private CuaimaCrypt CCPT;
     private int PasswdLength;
     private double HeadPos;
+    private KeyScheduleCache<CuaimaKeySchedule> KeyCache;
+    private CuaimaCryptPool Pool;
     
     /** Version del algoritmo CuaimaCryptBinary (NOTA: Maximo hasta 255 porque son solo 8 bits)  */
     private final static short VERSION = 3;
@@ -81,6 +91,8 @@ public class CuaimaBinary implements CryptoBinary {
     /****** Seleccion de Causas de Error del Algoritmo para las Exepciones *******/
     /** La cantidad de bloques es menor a 2 para inicializar el algoritmo  */
     public final static int ERROR_NUMBLCK = -3;
+    /** Se interrumpio la espera de una instancia del pool  */
+    public final static int ERROR_INTERRUPTED = -4;
     
 
     /**
@@ -174,6 +186,27 @@ public class CuaimaBinary implements CryptoBinary {
         }
     }
 
+    /**
+     * Constructor con inicializacion del password de CuaimaBinary, que toma
+     * prestada una instancia de CuaimaCrypt del pool en cada Codec y Decodec
+     * en lugar de derivar la clave. El pool se debe crear con el mismo
+     * Password y se puede compartir entre varias instancias y hebras.
+     *
+     * @param Password
+     * @param Pool Pool creado con CuaimaCryptPool(String, int, int, int)
+     * @throws UtilsException si el pool no corresponde al Password
+     */
+    public CuaimaBinary(String Password, CuaimaCryptPool Pool) throws UtilsException {
+
+        PasswdLength = -1;
+        if ((Pool == null) || !Pool.Matches(Password)) {
+            throw new UtilsException("ERROR: NO se pudo inicializar CuaimaBinary, el pool no corresponde al Password", ERROR_PASSWD,CuaimaBinary.CLASSID+"009");
+        }
+        this.Pool = Pool;
+        PasswdLength = Password.length();
+        this.CalcHeadPos(Password);
+    }
+
     /**
      * Retorna el identificador de la Clase
      * 
@@ -182,6 +215,52 @@ public class CuaimaBinary implements CryptoBinary {
     public static String getCLASSID() {
         return CLASSID;
     }
+
+    /**
+     * Establece el cache de programaciones de clave que utiliza Password, o
+     * null para derivar la clave en cada llamada (por defecto). El cache se
+     * puede compartir entre varias instancias.
+     *
+     * @param KeyCache Cache de programaciones de clave o null
+     */
+    public void setKeyCache(KeyScheduleCache<CuaimaKeySchedule> KeyCache) {
+        this.KeyCache = KeyCache;
+    }
+
+    /**
+     * Retorna el cache de programaciones de clave que utiliza Password
+     *
+     * @return Cache de programaciones de clave o null
+     */
+    public KeyScheduleCache<CuaimaKeySchedule> getKeyCache() {
+        return KeyCache;
+    }
+
+    /**
+     * Retorna el pool del que se toman prestadas las instancias de
+     * CuaimaCrypt
+     *
+     * @return Pool o null si se usa una instancia propia
+     */
+    public CuaimaCryptPool getPool() {
+        return Pool;
+    }
+
+    /**
+     * Toma prestada una instancia del pool
+     *
+     * @return Instancia de CuaimaCrypt
+     * @throws UtilsException si la hebra se interrumpe mientras espera
+     */
+    private CuaimaCrypt Borrow() throws UtilsException {
+
+        try {
+            return Pool.Acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new UtilsException("ERROR: Se interrumpio la espera de una instancia del pool", ERROR_INTERRUPTED,CuaimaBinary.CLASSID+"010");
+        }
+    }
     
     /**
      * Establece la clave que utiliza CuaimaText para codificar el texto, la
@@ -193,12 +272,30 @@ public class CuaimaBinary implements CryptoBinary {
      */
     @Override
     public boolean Password(String Passw) throws UtilsException {
-        boolean salida;
+        CuaimaCrypt Nuevo;
+        boolean salida, Error;
 
         salida = false;
         PasswdLength = -1;
+        if (Pool != null) {
+            // Deja de usar el pool y deriva la nueva clave en una instancia propia
+            CCPT = new CuaimaCrypt(Pool.GetNumBlocks());
+            Pool = null;
+        }
         if (CCPT != null) {
-            if (CCPT.Password(Passw) != 0) {
+            if (KeyCache != null) {
+                // Obtiene la programacion del cache o la deriva con CCPT
+                Nuevo = KeyCache.Apply(Passw, "CuaimaCrypt:" + CCPT.GetNumSeeds(),
+                        P -> (CCPT.Password(P) == 0) ? CCPT.GetKeySchedule() : null,
+                        S -> (S != null) ? new CuaimaCrypt(S) : null);
+                Error = (Nuevo == null);
+                if (!Error) {
+                    CCPT = Nuevo;
+                }
+            } else {
+                Error = (CCPT.Password(Passw) != 0);
+            }
+            if (Error) {
                 throw new UtilsException("ERROR: NO se pudo inicializar la clave en CuaimaText", ERROR_PASSWD,CuaimaBinary.CLASSID+"004");
             } else {
                 PasswdLength = Passw.length();
@@ -213,7 +310,7 @@ public class CuaimaBinary implements CryptoBinary {
      * Reinicia los ShiftCodecs a las semillas iniciales de los mismos
      */
     public void Reset() {
-        if (PasswdLength > 0) {
+        if ((PasswdLength > 0) && (CCPT != null)) {
             CCPT.Reset();
         }
     }
@@ -234,8 +331,127 @@ public class CuaimaBinary implements CryptoBinary {
      */
     @Override
     public byte[] Codec(byte[] Input, int Opciones) throws UtilsException {
+
+        if (Pool == null) {
+            return CodecBody(Input, Opciones);
+        }
+        CCPT = Borrow();
+        try {
+            return CodecBody(Input, Opciones);
+        } finally {
+            Pool.Release(CCPT);
+            CCPT = null;
+        }
+    }
+
+    /**
+     * Cuerpo de Codec con la instancia de CuaimaCrypt vigente
+     */
+    private byte[] CodecBody(byte[] Input, int Opciones) throws UtilsException {
         byte[] Salida = null;
+        long CodecBuffer[];
+        int HPosc;
+
+        // Verifica si el algoritmo fue inicializado
+        if (PasswdLength > 0) {
+            CCPT.Reset();
+            CodecBuffer = Frame(Input, Opciones, new MersenneTwisterPlus());
+            HPosc = HeadPosition(CodecBuffer.length);
+            // Codifica el Buffer de Salida
+            CCPT.Codec(CodecBuffer, HPosc, (CodecBuffer.length - HPosc) / 2);
+            CCPT.Codec(CodecBuffer, 0, HPosc / 2);
+            // Convierte el mensaje encryptado en arreglo de bytes
+            Salida = Converter.long2byte(CodecBuffer);
+        } else {
+            throw new UtilsException("ERROR: NO se puede codificar el texto porque no se ha establecido una Password", ERROR_PASSWD,CuaimaBinary.CLASSID+"005");
+        }
+        return Salida;
+    }
+
+    /**
+     * Codifica en lote los mensajes de Inputs, con el mismo formato que
+     * Codec(byte[], int), avanzando varios mensajes a la vez sobre los
+     * carriles de CuaimaLanes. Conviene para muchos mensajes cortos con la
+     * misma clave.
+     *
+     * @param Inputs Mensajes a codificar
+     * @param Opciones Opcion de codificacion de todos los mensajes
+     * @return Mensajes codificados, en el mismo orden de Inputs
+     * @throws UtilsException si no se ha establecido una Password
+     */
+    public List<byte[]> Codec(List<byte[]> Inputs, int Opciones) throws UtilsException {
+        List<byte[]> Salida;
         MersenneTwisterPlus Rand;
+        long Buffers[][];
+        int FirstBlock[];
+        int m;
+
+        if (PasswdLength <= 0) {
+            throw new UtilsException("ERROR: NO se puede codificar el lote porque no se ha establecido una Password", ERROR_PASSWD,CuaimaBinary.CLASSID+"008");
+        }
+        Rand = new MersenneTwisterPlus();
+        Buffers = new long[Inputs.size()][];
+        FirstBlock = new int[Buffers.length];
+        for (m = 0; m < Buffers.length; m++) {
+            Buffers[m] = Frame(Inputs.get(m), Opciones, Rand);
+            FirstBlock[m] = HeadPosition(Buffers[m].length) / 2;
+        }
+        new CuaimaLanes((Pool != null) ? Pool.GetKeySchedule() : CCPT.GetKeySchedule()).Codec(Buffers, FirstBlock);
+        Salida = new ArrayList<byte[]>(Buffers.length);
+        for (m = 0; m < Buffers.length; m++) {
+            Salida.add(Converter.long2byte(Buffers[m]));
+        }
+        return Salida;
+    }
+
+    /**
+     * Decodifica en lote los mensajes de Inputs codificados con
+     * Codec(byte[], int) o Codec(List, int), avanzando varios mensajes a la
+     * vez sobre los carriles de CuaimaLanes.
+     *
+     * Un mensaje cuyo encabezado no se puede recuperar queda en null, como en
+     * Decodec(byte[]); si la version de algun mensaje no es reconocida o su
+     * HASH no coincide se lanza la excepcion correspondiente.
+     *
+     * @param Inputs Mensajes a decodificar
+     * @return Mensajes decodificados, en el mismo orden de Inputs, o null si
+     * no se ha establecido una Password
+     * @throws UtilsException si algun mensaje tiene una version no reconocida
+     * o su HASH no coincide
+     */
+    public List<byte[]> Decodec(List<byte[]> Inputs) throws UtilsException {
+        List<byte[]> Salida = null;
+        long Buffers[][];
+        int FirstBlock[];
+        int m;
+
+        if (PasswdLength > 0) {
+            Buffers = new long[Inputs.size()][];
+            FirstBlock = new int[Buffers.length];
+            for (m = 0; m < Buffers.length; m++) {
+                Buffers[m] = Converter.byte2long(Inputs.get(m));
+                FirstBlock[m] = HeadPosition(Buffers[m].length) / 2;
+            }
+            new CuaimaLanes((Pool != null) ? Pool.GetKeySchedule() : CCPT.GetKeySchedule()).Decodec(Buffers, FirstBlock);
+            Salida = new ArrayList<byte[]>(Buffers.length);
+            for (m = 0; m < Buffers.length; m++) {
+                Salida.add(Unframe(Buffers[m], 2 * FirstBlock[m]));
+            }
+        }
+        return Salida;
+    }
+
+    /**
+     * Genera el buffer sin codificar de Input: el encabezado en la posicion
+     * HeadPosition y los datos, con el HASH si Opciones lo indica, rellenados
+     * con bytes aleatorios.
+     *
+     * @param Input Datos de entrada
+     * @param Opciones Opcion de codificacion
+     * @param Rand Generador de los bytes de ofuscacion
+     * @return Buffer a codificar
+     */
+    private long[] Frame(byte[] Input, int Opciones, MersenneTwisterPlus Rand) {
         long Header[];
         long CodecBuffer[];
         long HPosc;
@@ -243,178 +459,170 @@ public class CuaimaBinary implements CryptoBinary {
         byte[] k = null;
         long A[];
         int i, j;
-        double Temp;
         int HashType;
         BaseHash Hash;
         byte[] Digest;
 
-        // Verifica si el algoritmo fue inicializado
-        if (PasswdLength > 0) {
-            Rand = new MersenneTwisterPlus();
-            CCPT.Reset();
-            // Inicializa el Algoritmo de HASH
-            HashType = Opciones & HASHMASK;
-            switch (HashType) {
-                case HASH_WHIRLPOOL2003:
-                    Hash = new Whirlpool2003();
-                    break;
-                case HASH_WHIRLPOOL2000:
-                    Hash = new Whirlpool2000();
-                    break;
-                case HASH_WHIRLPOOL:
-                    Hash = new Whirlpool();
-                    break;
-                case HASH_SHA0:
-                    Hash = new Sha0();
-                    break;
-                case HASH_SHA1:
-                    Hash = new Sha160();
-                    break;
-                case HASH_SHA224:
-                    Hash = new Sha224();
-                    break;
-                case HASH_SHA256:
-                    Hash = new Sha256();
-                    break;
-                case HASH_SHA384:
-                    Hash = new Sha384();
-                    break;
-                case HASH_SHA512:
-                    Hash = new Sha512();
-                    break;
-                case HASH_TIGER:
-                    Hash = new Tiger();
-                    break;
-                case HASH_TIGER2:
-                    Hash = new Tiger2();
-                    break;
-                case HASH_TIGER128:
-                    Hash = new Tiger128();
-                    break;
-                case HASH_TIGER160:
-                    Hash = new Tiger160();
-                    break;
-                case HASH_RIPEMD128:
-                    Hash = new RipeMD128();
-                    break;
-                case HASH_RIPEMD160:
-                    Hash = new RipeMD160();
-                    break;
-                case HASH_MD2:
-                    Hash = new MD2();
-                    break;
-                case HASH_MD4:
-                    Hash = new MD4();
-                    break;
-                case HASH_MD5:
-                    Hash = new MD5();
-                    break;
-                case HASH_HAVAL128:
-                    Hash = new Haval(Haval.HAVAL_128_BIT);
-                    break;
-                case HASH_HAVAL160:
-                    Hash = new Haval(Haval.HAVAL_160_BIT);
-                    break;
-                case HASH_HAVAL192:
-                    Hash = new Haval(Haval.HAVAL_192_BIT);
-                    break;
-                case HASH_HAVAL224:
-                    Hash = new Haval(Haval.HAVAL_224_BIT);
-                    break;
-                case HASH_HAVAL256:
-                    Hash = new Haval(Haval.HAVAL_256_BIT);
-                    break;
-                case HASH_HAS160:
-                    Hash = new Has160();
-                    break;
-                case HASH_CRC32:
-                    Hash = new CRC32();
-                    break;
-                case HASH_CRC64:
-                    Hash = new CRC64();
-                    break;
-                case NO_HASH:
-                    Hash = null;
-                    break;
-                default:
-                    Hash = new Whirlpool2003();
-            }
-            if (HashType != NO_HASH) {
-                // Calcula el HASH del mensaje Original
-                //Digest = StringUtils.toString(Hash.Hash(Input));
-                k = Hash.Hash(Input);
-                Digest = new byte[Input.length];
-                ArrayUtils.arrayCopy(Input, 0, Digest, 0, Input.length);
-                Digest = (byte[]) ArrayUtils.resizeArray(Digest, Digest.length+Hash.hashSize());
-                j=0;
-                for(i=Digest.length-Hash.hashSize();i<Digest.length;i++){
-                    Digest[i]=k[j];
-                    j++;
-                }
-            } else {
-                Digest = new byte[Input.length];
-                ArrayUtils.arrayCopy(Input, 0, Digest, 0, Input.length);
-            }
-            // Genera el Encabezado
-            Header = new long[4];
-            Header[0] = (Rand.nextLong() << 32) | (Converter.byte2long(new String("CCPTTPCC").getBytes(StandardCharsets.US_ASCII))[0] >>> 32);  // BYTES de OFUSCACION
-            Header[1] = (Converter.byte2long(new String("CCPTTPCC").getBytes(StandardCharsets.US_ASCII))[0] << 32) | (Rand.nextLong() >>> 32);  // BYTES de OFUSCACION
-            Header[2] = (long) Input.length;
-            Header[3] = Rand.nextLong() << 32;  // BYTES de OFUSCACION
-            Header[3] |= HashType << 26;  // Hash usado en el mensaje
-            Header[3] |= VERSION & 0xFF;    // VERSION DE CUAIMABINARY
-            // Genera los Buffers para codificacion
-            CodecBuffer = new long[(int) ((double) (Header.length + (2 * Math.ceil((double) Math.ceil(((double) Digest.length / 8)) / 2))))];
-            // Calcula la posicion del Header en el correo
-            Temp = ((double) HeadPos);
-            Temp *= CodecBuffer.length;
-            HPosc = (long) Temp;
-            HPosc = (long) (2 * Math.ceil((double) HPosc / 2));
-            if ((CodecBuffer.length - HPosc) < Header.length) {
-                HPosc = CodecBuffer.length - Header.length;
-            }
-            // Coloca El Encabezado
-            for (i = 0; i < Header.length; i++) {
-                CodecBuffer[(int) (HPosc + i)] = Header[i];
+
+        // Inicializa el Algoritmo de HASH
+        HashType = Opciones & HASHMASK;
+        switch (HashType) {
+            case HASH_WHIRLPOOL2003:
+                Hash = new Whirlpool2003();
+                break;
+            case HASH_WHIRLPOOL2000:
+                Hash = new Whirlpool2000();
+                break;
+            case HASH_WHIRLPOOL:
+                Hash = new Whirlpool();
+                break;
+            case HASH_SHA0:
+                Hash = new Sha0();
+                break;
+            case HASH_SHA1:
+                Hash = new Sha160();
+                break;
+            case HASH_SHA224:
+                Hash = new Sha224();
+                break;
+            case HASH_SHA256:
+                Hash = new Sha256();
+                break;
+            case HASH_SHA384:
+                Hash = new Sha384();
+                break;
+            case HASH_SHA512:
+                Hash = new Sha512();
+                break;
+            case HASH_TIGER:
+                Hash = new Tiger();
+                break;
+            case HASH_TIGER2:
+                Hash = new Tiger2();
+                break;
+            case HASH_TIGER128:
+                Hash = new Tiger128();
+                break;
+            case HASH_TIGER160:
+                Hash = new Tiger160();
+                break;
+            case HASH_RIPEMD128:
+                Hash = new RipeMD128();
+                break;
+            case HASH_RIPEMD160:
+                Hash = new RipeMD160();
+                break;
+            case HASH_MD2:
+                Hash = new MD2();
+                break;
+            case HASH_MD4:
+                Hash = new MD4();
+                break;
+            case HASH_MD5:
+                Hash = new MD5();
+                break;
+            case HASH_HAVAL128:
+                Hash = new Haval(Haval.HAVAL_128_BIT);
+                break;
+            case HASH_HAVAL160:
+                Hash = new Haval(Haval.HAVAL_160_BIT);
+                break;
+            case HASH_HAVAL192:
+                Hash = new Haval(Haval.HAVAL_192_BIT);
+                break;
+            case HASH_HAVAL224:
+                Hash = new Haval(Haval.HAVAL_224_BIT);
+                break;
+            case HASH_HAVAL256:
+                Hash = new Haval(Haval.HAVAL_256_BIT);
+                break;
+            case HASH_HAS160:
+                Hash = new Has160();
+                break;
+            case HASH_CRC32:
+                Hash = new CRC32();
+                break;
+            case HASH_CRC64:
+                Hash = new CRC64();
+                break;
+            case NO_HASH:
+                Hash = null;
+                break;
+            default:
+                Hash = new Whirlpool2003();
+        }
+        if (HashType != NO_HASH) {
+            // Calcula el HASH del mensaje Original
+            //Digest = StringUtils.toString(Hash.Hash(Input));
+            k = Hash.Hash(Input);
+            Digest = new byte[Input.length];
+            ArrayUtils.arrayCopy(Input, 0, Digest, 0, Input.length);
+            Digest = (byte[]) ArrayUtils.resizeArray(Digest, Digest.length+Hash.hashSize());
+            j=0;
+            for(i=Digest.length-Hash.hashSize();i<Digest.length;i++){
+                Digest[i]=k[j];
+                j++;
             }
-            //	Carga El Buffer de Codificacion con el resto de los datos
-            k = new byte[8];
-            BufferPost = HPosc + Header.length;
-            for (i = Header.length; i < CodecBuffer.length; i++) {
-                if (BufferPost == CodecBuffer.length) {
-                    BufferPost = 0;
-                }
-                for (j = 0; j < 8; j++) {
-                    if ((8 * (i - Header.length) + j) < Digest.length) {
-                        k[j] = (byte) Digest[((int) (8 * (i - Header.length) + j))];
-                    } else {
-                        k[j] = Rand.nextByte();
-                    }
-                }
-                A = Converter.byte2long(k);
-                CodecBuffer[(int) BufferPost] = A[0];
-                BufferPost++;
+        } else {
+            Digest = new byte[Input.length];
+            ArrayUtils.arrayCopy(Input, 0, Digest, 0, Input.length);
+        }
+        // Genera el Encabezado
+        Header = new long[4];
+        Header[0] = (Rand.nextLong() << 32) | (Converter.byte2long(new String("CCPTTPCC").getBytes(StandardCharsets.US_ASCII))[0] >>> 32);  // BYTES de OFUSCACION
+        Header[1] = (Converter.byte2long(new String("CCPTTPCC").getBytes(StandardCharsets.US_ASCII))[0] << 32) | (Rand.nextLong() >>> 32);  // BYTES de OFUSCACION
+        Header[2] = (long) Input.length;
+        Header[3] = Rand.nextLong() << 32;  // BYTES de OFUSCACION
+        Header[3] |= HashType << 26;  // Hash usado en el mensaje
+        Header[3] |= VERSION & 0xFF;    // VERSION DE CUAIMABINARY
+        // Genera los Buffers para codificacion
+        CodecBuffer = new long[(int) ((double) (Header.length + (2 * Math.ceil((double) Math.ceil(((double) Digest.length / 8)) / 2))))];
+        // Calcula la posicion del Header en el correo
+        HPosc = HeadPosition(CodecBuffer.length);
+        // Coloca El Encabezado
+        for (i = 0; i < Header.length; i++) {
+            CodecBuffer[(int) (HPosc + i)] = Header[i];
+        }
+        //	Carga El Buffer de Codificacion con el resto de los datos
+        k = new byte[8];
+        BufferPost = HPosc + Header.length;
+        for (i = Header.length; i < CodecBuffer.length; i++) {
+            if (BufferPost == CodecBuffer.length) {
+                BufferPost = 0;
             }
-            // Codifica el Buffer de Salida
-            A = new long[2];
-            BufferPost = HPosc;
-            for (i = 0; i < CodecBuffer.length; i += 2) {
-                if (BufferPost == CodecBuffer.length) {
-                    BufferPost = 0;
+            for (j = 0; j < 8; j++) {
+                if ((8 * (i - Header.length) + j) < Digest.length) {
+                    k[j] = (byte) Digest[((int) (8 * (i - Header.length) + j))];
+                } else {
+                    k[j] = Rand.nextByte();
                 }
-                A[0] = CodecBuffer[(int) BufferPost];
-                A[1] = CodecBuffer[(int) BufferPost + 1];
-                CCPT.Codec(A);
-                CodecBuffer[(int) BufferPost] = A[0];
-                CodecBuffer[(int) BufferPost + 1] = A[1];
-                BufferPost += 2;
             }
-            // Convierte el mensaje encryptado en arreglo de bytes
-            Salida = Converter.long2byte(CodecBuffer);
-        } else {
-            throw new UtilsException("ERROR: NO se puede codificar el texto porque no se ha establecido una Password", ERROR_PASSWD,CuaimaBinary.CLASSID+"005");
+            A = Converter.byte2long(k);
+            CodecBuffer[(int) BufferPost] = A[0];
+            BufferPost++;
         }
-        return Salida;
+        return CodecBuffer;
+    }
+
+    /**
+     * Calcula la posicion del encabezado en un buffer de 'Length' palabras a
+     * partir de HeadPos
+     *
+     * @param Length Numero de palabras del buffer
+     * @return Posicion par de la primera palabra del encabezado
+     */
+    private int HeadPosition(int Length) {
+        double Temp;
+        long HPosc;
+
+        Temp = ((double) HeadPos);
+        Temp *= Length;
+        HPosc = (long) Temp;
+        HPosc = (long) (2 * Math.ceil((double) HPosc / 2));
+        if ((Length - HPosc) < 4) {
+            HPosc = Length - 4;
+        }
+        return (int) HPosc;
     }
 
     /**
@@ -438,13 +646,57 @@ public class CuaimaBinary implements CryptoBinary {
      */
     @Override
     public byte[] Decodec(byte[] Input) throws UtilsException {
+
+        if (Pool == null) {
+            return DecodecBody(Input);
+        }
+        CCPT = Borrow();
+        try {
+            return DecodecBody(Input);
+        } finally {
+            Pool.Release(CCPT);
+            CCPT = null;
+        }
+    }
+
+    /**
+     * Cuerpo de Decodec con la instancia de CuaimaCrypt vigente
+     */
+    private byte[] DecodecBody(byte[] Input) throws UtilsException {
         byte[] Salida = null;
         long DecodecBuffer[] = null;
+        int HPosc;
+
+        // Verifica si el algoritmo fue inicializado
+        if (PasswdLength > 0) {
+            CCPT.Reset();
+            // Decodifica el mensaje de Base64
+            DecodecBuffer = Converter.byte2long(Input);
+            // Calcula la posicion del Header en el correo
+            HPosc = HeadPosition(DecodecBuffer.length);
+            // Decodifica el Buffer de Salida
+            CCPT.Decodec(DecodecBuffer, HPosc, (DecodecBuffer.length - HPosc) / 2);
+            CCPT.Decodec(DecodecBuffer, 0, HPosc / 2);
+            Salida = Unframe(DecodecBuffer, HPosc);
+        }
+        return Salida;
+    }
+
+    /**
+     * Recupera los datos de un buffer decodificado, verificando el encabezado
+     * y el HASH.
+     *
+     * @param DecodecBuffer Buffer decodificado
+     * @param HPosc Posicion del encabezado
+     * @return Datos o null si el encabezado no es valido
+     * @throws UtilsException si la version no es reconocida o el HASH no
+     * coincide
+     */
+    private byte[] Unframe(long DecodecBuffer[], long HPosc) throws UtilsException {
+        byte[] Salida = null;
         long[] Header, HTemp;
         String HeaderDec;
-        long A[];
-        long HPosc, BufferPost;
-        double Temp;
+        long BufferPost;
         int i;
         int Version;
         byte[] OutBuffer;
@@ -453,169 +705,140 @@ public class CuaimaBinary implements CryptoBinary {
         byte[] OrgDigest = null;
         byte[] NewDigest = null;
 
-        // Verifica si el algoritmo fue inicializado
-        if (PasswdLength > 0) {
-            CCPT.Reset();
-            HashType = 0;
-            // Decodifica el mensaje de Base64
-            DecodecBuffer = Converter.byte2long(Input);
-            // Genera el Encabezado
-            Header = new long[4];
-            // Calcula la posicion del Header en el correo
-            Temp = ((double) HeadPos);
-            Temp *= DecodecBuffer.length;
-            HPosc = (long) Temp;
-            HPosc = (long) (2 * Math.ceil((double) HPosc / 2));
-            if ((DecodecBuffer.length - HPosc) < Header.length) {
-                HPosc = DecodecBuffer.length - Header.length;
-            }
-            // Decodifica el Buffer de Salida
-            A = new long[2];
-            BufferPost = HPosc;
-            for (i = 0; i < DecodecBuffer.length; i += 2) {
-                if (BufferPost == DecodecBuffer.length) {
-                    BufferPost = 0;
+        HashType = 0;
+        Header = new long[4];
+        // Recupera El Encabezado
+        for (i = 0; i < Header.length; i++) {
+            Header[i] = DecodecBuffer[(int) (HPosc + i)];
+        }
+        // Trata de Recuperar Informacion del Encabezado
+        HTemp = new long[1];
+        HTemp[0] = (Header[0] << 32) | (Header[1] >>> 32);
+        HeaderDec = new String(Converter.long2byte(HTemp),StandardCharsets.US_ASCII);
+        // Verifica si se pudo recuperar la informacion
+        if (HeaderDec.contentEquals(new StringBuffer("CCPTTPCC"))) {
+            // Recupera la Version de CuaimaText
+            Version = (int) (Header[3] & 0xFFL);
+            if (Version == (VERSION & 0xFF)) {
+                // Recupera el Tipo de Hash utilizado
+                HashType = ((int) (Header[3] >>> 26)) & HASHMASK;
+                switch (HashType) {
+                    case HASH_WHIRLPOOL2003:
+                        Hash = new Whirlpool2003();
+                        break;
+                    case HASH_WHIRLPOOL2000:
+                        Hash = new Whirlpool2000();
+                        break;
+                    case HASH_WHIRLPOOL:
+                        Hash = new Whirlpool();
+                        break;
+                    case HASH_SHA0:
+                        Hash = new Sha0();
+                        break;
+                    case HASH_SHA1:
+                        Hash = new Sha160();
+                        break;
+                    case HASH_SHA224:
+                        Hash = new Sha224();
+                        break;
+                    case HASH_SHA256:
+                        Hash = new Sha256();
+                        break;
+                    case HASH_SHA384:
+                        Hash = new Sha384();
+                        break;
+                    case HASH_SHA512:
+                        Hash = new Sha512();
+                        break;
+                    case HASH_TIGER:
+                        Hash = new Tiger();
+                        break;
+                    case HASH_TIGER2:
+                        Hash = new Tiger2();
+                        break;
+                    case HASH_TIGER128:
+                        Hash = new Tiger128();
+                        break;
+                    case HASH_TIGER160:
+                        Hash = new Tiger160();
+                        break;
+                    case HASH_RIPEMD128:
+                        Hash = new RipeMD128();
+                        break;
+                    case HASH_RIPEMD160:
+                        Hash = new RipeMD160();
+                        break;
+                    case HASH_MD2:
+                        Hash = new MD2();
+                        break;
+                    case HASH_MD4:
+                        Hash = new MD4();
+                        break;
+                    case HASH_MD5:
+                        Hash = new MD5();
+                        break;
+                    case HASH_HAVAL128:
+                        Hash = new Haval(Haval.HAVAL_128_BIT);
+                        break;
+                    case HASH_HAVAL160:
+                        Hash = new Haval(Haval.HAVAL_160_BIT);
+                        break;
+                    case HASH_HAVAL192:
+                        Hash = new Haval(Haval.HAVAL_192_BIT);
+                        break;
+                    case HASH_HAVAL224:
+                        Hash = new Haval(Haval.HAVAL_224_BIT);
+                        break;
+                    case HASH_HAVAL256:
+                        Hash = new Haval(Haval.HAVAL_256_BIT);
+                        break;
+                    case HASH_HAS160:
+                        Hash = new Has160();
+                        break;
+                    case HASH_CRC32:
+                        Hash = new CRC32();
+                        break;
+                    case HASH_CRC64:
+                        Hash = new CRC64();
+                        break;
+                    case NO_HASH:
+                        Hash = null;
+                        break;
+                    default:
+                        Hash = new Whirlpool2003();
                 }
-                A[0] = DecodecBuffer[(int) BufferPost];
-                A[1] = DecodecBuffer[(int) BufferPost + 1];
-                CCPT.Decodec(A);
-                DecodecBuffer[(int) BufferPost] = A[0];
-                DecodecBuffer[(int) BufferPost + 1] = A[1];
-                BufferPost += 2;
-            }
-            // Recupera El Encabezado
-            for (i = 0; i < Header.length; i++) {
-                Header[i] = DecodecBuffer[(int) (HPosc + i)];
-            }
-            // Trata de Recuperar Informacion del Encabezado
-            HTemp = new long[1];
-            HTemp[0] = (Header[0] << 32) | (Header[1] >>> 32);
-            HeaderDec = new String(Converter.long2byte(HTemp),StandardCharsets.US_ASCII);
-            // Verifica si se pudo recuperar la informacion
-            if (HeaderDec.contentEquals(new StringBuffer("CCPTTPCC"))) {
-                // Recupera la Version de CuaimaText
-                Version = (int) (Header[3] & 0xFFL);
-                if (Version == (VERSION & 0xFF)) {
-                    // Recupera el Tipo de Hash utilizado
-                    HashType = ((int) (Header[3] >>> 26)) & HASHMASK;
-                    switch (HashType) {
-                        case HASH_WHIRLPOOL2003:
-                            Hash = new Whirlpool2003();
-                            break;
-                        case HASH_WHIRLPOOL2000:
-                            Hash = new Whirlpool2000();
-                            break;
-                        case HASH_WHIRLPOOL:
-                            Hash = new Whirlpool();
-                            break;
-                        case HASH_SHA0:
-                            Hash = new Sha0();
-                            break;
-                        case HASH_SHA1:
-                            Hash = new Sha160();
-                            break;
-                        case HASH_SHA224:
-                            Hash = new Sha224();
-                            break;
-                        case HASH_SHA256:
-                            Hash = new Sha256();
-                            break;
-                        case HASH_SHA384:
-                            Hash = new Sha384();
-                            break;
-                        case HASH_SHA512:
-                            Hash = new Sha512();
-                            break;
-                        case HASH_TIGER:
-                            Hash = new Tiger();
-                            break;
-                        case HASH_TIGER2:
-                            Hash = new Tiger2();
-                            break;
-                        case HASH_TIGER128:
-                            Hash = new Tiger128();
-                            break;
-                        case HASH_TIGER160:
-                            Hash = new Tiger160();
-                            break;
-                        case HASH_RIPEMD128:
-                            Hash = new RipeMD128();
-                            break;
-                        case HASH_RIPEMD160:
-                            Hash = new RipeMD160();
-                            break;
-                        case HASH_MD2:
-                            Hash = new MD2();
-                            break;
-                        case HASH_MD4:
-                            Hash = new MD4();
-                            break;
-                        case HASH_MD5:
-                            Hash = new MD5();
-                            break;
-                        case HASH_HAVAL128:
-                            Hash = new Haval(Haval.HAVAL_128_BIT);
-                            break;
-                        case HASH_HAVAL160:
-                            Hash = new Haval(Haval.HAVAL_160_BIT);
-                            break;
-                        case HASH_HAVAL192:
-                            Hash = new Haval(Haval.HAVAL_192_BIT);
-                            break;
-                        case HASH_HAVAL224:
-                            Hash = new Haval(Haval.HAVAL_224_BIT);
-                            break;
-                        case HASH_HAVAL256:
-                            Hash = new Haval(Haval.HAVAL_256_BIT);
-                            break;
-                        case HASH_HAS160:
-                            Hash = new Has160();
-                            break;
-                        case HASH_CRC32:
-                            Hash = new CRC32();
-                            break;
-                        case HASH_CRC64:
-                            Hash = new CRC64();
-                            break;
-                        case NO_HASH:
-                            Hash = null;
-                            break;
-                        default:
-                            Hash = new Whirlpool2003();
-                    }
-                    // Genera el buffer de salida
-                    if (Hash != null) {
-                        OutBuffer = new byte[(((int) Header[2]) + Hash.hashSize())];
-                    } else {
-                        OutBuffer = new byte[((int) Header[2])];
-                    }
-                    // Recupera la Informacion del Buffer decodificado
-                    BufferPost = HPosc + Header.length;
-                    for (i = 0; i < OutBuffer.length; i+=8) {
-                        if (BufferPost == DecodecBuffer.length) {
-                            BufferPost = 0;
-                        }
-                        HTemp[0] = DecodecBuffer[(int) BufferPost];
-                         ArrayUtils.arrayCopy(Converter.long2byte(HTemp), 0, OutBuffer, i, 8);
-                        //OutBuffer.append(new String(Converter.long2byte(HTemp)));
-                        BufferPost++;
-                    }
-                    if (Hash != null) {
-                        OrgDigest =  (byte[]) ArrayUtils.subArray(OutBuffer,(int) Header[2],Hash.hashSize());
+                // Genera el buffer de salida
+                if (Hash != null) {
+                    OutBuffer = new byte[(((int) Header[2]) + Hash.hashSize())];
+                } else {
+                    OutBuffer = new byte[((int) Header[2])];
+                }
+                // Recupera la Informacion del Buffer decodificado
+                BufferPost = HPosc + Header.length;
+                for (i = 0; i < OutBuffer.length; i+=8) {
+                    if (BufferPost == DecodecBuffer.length) {
+                        BufferPost = 0;
                     }
-                    OutBuffer = (byte[]) ArrayUtils.resizeArray(OutBuffer,(int) Header[2]);
-                    Salida = new byte[OutBuffer.length];
-                    ArrayUtils.arrayCopy(OutBuffer, 0, Salida, 0, OutBuffer.length);
-                    if (Hash != null) {
-                        NewDigest = Hash.Hash(OutBuffer);
-                        if (!Arrays.equals(OrgDigest,NewDigest)){
-                            Salida = null;
-                            throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH,CuaimaBinary.CLASSID+"006");
-                        }
+                    HTemp[0] = DecodecBuffer[(int) BufferPost];
+                     ArrayUtils.arrayCopy(Converter.long2byte(HTemp), 0, OutBuffer, i, 8);
+                    //OutBuffer.append(new String(Converter.long2byte(HTemp)));
+                    BufferPost++;
+                }
+                if (Hash != null) {
+                    OrgDigest =  (byte[]) ArrayUtils.subArray(OutBuffer,(int) Header[2],Hash.hashSize());
+                }
+                OutBuffer = (byte[]) ArrayUtils.resizeArray(OutBuffer,(int) Header[2]);
+                Salida = new byte[OutBuffer.length];
+                ArrayUtils.arrayCopy(OutBuffer, 0, Salida, 0, OutBuffer.length);
+                if (Hash != null) {
+                    NewDigest = Hash.Hash(OutBuffer);
+                    if (!Arrays.equals(OrgDigest,NewDigest)){
+                        Salida = null;
+                        throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH,CuaimaBinary.CLASSID+"006");
                     }
-                } else {
-                    throw new UtilsException("ERROR: Version de CuaimaText NO Reconocida", ERROR_VERSION,CuaimaBinary.CLASSID+"007");
                 }
+            } else {
+                throw new UtilsException("ERROR: Version de CuaimaText NO Reconocida", ERROR_VERSION,CuaimaBinary.CLASSID+"007");
             }
         }
         return Salida;
@@ -0,0 +1,345 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import com.bolivartech.utils.files.FileManager;
+import com.bolivartech.utils.random.MersenneTwisterPlus;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Punto de control de un proceso de CuaimaFile, almacenado junto al archivo
+ * de salida con la extension EXTENSION para continuar el proceso con
+ * CuaimaFile.Resume.</p>
+ *
+ * <p>
+ * Con el formato segmentado (VERSION 4) contiene los parametros del
+ * encabezado, el estado de ejecucion de CCPT despues del encabezado, del cual
+ * se derivan la clave de los segmentos y la codificacion del HASH final, el
+ * numero del siguiente segmento y el HASH de los bytes del archivo original
+ * procesados hasta ese segmento, que se usa para verificar que los datos no
+ * cambiaron al continuar.</p>
+ *
+ * <p>
+ * Con el formato clasico (VERSION 3) el flujo de datos es una sola secuencia
+ * de CCPT, por lo que contiene el estado de ejecucion de CCPT en el punto de
+ * control, la posicion del encabezado, el tamaño del archivo codificado, los
+ * bytes del flujo de datos ya procesados y el HASH de los bytes del archivo
+ * original procesados hasta ese punto.</p>
+ *
+ * <p>
+ * El archivo se codifica con la clave del proceso: una copia de CCPT
+ * reiniciada codifica un bloque aleatorio seguido de los datos, delimitados
+ * por la marca MARK, por lo que solo se recupera con la misma clave. Se
+ * escribe en un archivo temporal que luego reemplaza al anterior, de forma
+ * que una falla durante la escritura conserva el punto de control previo.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.1.0
+ *
+ * <p>
+ * Change Log:
+ * </p>
+ * <ul>
+ * <li>v1.1.0 - Puntos de control de los procesos con el formato
+ * clasico.</li>
+ * </ul>
+ */
+final class CuaimaCheckpoint {
+
+    /**
+     * Extension del archivo del punto de control
+     */
+    static final String EXTENSION = ".ckpt";
+
+    /**
+     * Proceso de codificacion
+     */
+    static final int CODEC = 1;
+
+    /**
+     * Proceso de decodificacion
+     */
+    static final int DECODEC = 2;
+
+    /**
+     * Proceso de codificacion con el formato clasico
+     */
+    static final int CLASSICCODEC = 3;
+
+    /**
+     * Proceso de decodificacion con el formato clasico
+     */
+    static final int CLASSICDECODEC = 4;
+
+    // Marca de los datos del punto de control
+    private static final String MARK = "CCPTCKPT";
+    // Version del formato del punto de control
+    private static final int VERSION = 1;
+    // Tamaño maximo del archivo del punto de control en bytes
+    private static final int MAXSIZE = 1048576;
+
+    // Proceso, CODEC o DECODEC
+    final int Mode;
+    // Tamaño del archivo de entrada en bytes
+    final long InputSize;
+    // Tamaño del archivo original en bytes
+    final long Length;
+    // Tamaño de los segmentos en bytes, 0 en el formato clasico
+    final int SegSize;
+    // Valor aleatorio del encabezado
+    final long Nonce;
+    // Tipo de HASH del archivo
+    final int HashType;
+    // Tamaño del encabezado en palabras de 64 bits
+    final int HeaderLength;
+    // Estado de ejecucion de CCPT despues del encabezado, o en el formato
+    // clasico en el punto de control
+    long State[];
+    // Numero del siguiente segmento a procesar, o en el formato clasico bytes
+    // procesados del flujo de datos
+    long Index;
+    // Posicion del encabezado en palabras de 64 bits, formato clasico
+    long HPosc;
+    // Tamaño del archivo codificado en palabras de 64 bits, formato clasico
+    long OutputLength;
+    // HASH de los bytes procesados, vacio si el archivo no usa HASH
+    byte Fingerprint[];
+
+    /**
+     * Constructor con los parametros del proceso, iniciando en el segmento 0
+     *
+     * @param Mode CODEC, DECODEC, CLASSICCODEC o CLASSICDECODEC
+     * @param InputSize Tamaño del archivo de entrada en bytes
+     * @param Length Tamaño del archivo original en bytes
+     * @param SegSize Tamaño de los segmentos en bytes, 0 en el formato clasico
+     * @param Nonce Valor aleatorio del encabezado
+     * @param HashType Tipo de HASH del archivo
+     * @param HeaderLength Tamaño del encabezado en palabras de 64 bits
+     * @param State Estado de ejecucion de CCPT despues del encabezado
+     */
+    CuaimaCheckpoint(int Mode, long InputSize, long Length, int SegSize, long Nonce, int HashType, int HeaderLength, long State[]) {
+        this.Mode = Mode;
+        this.InputSize = InputSize;
+        this.Length = Length;
+        this.SegSize = SegSize;
+        this.Nonce = Nonce;
+        this.HashType = HashType;
+        this.HeaderLength = HeaderLength;
+        this.State = State;
+        this.Index = 0;
+        this.HPosc = 0;
+        this.OutputLength = 0;
+        this.Fingerprint = new byte[0];
+    }
+
+    /**
+     * @return TRUE si el proceso usa el formato clasico
+     */
+    boolean Classic() {
+        return (Mode == CLASSICCODEC) || (Mode == CLASSICDECODEC);
+    }
+
+    /**
+     * Retorna el archivo del punto de control de Output
+     *
+     * @param Output Archivo de salida del proceso
+     * @return Archivo del punto de control
+     */
+    static File Sidecar(FileManager Output) {
+        return new File(Output.getAbsoluteFilePath() + EXTENSION);
+    }
+
+    /**
+     * @return Posicion de los segmentos en el archivo codificado en bytes
+     */
+    long DataStart() {
+        return 8L * HeaderLength;
+    }
+
+    /**
+     * @return Bytes del archivo original procesados antes del segmento Index,
+     * o en el formato clasico antes de la posicion Index del flujo de datos
+     */
+    long Processed() {
+        return Math.min(Length, Classic() ? Index : Index * SegSize);
+    }
+
+    /**
+     * Escribe el punto de control en Sidecar codificado con la clave de CCPT,
+     * reemplazando el anterior
+     *
+     * @param Sidecar Archivo del punto de control
+     * @param CCPT Codificador del proceso, del cual se copia la clave
+     * @throws IOException si falla la escritura
+     */
+    void Save(File Sidecar, CuaimaCrypt CCPT) throws IOException {
+        ByteArrayOutputStream Bytes;
+        DataOutputStream Data;
+        MersenneTwisterPlus Rand;
+        File Temp;
+        byte Buffer[];
+        int i, Size;
+
+        Rand = new MersenneTwisterPlus();
+        Bytes = new ByteArrayOutputStream();
+        Data = new DataOutputStream(Bytes);
+        for (i = 0; i < CuaimaCrypt.BLOCKSIZE; i++) {
+            Data.writeByte(Rand.nextByte());
+        }
+        Data.write(MARK.getBytes(StandardCharsets.US_ASCII));
+        Data.writeInt(VERSION);
+        Data.writeInt(Mode);
+        Data.writeLong(InputSize);
+        Data.writeLong(Length);
+        Data.writeInt(SegSize);
+        Data.writeLong(Nonce);
+        Data.writeInt(HashType);
+        Data.writeInt(HeaderLength);
+        Data.writeLong(Index);
+        Data.writeLong(HPosc);
+        Data.writeLong(OutputLength);
+        Data.writeInt(State.length);
+        for (i = 0; i < State.length; i++) {
+            Data.writeLong(State[i]);
+        }
+        Data.writeInt(Fingerprint.length);
+        Data.write(Fingerprint);
+        Data.write(MARK.getBytes(StandardCharsets.US_ASCII));
+        // Completa a multiplo de 16 con numeros aleatorios
+        Size = (Data.size() + CuaimaCrypt.BLOCKSIZE - 1) & ~(CuaimaCrypt.BLOCKSIZE - 1);
+        while (Data.size() < Size) {
+            Data.writeByte(Rand.nextByte());
+        }
+        Data.flush();
+        Buffer = Bytes.toByteArray();
+        Cipher(CCPT, Buffer, false);
+        // Escribe en un archivo temporal y reemplaza el punto de control anterior
+        Temp = new File(Sidecar.getAbsolutePath() + ".tmp");
+        try (FileChannel Out = FileChannel.open(Temp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            MappedFileCodec.WriteFully(Out, ByteBuffer.wrap(Buffer), 0);
+            Out.force(true);
+        }
+        try {
+            Files.move(Temp.toPath(), Sidecar.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(Temp.toPath(), Sidecar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Lee el punto de control de Sidecar decodificandolo con la clave de CCPT
+     *
+     * @param Sidecar Archivo del punto de control
+     * @param CCPT Codificador del proceso, del cual se copia la clave
+     * @return Punto de control
+     * @throws IOException si falla la lectura, o si el archivo esta dañado o
+     * fue codificado con otra clave
+     */
+    static CuaimaCheckpoint Load(File Sidecar, CuaimaCrypt CCPT) throws IOException {
+        CuaimaCheckpoint Salida;
+        DataInputStream Data;
+        byte Buffer[], Mark[], Fingerprint[];
+        long State[], InputSize, Length, Nonce, Index, HPosc, OutputLength;
+        int i, Mode, SegSize, HashType, HeaderLength, Count;
+
+        if ((Sidecar.length() < 4 * CuaimaCrypt.BLOCKSIZE) || (Sidecar.length() > MAXSIZE) || ((Sidecar.length() % CuaimaCrypt.BLOCKSIZE) != 0)) {
+            throw new IOException("Invalid checkpoint file " + Sidecar.getAbsolutePath());
+        }
+        Buffer = Files.readAllBytes(Sidecar.toPath());
+        try {
+            Cipher(CCPT, Buffer, true);
+            Data = new DataInputStream(new ByteArrayInputStream(Buffer));
+            Mark = new byte[MARK.length()];
+            Data.skipBytes(CuaimaCrypt.BLOCKSIZE);
+            Data.readFully(Mark);
+            if (!MARK.equals(new String(Mark, StandardCharsets.US_ASCII)) || (Data.readInt() != VERSION)) {
+                throw new IOException("Invalid checkpoint file or key " + Sidecar.getAbsolutePath());
+            }
+            Mode = Data.readInt();
+            InputSize = Data.readLong();
+            Length = Data.readLong();
+            SegSize = Data.readInt();
+            Nonce = Data.readLong();
+            HashType = Data.readInt();
+            HeaderLength = Data.readInt();
+            Index = Data.readLong();
+            HPosc = Data.readLong();
+            OutputLength = Data.readLong();
+            Count = Data.readInt();
+            if ((Count < 0) || (Count > Buffer.length / 8)) {
+                throw new IOException("Invalid checkpoint file " + Sidecar.getAbsolutePath());
+            }
+            State = new long[Count];
+            for (i = 0; i < Count; i++) {
+                State[i] = Data.readLong();
+            }
+            Count = Data.readInt();
+            if ((Count < 0) || (Count > Buffer.length)) {
+                throw new IOException("Invalid checkpoint file " + Sidecar.getAbsolutePath());
+            }
+            Fingerprint = new byte[Count];
+            Data.readFully(Fingerprint);
+            Data.readFully(Mark);
+            if (!MARK.equals(new String(Mark, StandardCharsets.US_ASCII)) || (Mode < CODEC) || (Mode > CLASSICDECODEC) || (Index < 0) || (Length < 0) || (HPosc < 0) || (OutputLength < 0)
+                    || ((Mode <= DECODEC) && (SegSize <= 0))) {
+                throw new IOException("Invalid checkpoint file " + Sidecar.getAbsolutePath());
+            }
+        } finally {
+            Arrays.fill(Buffer, (byte) 0);
+        }
+        Salida = new CuaimaCheckpoint(Mode, InputSize, Length, SegSize, Nonce, HashType, HeaderLength, State);
+        Salida.Index = Index;
+        Salida.HPosc = HPosc;
+        Salida.OutputLength = OutputLength;
+        Salida.Fingerprint = Fingerprint;
+        return Salida;
+    }
+
+    /**
+     * Codifica o decodifica en sitio Buffer con una copia reiniciada de CCPT
+     */
+    private static void Cipher(CuaimaCrypt CCPT, byte Buffer[], boolean Decodec) {
+        CuaimaCrypt Key;
+
+        synchronized (CCPT) {
+            Key = CCPT.Copy();
+        }
+        try {
+            Key.Reset();
+            if (Decodec) {
+                Key.Decodec(Buffer, 0, Buffer.length);
+            } else {
+                Key.Codec(Buffer, 0, Buffer.length);
+            }
+        } finally {
+            Key.destroy();
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import com.bolivartech.crypto.cuaimacrypt.CuaimaKeySchedule;
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Pool acotado de instancias de CuaimaCrypt con una misma clave, para usos de
+ * corta duracion (por ejemplo una instancia por peticion) que no deben pagar
+ * la construccion del grafo de RakeCodec y ShiftCodec en cada uso.</p>
+ *
+ * <p>
+ * Acquire entrega una instancia inactiva del pool o crea una nueva a partir de
+ * la programacion de la clave, en ambos casos en el estado de las semillas.
+ * Release la devuelve al pool con Reset; si el pool ya tiene MaxIdle
+ * instancias inactivas la instancia se descarta y se borra con destroy. Las
+ * instancias no se deben reconfigurar (Password o los metodos Set) mientras
+ * estan prestadas, porque al devolverlas solo se restablecen las semillas.</p>
+ *
+ * <p>
+ * El pool nunca tiene mas de MaxTotal instancias vivas (inactivas, prestadas
+ * o en construccion). Cuando se alcanza el limite, Acquire espera a que se
+ * devuelva una instancia y TryAcquire retorna null.</p>
+ *
+ * <p>
+ * Un pool creado con el Password se puede entregar a CuaimaText y
+ * CuaimaBinary, que verifican con Matches que corresponde a su clave y toman
+ * una instancia prestada en cada Codec y Decodec.</p>
+ *
+ * <p>
+ * El pool se comparte entre hebras; cada instancia prestada es de uso
+ * exclusivo de quien la obtuvo hasta que la devuelve.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.2.0
+ *
+ * <p>
+ * Change Log:
+ * </p>
+ * <ul>
+ * <li>v1.2.0 - Limite MaxTotal de instancias vivas, TryAcquire y constructor con Password para CuaimaText y CuaimaBinary.</li>
+ * <li>v1.1.0 - The discarded and cleared instances are destroyed.</li>
+ * </ul>
+ */
+public final class CuaimaCryptPool {
+
+    // Programacion de la clave de las instancias
+    private final CuaimaKeySchedule Schedule;
+    // Maximo numero de instancias inactivas
+    private final int MaxIdle;
+    // Maximo numero de instancias vivas
+    private final int MaxTotal;
+    // Semilla y resumen del Password del pool, null si se creo con la programacion
+    private final byte[] Salt;
+    private final byte[] Fingerprint;
+    // Instancias inactivas, la ultima devuelta es la primera en prestarse
+    @GuardedBy("this")
+    private final ArrayDeque<CuaimaCrypt> Idle;
+    // Instancias prestadas
+    @GuardedBy("this")
+    private final Set<CuaimaCrypt> Lent;
+    // Instancias en construccion fuera del bloqueo
+    @GuardedBy("this")
+    private int Creating;
+    // Contadores
+    @GuardedBy("this")
+    private long Created;
+    @GuardedBy("this")
+    private long Reused;
+
+    /**
+     * Constructor con la programacion de la clave y el maximo numero de
+     * instancias inactivas, que es tambien el maximo de instancias vivas
+     *
+     * @param Schedule Programacion de la clave, obtenida con
+     * CuaimaCrypt.GetKeySchedule
+     * @param MaxIdle Maximo numero de instancias inactivas, mayor a 0
+     * @throws IllegalArgumentException si Schedule es null o MaxIdle es menor a
+     * 1
+     */
+    public CuaimaCryptPool(CuaimaKeySchedule Schedule, int MaxIdle) {
+
+        this(Schedule, MaxIdle, MaxIdle, null);
+    }
+
+    /**
+     * Constructor con la programacion de la clave, el maximo numero de
+     * instancias inactivas y el maximo numero de instancias vivas
+     *
+     * @param Schedule Programacion de la clave, obtenida con
+     * CuaimaCrypt.GetKeySchedule
+     * @param MaxIdle Maximo numero de instancias inactivas, mayor a 0
+     * @param MaxTotal Maximo numero de instancias vivas, mayor o igual a
+     * MaxIdle
+     * @throws IllegalArgumentException si Schedule es null, MaxIdle es menor a
+     * 1 o MaxTotal es menor a MaxIdle
+     */
+    public CuaimaCryptPool(CuaimaKeySchedule Schedule, int MaxIdle, int MaxTotal) {
+
+        this(Schedule, MaxIdle, MaxTotal, null);
+    }
+
+    /**
+     * Constructor que deriva la programacion de la clave a partir del
+     * Password, para entregar el pool a CuaimaText o CuaimaBinary
+     *
+     * @param Password Clave de las instancias
+     * @param NumBlocks Numero de bloques de RakeCodecs, minimo 2
+     * @param MaxIdle Maximo numero de instancias inactivas, mayor a 0
+     * @param MaxTotal Maximo numero de instancias vivas, mayor o igual a
+     * MaxIdle
+     * @throws IllegalArgumentException si el Password no es valido, NumBlocks
+     * es menor a 2, MaxIdle es menor a 1 o MaxTotal es menor a MaxIdle
+     */
+    public CuaimaCryptPool(String Password, int NumBlocks, int MaxIdle, int MaxTotal) {
+
+        this(Derive(Password, NumBlocks), MaxIdle, MaxTotal, Password);
+    }
+
+    private CuaimaCryptPool(CuaimaKeySchedule Schedule, int MaxIdle, int MaxTotal, String Password) {
+
+        if (Schedule == null) {
+            throw new IllegalArgumentException("The key schedule can't be null");
+        }
+        if (MaxIdle < 1) {
+            throw new IllegalArgumentException("The pool must hold at least one idle instance");
+        }
+        if (MaxTotal < MaxIdle) {
+            throw new IllegalArgumentException("The pool can't hold more idle instances than live instances");
+        }
+        this.Schedule = Schedule;
+        this.MaxIdle = MaxIdle;
+        this.MaxTotal = MaxTotal;
+        if (Password != null) {
+            this.Salt = new byte[16];
+            new SecureRandom().nextBytes(this.Salt);
+            this.Fingerprint = Digest(this.Salt, Password);
+        } else {
+            this.Salt = null;
+            this.Fingerprint = null;
+        }
+        this.Idle = new ArrayDeque<CuaimaCrypt>(MaxIdle);
+        this.Lent = Collections.newSetFromMap(new IdentityHashMap<CuaimaCrypt, Boolean>());
+        this.Creating = 0;
+        this.Created = 0;
+        this.Reused = 0;
+    }
+
+    /**
+     * Deriva la programacion de la clave del Password
+     *
+     * @param Password Clave
+     * @param NumBlocks Numero de bloques de RakeCodecs
+     * @return Programacion de la clave
+     */
+    private static CuaimaKeySchedule Derive(String Password, int NumBlocks) {
+        CuaimaCrypt CCPT;
+        CuaimaKeySchedule Salida;
+
+        if (NumBlocks < 2) {
+            throw new IllegalArgumentException("The number of blocks must be at least 2");
+        }
+        CCPT = new CuaimaCrypt(NumBlocks);
+        if ((Password == null) || (CCPT.Password(Password) != 0)) {
+            throw new IllegalArgumentException("The password is not valid");
+        }
+        Salida = CCPT.GetKeySchedule();
+        CCPT.destroy();
+        return Salida;
+    }
+
+    /**
+     * Resumen SHA-256 de la semilla y el Password, para reconocer el Password
+     * sin guardarlo
+     *
+     * @param Salt Semilla
+     * @param Password Clave
+     * @return Resumen
+     */
+    private static byte[] Digest(byte[] Salt, String Password) {
+        MessageDigest Hash;
+
+        try {
+            Hash = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // Todas las plataformas Java deben implementar SHA-256
+            throw new IllegalStateException(ex);
+        }
+        Hash.update(Salt);
+        return Hash.digest(Password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifica si el pool fue creado con el Password
+     *
+     * @param Password Clave
+     * @return true si el pool se creo con este Password y false si no o si se
+     * creo con la programacion de la clave
+     */
+    public boolean Matches(String Password) {
+
+        if ((Fingerprint == null) || (Password == null)) {
+            return false;
+        }
+        return MessageDigest.isEqual(Fingerprint, Digest(Salt, Password));
+    }
+
+    /**
+     * Presta una instancia en el estado de las semillas, tomada del pool o
+     * creada a partir de la programacion de la clave. Si el pool ya tiene
+     * MaxTotal instancias vivas espera a que se devuelva una.
+     *
+     * @return Instancia de CuaimaCrypt
+     * @throws InterruptedException si la hebra se interrumpe mientras espera
+     * @throws IllegalStateException si se debe crear una instancia y la
+     * programacion de la clave fue borrada
+     */
+    public CuaimaCrypt Acquire() throws InterruptedException {
+        CuaimaCrypt Salida;
+
+        synchronized (this) {
+            while (Idle.isEmpty() && (Lent.size() + Creating >= MaxTotal)) {
+                wait();
+            }
+            Salida = Lend();
+        }
+        return (Salida != null) ? Salida : Create();
+    }
+
+    /**
+     * Presta una instancia como Acquire, pero sin esperar si el pool ya tiene
+     * MaxTotal instancias vivas
+     *
+     * @return Instancia de CuaimaCrypt o null si se alcanzo el limite
+     * @throws IllegalStateException si se debe crear una instancia y la
+     * programacion de la clave fue borrada
+     */
+    public CuaimaCrypt TryAcquire() {
+        CuaimaCrypt Salida;
+
+        synchronized (this) {
+            if (Idle.isEmpty() && (Lent.size() + Creating >= MaxTotal)) {
+                return null;
+            }
+            Salida = Lend();
+        }
+        return (Salida != null) ? Salida : Create();
+    }
+
+    /**
+     * Presta la ultima instancia inactiva, o reserva la construccion de una
+     * nueva si no hay ninguna
+     *
+     * @return Instancia inactiva o null si se debe construir una
+     */
+    @GuardedBy("this")
+    private CuaimaCrypt Lend() {
+        CuaimaCrypt Salida;
+
+        Salida = Idle.pollLast();
+        if (Salida != null) {
+            Reused++;
+            Lent.add(Salida);
+        } else {
+            Creating++;
+        }
+        return Salida;
+    }
+
+    /**
+     * Construye fuera del bloqueo la instancia reservada con Lend
+     *
+     * @return Instancia prestada
+     */
+    private CuaimaCrypt Create() {
+        CuaimaCrypt Salida = null;
+
+        try {
+            Salida = new CuaimaCrypt(Schedule);
+        } finally {
+            synchronized (this) {
+                Creating--;
+                if (Salida != null) {
+                    Created++;
+                    Lent.add(Salida);
+                } else {
+                    notifyAll();
+                }
+            }
+        }
+        return Salida;
+    }
+
+    /**
+     * Devuelve al pool una instancia obtenida con Acquire, restableciendola al
+     * estado de las semillas
+     *
+     * @param CCPT Instancia prestada por este pool
+     * @throws IllegalArgumentException si la instancia no fue prestada por
+     * este pool o ya fue devuelta
+     */
+    public void Release(CuaimaCrypt CCPT) {
+
+        synchronized (this) {
+            if ((CCPT == null) || !Lent.contains(CCPT)) {
+                throw new IllegalArgumentException("The instance was not lent by this pool");
+            }
+        }
+        // Sigue contando como prestada mientras se restablece
+        CCPT.Reset();
+        synchronized (this) {
+            if (!Lent.remove(CCPT)) {
+                throw new IllegalArgumentException("The instance was already released");
+            }
+            if (Idle.size() < MaxIdle) {
+                Idle.addLast(CCPT);
+            } else {
+                // Se borra antes de liberar su lugar en el limite
+                CCPT.destroy();
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return Numero de instancias inactivas en el pool
+     */
+    public synchronized int GetIdle() {
+        return Idle.size();
+    }
+
+    /**
+     * @return Numero de instancias prestadas
+     */
+    public synchronized int GetLent() {
+        return Lent.size();
+    }
+
+    /**
+     * @return Maximo numero de instancias inactivas
+     */
+    public int GetMaxIdle() {
+        return MaxIdle;
+    }
+
+    /**
+     * @return Maximo numero de instancias vivas
+     */
+    public int GetMaxTotal() {
+        return MaxTotal;
+    }
+
+    /**
+     * @return Programacion de la clave de las instancias
+     */
+    public CuaimaKeySchedule GetKeySchedule() {
+        return Schedule;
+    }
+
+    /**
+     * @return Numero de bloques de RakeCodecs de las instancias
+     */
+    public int GetNumBlocks() {
+        return Schedule.GetNumBlocks();
+    }
+
+    /**
+     * @return Numero de instancias creadas por el pool
+     */
+    public synchronized long GetCreated() {
+        return Created;
+    }
+
+    /**
+     * @return Numero de prestamos atendidos con una instancia inactiva
+     */
+    public synchronized long GetReused() {
+        return Reused;
+    }
+
+    /**
+     * Descarta todas las instancias inactivas del pool, borrandolas de la
+     * memoria
+     */
+    public synchronized void Clear() {
+        CuaimaCrypt CCPT;
+
+        while ((CCPT = Idle.pollLast()) != null) {
+            CCPT.destroy();
+        }
+    }
+}
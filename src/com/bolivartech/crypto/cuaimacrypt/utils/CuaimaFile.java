@@ -25,6 +25,8 @@ import com.bolivartech.crypto.digest.Whirlpool;
 import com.bolivartech.crypto.digest.Whirlpool2000;
 import com.bolivartech.crypto.digest.Whirlpool2003;
 import com.bolivartech.crypto.interfaces.CryptoFile;
+import com.bolivartech.crypto.interfaces.CryptoFileListener;
+import com.bolivartech.crypto.interfaces.CryptoFileProgress;
 import com.bolivartech.utils.array.ArrayUtils;
 import com.bolivartech.utils.converters.Converter;
 import com.bolivartech.utils.exception.UtilsException;
@@ -35,9 +37,18 @@ import com.bolivartech.utils.random.MersenneTwisterPlus;
 import com.bolivartech.utils.btthreads.annotations.GuardedBy;
 import com.bolivartech.utils.btthreads.annotations.ThreadSafe;
 import com.bolivartech.utils.log.LoggerFormatter;
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.function.LongConsumer;
 
 /**
  * <p>
@@ -59,17 +70,48 @@ import java.util.Arrays;
  *
  * <ul>
  * <li>Class ID: "TR74ID3"</li>
- * <li>Loc: 000-041</li>
+ * <li>Loc: 000-117</li>
  * </ul>
  *
  * @author Julian Bolivar
  * @since 2007 | 2016-03-25
- * @version 3.1.3
+ * @version 3.11.1
  *
  * <p>
  * Change Log:
  * </p>
  * <ul>
+ * <li>v3.11.1 (2026-10-18) Al continuar con HASH el proceso usa un solo buffer
+ * del pool, el cual se devuelve al concluir.</li>
+ * <li>v3.11.0 (2026-10-18) Los puntos de control y Resume aplican tambien al
+ * formato clasico, cuyo flujo de datos se codifica y decodifica por posicion
+ * cuando setCheckpointInterval esta activo.</li>
+ * <li>v3.10.0 (2026-10-18) El buffer de entrada se toma del pool compartido
+ * BufferPool y se devuelve al concluir el proceso.</li>
+ * <li>v3.9.0 (2026-10-18) Se agregan setCheckpointInterval y Resume para
+ * guardar puntos de control de los procesos con el formato segmentado y
+ * continuarlos despues de una interrupcion.</li>
+ * <li>v3.8.0 (2026-10-18) Se agrega setProgressListener para recibir el
+ * avance, la velocidad, el tiempo restante y la fase de los procesos sin
+ * consultar Progress, que ahora se lee sin bloquear la instancia.</li>
+ * <li>v3.7.0 (2026-10-18) Se agrega DecodecRange para decodificar solo un
+ * rango de bytes de un archivo con el formato segmentado.</li>
+ * <li>v3.6.0 (2026-10-18) Se agregan CodecSync y DecodecSync, que procesan el
+ * archivo en la hebra que los invoca, usados por CryptoFileBatch.</li>
+ * <li>v3.5.0 (2026-10-18) El HASH se calcula con ParallelHash en su propia
+ * hebra, en paralelo con la codificacion en todos los formatos y motores.</li>
+ * <li>v3.4.0 (2026-10-18) Se agrega la opcion setPipelineDepth para codificar
+ * y decodificar el formato clasico con hebras de lectura y escritura que se
+ * solapan con la codificacion.</li>
+ * <li>v3.3.0 (2026-10-18) Se agrega la opcion setMappedIO para codificar y
+ * decodificar el formato clasico con archivos mapeados en memoria, sin el
+ * buffer de lectura en el heap.</li>
+ * <li>v3.2.0 (2026-10-18) Se agrega el formato segmentado (VERSION 4) con la
+ * opcion SEGMENTED, donde los segmentos del archivo se codifican y decodifican
+ * en paralelo con claves independientes; los archivos de la VERSION 3 se
+ * siguen decodificando.</li>
+ * <li>v3.1.4 (2026-10-18) Los buffers se codifican en bloque con
+ * CuaimaCrypt.Codec(byte[], int, int) sin arreglos temporales por bloque.</li>
  * <li>v3.1.3 (2016-03-25) Se agrego el codigo de localizacion para la excepcion
  * y bitacoras.</li>
  * <li>v3.1.2 - Se forza la utilizacion del US-ASCII para las marcas del
@@ -101,7 +143,22 @@ public class CuaimaFile implements CryptoFile, Runnable {
     @GuardedBy("this")
     private int BufferSize; // Tamaño del buffer de lectura en bytes
     @GuardedBy("this")
-    private int Progress;
+    private int SegmentSize; // Tamaño de los segmentos del formato segmentado en bytes
+    @GuardedBy("this")
+    private boolean MappedIO; // Usa archivos mapeados en memoria en el formato clasico
+    @GuardedBy("this")
+    private int PipelineDepth; // Buffers del motor en tres etapas del formato clasico, 0 deshabilitado
+    @GuardedBy("this")
+    private long CheckpointInterval; // Bytes entre puntos de control, 0 deshabilitado
+    private volatile int Progress;
+    @GuardedBy("this")
+    private CryptoFileListener Listener; // Receptor del avance de los procesos
+    @GuardedBy("this")
+    private long ListenerInterval = ProgressMeter.INTERVAL; // Intervalo entre notificaciones en milisegundos
+    @GuardedBy("this")
+    private long ListenerStep; // Bytes entre notificaciones, 0 solo por tiempo
+    // Medidor del avance del proceso en ejecucion
+    private volatile ProgressMeter Meter = new ProgressMeter(null, ProgressMeter.INTERVAL, 0);
     @GuardedBy("this")
     private boolean Done;
     @GuardedBy("FileParameters")
@@ -110,6 +167,10 @@ public class CuaimaFile implements CryptoFile, Runnable {
     private Thread Ejecutando = null;
     // TRUE si es para codificar y FALSE si es para Decodificar
     private boolean Coding = true;
+    // TRUE si continua un proceso desde su punto de control
+    private boolean Resuming = false;
+    // Buffer del pool compartido usado por el proceso en ejecucion
+    private byte Pooled[];
     @GuardedBy("this")
     int ErrorCode = 0;  // Codigo de Error de la Ejecicion
 
@@ -124,6 +185,12 @@ public class CuaimaFile implements CryptoFile, Runnable {
      */
     private final static int HASHMASK = 62;
 
+    /**
+     * Codifica el archivo con el formato segmentado, en el cual el archivo se
+     * divide en segmentos que se codifican en paralelo, el Valor es 128.
+     */
+    public final static int SEGMENTED = 128;
+
     /**
      * La cantidad de bloques es menor a 2 para inicializar el algoritmo
      */
@@ -161,6 +228,104 @@ public class CuaimaFile implements CryptoFile, Runnable {
         }
     }
 
+    /**
+     * Crea la instancia del algoritmo de HASH 'HashType', retorna null si es
+     * NO_HASH y Whirlpool2003 si el tipo no es reconocido
+     *
+     * @param HashType Tipo de HASH
+     * @return Algoritmo de HASH o null
+     */
+    private static BaseHash NewHash(int HashType) {
+        BaseHash Hash;
+
+        switch (HashType) {
+            case HASH_WHIRLPOOL2003:
+                Hash = new Whirlpool2003();
+                break;
+            case HASH_WHIRLPOOL2000:
+                Hash = new Whirlpool2000();
+                break;
+            case HASH_WHIRLPOOL:
+                Hash = new Whirlpool();
+                break;
+            case HASH_SHA0:
+                Hash = new Sha0();
+                break;
+            case HASH_SHA1:
+                Hash = new Sha160();
+                break;
+            case HASH_SHA224:
+                Hash = new Sha224();
+                break;
+            case HASH_SHA256:
+                Hash = new Sha256();
+                break;
+            case HASH_SHA384:
+                Hash = new Sha384();
+                break;
+            case HASH_SHA512:
+                Hash = new Sha512();
+                break;
+            case HASH_TIGER:
+                Hash = new Tiger();
+                break;
+            case HASH_TIGER2:
+                Hash = new Tiger2();
+                break;
+            case HASH_TIGER128:
+                Hash = new Tiger128();
+                break;
+            case HASH_TIGER160:
+                Hash = new Tiger160();
+                break;
+            case HASH_RIPEMD128:
+                Hash = new RipeMD128();
+                break;
+            case HASH_RIPEMD160:
+                Hash = new RipeMD160();
+                break;
+            case HASH_MD2:
+                Hash = new MD2();
+                break;
+            case HASH_MD4:
+                Hash = new MD4();
+                break;
+            case HASH_MD5:
+                Hash = new MD5();
+                break;
+            case HASH_HAVAL128:
+                Hash = new Haval(Haval.HAVAL_128_BIT);
+                break;
+            case HASH_HAVAL160:
+                Hash = new Haval(Haval.HAVAL_160_BIT);
+                break;
+            case HASH_HAVAL192:
+                Hash = new Haval(Haval.HAVAL_192_BIT);
+                break;
+            case HASH_HAVAL224:
+                Hash = new Haval(Haval.HAVAL_224_BIT);
+                break;
+            case HASH_HAVAL256:
+                Hash = new Haval(Haval.HAVAL_256_BIT);
+                break;
+            case HASH_HAS160:
+                Hash = new Has160();
+                break;
+            case HASH_CRC32:
+                Hash = new CRC32();
+                break;
+            case HASH_CRC64:
+                Hash = new CRC64();
+                break;
+            case NO_HASH:
+                Hash = null;
+                break;
+            default:
+                Hash = new Whirlpool2003();
+        }
+        return Hash;
+    }
+
     /**
      * Constructor por defecto de CuaimaFile, utilizando 9 bloques de RakeCodecs
      *
@@ -174,6 +339,7 @@ public class CuaimaFile implements CryptoFile, Runnable {
         this.PasswdLength = -1;
         synchronized (this) {
             BufferSize = 52428800;  // 50 MB
+            SegmentSize = CuaimaSegments.SEGMENTSIZE;  // 4 MB
             CCPT = new CuaimaCrypt();
         }
         this.BTLogF = LoggerFormatter.getInstance(Log); // Manejador de Logs
@@ -199,6 +365,7 @@ public class CuaimaFile implements CryptoFile, Runnable {
         if (NumBlocks >= 2) {
             synchronized (this) {
                 BufferSize = 52428800;  // 50 MB
+                SegmentSize = CuaimaSegments.SEGMENTSIZE;  // 4 MB
                 CCPT = new CuaimaCrypt(NumBlocks);
             }
         } else {
@@ -223,6 +390,7 @@ public class CuaimaFile implements CryptoFile, Runnable {
         this.BTLogF = LoggerFormatter.getInstance(Log); // Manejador de Logs
         synchronized (this) {
             BufferSize = 52428800;  // 50 MB
+            SegmentSize = CuaimaSegments.SEGMENTSIZE;  // 4 MB
             CCPT = new CuaimaCrypt();
             if (CCPT.Password(Password) != 0) {
                 PasswdLength = -1;
@@ -254,6 +422,7 @@ public class CuaimaFile implements CryptoFile, Runnable {
         this.BTLogF = LoggerFormatter.getInstance(Log); // Manejador de Logs
         synchronized (this) {
             BufferSize = 52428800;  // 50 MB
+            SegmentSize = CuaimaSegments.SEGMENTSIZE;  // 4 MB
             if (NumBlocks >= 2) {
                 CCPT = new CuaimaCrypt(NumBlocks);
             } else {
@@ -350,6 +519,163 @@ public class CuaimaFile implements CryptoFile, Runnable {
         }
     }
 
+    /**
+     * Retorna el numero de bytes de los segmentos del formato segmentado.
+     *
+     * @return Tamaño de los segmentos en bytes
+     */
+    public synchronized int getSegmentSize() {
+        return SegmentSize;
+    }
+
+    /**
+     * Establece el numero de bytes de los segmentos que se codifican en
+     * paralelo cuando se usa la opcion SEGMENTED.
+     *
+     * El segmento minimo sera de 16 bytes y el maximo de 1 GB, siempre
+     * multiplo de 16. Cada segmento deriva su propia clave con Password, cuyo
+     * costo solo es despreciable con segmentos de cientos de KB o mas.
+     *
+     * @param SegmentSize (bytes)
+     */
+    public synchronized void setSegmentSize(int SegmentSize) {
+        if (SegmentSize < 16) {
+            this.SegmentSize = 16;
+        } else if (SegmentSize > CuaimaSegments.MAXSEGMENTSIZE) {
+            this.SegmentSize = CuaimaSegments.MAXSEGMENTSIZE;
+        } else {
+            this.SegmentSize = (int) (16 * Math.ceil((double) SegmentSize / 16));  // verifica que sea multiplo de 16
+        }
+    }
+
+    /**
+     * Retorna si la codificacion y decodificacion del formato clasico se
+     * realiza con archivos mapeados en memoria.
+     *
+     * @return true si usa archivos mapeados en memoria
+     */
+    public synchronized boolean isMappedIO() {
+        return MappedIO;
+    }
+
+    /**
+     * Establece si la codificacion y decodificacion del formato clasico se
+     * realiza con archivos mapeados en memoria (FileChannel.map) en lugar de
+     * leer y escribir a traves de un buffer en el heap; en ese caso el tamaño
+     * del buffer es el tamaño de las ventanas mapeadas.
+     *
+     * Los archivos generados son identicos en formato, por lo que un archivo
+     * codificado con un motor se puede decodificar con el otro. No afecta al
+     * formato segmentado.
+     *
+     * @param MappedIO true para usar archivos mapeados en memoria
+     */
+    public synchronized void setMappedIO(boolean MappedIO) {
+        this.MappedIO = MappedIO;
+    }
+
+    /**
+     * Retorna el numero de buffers del motor en tres etapas del formato
+     * clasico, 0 si esta deshabilitado.
+     *
+     * @return Numero de buffers
+     */
+    public synchronized int getPipelineDepth() {
+        return PipelineDepth;
+    }
+
+    /**
+     * Establece el numero de buffers de BufferSize bytes que circulan entre las
+     * hebras de lectura, codificacion y escritura del formato clasico, de
+     * forma que la lectura y la escritura del disco se solapan con la
+     * codificacion; con 0 la codificacion es secuencial en una sola hebra.
+     *
+     * El minimo es 2 buffers, valores menores a 2 deshabilitan el motor en
+     * tres etapas. Si tambien se selecciono setMappedIO se usan los archivos
+     * mapeados en memoria.
+     *
+     * @param Depth Numero de buffers, 0 para deshabilitar
+     */
+    public synchronized void setPipelineDepth(int Depth) {
+        if (Depth < 2) {
+            this.PipelineDepth = 0;
+        } else {
+            this.PipelineDepth = Depth;
+        }
+    }
+
+    /**
+     * Retorna el numero de bytes entre puntos de control del formato
+     * segmentado, 0 si estan deshabilitados.
+     *
+     * @return Bytes entre puntos de control
+     */
+    public synchronized long getCheckpointInterval() {
+        return CheckpointInterval;
+    }
+
+    /**
+     * Establece cada cuantos bytes del archivo original se guarda un punto de
+     * control de los procesos de codificacion y decodificacion; con 0, el
+     * valor por defecto, no se guardan.
+     *
+     * El punto de control se almacena junto al archivo de salida con la
+     * extension .ckpt, codificado con la clave del proceso, y contiene el
+     * estado del codificador, la posicion del siguiente segmento o byte a
+     * procesar y el HASH de los bytes ya procesados. Si el proceso se
+     * interrumpe, el archivo de salida parcial se conserva y Resume lo
+     * continua desde el ultimo punto de control; al concluir el punto de
+     * control se elimina.
+     *
+     * Con el formato segmentado (opcion SEGMENTED) los puntos de control se
+     * guardan al final de un ciclo de segmentos, por lo que el intervalo real
+     * es multiplo del tamaño del ciclo. Con el formato clasico el flujo de
+     * datos se lee y escribe por posicion en bloques de hasta el intervalo,
+     * en lugar de los motores de setMappedIO y setPipelineDepth.
+     *
+     * @param Bytes Bytes entre puntos de control, 0 para deshabilitar
+     */
+    public synchronized void setCheckpointInterval(long Bytes) {
+        if (Bytes <= 0) {
+            this.CheckpointInterval = 0;
+        } else {
+            this.CheckpointInterval = Bytes;
+        }
+    }
+
+    /**
+     * Establece el receptor que es notificado del avance de los procesos de
+     * codificacion y decodificacion, como maximo cada 250 milisegundos; null
+     * lo elimina. Aplica a partir del proximo proceso.
+     *
+     * @param Listener Receptor del avance o null
+     */
+    @Override
+    public void setProgressListener(CryptoFileListener Listener) {
+        setProgressListener(Listener, ProgressMeter.INTERVAL, 0);
+    }
+
+    /**
+     * Establece el receptor que es notificado del avance de los procesos de
+     * codificacion y decodificacion, como maximo cada 'Interval' milisegundos
+     * o, si Step es mayor a 0, cada Step bytes; null lo elimina. Aplica a
+     * partir del proximo proceso.
+     *
+     * Los contadores del avance son atomicos, por lo que las hebras que
+     * codifican no se bloquean al publicarlo; el receptor se invoca desde la
+     * hebra del proceso y debe retornar rapido.
+     *
+     * @param Listener Receptor del avance o null
+     * @param Interval Intervalo minimo entre notificaciones en milisegundos
+     * @param Step Bytes entre notificaciones, 0 para usar solo el tiempo
+     */
+    @Override
+    public synchronized void setProgressListener(CryptoFileListener Listener, long Interval, long Step) {
+        this.Listener = Listener;
+        this.ListenerInterval = Interval;
+        this.ListenerStep = Step;
+    }
+
     /**
      * Realiza la codificacion de un archivo, del que recibe en Input el objeto
      * que lo define, en base a la clave con la cual se inicializo el algoritmo;
@@ -372,16 +698,14 @@ public class CuaimaFile implements CryptoFile, Runnable {
      */
     private void PrivCodec() throws UtilsException {
         MersenneTwisterPlus Rand;
-        int i, j;
+        int i;
         long NumBytesReads;
         long DTemp;
         byte InputBuffer[];
-        byte SubInputBuffer[];
         long InputFileLength;
         long OutputCodecFileLength;
         long k;
         long Header[];
-        long CBuffer[];
         long HPosc;
         long NumBlockWrite;
         String InputFileName;
@@ -391,6 +715,8 @@ public class CuaimaFile implements CryptoFile, Runnable {
         String OutputFileName;
         int HashType;
         BaseHash Hash;
+        ParallelHash Hasher;
+        MappedFileCodec.BlockCipher Cipher;
         boolean HeaderAdded;
         FileManager Input;
         FileManager Output;
@@ -415,91 +741,7 @@ public class CuaimaFile implements CryptoFile, Runnable {
                         }
                         // Inicializa el Algoritmo de HASH
                         HashType = Opciones & HASHMASK;
-                        switch (HashType) {
-                            case HASH_WHIRLPOOL2003:
-                                Hash = new Whirlpool2003();
-                                break;
-                            case HASH_WHIRLPOOL2000:
-                                Hash = new Whirlpool2000();
-                                break;
-                            case HASH_WHIRLPOOL:
-                                Hash = new Whirlpool();
-                                break;
-                            case HASH_SHA0:
-                                Hash = new Sha0();
-                                break;
-                            case HASH_SHA1:
-                                Hash = new Sha160();
-                                break;
-                            case HASH_SHA224:
-                                Hash = new Sha224();
-                                break;
-                            case HASH_SHA256:
-                                Hash = new Sha256();
-                                break;
-                            case HASH_SHA384:
-                                Hash = new Sha384();
-                                break;
-                            case HASH_SHA512:
-                                Hash = new Sha512();
-                                break;
-                            case HASH_TIGER:
-                                Hash = new Tiger();
-                                break;
-                            case HASH_TIGER2:
-                                Hash = new Tiger2();
-                                break;
-                            case HASH_TIGER128:
-                                Hash = new Tiger128();
-                                break;
-                            case HASH_TIGER160:
-                                Hash = new Tiger160();
-                                break;
-                            case HASH_RIPEMD128:
-                                Hash = new RipeMD128();
-                                break;
-                            case HASH_RIPEMD160:
-                                Hash = new RipeMD160();
-                                break;
-                            case HASH_MD2:
-                                Hash = new MD2();
-                                break;
-                            case HASH_MD4:
-                                Hash = new MD4();
-                                break;
-                            case HASH_MD5:
-                                Hash = new MD5();
-                                break;
-                            case HASH_HAVAL128:
-                                Hash = new Haval(Haval.HAVAL_128_BIT);
-                                break;
-                            case HASH_HAVAL160:
-                                Hash = new Haval(Haval.HAVAL_160_BIT);
-                                break;
-                            case HASH_HAVAL192:
-                                Hash = new Haval(Haval.HAVAL_192_BIT);
-                                break;
-                            case HASH_HAVAL224:
-                                Hash = new Haval(Haval.HAVAL_224_BIT);
-                                break;
-                            case HASH_HAVAL256:
-                                Hash = new Haval(Haval.HAVAL_256_BIT);
-                                break;
-                            case HASH_HAS160:
-                                Hash = new Has160();
-                                break;
-                            case HASH_CRC32:
-                                Hash = new CRC32();
-                                break;
-                            case HASH_CRC64:
-                                Hash = new CRC64();
-                                break;
-                            case NO_HASH:
-                                Hash = null;
-                                break;
-                            default:
-                                Hash = new Whirlpool2003();
-                        }
+                        Hash = NewHash(HashType);
                         if (Hash != null) {
                             Hash.reset();
                         }
@@ -508,6 +750,7 @@ public class CuaimaFile implements CryptoFile, Runnable {
                         if (InputFileLength < 0) {
                             InputFileLength = 0;
                         }
+                        Meter.Total(InputFileLength);
                         InputFileName = Input.getFileName();
                         InputFilePath = Input.getFilePath(); //  getPath(); // getAbsolutePath();
                         Separador = Input.getSeparador();
@@ -565,6 +808,8 @@ public class CuaimaFile implements CryptoFile, Runnable {
                         }
                         // Almacena el file manager del archivo de Salida
                         FileParameters.setOutput(Output);
+                        // Descarta el punto de control de un proceso anterior sobre el mismo archivo
+                        CuaimaCheckpoint.Sidecar(Output).delete();
                         // Realiza la creacion del archivo de salida;
                         if (Output.Exists()) {
                             if (!Output.Delete()) {
@@ -575,6 +820,22 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                 throw new UtilsException("ERROR: NO se pudo borrar el archivo de salida existente", ERROR_DELETEOUTFILE, CuaimaFile.CLASSID + "006");
                             }
                         }
+                        // Con puntos de control el flujo de datos se codifica por posicion
+                        if (getCheckpointInterval() > 0) {
+                            StartCodecClassic(Input, Output, Header, HPosc, OutputCodecFileLength, HashType, Hash, Rand);
+                            synchronized (this) {
+                                this.Progress = 100;
+                            }
+                            return;
+                        }
+                        // Codifica con archivos mapeados en memoria o en tres etapas si fue seleccionado
+                        if (isMappedIO() || (getPipelineDepth() > 0)) {
+                            CodecChannels(Input, Output, Header, HPosc, OutputCodecFileLength, Hash, Rand);
+                            synchronized (this) {
+                                this.Progress = 100;
+                            }
+                            return;
+                        }
                         try {
                             Output.Open(FileManager.WRITE, false);
                         } catch (UtilsException ex) {
@@ -594,24 +855,22 @@ public class CuaimaFile implements CryptoFile, Runnable {
                             throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "008");
                         }
                         // Codifica el Encabezado del archivo
-                        CBuffer = new long[2];
-                        for (i = 0; i < Header.length; i += 2) {
-                            CBuffer[0] = Header[i];
-                            CBuffer[1] = Header[i + 1];
-                            synchronized (CCPT) {
-                                CCPT.Codec(CBuffer);
-                            }
-                            Header[i] = CBuffer[0];
-                            Header[i + 1] = CBuffer[1];
+                        synchronized (CCPT) {
+                            CCPT.Codec(Header, 0, Header.length / 2);
                         }
+                        Meter.Phase(CryptoFileProgress.PHASE_BODY);
                         // Codifica el archivo de entrada
-                        synchronized (this) {
-                            InputBuffer = new byte[this.BufferSize]; // Buffer de Entrada
-                        }
-                        SubInputBuffer = new byte[16];
+                        InputBuffer = PooledBuffer(); // Buffer de Entrada
                         NumBytesReads = InputBuffer.length;
                         NumBlockWrite = 0;
                         HeaderAdded = false;
+                        // El Hash se calcula en su propia hebra mientras se codifica
+                        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+                        Cipher = Buf -> {
+                            synchronized (CCPT) {
+                                CCPT.Codec(Buf);
+                            }
+                        };
                         // Lectura del archivo de entrada
                         while (InputBuffer.length == NumBytesReads) {
                             try {
@@ -626,9 +885,10 @@ public class CuaimaFile implements CryptoFile, Runnable {
                             // Verifica si se leyeron datos
                             if (NumBytesReads > 0) {
                                 // Actualiza el Hash
-                                if (Hash != null) {
-                                    Hash.update(InputBuffer, 0, (int) NumBytesReads);
+                                if (Hasher != null) {
+                                    Hasher.Update(InputBuffer, 0, (int) NumBytesReads);
                                 }
+                                Meter.Add(NumBytesReads);
                                 // Verifica si se llego al final del archivo
                                 if (NumBytesReads < InputBuffer.length) {
                                     DTemp = NumBytesReads;
@@ -646,10 +906,14 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                             NumBytesReads = (int) (8 * (OutputCodecFileLength - NumBlockWrite - Header.length));
                                         }
                                     }
-                                    InputBuffer = (byte[]) ArrayUtils.resizeArray(InputBuffer, (int) NumBytesReads);
+                                    // Solo crece el buffer si el Hash no cabe en el espacio libre
+                                    if (NumBytesReads > InputBuffer.length) {
+                                        InputBuffer = (byte[]) ArrayUtils.resizeArray(InputBuffer, (int) NumBytesReads);
+                                    }
                                     // Agrega el Hash del archivo original al buffer 
                                     if (Hash != null) {
-                                        ArrayUtils.arrayCopy(Hash.digest(), 0, InputBuffer, (int) DTemp, Hash.hashSize());
+                                        Meter.Phase(CryptoFileProgress.PHASE_HASH);
+                                        ArrayUtils.arrayCopy(Hasher.Digest(), 0, InputBuffer, (int) DTemp, Hash.hashSize());
                                         // Completa los datos agregados con numeros aleatorios
                                         for (i = (int) (DTemp + Hash.hashSize()); i < NumBytesReads; i++) {
                                             InputBuffer[i] = Rand.nextByte();
@@ -662,18 +926,11 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                     }
                                 }
                                 // Realiza la codificacion del buffer leido desde el archivo
-                                for (i = 0; i < NumBytesReads; i += 16) {
-                                    for (j = 0; j < 16; j++) {
-                                        SubInputBuffer[j] = InputBuffer[i + j];
-                                    }
-                                    // Codifica el bloque de 128 bits
-                                    CBuffer = Converter.byte2long(SubInputBuffer);
+                                if (Hasher != null) {
+                                    Hasher.Codec(InputBuffer, 0, (int) NumBytesReads, Cipher);
+                                } else {
                                     synchronized (CCPT) {
-                                        CCPT.Codec(CBuffer);
-                                    }
-                                    SubInputBuffer = Converter.long2byte(CBuffer);
-                                    for (j = 0; j < 16; j++) {
-                                        InputBuffer[i + j] = SubInputBuffer[j];
+                                        CCPT.Codec(InputBuffer, 0, (int) NumBytesReads);
                                     }
                                 }
                                 // Escribe en el archivo de salida, agregando el encabezado en el lugar calculado
@@ -766,6 +1023,162 @@ public class CuaimaFile implements CryptoFile, Runnable {
         }
     }
 
+    /**
+     * Realiza la codificacion del archivo con el formato segmentado (VERSION
+     * 4), que se selecciona con la opcion SEGMENTED.
+     *
+     * El encabezado se coloca al inicio del archivo y se codifica con CCPT, le
+     * siguen los segmentos del archivo original codificados en paralelo, cada
+     * uno con su propio CuaimaCrypt, y al final el HASH del archivo original
+     * codificado con CCPT.
+     *
+     * @throws UtilsException
+     */
+    private void PrivCodecSegments() throws UtilsException {
+        MersenneTwisterPlus Rand;
+        int i;
+        int SegSize;
+        long k, Nonce;
+        long InputFileLength;
+        long Header[];
+        String InputFileName;
+        StringBuffer TempInputFileName;
+        String OutputFileName;
+        int HashType;
+        BaseHash Hash;
+        FileManager Input;
+        FileManager Output;
+        FileChannel In;
+        FileChannel Out;
+        CuaimaCheckpoint Job;
+
+        Input = FileParameters.getInput();
+        Output = FileParameters.getOutput();
+        if (Input.getFileLength() > 0) {
+            if (PasswdLength > 0) {
+                if (Input.isFile()) {
+                    synchronized (this) {
+                        this.Progress = 0;
+                        SegSize = this.SegmentSize;
+                    }
+                    // Inicializa el generador de numeros aleatorios
+                    Rand = new MersenneTwisterPlus();
+                    // Reinicializa el algoritmo en base a la clave con la cual se configuro
+                    synchronized (CCPT) {
+                        CCPT.Reset();
+                    }
+                    // Inicializa el Algoritmo de HASH
+                    HashType = FileParameters.getOpciones() & HASHMASK;
+                    Hash = NewHash(HashType);
+                    if (Hash != null) {
+                        Hash.reset();
+                    }
+                    // Se recupera los parametros del archivo original
+                    InputFileLength = Input.getFileLength();
+                    InputFileName = Input.getFileName();
+                    // Genera el Encabezado del archivo
+                    k = (long) (8 * Math.ceil((double) InputFileName.length() / 8));
+                    k = k / 8;
+                    k = (long) (2 * Math.ceil((double) k / 2));
+                    TempInputFileName = new StringBuffer(InputFileName);
+                    for (i = InputFileName.length(); i < k * 8; i++) {
+                        TempInputFileName.append((char) (97 + 25 * Rand.nextReal()));
+                    }
+                    Nonce = Rand.nextLong();
+                    Header = new long[10 + (int) (k)];
+                    Header[0] = (Rand.nextLong() << 32) | (Converter.byte2long(CuaimaSegments.MARK.getBytes(StandardCharsets.US_ASCII))[0] >>> 32);  // BYTES de OFUSCACION
+                    Header[1] = (Converter.byte2long(CuaimaSegments.MARK.getBytes(StandardCharsets.US_ASCII))[0] << 32) | (Rand.nextLong() >>> 32);  // BYTES de OFUSCACION
+                    Header[2] = Rand.nextLong() << 32;                       // BYTES de OFUSCACION
+                    Header[2] |= HashType << 26;                             // Hash usado en el archivo
+                    Header[2] |= CuaimaSegments.VERSION & 0xFF;              // VERSION DE CUAIMAFILE
+                    Header[3] = ((long) InputFileName.length()) | ((long) Header.length << 32);  // Longitud del Encabezado y del Nombre del Archivo
+                    Header[4] = InputFileLength;
+                    Header[5] = SegSize;
+                    Header[6] = Nonce;
+                    Header[7] = Rand.nextLong();                             // BYTES de OFUSCACION
+                    for (i = 0; i < k; i++) {
+                        Header[8 + i] = Converter.byte2long(TempInputFileName.substring(i * 8, (i + 1) * 8).getBytes())[0];
+                    }
+                    Header[Header.length - 2] = (Rand.nextLong() << 32) | (Converter.byte2long(CuaimaSegments.MARK.getBytes(StandardCharsets.US_ASCII))[0] >>> 32);  // BYTES de OFUSCACION
+                    Header[Header.length - 1] = (Converter.byte2long(CuaimaSegments.MARK.getBytes(StandardCharsets.US_ASCII))[0] << 32) | (Rand.nextLong() >>> 32);  // BYTES de OFUSCACION
+                    // Define el archivo de salida si no fue especificado
+                    if (Output == null) {
+                        OutputFileName = new String(Input.getFilePath() + Input.getSeparador() + Input.getFileBaseName() + ".ccpt");
+                        Output = new FileManager(OutputFileName);
+                    } else if (Output.isDirectory()) {
+                        OutputFileName = new String(Input.getFileBaseName() + ".ccpt");
+                        Output = new FileManager(Output.getFilePath() + Output.getSeparador() + OutputFileName);
+                    }
+                    // Almacena el file manager del archivo de Salida
+                    FileParameters.setOutput(Output);
+                    // Descarta el punto de control de un proceso anterior sobre el mismo archivo
+                    CuaimaCheckpoint.Sidecar(Output).delete();
+                    // Realiza la creacion del archivo de salida;
+                    if (Output.Exists()) {
+                        if (!Output.Delete()) {
+                            synchronized (this) {
+                                this.Progress = -1;
+                            }
+                            throw new UtilsException("ERROR: NO se pudo borrar el archivo de salida existente", ERROR_DELETEOUTFILE, CuaimaFile.CLASSID + "042");
+                        }
+                    }
+                    // Los segmentos se escriben por posicion para poder continuar desde un punto de control
+                    try {
+                        Out = FileChannel.open(Paths.get(Output.getAbsoluteFilePath()), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    } catch (IOException ex) {
+                        synchronized (this) {
+                            this.Progress = -1;
+                        }
+                        throw new UtilsException("ERROR: NO se pudo crear el archivo " + Output.getAbsoluteFilePath(), ERROR_CREATEOUTFILE, CuaimaFile.CLASSID + "043");
+                    }
+                    try {
+                        In = FileChannel.open(Paths.get(Input.getAbsoluteFilePath()), StandardOpenOption.READ);
+                    } catch (IOException ex) {
+                        CloseQuietly(Out);
+                        synchronized (this) {
+                            this.Progress = -1;
+                        }
+                        throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "044");
+                    }
+                    // Codifica el Encabezado y guarda el estado del que se deriva la clave de los segmentos
+                    synchronized (CCPT) {
+                        CCPT.Codec(Header, 0, Header.length / 2);
+                        Job = new CuaimaCheckpoint(CuaimaCheckpoint.CODEC, InputFileLength, InputFileLength, SegSize, Nonce, HashType, Header.length, CCPT.GetRunState());
+                    }
+                    try {
+                        MappedFileCodec.WriteFully(Out, ByteBuffer.wrap(Converter.long2byte(Header)), 0);
+                    } catch (IOException ex) {
+                        CloseQuietly(In);
+                        CloseQuietly(Out);
+                        synchronized (this) {
+                            this.Progress = -1;
+                        }
+                        throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "045");
+                    }
+                    CodecSegments(Input, Output, In, Out, Job, Hash, Rand);
+                } else {
+                    synchronized (this) {
+                        this.Progress = -1;
+                    }
+                    throw new UtilsException("ERROR: NO se puede identificar el tipo de archivo a codificar", ERROR_INFILETYPE, CuaimaFile.CLASSID + "052");
+                }
+            } else {
+                synchronized (this) {
+                    this.Progress = -1;
+                }
+                throw new UtilsException("ERROR: Clave NO definida para codificar archivo", ERROR_PASSWD, CuaimaFile.CLASSID + "053");
+            }
+        } else {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: Achivo de entrada tiene tamaño 0", ERROR_INPUTFILEZEROSIZE, CuaimaFile.CLASSID + "054");
+        }
+        synchronized (this) {
+            this.Progress = 100;
+        }
+    }
+
     /**
      * Realiza la decodificacion de un archivo que recibe en Input en base a la
      * clave con la cual se inicializo el algoritmo.
@@ -782,14 +1195,13 @@ public class CuaimaFile implements CryptoFile, Runnable {
      * @throws UtilsException
      */
     private void PrivDecodec() throws UtilsException {
-        int i, j;
+        int i;
         long NumBytesReads;
         int HeaderLength;
         int DTemp;
         int OutputFileNameLength;
         long HPosc;
         long Header[], HTemp[];
-        long DcBuffer[];
         long NumBytesWrite;
         long NumBlocksRead;
         String InputCodecFileName;
@@ -803,6 +1215,8 @@ public class CuaimaFile implements CryptoFile, Runnable {
         byte SubInputBuffer[];
         int HashType;
         BaseHash Hash;
+        ParallelHash Hasher;
+        MappedFileCodec.BlockCipher Cipher;
         byte[] OrgDigest = null;
         byte[] NewDigest = null;
         int Version;
@@ -842,6 +1256,27 @@ public class CuaimaFile implements CryptoFile, Runnable {
                             }
                             throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "018");
                         }
+                        // Verifica si el archivo tiene el formato segmentado
+                        Header = ProbeSegments(Input);
+                        if (Header != null) {
+                            PrivDecodecSegments(Input, Output, Header);
+                            synchronized (this) {
+                                this.Progress = 100;
+                            }
+                            return;
+                        }
+                        // Formato clasico, reinicia el algoritmo y la lectura del archivo
+                        synchronized (CCPT) {
+                            CCPT.Reset();
+                        }
+                        try {
+                            Input.Reset();
+                        } catch (UtilsException ex) {
+                            synchronized (this) {
+                                this.Progress = -1;
+                            }
+                            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "070");
+                        }
                         // Trata de recuperar el encabezado
                         InputBuffer = new byte[32]; // Buffer de Entrada
 
@@ -865,15 +1300,8 @@ public class CuaimaFile implements CryptoFile, Runnable {
                             throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "020");
                         }
                         // Decodifica el Encabezado del archivo
-                        DcBuffer = new long[2];
-                        for (i = 0; i < Header.length; i += 2) {
-                            DcBuffer[0] = Header[i];
-                            DcBuffer[1] = Header[i + 1];
-                            synchronized (CCPT) {
-                                CCPT.Decodec(DcBuffer);
-                            }
-                            Header[i] = DcBuffer[0];
-                            Header[i + 1] = DcBuffer[1];
+                        synchronized (CCPT) {
+                            CCPT.Decodec(Header, 0, Header.length / 2);
                         }
                         // Trata de Recuperar Informacion del Encabezado
                         HTemp = new long[1];
@@ -914,15 +1342,8 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                 throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "022");
                             }
                             //Decodifica el Encabezado recuperado
-                            DcBuffer = new long[2];
-                            for (i = 0; i < HTemp.length; i += 2) {
-                                DcBuffer[0] = HTemp[i];
-                                DcBuffer[1] = HTemp[i + 1];
-                                synchronized (CCPT) {
-                                    CCPT.Decodec(DcBuffer);
-                                }
-                                HTemp[i] = DcBuffer[0];
-                                HTemp[i + 1] = DcBuffer[1];
+                            synchronized (CCPT) {
+                                CCPT.Decodec(HTemp, 0, HTemp.length / 2);
                             }
                             // Reconstruye el Encabezado
                             for (i = 0; i < HTemp.length; i++) {
@@ -938,91 +1359,7 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                 if (Version == (VERSION & 0xFF)) {
                                     // Recupera el Tipo de Hash utilizado
                                     HashType = ((int) (Header[(int) (Header.length - 3)] >>> 26)) & HASHMASK;
-                                    switch (HashType) {
-                                        case HASH_WHIRLPOOL2003:
-                                            Hash = new Whirlpool2003();
-                                            break;
-                                        case HASH_WHIRLPOOL2000:
-                                            Hash = new Whirlpool2000();
-                                            break;
-                                        case HASH_WHIRLPOOL:
-                                            Hash = new Whirlpool();
-                                            break;
-                                        case HASH_SHA0:
-                                            Hash = new Sha0();
-                                            break;
-                                        case HASH_SHA1:
-                                            Hash = new Sha160();
-                                            break;
-                                        case HASH_SHA224:
-                                            Hash = new Sha224();
-                                            break;
-                                        case HASH_SHA256:
-                                            Hash = new Sha256();
-                                            break;
-                                        case HASH_SHA384:
-                                            Hash = new Sha384();
-                                            break;
-                                        case HASH_SHA512:
-                                            Hash = new Sha512();
-                                            break;
-                                        case HASH_TIGER:
-                                            Hash = new Tiger();
-                                            break;
-                                        case HASH_TIGER2:
-                                            Hash = new Tiger2();
-                                            break;
-                                        case HASH_TIGER128:
-                                            Hash = new Tiger128();
-                                            break;
-                                        case HASH_TIGER160:
-                                            Hash = new Tiger160();
-                                            break;
-                                        case HASH_RIPEMD128:
-                                            Hash = new RipeMD128();
-                                            break;
-                                        case HASH_RIPEMD160:
-                                            Hash = new RipeMD160();
-                                            break;
-                                        case HASH_MD2:
-                                            Hash = new MD2();
-                                            break;
-                                        case HASH_MD4:
-                                            Hash = new MD4();
-                                            break;
-                                        case HASH_MD5:
-                                            Hash = new MD5();
-                                            break;
-                                        case HASH_HAVAL128:
-                                            Hash = new Haval(Haval.HAVAL_128_BIT);
-                                            break;
-                                        case HASH_HAVAL160:
-                                            Hash = new Haval(Haval.HAVAL_160_BIT);
-                                            break;
-                                        case HASH_HAVAL192:
-                                            Hash = new Haval(Haval.HAVAL_192_BIT);
-                                            break;
-                                        case HASH_HAVAL224:
-                                            Hash = new Haval(Haval.HAVAL_224_BIT);
-                                            break;
-                                        case HASH_HAVAL256:
-                                            Hash = new Haval(Haval.HAVAL_256_BIT);
-                                            break;
-                                        case HASH_HAS160:
-                                            Hash = new Has160();
-                                            break;
-                                        case HASH_CRC32:
-                                            Hash = new CRC32();
-                                            break;
-                                        case HASH_CRC64:
-                                            Hash = new CRC64();
-                                            break;
-                                        case NO_HASH:
-                                            Hash = null;
-                                            break;
-                                        default:
-                                            Hash = new Whirlpool2003();
-                                    }
+                                    Hash = NewHash(HashType);
                                     if (Hash != null) {
                                         Hash.reset();
                                     }
@@ -1043,6 +1380,8 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                         // Almacena el file manager del archivo de Salida
                                         FileParameters.setOutput(Output);
                                     }
+                                    // Descarta el punto de control de un proceso anterior sobre el mismo archivo
+                                    CuaimaCheckpoint.Sidecar(Output).delete();
                                     // Realiza la creacion del archivo de salida;
                                     if (Output.Exists()) {
                                         if (!Output.Delete()) {
@@ -1053,6 +1392,24 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                             throw new UtilsException("ERROR: NO se pudo borrar el archivo " + Output.getAbsoluteFilePath(), ERROR_DELETEOUTFILE, CuaimaFile.CLASSID + "023");
                                         }
                                     }
+                                    Meter.Total(OutputFileLength);
+                                    Meter.Phase(CryptoFileProgress.PHASE_BODY);
+                                    // Con puntos de control el flujo de datos se decodifica por posicion
+                                    if (getCheckpointInterval() > 0) {
+                                        StartDecodecClassic(Input, Output, HPosc, HeaderLength, OutputFileLength, HashType, Hash);
+                                        synchronized (this) {
+                                            this.Progress = 100;
+                                        }
+                                        return;
+                                    }
+                                    // Decodifica con archivos mapeados en memoria o en tres etapas si fue seleccionado
+                                    if (isMappedIO() || (getPipelineDepth() > 0)) {
+                                        DecodecChannels(Input, Output, HPosc, HeaderLength, OutputFileLength, Hash);
+                                        synchronized (this) {
+                                            this.Progress = 100;
+                                        }
+                                        return;
+                                    }
                                     // Abre el archivo de salida
                                     try {
                                         Output.Open(FileManager.WRITE, false);
@@ -1073,14 +1430,22 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                         }
                                         throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "025");
                                     }
-                                    synchronized (this) {
-                                        InputBuffer = new byte[this.BufferSize]; // Buffer de Entrada
-                                    }
-                                    SubInputBuffer = new byte[16];
+                                    InputBuffer = PooledBuffer(); // Buffer de Entrada
                                     NumBytesReads = InputBuffer.length;
                                     NumBytesWrite = 0;
                                     NumBlocksRead = 0;
+                                    // El Hash se calcula en su propia hebra sobre los datos decodificados
+                                    Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+                                    Cipher = Buf -> {
+                                        synchronized (CCPT) {
+                                            CCPT.Decodec(Buf);
+                                        }
+                                    };
                                     while (InputBuffer.length == NumBytesReads) {
+                                        // Espera que el Hash libere el buffer
+                                        if (Hasher != null) {
+                                            Hasher.Sync();
+                                        }
                                         try {
                                             // Lectura del archivo de entrada
                                             NumBytesReads = Input.Read(InputBuffer);
@@ -1144,22 +1509,14 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                                     NumBytesReads += DTemp;
                                                 }
                                                 NumBlocksRead += NumBytesReads / 8;
-                                                // Redimensiono el subbuffer para continuar con la codificacion
-                                                SubInputBuffer = new byte[16];
                                             }
                                             // Realiza la decodificacion del buffer leido desde el archivo
-                                            for (i = 0; i < NumBytesReads; i += 16) {
-                                                for (j = 0; j < 16; j++) {
-                                                    SubInputBuffer[j] = InputBuffer[i + j];
-                                                }
-                                                // Decodifica el bloque de 128 bits
-                                                DcBuffer = Converter.byte2long(SubInputBuffer);
+                                            // entregando al Hash solo los bytes del archivo original
+                                            if (Hasher != null) {
+                                                Hasher.Decodec(InputBuffer, 0, (int) ((NumBytesReads + 15) & ~15L), (int) Math.max(0, Math.min(NumBytesReads, OutputFileLength - NumBytesWrite)), Cipher);
+                                            } else {
                                                 synchronized (CCPT) {
-                                                    CCPT.Decodec(DcBuffer);
-                                                }
-                                                SubInputBuffer = Converter.long2byte(DcBuffer);
-                                                for (j = 0; j < 16; j++) {
-                                                    InputBuffer[i + j] = SubInputBuffer[j];
+                                                    CCPT.Decodec(InputBuffer, 0, (int) ((NumBytesReads + 15) & ~15L));
                                                 }
                                             }
                                             // Verifica si se llego al final del archivo
@@ -1188,18 +1545,9 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                                             throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "029");
                                                         }
                                                         // Realiza la decodificacion del buffer tempora leido desde el archivo
-                                                        for (i = 0; i < DTemp; i += 16) {
-                                                            for (j = 0; j < 16; j++) {
-                                                                SubInputBuffer[j] = OrgDigest[i + j];
-                                                            }
-                                                            // Decodifica el bloque de 128 bits
-                                                            DcBuffer = Converter.byte2long(SubInputBuffer);
+                                                        if (DTemp > 0) {
                                                             synchronized (CCPT) {
-                                                                CCPT.Decodec(DcBuffer);
-                                                            }
-                                                            SubInputBuffer = Converter.long2byte(DcBuffer);
-                                                            for (j = 0; j < 16; j++) {
-                                                                OrgDigest[i + j] = SubInputBuffer[j];
+                                                                CCPT.Decodec(OrgDigest, 0, (int) ((DTemp + 15) & ~15L));
                                                             }
                                                         }
                                                         // Recupero el pedazo de hash faltante
@@ -1213,10 +1561,6 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                                     }
                                                 }
                                             }
-                                            // Calcula el HASH
-                                            if (Hash != null) {
-                                                Hash.update(InputBuffer, 0, (int) NumBytesReads);
-                                            }
                                             try {
                                                 Output.Write(InputBuffer, 0, (int) NumBytesReads);
                                             } catch (UtilsException ex) {
@@ -1227,6 +1571,7 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                                 throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "030");
                                             }
                                             NumBytesWrite += NumBytesReads;
+                                            Meter.Add(NumBytesReads);
                                             NumBlocksRead += NumBytesReads / 8;
                                         }
                                         // Calcula el Porcentaje de Avance en al decodificacion del Archivo
@@ -1243,7 +1588,8 @@ public class CuaimaFile implements CryptoFile, Runnable {
                                         }
                                     }
                                     if (Hash != null) {
-                                        NewDigest = Hash.digest();
+                                        Meter.Phase(CryptoFileProgress.PHASE_HASH);
+                                        NewDigest = Hasher.Digest();
                                         if (!Arrays.equals(OrgDigest, NewDigest)) {
                                             synchronized (this) {
                                                 this.Progress = -1;
@@ -1313,66 +1659,1606 @@ public class CuaimaFile implements CryptoFile, Runnable {
         }
     }
 
-    @Override
-    public synchronized int Progress() {
-        return this.Progress;
-    }
-
-    @Override
-    public synchronized boolean isDone() {
-        return this.Done;
-    }
-
     /**
-     * Realiza la codificacion de un archivo, del que recibe en Input el objeto
-     * que lo define, en base a la clave con la cual se inicializo el algoritmo;
-     * generando el archivo codificado especificado en Output; si Output es
-     * 'null' utiliza el mismo nombre del archivo de entrada y le agrega la
-     * extencion .ccpt
-     *
-     * Si Output existe es borrado de forma NO SEGURA porque se presupone que si
-     * existe es un archivo ya codificado.
-     *
-     * En opciones se especifican los parametros de configuracion del algoritmo
-     * concatenados con 'or' |
+     * Codifica el archivo Input en el formato clasico con archivos mapeados en
+     * memoria o con el motor en tres etapas, codificando el encabezado con CCPT
+     * y colocandolo en la palabra HPosc del archivo Output, de
+     * 'OutputCodecFileLength' palabras de 64 bits.
      *
-     * Ejemplo de Como Manejar la excepcion de no poder abrir el archivo de
-     * entrada try { Salida=CuaimaFile.Codec(Entrada,null,CuimaFile.SHA1); }
-     * catch (UtilsException e) { if(e.getErrorCode()==CuaimaFile.NOOPENINFILE){
-     * System.out.println("NO SE PUEDE ABRIR El ARCHIVO DE ENTRADA!!!"); } }
-     *
-     * @param Input Objeto que define el archivo a codificar
-     * @param Output Objeto que define el archivo codificado
-     * @param Opciones Parametros de configuracion del codificador
+     * @param Input Archivo original
+     * @param Output Archivo codificado
+     * @param Header Encabezado sin codificar
+     * @param HPosc Posicion del encabezado en palabras de 64 bits
+     * @param OutputCodecFileLength Tamaño del archivo codificado en palabras de
+     * 64 bits
+     * @param Hash Algoritmo de HASH o null
+     * @param Rand Generador del relleno aleatorio
+     * @throws UtilsException
      */
-    public synchronized void Codec(FileManager Input, FileManager Output, int Opciones) {
-        MersenneTwisterPlus Random;
+    private void CodecChannels(FileManager Input, FileManager Output, long Header[], long HPosc, long OutputCodecFileLength, BaseHash Hash, MersenneTwisterPlus Rand) throws UtilsException {
+        FileChannel In;
+        RandomAccessFile Out;
+        MappedFileCodec.BlockCipher Cipher;
+        LongConsumer Avance;
+        long InputFileLength;
+        long DataLength;
+        boolean Mapped;
+        int Window;
+        int Depth;
 
-        if ((this.Ejecutando == null) || (this.Ejecutando.getState() == Thread.State.TERMINATED)) {
-            Random = new MersenneTwisterPlus();
-            this.Progress = 0;
-            this.FileParameters = new FileOperationParameters(Input, Output, Opciones);
-            this.Coding = true;
-            this.Ejecutando = new Thread(this);
-            this.Ejecutando.setName(this.CLASSID + "[" + Long.toHexString(Random.nextLong63()) + "]");
-            this.Ejecutando.start();
+        InputFileLength = Header[3];
+        try {
+            In = FileChannel.open(Paths.get(Input.getAbsoluteFilePath()), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "071");
         }
-    }
-
-    /**
-     * Realiza la decodificacion de un archivo que recibe en Input en base a la
-     * clave con la cual se inicializo el algoritmo.
-     *
-     * La salida la coloca en el archivo especificada por Output, si este es
-     * 'null' se utiliza la ruta donde esta el archivo original y el nombre
-     * original del archivo codificado
-     *
-     * Ejemplo de Como Manejar la excepcion de no poder abrir el archivo de
-     * entrada try { Salida=CuaimaFile.Codec(Entrada,null,CuimaFile.SHA1); }
-     * catch (UtilsException e) { if(e.getErrorCode()==CuaimaFile.NOOPENINFILE){
-     * System.out.println("NO SE PUEDE ABRIR El ARCHIVO DE ENTRADA!!!"); } }
-     *
-     * @param Input
+        try {
+            Out = new RandomAccessFile(Output.getAbsoluteFilePath(), "rw");
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo crear el archivo " + Output.getAbsoluteFilePath(), ERROR_CREATEOUTFILE, CuaimaFile.CLASSID + "072");
+        }
+        // Codifica el Encabezado del archivo
+        synchronized (CCPT) {
+            CCPT.Codec(Header, 0, Header.length / 2);
+        }
+        Meter.Phase(CryptoFileProgress.PHASE_BODY);
+        synchronized (this) {
+            Window = this.BufferSize;
+            Depth = this.PipelineDepth;
+            Mapped = this.MappedIO;
+        }
+        Cipher = Buf -> {
+            synchronized (CCPT) {
+                CCPT.Codec(Buf);
+            }
+        };
+        // Los bytes del flujo de datos incluyen el HASH y el relleno aleatorio
+        DataLength = 8 * (OutputCodecFileLength - Header.length);
+        Avance = Count -> {
+            Meter.Set(Math.min(Count, InputFileLength));
+            if ((Hash != null) && (Count >= InputFileLength)) {
+                Meter.Phase(CryptoFileProgress.PHASE_HASH);
+            }
+            this.Progress = (int) Math.min(99, (Count * 100) / DataLength);
+        };
+        try {
+            if (Mapped) {
+                MappedFileCodec.Codec(In, InputFileLength, Out.getChannel(), Converter.long2byte(Header), HPosc, OutputCodecFileLength, Hash, Rand, Window, Cipher, Avance);
+            } else {
+                PipelinedFileCodec.Codec(In, InputFileLength, Out.getChannel(), Converter.long2byte(Header), HPosc, OutputCodecFileLength, Hash, Rand, Window, Depth, Cipher, Avance);
+            }
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "073");
+        }
+        try {
+            In.close();
+        } catch (IOException ex) {
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, CuaimaFile.CLASSID + "074");
+        }
+        try {
+            Out.close();
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Output.getAbsoluteFilePath(), ERROR_CLOSEOUTFILE, CuaimaFile.CLASSID + "075");
+        }
+    }
+
+    /**
+     * Decodifica con archivos mapeados en memoria o con el motor en tres
+     * etapas el archivo Input del formato clasico, cuyo encabezado ya fue
+     * decodificado, en el archivo Output y verifica su HASH.
+     *
+     * @param Input Archivo codificado, abierto para lectura
+     * @param Output Archivo decodificado
+     * @param HPosc Posicion del encabezado en palabras de 64 bits
+     * @param HeaderLength Tamaño del encabezado en palabras de 64 bits
+     * @param OutputFileLength Tamaño del archivo original en bytes
+     * @param Hash Algoritmo de HASH o null
+     * @throws UtilsException
+     */
+    private void DecodecChannels(FileManager Input, FileManager Output, long HPosc, int HeaderLength, long OutputFileLength, BaseHash Hash) throws UtilsException {
+        FileChannel In;
+        RandomAccessFile Out;
+        MappedFileCodec.BlockCipher Cipher;
+        LongConsumer Avance;
+        byte[] OrgDigest;
+        boolean Mapped;
+        int Window;
+        int Depth;
+
+        try {
+            Input.Close();
+        } catch (UtilsException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, CuaimaFile.CLASSID + "076");
+        }
+        try {
+            In = FileChannel.open(Paths.get(Input.getAbsoluteFilePath()), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "077");
+        }
+        try {
+            Out = new RandomAccessFile(Output.getAbsoluteFilePath(), "rw");
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo crear el archivo " + Output.getAbsoluteFilePath(), ERROR_CREATEOUTFILE, CuaimaFile.CLASSID + "078");
+        }
+        synchronized (this) {
+            Window = this.BufferSize;
+            Depth = this.PipelineDepth;
+            Mapped = this.MappedIO;
+        }
+        Cipher = Buf -> {
+            synchronized (CCPT) {
+                CCPT.Decodec(Buf);
+            }
+        };
+        Avance = Count -> {
+            Meter.Set(Count);
+            this.Progress = (int) Math.min(99, (Count * 100) / Math.max(1, OutputFileLength));
+        };
+        try {
+            if (Mapped) {
+                OrgDigest = MappedFileCodec.Decodec(In, HPosc, HeaderLength, Out.getChannel(), OutputFileLength, Hash, Window, Cipher, Avance);
+            } else {
+                OrgDigest = PipelinedFileCodec.Decodec(In, HPosc, HeaderLength, Out.getChannel(), OutputFileLength, Hash, Window, Depth, Cipher, Avance);
+            }
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo Decodificar el archivo " + Input.getAbsoluteFilePath(), ERROR_DECODEC, CuaimaFile.CLASSID + "079");
+        }
+        try {
+            In.close();
+        } catch (IOException ex) {
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, CuaimaFile.CLASSID + "080");
+        }
+        try {
+            Out.close();
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Output.getAbsoluteFilePath(), ERROR_CLOSEOUTFILE, CuaimaFile.CLASSID + "081");
+        }
+        Meter.Set(OutputFileLength);
+        if (Hash != null) {
+            Meter.Phase(CryptoFileProgress.PHASE_HASH);
+        }
+        if ((Hash != null) && !Arrays.equals(OrgDigest, Hash.digest())) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH, CuaimaFile.CLASSID + "082");
+        }
+    }
+
+    /**
+     * Toma del pool compartido el buffer de entrada del proceso, el cual se
+     * devuelve al pool cuando el proceso concluye. Durante un mismo proceso
+     * retorna siempre el mismo buffer, por ejemplo a Restore y luego al
+     * cuerpo del formato clasico.
+     *
+     * @return Buffer de BufferSize bytes
+     */
+    private byte[] PooledBuffer() {
+        int Size;
+
+        if (this.Pooled == null) {
+            synchronized (this) {
+                Size = this.BufferSize;
+            }
+            this.Pooled = BufferPool.Shared().Acquire(Size);
+        }
+        return this.Pooled;
+    }
+
+    /**
+     * Cierra el recurso ignorando los errores, en las rutas de error donde ya
+     * se reporta una excepcion
+     *
+     * @param Resource Recurso a cerrar
+     */
+    private static void CloseQuietly(Closeable Resource) {
+        try {
+            Resource.close();
+        } catch (IOException ex) {
+            // Se reporta la excepcion original
+        }
+    }
+
+    /**
+     * Lee y decodifica con CCPT los primeros 32 bytes del archivo abierto en
+     * Input, retornando las 4 palabras decodificadas si contienen la marca del
+     * formato segmentado o null si el archivo tiene el formato clasico.
+     *
+     * @param Input Archivo codificado, abierto al inicio
+     * @return Inicio del encabezado segmentado o null
+     * @throws UtilsException
+     */
+    private long[] ProbeSegments(FileManager Input) throws UtilsException {
+        byte InputBuffer[];
+        long Header[], HTemp[];
+        long NumBytesReads;
+
+        InputBuffer = new byte[32];
+        try {
+            NumBytesReads = Input.Read(InputBuffer);
+        } catch (UtilsException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "055");
+        }
+        if (NumBytesReads == 32) {
+            Header = Converter.byte2long(InputBuffer);
+            synchronized (CCPT) {
+                CCPT.Decodec(Header, 0, Header.length / 2);
+            }
+            HTemp = new long[1];
+            HTemp[0] = (Header[0] << 32) | (Header[1] >>> 32);
+            if (CuaimaSegments.MARK.equals(new String(Converter.long2byte(HTemp), StandardCharsets.US_ASCII))) {
+                return Header;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decodifica el rango [Offset, Offset+Length) de un archivo con el formato
+     * segmentado leyendo solo los segmentos que lo contienen
+     *
+     * @param Input Archivo codificado
+     * @param Offset Posicion del primer byte en el archivo original
+     * @param Length Numero de bytes a decodificar
+     * @return Bytes decodificados
+     * @throws UtilsException
+     */
+    private byte[] PrivDecodecRange(FileManager Input, long Offset, int Length) throws UtilsException {
+        FileChannel In;
+        int i, j, Count, Wave, SegSize, NumBlocks;
+        int HeaderLength;
+        long Index, First, Last, End;
+        long SegStart, From, To;
+        long OutputFileLength;
+        long Header[], HTemp[];
+        byte InputBuffer[];
+        byte Segments[][];
+        int Lengths[];
+        byte Salida[];
+        String Master;
+
+        if (PasswdLength <= 0) {
+            throw new UtilsException("ERROR: Clave NO definida para decodificar archivo", ERROR_PASSWD, CuaimaFile.CLASSID + "083");
+        }
+        try {
+            In = FileChannel.open(Paths.get(Input.getAbsoluteFilePath()), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "084");
+        }
+        try {
+            // Recupera el inicio del encabezado y verifica el formato
+            synchronized (CCPT) {
+                CCPT.Reset();
+            }
+            InputBuffer = new byte[32];
+            ReadAt(In, InputBuffer, 0);
+            Header = Converter.byte2long(InputBuffer);
+            synchronized (CCPT) {
+                CCPT.Decodec(Header, 0, Header.length / 2);
+            }
+            HTemp = new long[1];
+            HTemp[0] = (Header[0] << 32) | (Header[1] >>> 32);
+            if (!CuaimaSegments.MARK.equals(new String(Converter.long2byte(HTemp), StandardCharsets.US_ASCII))) {
+                throw new UtilsException("ERROR: El archivo " + Input.getAbsoluteFilePath() + " NO tiene el formato segmentado", ERROR_VERSION, CuaimaFile.CLASSID + "085");
+            }
+            HeaderLength = (int) (Header[3] >>> 32);
+            if ((HeaderLength < 10) || ((HeaderLength & 1) != 0) || ((8L * HeaderLength) > In.size())) {
+                throw new UtilsException("ERROR: NO se pudo Decodificar el archivo " + Input.getAbsoluteFilePath(), ERROR_DECODEC, CuaimaFile.CLASSID + "086");
+            }
+            if ((int) (Header[2] & 0xFFL) != (CuaimaSegments.VERSION & 0xFF)) {
+                throw new UtilsException("ERROR: Version NO soportada del archivo " + Input.getAbsoluteFilePath(), ERROR_VERSION, CuaimaFile.CLASSID + "087");
+            }
+            // Recupera el resto del encabezado
+            InputBuffer = new byte[8 * (HeaderLength - 4)];
+            ReadAt(In, InputBuffer, 32);
+            HTemp = Converter.byte2long(InputBuffer);
+            synchronized (CCPT) {
+                CCPT.Decodec(HTemp, 0, HTemp.length / 2);
+            }
+            Header = (long[]) ArrayUtils.resizeArray(Header, HeaderLength);
+            for (i = 0; i < HTemp.length; i++) {
+                Header[4 + i] = HTemp[i];
+            }
+            HTemp = new long[1];
+            HTemp[0] = (Header[HeaderLength - 2] << 32) | (Header[HeaderLength - 1] >>> 32);
+            OutputFileLength = Header[4];
+            if ((!CuaimaSegments.MARK.equals(new String(Converter.long2byte(HTemp), StandardCharsets.US_ASCII)))
+                    || (OutputFileLength < 0) || (Header[5] < 16) || (Header[5] > CuaimaSegments.MAXSEGMENTSIZE) || ((Header[5] & 15) != 0)) {
+                throw new UtilsException("ERROR: NO se pudo Decodificar el archivo " + Input.getAbsoluteFilePath(), ERROR_DECODEC, CuaimaFile.CLASSID + "088");
+            }
+            SegSize = (int) Header[5];
+            // Deriva la clave de los segmentos
+            synchronized (CCPT) {
+                NumBlocks = CCPT.GetNumCrossBits() + 1;
+                Master = CuaimaSegments.Master(CCPT, Header[6], SegSize);
+            }
+            // Limita el rango al tamaño del archivo original
+            End = Math.min(OutputFileLength, Offset + Length);
+            if (Offset >= End) {
+                return new byte[0];
+            }
+            Salida = new byte[(int) (End - Offset)];
+            First = Offset / SegSize;
+            Last = (End - 1) / SegSize;
+            // Decodifica los segmentos del rango por ciclos
+            Wave = CuaimaSegments.WaveSize();
+            Segments = new byte[Wave][];
+            Lengths = new int[Wave];
+            Index = First;
+            while (Index <= Last) {
+                Count = (int) Math.min((long) Wave, Last - Index + 1);
+                for (i = 0; i < Count; i++) {
+                    SegStart = (Index + i) * SegSize;
+                    j = (int) Math.min((long) SegSize, OutputFileLength - SegStart);
+                    Lengths[i] = (j + 15) & ~15;
+                    if ((Segments[i] == null) || (Segments[i].length != Lengths[i])) {
+                        Segments[i] = new byte[Lengths[i]];
+                    }
+                    ReadAt(In, Segments[i], 8L * HeaderLength + SegStart);
+                }
+                CuaimaSegments.Codec(Segments, Lengths, Count, Master, NumBlocks, Index, true);
+                // Copia la parte de cada segmento que pertenece al rango
+                for (i = 0; i < Count; i++) {
+                    SegStart = (Index + i) * SegSize;
+                    From = Math.max(Offset, SegStart);
+                    To = Math.min(End, SegStart + SegSize);
+                    ArrayUtils.arrayCopy(Segments[i], (int) (From - SegStart), Salida, (int) (From - Offset), (int) (To - From));
+                }
+                Index += Count;
+            }
+            return Salida;
+        } catch (IOException ex) {
+            throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "089");
+        } finally {
+            CloseQuietly(In);
+        }
+    }
+
+    /**
+     * Lee Dst completo desde la posicion Posc de In
+     *
+     * @throws EOFException si el archivo termina antes de llenar Dst
+     */
+    private static void ReadAt(FileChannel In, byte Dst[], long Posc) throws IOException {
+        ReadAt(In, Dst, Dst.length, Posc);
+    }
+
+    /**
+     * Lee los primeros Length bytes de Dst desde la posicion Posc de In
+     *
+     * @throws EOFException si el archivo termina antes de leer Length bytes
+     */
+    private static void ReadAt(FileChannel In, byte Dst[], int Length, long Posc) throws IOException {
+        ByteBuffer Buf;
+        int Len;
+
+        Buf = ByteBuffer.wrap(Dst, 0, Length);
+        while (Buf.hasRemaining()) {
+            Len = In.read(Buf, Posc);
+            if (Len < 0) {
+                throw new EOFException("Unexpected end of the encoded file");
+            }
+            Posc += Len;
+        }
+    }
+
+    /**
+     * Realiza la decodificacion de un archivo con el formato segmentado
+     * (VERSION 4), decodificando los segmentos en paralelo.
+     *
+     * Input debe estar abierto y posicionado despues de las 4 palabras del
+     * encabezado recuperadas por ProbeSegments en Header.
+     *
+     * @param Input Archivo codificado
+     * @param Output Archivo de salida o directorio donde se coloca
+     * @param Header Inicio del encabezado decodificado
+     * @throws UtilsException
+     */
+    private void PrivDecodecSegments(FileManager Input, FileManager Output, long Header[]) throws UtilsException {
+        int i, SegSize;
+        int HeaderLength;
+        int OutputFileNameLength;
+        long DTemp, Nonce;
+        long OutputFileLength;
+        long HTemp[];
+        byte InputBuffer[];
+        String OutputFileName;
+        int HashType;
+        BaseHash Hash;
+        FileChannel In;
+        FileChannel Out;
+        CuaimaCheckpoint Job;
+
+        // Recupera el tamaño del encabezado y del nombre del archivo
+        HeaderLength = (int) (Header[3] >>> 32);
+        OutputFileNameLength = (int) (Header[3] & 0xFFFFFFFFL);
+        if ((HeaderLength < 10) || ((HeaderLength & 1) != 0) || ((8L * HeaderLength) > Input.getFileLength())
+                || (OutputFileNameLength < 0) || (OutputFileNameLength > 8 * (HeaderLength - 10))) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo Decodificar el archivo " + Input.getAbsoluteFilePath(), ERROR_DECODEC, CuaimaFile.CLASSID + "056");
+        }
+        // Verifica la Version
+        if ((int) (Header[2] & 0xFFL) != (CuaimaSegments.VERSION & 0xFF)) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: Version NO soportada del archivo " + Input.getAbsoluteFilePath(), ERROR_VERSION, CuaimaFile.CLASSID + "057");
+        }
+        // Recupera el resto del encabezado
+        InputBuffer = new byte[8 * (HeaderLength - 4)];
+        try {
+            DTemp = Input.Read(InputBuffer);
+        } catch (UtilsException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "058");
+        }
+        if (DTemp != InputBuffer.length) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "059");
+        }
+        HTemp = Converter.byte2long(InputBuffer);
+        synchronized (CCPT) {
+            CCPT.Decodec(HTemp, 0, HTemp.length / 2);
+        }
+        Header = (long[]) ArrayUtils.resizeArray(Header, HeaderLength);
+        for (i = 0; i < HTemp.length; i++) {
+            Header[4 + i] = HTemp[i];
+        }
+        // Verifica si se pudo recuperar el encabezado completo
+        HTemp = new long[1];
+        HTemp[0] = (Header[HeaderLength - 2] << 32) | (Header[HeaderLength - 1] >>> 32);
+        OutputFileLength = Header[4];
+        if ((!CuaimaSegments.MARK.equals(new String(Converter.long2byte(HTemp), StandardCharsets.US_ASCII)))
+                || (OutputFileLength < 0) || (Header[5] < 16) || (Header[5] > CuaimaSegments.MAXSEGMENTSIZE) || ((Header[5] & 15) != 0)) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo Decodificar el archivo " + Input.getAbsoluteFilePath(), ERROR_DECODEC, CuaimaFile.CLASSID + "060");
+        }
+        SegSize = (int) Header[5];
+        Nonce = Header[6];
+        // Recupera el Tipo de Hash utilizado
+        HashType = ((int) (Header[2] >>> 26)) & HASHMASK;
+        Hash = NewHash(HashType);
+        if (Hash != null) {
+            Hash.reset();
+        }
+        // Guarda el estado del que se deriva la clave de los segmentos
+        synchronized (CCPT) {
+            Job = new CuaimaCheckpoint(CuaimaCheckpoint.DECODEC, Input.getFileLength(), OutputFileLength, SegSize, Nonce, HashType, HeaderLength, CCPT.GetRunState());
+        }
+        // Especifica el archivo de salida
+        if ((Output == null) || (Output.isDirectory())) {
+            HTemp = new long[HeaderLength - 10];
+            for (i = 0; i < HTemp.length; i++) {
+                HTemp[i] = Header[8 + i];
+            }
+            OutputFileName = new String(Converter.long2byte(HTemp));
+            OutputFileName = OutputFileName.substring(0, OutputFileNameLength);
+            if ((Output != null) && (Output.isDirectory())) {
+                Output = new FileManager(Output.getFilePath() + Output.getSeparador() + OutputFileName);
+            } else {
+                Output = new FileManager(Input.getFilePath() + Input.getSeparador() + OutputFileName);
+            }
+            // Almacena el file manager del archivo de Salida
+            FileParameters.setOutput(Output);
+        }
+        // Descarta el punto de control de un proceso anterior sobre el mismo archivo
+        CuaimaCheckpoint.Sidecar(Output).delete();
+        // Realiza la creacion del archivo de salida;
+        if (Output.Exists()) {
+            if (!Output.Delete()) {
+                synchronized (this) {
+                    this.Progress = -1;
+                }
+                throw new UtilsException("ERROR: NO se pudo borrar el archivo " + Output.getAbsoluteFilePath(), ERROR_DELETEOUTFILE, CuaimaFile.CLASSID + "061");
+            }
+        }
+        // Los segmentos se leen y escriben por posicion para poder continuar desde un punto de control
+        try {
+            Input.Close();
+        } catch (UtilsException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, CuaimaFile.CLASSID + "091");
+        }
+        try {
+            In = FileChannel.open(Paths.get(Input.getAbsoluteFilePath()), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "090");
+        }
+        try {
+            Out = FileChannel.open(Paths.get(Output.getAbsoluteFilePath()), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo crear el archivo " + Output.getAbsoluteFilePath(), ERROR_CREATEOUTFILE, CuaimaFile.CLASSID + "062");
+        }
+        DecodecSegments(Input, Output, In, Out, Job, Hash);
+    }
+
+    /**
+     * Codifica los segmentos del archivo original desde el segmento Job.Index
+     * hasta el final y agrega el HASH codificado con CCPT; guarda un punto de
+     * control cada CheckpointInterval bytes y al concluir cierra los archivos
+     * y elimina el punto de control.
+     *
+     * Si Job.Index es mayor a 0 el proceso continua desde un punto de control:
+     * se recalcula el HASH de los bytes ya codificados y se verifica contra el
+     * guardado en Job.
+     *
+     * @param Input Archivo original
+     * @param Output Archivo codificado
+     * @param In Archivo original abierto para lectura
+     * @param Out Archivo codificado abierto para lectura y escritura
+     * @param Job Parametros del proceso
+     * @param Hash Algoritmo de HASH o null
+     * @param Rand Generador del relleno aleatorio
+     * @throws UtilsException
+     */
+    private void CodecSegments(FileManager Input, FileManager Output, FileChannel In, FileChannel Out, CuaimaCheckpoint Job, BaseHash Hash, MersenneTwisterPlus Rand) throws UtilsException {
+        int i, j, Count, Wave, NumBlocks;
+        long Index, DTemp, Interval, Saved;
+        long NumBytesReads;
+        byte Segments[][];
+        int Lengths[];
+        byte Digest[];
+        String Master;
+        ParallelHash Hasher;
+        File Sidecar;
+
+        synchronized (this) {
+            Interval = this.CheckpointInterval;
+        }
+        Sidecar = CuaimaCheckpoint.Sidecar(Output);
+        // Deriva la clave de los segmentos del estado posterior al encabezado
+        synchronized (CCPT) {
+            CCPT.SetRunState(Job.State);
+            NumBlocks = CCPT.GetNumCrossBits() + 1;
+            Master = CuaimaSegments.Master(CCPT, Job.Nonce, Job.SegSize);
+        }
+        Index = Job.Index;
+        NumBytesReads = Job.Processed();
+        Meter.Total(Job.Length);
+        Meter.Phase(CryptoFileProgress.PHASE_BODY);
+        Restore(In, NumBytesReads, Hash, Job, Input, In, Out);
+        Meter.Set(NumBytesReads);
+        Saved = NumBytesReads;
+        // Codifica el archivo de entrada por ciclos de segmentos
+        Wave = CuaimaSegments.WaveSize();
+        Segments = new byte[Wave][];
+        Lengths = new int[Wave];
+        // El Hash se calcula en su propia hebra mientras se leen los segmentos
+        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+        while (NumBytesReads < Job.Length) {
+            // Lee los segmentos del ciclo, el ultimo se completa a multiplo de 16 con numeros aleatorios
+            Count = 0;
+            while ((Count < Wave) && (NumBytesReads < Job.Length)) {
+                j = (int) Math.min((long) Job.SegSize, Job.Length - NumBytesReads);
+                Lengths[Count] = (j + 15) & ~15;
+                if ((Segments[Count] == null) || (Segments[Count].length != Lengths[Count])) {
+                    Segments[Count] = new byte[Lengths[Count]];
+                }
+                try {
+                    ReadAt(In, Segments[Count], j, NumBytesReads);
+                } catch (EOFException ex) {
+                    CloseQuietly(In);
+                    CloseQuietly(Out);
+                    synchronized (this) {
+                        this.Progress = -1;
+                    }
+                    throw new UtilsException("ERROR: NO se puedo leer el archivo a codificar", ERROR_NOREADINFILE, CuaimaFile.CLASSID + "047");
+                } catch (IOException ex) {
+                    CloseQuietly(In);
+                    CloseQuietly(Out);
+                    synchronized (this) {
+                        this.Progress = -1;
+                    }
+                    throw new UtilsException("ERROR: NO se puedo leer el archivo a codificar", ERROR_NOREADINFILE, CuaimaFile.CLASSID + "046");
+                }
+                if (Hasher != null) {
+                    Hasher.Update(Segments[Count], 0, j);
+                }
+                for (i = j; i < Lengths[Count]; i++) {
+                    Segments[Count][i] = Rand.nextByte();
+                }
+                NumBytesReads += j;
+                Count++;
+            }
+            // Codifica en paralelo los segmentos del ciclo
+            if (Hasher != null) {
+                Hasher.Sync();
+            }
+            CuaimaSegments.Codec(Segments, Lengths, Count, Master, NumBlocks, Index, false);
+            // Escribe cada segmento en su posicion
+            for (i = 0; i < Count; i++) {
+                try {
+                    MappedFileCodec.WriteFully(Out, ByteBuffer.wrap(Segments[i], 0, Lengths[i]), Job.DataStart() + (Index + i) * Job.SegSize);
+                } catch (IOException ex) {
+                    CloseQuietly(In);
+                    CloseQuietly(Out);
+                    synchronized (this) {
+                        this.Progress = -1;
+                    }
+                    throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "048");
+                }
+            }
+            Index += Count;
+            // Calcula el Porcentaje de Avance en al codificacion del Archivo
+            Meter.Set(NumBytesReads);
+            DTemp = (NumBytesReads * 100) / Job.Length;
+            if (DTemp == 100) {
+                DTemp = 99;
+            }
+            synchronized (this) {
+                this.Progress = (int) DTemp;
+            }
+            if ((Interval > 0) && (NumBytesReads < Job.Length) && (NumBytesReads - Saved >= Interval)) {
+                Checkpoint(Job, Index, Hash, Hasher, Sidecar, Output, In, Out);
+                Saved = NumBytesReads;
+            }
+        }
+        // Agrega el Hash del archivo original codificado con CCPT
+        if (Hash != null) {
+            Meter.Phase(CryptoFileProgress.PHASE_HASH);
+            Digest = new byte[(Hash.hashSize() + 15) & ~15];
+            ArrayUtils.arrayCopy(Hasher.Digest(), 0, Digest, 0, Hash.hashSize());
+            for (i = Hash.hashSize(); i < Digest.length; i++) {
+                Digest[i] = Rand.nextByte();
+            }
+            synchronized (CCPT) {
+                CCPT.Codec(Digest, 0, Digest.length);
+            }
+            try {
+                MappedFileCodec.WriteFully(Out, ByteBuffer.wrap(Digest), Job.DataStart() + ((Job.Length + 15) & ~15));
+            } catch (IOException ex) {
+                CloseQuietly(In);
+                CloseQuietly(Out);
+                synchronized (this) {
+                    this.Progress = -1;
+                }
+                throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "049");
+            }
+        }
+        try {
+            In.close();
+        } catch (IOException ex) {
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, CuaimaFile.CLASSID + "050");
+        }
+        try {
+            Out.close();
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Output.getAbsoluteFilePath(), ERROR_CLOSEOUTFILE, CuaimaFile.CLASSID + "051");
+        }
+        // El proceso concluyo, el punto de control ya no es necesario
+        Sidecar.delete();
+    }
+
+    /**
+     * Decodifica los segmentos del archivo codificado desde el segmento
+     * Job.Index hasta el final y verifica el HASH; guarda un punto de control
+     * cada CheckpointInterval bytes y al concluir cierra los archivos y elimina
+     * el punto de control.
+     *
+     * Si Job.Index es mayor a 0 el proceso continua desde un punto de control:
+     * se recalcula el HASH de los bytes ya decodificados en Out y se verifica
+     * contra el guardado en Job.
+     *
+     * @param Input Archivo codificado
+     * @param Output Archivo decodificado
+     * @param In Archivo codificado abierto para lectura
+     * @param Out Archivo decodificado abierto para lectura y escritura
+     * @param Job Parametros del proceso
+     * @param Hash Algoritmo de HASH o null
+     * @throws UtilsException
+     */
+    private void DecodecSegments(FileManager Input, FileManager Output, FileChannel In, FileChannel Out, CuaimaCheckpoint Job, BaseHash Hash) throws UtilsException {
+        int i, j, Count, Wave, NumBlocks;
+        long Index, DTemp, Interval, Saved;
+        long NumBytesWrite;
+        byte Segments[][];
+        int Lengths[];
+        String Master;
+        ParallelHash Hasher;
+        File Sidecar;
+        byte[] OrgDigest;
+
+        synchronized (this) {
+            Interval = this.CheckpointInterval;
+        }
+        Sidecar = CuaimaCheckpoint.Sidecar(Output);
+        // Deriva la clave de los segmentos del estado posterior al encabezado
+        synchronized (CCPT) {
+            CCPT.SetRunState(Job.State);
+            NumBlocks = CCPT.GetNumCrossBits() + 1;
+            Master = CuaimaSegments.Master(CCPT, Job.Nonce, Job.SegSize);
+        }
+        Index = Job.Index;
+        NumBytesWrite = Job.Processed();
+        Meter.Total(Job.Length);
+        Meter.Phase(CryptoFileProgress.PHASE_BODY);
+        Restore(Out, NumBytesWrite, Hash, Job, Output, In, Out);
+        Meter.Set(NumBytesWrite);
+        Saved = NumBytesWrite;
+        // Decodifica los segmentos por ciclos
+        Wave = CuaimaSegments.WaveSize();
+        Segments = new byte[Wave][];
+        Lengths = new int[Wave];
+        // El Hash se calcula en su propia hebra mientras se escriben los segmentos
+        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+        while (NumBytesWrite < Job.Length) {
+            // Lee los segmentos del ciclo cuando el Hash los libera
+            if (Hasher != null) {
+                Hasher.Sync();
+            }
+            Count = 0;
+            DTemp = NumBytesWrite;
+            while ((Count < Wave) && (DTemp < Job.Length)) {
+                j = (int) Math.min((long) Job.SegSize, Job.Length - DTemp);
+                Lengths[Count] = (j + 15) & ~15;
+                if ((Segments[Count] == null) || (Segments[Count].length != Lengths[Count])) {
+                    Segments[Count] = new byte[Lengths[Count]];
+                }
+                try {
+                    ReadAt(In, Segments[Count], Lengths[Count], Job.DataStart() + (Index + Count) * Job.SegSize);
+                } catch (EOFException ex) {
+                    CloseQuietly(In);
+                    CloseQuietly(Out);
+                    synchronized (this) {
+                        this.Progress = -1;
+                    }
+                    throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "064");
+                } catch (IOException ex) {
+                    CloseQuietly(In);
+                    CloseQuietly(Out);
+                    synchronized (this) {
+                        this.Progress = -1;
+                    }
+                    throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "063");
+                }
+                DTemp += j;
+                Count++;
+            }
+            // Decodifica en paralelo los segmentos del ciclo
+            CuaimaSegments.Codec(Segments, Lengths, Count, Master, NumBlocks, Index, true);
+            Index += Count;
+            // Escribe los segmentos en orden descartando el relleno del ultimo
+            for (i = 0; i < Count; i++) {
+                j = (int) Math.min((long) Lengths[i], Job.Length - NumBytesWrite);
+                if (Hasher != null) {
+                    Hasher.Update(Segments[i], 0, j);
+                }
+                try {
+                    MappedFileCodec.WriteFully(Out, ByteBuffer.wrap(Segments[i], 0, j), NumBytesWrite);
+                } catch (IOException ex) {
+                    CloseQuietly(In);
+                    CloseQuietly(Out);
+                    synchronized (this) {
+                        this.Progress = -1;
+                    }
+                    throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "065");
+                }
+                NumBytesWrite += j;
+            }
+            // Calcula el Porcentaje de Avance en al decodificacion del Archivo
+            Meter.Set(NumBytesWrite);
+            DTemp = (NumBytesWrite * 100) / Job.Length;
+            if (DTemp == 100) {
+                DTemp = 99;
+            }
+            synchronized (this) {
+                this.Progress = (int) DTemp;
+            }
+            if ((Interval > 0) && (NumBytesWrite < Job.Length) && (NumBytesWrite - Saved >= Interval)) {
+                Checkpoint(Job, Index, Hash, Hasher, Sidecar, Output, In, Out);
+                Saved = NumBytesWrite;
+            }
+        }
+        // Recupera y verifica el HASH Original
+        if (Hash != null) {
+            Meter.Phase(CryptoFileProgress.PHASE_HASH);
+            OrgDigest = new byte[(Hash.hashSize() + 15) & ~15];
+            try {
+                ReadAt(In, OrgDigest, OrgDigest.length, Job.DataStart() + ((Job.Length + 15) & ~15));
+                synchronized (CCPT) {
+                    CCPT.Decodec(OrgDigest, 0, OrgDigest.length);
+                }
+                OrgDigest = (byte[]) ArrayUtils.resizeArray(OrgDigest, Hash.hashSize());
+            } catch (EOFException ex) {
+                // El archivo codificado esta truncado y el HASH no coincide
+                OrgDigest = null;
+            } catch (IOException ex) {
+                CloseQuietly(In);
+                CloseQuietly(Out);
+                synchronized (this) {
+                    this.Progress = -1;
+                }
+                throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "066");
+            }
+            if (!Arrays.equals(OrgDigest, Hasher.Digest())) {
+                CloseQuietly(In);
+                CloseQuietly(Out);
+                // El archivo decodificado no es valido y no se debe conservar
+                Sidecar.delete();
+                synchronized (this) {
+                    this.Progress = -1;
+                }
+                throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH, CuaimaFile.CLASSID + "067");
+            }
+        }
+        try {
+            In.close();
+        } catch (IOException ex) {
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, CuaimaFile.CLASSID + "068");
+        }
+        try {
+            Out.close();
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Output.getAbsoluteFilePath(), ERROR_CLOSEOUTFILE, CuaimaFile.CLASSID + "069");
+        }
+        // El proceso concluyo, el punto de control ya no es necesario
+        Sidecar.delete();
+    }
+
+    /**
+     * Inicia la codificacion del formato clasico con puntos de control: crea
+     * el archivo Output con su tamaño final, escribe en su posicion el
+     * encabezado codificado y codifica el flujo de datos con CodecClassic.
+     *
+     * @param Input Archivo original
+     * @param Output Archivo codificado
+     * @param Header Encabezado sin codificar
+     * @param HPosc Posicion del encabezado en palabras de 64 bits
+     * @param OutputCodecFileLength Tamaño del archivo codificado en palabras de
+     * 64 bits
+     * @param HashType Tipo de HASH
+     * @param Hash Algoritmo de HASH o null
+     * @param Rand Generador del relleno aleatorio
+     * @throws UtilsException
+     */
+    private void StartCodecClassic(FileManager Input, FileManager Output, long Header[], long HPosc, long OutputCodecFileLength, int HashType, BaseHash Hash, MersenneTwisterPlus Rand) throws UtilsException {
+        FileChannel In;
+        FileChannel Out;
+        CuaimaCheckpoint Job;
+        long InputFileLength;
+
+        InputFileLength = Header[3];
+        try {
+            In = FileChannel.open(Paths.get(Input.getAbsoluteFilePath()), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "102");
+        }
+        try {
+            Out = FileChannel.open(Paths.get(Output.getAbsoluteFilePath()), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo crear el archivo " + Output.getAbsoluteFilePath(), ERROR_CREATEOUTFILE, CuaimaFile.CLASSID + "103");
+        }
+        // Codifica el Encabezado y guarda el estado con el que inicia el flujo de datos
+        synchronized (CCPT) {
+            CCPT.Codec(Header, 0, Header.length / 2);
+            Job = new CuaimaCheckpoint(CuaimaCheckpoint.CLASSICCODEC, Input.getFileLength(), InputFileLength, 0, 0L, HashType, Header.length, CCPT.GetRunState());
+        }
+        Job.HPosc = HPosc;
+        Job.OutputLength = OutputCodecFileLength;
+        // Dimensiona el archivo codificado y escribe el encabezado en su posicion
+        try {
+            Out.truncate(0);
+            MappedFileCodec.WriteFully(Out, ByteBuffer.wrap(new byte[1]), 8 * OutputCodecFileLength - 1);
+            MappedFileCodec.WriteFully(Out, ByteBuffer.wrap(Converter.long2byte(Header)), 8 * HPosc);
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "104");
+        }
+        CodecClassic(Input, Output, In, Out, Job, Hash, Rand);
+    }
+
+    /**
+     * Inicia la decodificacion del formato clasico con puntos de control,
+     * cuyo encabezado ya fue decodificado, y decodifica el flujo de datos con
+     * DecodecClassic.
+     *
+     * @param Input Archivo codificado, abierto para lectura
+     * @param Output Archivo decodificado
+     * @param HPosc Posicion del encabezado en palabras de 64 bits
+     * @param HeaderLength Tamaño del encabezado en palabras de 64 bits
+     * @param OutputFileLength Tamaño del archivo original en bytes
+     * @param HashType Tipo de HASH
+     * @param Hash Algoritmo de HASH o null
+     * @throws UtilsException
+     */
+    private void StartDecodecClassic(FileManager Input, FileManager Output, long HPosc, int HeaderLength, long OutputFileLength, int HashType, BaseHash Hash) throws UtilsException {
+        FileChannel In;
+        FileChannel Out;
+        CuaimaCheckpoint Job;
+
+        // El flujo de datos se lee y escribe por posicion para poder continuar desde un punto de control
+        try {
+            Input.Close();
+        } catch (UtilsException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, CuaimaFile.CLASSID + "105");
+        }
+        try {
+            In = FileChannel.open(Paths.get(Input.getAbsoluteFilePath()), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "106");
+        }
+        try {
+            Out = FileChannel.open(Paths.get(Output.getAbsoluteFilePath()), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo crear el archivo " + Output.getAbsoluteFilePath(), ERROR_CREATEOUTFILE, CuaimaFile.CLASSID + "107");
+        }
+        // Guarda el estado con el que inicia el flujo de datos
+        synchronized (CCPT) {
+            Job = new CuaimaCheckpoint(CuaimaCheckpoint.CLASSICDECODEC, Input.getFileLength(), OutputFileLength, 0, 0L, HashType, HeaderLength, CCPT.GetRunState());
+        }
+        Job.HPosc = HPosc;
+        Job.OutputLength = (Input.getFileLength() + 7) / 8;
+        DecodecClassic(Input, Output, In, Out, Job, Hash);
+    }
+
+    /**
+     * Codifica el flujo de datos del formato clasico, el archivo original
+     * seguido de su HASH y del relleno aleatorio, desde el byte Job.Index
+     * hasta el final, saltando el encabezado ya escrito en Out; guarda un
+     * punto de control cada CheckpointInterval bytes y al concluir cierra los
+     * archivos y elimina el punto de control.
+     *
+     * Si Job.Index es mayor a 0 el proceso continua desde un punto de control:
+     * se recalcula el HASH de los bytes ya codificados y se verifica contra el
+     * guardado en Job.
+     *
+     * @param Input Archivo original
+     * @param Output Archivo codificado
+     * @param In Archivo original abierto para lectura
+     * @param Out Archivo codificado abierto para lectura y escritura
+     * @param Job Parametros del proceso
+     * @param Hash Algoritmo de HASH o null
+     * @param Rand Generador del relleno aleatorio
+     * @throws UtilsException
+     */
+    private void CodecClassic(FileManager Input, FileManager Output, FileChannel In, FileChannel Out, CuaimaCheckpoint Job, BaseHash Hash, MersenneTwisterPlus Rand) throws UtilsException {
+        int i, Len, Real, Window;
+        long Posc, End, DTemp, Interval, Saved;
+        long DataLength, HeaderStart, HeaderBytes;
+        byte InputBuffer[];
+        byte Digest[];
+        ParallelHash Hasher;
+        MappedFileCodec.BlockCipher Cipher;
+        File Sidecar;
+
+        synchronized (this) {
+            Interval = this.CheckpointInterval;
+        }
+        Sidecar = CuaimaCheckpoint.Sidecar(Output);
+        HeaderStart = 8 * Job.HPosc;
+        HeaderBytes = 8L * Job.HeaderLength;
+        // Los bytes del flujo de datos incluyen el HASH y el relleno aleatorio
+        DataLength = 8 * Job.OutputLength - HeaderBytes;
+        // Continua la secuencia de CCPT desde el punto de control
+        synchronized (CCPT) {
+            CCPT.SetRunState(Job.State);
+        }
+        Posc = Job.Index;
+        Meter.Total(Job.Length);
+        Meter.Phase(CryptoFileProgress.PHASE_BODY);
+        Restore(In, Job.Processed(), Hash, Job, Input, In, Out);
+        Meter.Set(Job.Processed());
+        Saved = Posc;
+        InputBuffer = PooledBuffer();
+        // Los bloques no exceden el intervalo entre puntos de control
+        Window = (int) Math.min(InputBuffer.length, (Interval + 15) & ~15L);
+        Digest = null;
+        // El Hash se calcula en su propia hebra mientras se codifica cada rebanada ya procesada
+        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+        Cipher = Buf -> {
+            synchronized (CCPT) {
+                CCPT.Codec(Buf);
+            }
+        };
+        while (Posc < DataLength) {
+            End = Math.min(DataLength, Posc + Window);
+            Len = (int) (End - Posc);
+            // Espera que el Hash libere el buffer
+            if (Hasher != null) {
+                Hasher.Sync();
+            }
+            // Lee los bytes del archivo original
+            Real = (int) Math.max(0, Math.min(End, Job.Length) - Posc);
+            if (Real > 0) {
+                try {
+                    ReadAt(In, InputBuffer, Real, Posc);
+                } catch (IOException ex) {
+                    CloseQuietly(In);
+                    CloseQuietly(Out);
+                    synchronized (this) {
+                        this.Progress = -1;
+                    }
+                    throw new UtilsException("ERROR: NO se puedo leer el archivo a codificar", ERROR_NOREADINFILE, CuaimaFile.CLASSID + "108");
+                }
+                if (Hasher != null) {
+                    Hasher.Update(InputBuffer, 0, Real);
+                }
+            }
+            // Completa con el HASH y el relleno aleatorio
+            for (i = Real; i < Len; i++) {
+                if ((Hasher != null) && (Posc + i - Job.Length < Hash.hashSize())) {
+                    if (Digest == null) {
+                        Meter.Phase(CryptoFileProgress.PHASE_HASH);
+                        Digest = Hasher.Digest();
+                    }
+                    InputBuffer[i] = Digest[(int) (Posc + i - Job.Length)];
+                } else {
+                    InputBuffer[i] = Rand.nextByte();
+                }
+            }
+            // Codifica y escribe en su posicion saltando el encabezado
+            if (Hasher != null) {
+                Hasher.Codec(InputBuffer, 0, Len, Cipher);
+            } else {
+                synchronized (CCPT) {
+                    CCPT.Codec(InputBuffer, 0, Len);
+                }
+            }
+            try {
+                MappedFileCodec.WriteData(Out, Posc, HeaderStart, HeaderBytes, ByteBuffer.wrap(InputBuffer, 0, Len));
+            } catch (IOException ex) {
+                CloseQuietly(In);
+                CloseQuietly(Out);
+                synchronized (this) {
+                    this.Progress = -1;
+                }
+                throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "109");
+            }
+            Posc = End;
+            // Calcula el Porcentaje de Avance en al codificacion del Archivo
+            Meter.Set(Math.min(Posc, Job.Length));
+            DTemp = (Posc * 100) / DataLength;
+            if (DTemp == 100) {
+                DTemp = 99;
+            }
+            synchronized (this) {
+                this.Progress = (int) DTemp;
+            }
+            if ((Interval > 0) && (Posc < Job.Length) && (Posc - Saved >= Interval)) {
+                Checkpoint(Job, Posc, Hash, Hasher, Sidecar, Output, In, Out);
+                Saved = Posc;
+            }
+        }
+        try {
+            In.close();
+        } catch (IOException ex) {
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, CuaimaFile.CLASSID + "110");
+        }
+        try {
+            Out.close();
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Output.getAbsoluteFilePath(), ERROR_CLOSEOUTFILE, CuaimaFile.CLASSID + "111");
+        }
+        // El proceso concluyo, el punto de control ya no es necesario
+        Sidecar.delete();
+    }
+
+    /**
+     * Decodifica el flujo de datos del formato clasico desde el byte Job.Index
+     * hasta el final del archivo original y verifica el HASH, saltando el
+     * encabezado de In; guarda un punto de control cada CheckpointInterval
+     * bytes y al concluir cierra los archivos y elimina el punto de control.
+     *
+     * Si Job.Index es mayor a 0 el proceso continua desde un punto de control:
+     * se recalcula el HASH de los bytes ya decodificados en Out y se verifica
+     * contra el guardado en Job.
+     *
+     * @param Input Archivo codificado
+     * @param Output Archivo decodificado
+     * @param In Archivo codificado abierto para lectura
+     * @param Out Archivo decodificado abierto para lectura y escritura
+     * @param Job Parametros del proceso
+     * @param Hash Algoritmo de HASH o null
+     * @throws UtilsException
+     */
+    private void DecodecClassic(FileManager Input, FileManager Output, FileChannel In, FileChannel Out, CuaimaCheckpoint Job, BaseHash Hash) throws UtilsException {
+        int i, Len, Real, Window, HashSize;
+        long Posc, End, DTemp, Interval, Saved;
+        long Total, DataLength, HeaderStart, HeaderBytes;
+        byte InputBuffer[];
+        byte[] OrgDigest;
+        ParallelHash Hasher;
+        MappedFileCodec.BlockCipher Cipher;
+        File Sidecar;
+
+        synchronized (this) {
+            Interval = this.CheckpointInterval;
+        }
+        Sidecar = CuaimaCheckpoint.Sidecar(Output);
+        HeaderStart = 8 * Job.HPosc;
+        HeaderBytes = 8L * Job.HeaderLength;
+        HashSize = (Hash != null) ? Hash.hashSize() : 0;
+        // Solo se decodifican los bloques del archivo original y de su HASH
+        DataLength = (Job.InputSize - HeaderBytes) & ~15L;
+        Total = (Job.Length + HashSize + 15) & ~15L;
+        if ((HeaderStart > DataLength) || (Total > DataLength)) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo Decodificar el archivo " + Input.getAbsoluteFilePath(), ERROR_DECODEC, CuaimaFile.CLASSID + "112");
+        }
+        // Continua la secuencia de CCPT desde el punto de control
+        synchronized (CCPT) {
+            CCPT.SetRunState(Job.State);
+        }
+        Posc = Job.Index;
+        Meter.Total(Job.Length);
+        Meter.Phase(CryptoFileProgress.PHASE_BODY);
+        Restore(Out, Job.Processed(), Hash, Job, Output, In, Out);
+        Meter.Set(Job.Processed());
+        Saved = Posc;
+        InputBuffer = PooledBuffer();
+        // Los bloques no exceden el intervalo entre puntos de control
+        Window = (int) Math.min(InputBuffer.length, (Interval + 15) & ~15L);
+        OrgDigest = new byte[HashSize];
+        // El Hash se calcula en su propia hebra con cada rebanada ya decodificada
+        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+        Cipher = Buf -> {
+            synchronized (CCPT) {
+                CCPT.Decodec(Buf);
+            }
+        };
+        while (Posc < Total) {
+            End = Math.min(Total, Posc + Window);
+            Len = (int) (End - Posc);
+            // Espera que el Hash libere el buffer
+            if (Hasher != null) {
+                Hasher.Sync();
+            }
+            try {
+                MappedFileCodec.ReadData(In, Posc, HeaderStart, HeaderBytes, ByteBuffer.wrap(InputBuffer, 0, Len));
+            } catch (IOException ex) {
+                CloseQuietly(In);
+                CloseQuietly(Out);
+                synchronized (this) {
+                    this.Progress = -1;
+                }
+                throw new UtilsException("ERROR: NO se pudo leer el archivo " + Input.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "113");
+            }
+            // Decodifica entregando al Hash los bytes del archivo original
+            Real = (int) Math.max(0, Math.min(End, Job.Length) - Posc);
+            if (Hasher != null) {
+                Hasher.Decodec(InputBuffer, 0, Len, Real, Cipher);
+            } else {
+                synchronized (CCPT) {
+                    CCPT.Decodec(InputBuffer, 0, Len);
+                }
+            }
+            // Escribe los bytes del archivo original y recupera el HASH Original
+            if (Real > 0) {
+                try {
+                    MappedFileCodec.WriteFully(Out, ByteBuffer.wrap(InputBuffer, 0, Real), Posc);
+                } catch (IOException ex) {
+                    CloseQuietly(In);
+                    CloseQuietly(Out);
+                    synchronized (this) {
+                        this.Progress = -1;
+                    }
+                    throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "114");
+                }
+            }
+            for (i = Real; i < Len; i++) {
+                if (Posc + i - Job.Length < HashSize) {
+                    OrgDigest[(int) (Posc + i - Job.Length)] = InputBuffer[i];
+                }
+            }
+            Posc = End;
+            // Calcula el Porcentaje de Avance en al decodificacion del Archivo
+            Meter.Set(Math.min(Posc, Job.Length));
+            DTemp = (Posc * 100) / Total;
+            if (DTemp == 100) {
+                DTemp = 99;
+            }
+            synchronized (this) {
+                this.Progress = (int) DTemp;
+            }
+            if ((Interval > 0) && (Posc < Job.Length) && (Posc - Saved >= Interval)) {
+                Checkpoint(Job, Posc, Hash, Hasher, Sidecar, Output, In, Out);
+                Saved = Posc;
+            }
+        }
+        // Verifica el HASH Original
+        if ((Hasher != null) && (!Arrays.equals(OrgDigest, Hasher.Digest()))) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            // El archivo decodificado no es valido y no se debe conservar
+            Sidecar.delete();
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH, CuaimaFile.CLASSID + "115");
+        }
+        try {
+            In.close();
+        } catch (IOException ex) {
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Input.getAbsoluteFilePath(), ERROR_CLOSEINFILE, CuaimaFile.CLASSID + "116");
+        }
+        try {
+            Out.close();
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede cerrar el archivo " + Output.getAbsoluteFilePath(), ERROR_CLOSEOUTFILE, CuaimaFile.CLASSID + "117");
+        }
+        // El proceso concluyo, el punto de control ya no es necesario
+        Sidecar.delete();
+    }
+
+    /**
+     * Al continuar desde un punto de control, recalcula en Hash los primeros
+     * 'Length' bytes del archivo original contenidos en Source y verifica que
+     * coincidan con el HASH guardado en Job; sin HASH o sin bytes procesados
+     * no hace nada.
+     *
+     * @param Source Archivo que contiene el archivo original desde el inicio
+     * @param Length Bytes procesados antes del punto de control
+     * @param Hash Algoritmo de HASH o null
+     * @param Job Punto de control
+     * @param File Archivo de Source, para los mensajes de error
+     * @param In Archivo de entrada, se cierra en caso de error
+     * @param Out Archivo de salida, se cierra en caso de error
+     * @throws UtilsException si no se pudo leer Source o el HASH no coincide
+     */
+    private void Restore(FileChannel Source, long Length, BaseHash Hash, CuaimaCheckpoint Job, FileManager File, FileChannel In, FileChannel Out) throws UtilsException {
+        ByteBuffer Buffer;
+        long Posc;
+        int Len;
+
+        if ((Hash == null) || (Length == 0)) {
+            return;
+        }
+        Buffer = ByteBuffer.wrap(PooledBuffer());
+        try {
+            Posc = 0;
+            while (Posc < Length) {
+                Buffer.clear();
+                Buffer.limit((int) Math.min(Buffer.capacity(), Length - Posc));
+                Len = Source.read(Buffer, Posc);
+                if (Len < 0) {
+                    throw new EOFException("Unexpected end of the processed data");
+                }
+                Hash.update(Buffer.array(), 0, Len);
+                Posc += Len;
+            }
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo leer el archivo " + File.getAbsoluteFilePath(), ERROR_NOREADINFILE, CuaimaFile.CLASSID + "092");
+        }
+        if (!Arrays.equals(((BaseHash) Hash.clone()).digest(), Job.Fingerprint)) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: Los datos procesados NO coinciden con el punto de control", ERROR_HASHNOMACH, CuaimaFile.CLASSID + "093");
+        }
+    }
+
+    /**
+     * Guarda el punto de control con el siguiente segmento Index, o el
+     * siguiente byte del flujo de datos y el estado de CCPT en el formato
+     * clasico, despues de llevar al disco lo escrito en Out.
+     *
+     * @param Job Punto de control
+     * @param Index Siguiente segmento o byte a procesar
+     * @param Hash Algoritmo de HASH o null
+     * @param Hasher Hebra del HASH o null
+     * @param Sidecar Archivo del punto de control
+     * @param Output Archivo de salida, para los mensajes de error
+     * @param In Archivo de entrada, se cierra en caso de error
+     * @param Out Archivo de salida
+     * @throws UtilsException si no se pudo escribir el punto de control
+     */
+    private void Checkpoint(CuaimaCheckpoint Job, long Index, BaseHash Hash, ParallelHash Hasher, File Sidecar, FileManager Output, FileChannel In, FileChannel Out) throws UtilsException {
+
+        Job.Index = Index;
+        // El formato clasico continua la secuencia de CCPT del flujo de datos
+        if (Job.Classic()) {
+            synchronized (CCPT) {
+                Job.State = CCPT.GetRunState();
+            }
+        }
+        if (Hasher != null) {
+            Hasher.Sync();
+            Job.Fingerprint = ((BaseHash) Hash.clone()).digest();
+        }
+        try {
+            Out.force(false);
+            Job.Save(Sidecar, CCPT);
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede escribir el punto de control de " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "094");
+        }
+    }
+
+    /**
+     * Continua desde su punto de control el proceso, con el formato segmentado
+     * o el clasico, que genera el archivo Output a partir de Input.
+     *
+     * @throws UtilsException
+     */
+    private void PrivResume() throws UtilsException {
+        FileManager Input;
+        FileManager Output;
+        FileChannel In;
+        FileChannel Out;
+        CuaimaCheckpoint Job;
+        BaseHash Hash;
+        long Written;
+
+        Input = FileParameters.getInput();
+        Output = FileParameters.getOutput();
+        if ((Input == null) || (Output == null) || (!Input.isFile()) || (!Output.isFile())) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: Archivos del proceso a continuar NO definidos", ERROR_FILEPARAMETERS, CuaimaFile.CLASSID + "095");
+        }
+        if (PasswdLength <= 0) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: Clave NO definida para continuar el proceso", ERROR_PASSWD, CuaimaFile.CLASSID + "096");
+        }
+        synchronized (this) {
+            this.Progress = 0;
+        }
+        // Recupera el punto de control, que solo se decodifica con la misma clave
+        synchronized (CCPT) {
+            CCPT.Reset();
+        }
+        try {
+            Job = CuaimaCheckpoint.Load(CuaimaCheckpoint.Sidecar(Output), CCPT);
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo recuperar el punto de control de " + Output.getAbsoluteFilePath(), ERROR_FILEPARAMETERS, CuaimaFile.CLASSID + "097");
+        }
+        // Verifica que los archivos correspondan al punto de control
+        if (Job.Mode == CuaimaCheckpoint.CODEC) {
+            Written = Job.DataStart() + Job.Index * Job.SegSize;
+        } else if (Job.Mode == CuaimaCheckpoint.CLASSICCODEC) {
+            // El archivo codificado se dimensiona completo al iniciar
+            Written = 8 * Job.OutputLength;
+        } else {
+            Written = Job.Processed();
+        }
+        if ((Input.getFileLength() != Job.InputSize) || (Output.getFileLength() < Written)) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: Los archivos NO corresponden al punto de control de " + Output.getAbsoluteFilePath(), ERROR_FILEPARAMETERS, CuaimaFile.CLASSID + "098");
+        }
+        Hash = NewHash(Job.HashType);
+        if (Hash != null) {
+            Hash.reset();
+        }
+        try {
+            In = FileChannel.open(Paths.get(Input.getAbsoluteFilePath()), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Input.getAbsoluteFilePath(), ERROR_OPENINFILE, CuaimaFile.CLASSID + "099");
+        }
+        try {
+            Out = FileChannel.open(Paths.get(Output.getAbsoluteFilePath()), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se pudo abrir el archivo " + Output.getAbsoluteFilePath(), ERROR_CREATEOUTFILE, CuaimaFile.CLASSID + "100");
+        }
+        // Descarta lo escrito despues del punto de control
+        try {
+            Out.truncate(Written);
+        } catch (IOException ex) {
+            CloseQuietly(In);
+            CloseQuietly(Out);
+            synchronized (this) {
+                this.Progress = -1;
+            }
+            throw new UtilsException("ERROR: NO se puede escribir en el archivo " + Output.getAbsoluteFilePath(), ERROR_WRITEOUTFILE, CuaimaFile.CLASSID + "101");
+        }
+        switch (Job.Mode) {
+            case CuaimaCheckpoint.CODEC:
+                CodecSegments(Input, Output, In, Out, Job, Hash, new MersenneTwisterPlus());
+                break;
+            case CuaimaCheckpoint.DECODEC:
+                DecodecSegments(Input, Output, In, Out, Job, Hash);
+                break;
+            case CuaimaCheckpoint.CLASSICCODEC:
+                CodecClassic(Input, Output, In, Out, Job, Hash, new MersenneTwisterPlus());
+                break;
+            default:
+                DecodecClassic(Input, Output, In, Out, Job, Hash);
+        }
+        synchronized (this) {
+            this.Progress = 100;
+        }
+    }
+
+    @Override
+    public int Progress() {
+        return this.Progress;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return this.Done;
+    }
+
+    /**
+     * Realiza la codificacion de un archivo, del que recibe en Input el objeto
+     * que lo define, en base a la clave con la cual se inicializo el algoritmo;
+     * generando el archivo codificado especificado en Output; si Output es
+     * 'null' utiliza el mismo nombre del archivo de entrada y le agrega la
+     * extencion .ccpt
+     *
+     * Si Output existe es borrado de forma NO SEGURA porque se presupone que si
+     * existe es un archivo ya codificado.
+     *
+     * En opciones se especifican los parametros de configuracion del algoritmo
+     * concatenados con 'or' |
+     *
+     * Ejemplo de Como Manejar la excepcion de no poder abrir el archivo de
+     * entrada try { Salida=CuaimaFile.Codec(Entrada,null,CuimaFile.SHA1); }
+     * catch (UtilsException e) { if(e.getErrorCode()==CuaimaFile.NOOPENINFILE){
+     * System.out.println("NO SE PUEDE ABRIR El ARCHIVO DE ENTRADA!!!"); } }
+     *
+     * @param Input Objeto que define el archivo a codificar
+     * @param Output Objeto que define el archivo codificado
+     * @param Opciones Parametros de configuracion del codificador
+     */
+    public synchronized void Codec(FileManager Input, FileManager Output, int Opciones) {
+        MersenneTwisterPlus Random;
+
+        if ((this.Ejecutando == null) || (this.Ejecutando.getState() == Thread.State.TERMINATED)) {
+            Random = new MersenneTwisterPlus();
+            this.Progress = 0;
+            this.FileParameters = new FileOperationParameters(Input, Output, Opciones);
+            this.Coding = true;
+            this.Resuming = false;
+            this.Ejecutando = new Thread(this);
+            this.Ejecutando.setName(this.CLASSID + "[" + Long.toHexString(Random.nextLong63()) + "]");
+            this.Ejecutando.start();
+        }
+    }
+
+    /**
+     * Realiza la decodificacion de un archivo que recibe en Input en base a la
+     * clave con la cual se inicializo el algoritmo.
+     *
+     * La salida la coloca en el archivo especificada por Output, si este es
+     * 'null' se utiliza la ruta donde esta el archivo original y el nombre
+     * original del archivo codificado
+     *
+     * Ejemplo de Como Manejar la excepcion de no poder abrir el archivo de
+     * entrada try { Salida=CuaimaFile.Codec(Entrada,null,CuimaFile.SHA1); }
+     * catch (UtilsException e) { if(e.getErrorCode()==CuaimaFile.NOOPENINFILE){
+     * System.out.println("NO SE PUEDE ABRIR El ARCHIVO DE ENTRADA!!!"); } }
+     *
+     * @param Input
      * @param Output
      */
     public synchronized void Decodec(FileManager Input, FileManager Output) {
@@ -1383,12 +3269,178 @@ public class CuaimaFile implements CryptoFile, Runnable {
             this.Progress = 0;
             this.FileParameters = new FileOperationParameters(Input, Output, 0);
             this.Coding = false;
+            this.Resuming = false;
             this.Ejecutando = new Thread(this);
             this.Ejecutando.setName(this.CLASSID + "[" + Long.toHexString(Random.nextLong63()) + "]");
             this.Ejecutando.start();
         }
     }
 
+    /**
+     * Realiza la codificacion de un archivo igual que Codec, pero en la hebra
+     * que lo invoca, retornando cuando el proceso concluye; permite reutilizar
+     * la instancia, con su clave ya inicializada, desde una hebra de trabajo
+     * propia sin crear una hebra por archivo.
+     *
+     * @param Input Objeto que define el archivo a codificar
+     * @param Output Objeto que define el archivo codificado
+     * @param Opciones Parametros de configuracion del codificador
+     * @return Codigo de Error del proceso, 0 si concluyo sin errores
+     * @throws IllegalStateException si la instancia esta procesando otro
+     * archivo
+     */
+    public int CodecSync(FileManager Input, FileManager Output, int Opciones) {
+        return RunSync(Input, Output, Opciones, true, false);
+    }
+
+    /**
+     * Realiza la decodificacion de un archivo igual que Decodec, pero en la
+     * hebra que lo invoca, retornando cuando el proceso concluye.
+     *
+     * @param Input Archivo a decodificar
+     * @param Output Archivo de salida
+     * @return Codigo de Error del proceso, 0 si concluyo sin errores
+     * @throws IllegalStateException si la instancia esta procesando otro
+     * archivo
+     */
+    public int DecodecSync(FileManager Input, FileManager Output) {
+        return RunSync(Input, Output, 0, false, false);
+    }
+
+    /**
+     * Continua desde su ultimo punto de control un proceso de codificacion o
+     * decodificacion, con el formato segmentado o el clasico, que fue
+     * interrumpido, en base a la misma clave con la cual se inicio.
+     *
+     * Input y Output deben ser los mismos archivos del proceso original, con
+     * Output ya resuelto (no un directorio ni null); el archivo de entrada
+     * debe conservar su tamaño y los bytes procesados antes del punto de
+     * control deben tener el mismo HASH, o el proceso termina con
+     * ERROR_FILEPARAMETERS o ERROR_HASHNOMACH conservando Output y su punto
+     * de control.
+     *
+     * El archivo resultante se decodifica igual que el de un proceso sin
+     * interrupciones; solo puede variar el relleno aleatorio.
+     *
+     * @param Input Archivo de entrada del proceso interrumpido
+     * @param Output Archivo de salida parcial del proceso interrumpido
+     */
+    public synchronized void Resume(FileManager Input, FileManager Output) {
+        MersenneTwisterPlus Random;
+
+        if ((this.Ejecutando == null) || (this.Ejecutando.getState() == Thread.State.TERMINATED)) {
+            Random = new MersenneTwisterPlus();
+            this.Progress = 0;
+            this.FileParameters = new FileOperationParameters(Input, Output, 0);
+            this.Resuming = true;
+            this.Ejecutando = new Thread(this);
+            this.Ejecutando.setName(CuaimaFile.CLASSID + "[" + Long.toHexString(Random.nextLong63()) + "]");
+            this.Ejecutando.start();
+        }
+    }
+
+    /**
+     * Continua un proceso interrumpido igual que Resume, pero en la hebra que
+     * lo invoca, retornando cuando el proceso concluye.
+     *
+     * @param Input Archivo de entrada del proceso interrumpido
+     * @param Output Archivo de salida parcial del proceso interrumpido
+     * @return Codigo de Error del proceso, 0 si concluyo sin errores
+     * @throws IllegalStateException si la instancia esta procesando otro
+     * archivo
+     */
+    public int ResumeSync(FileManager Input, FileManager Output) {
+        return RunSync(Input, Output, 0, false, true);
+    }
+
+    /**
+     * Retorna si el archivo de salida Output tiene un punto de control de un
+     * proceso interrumpido que se puede continuar con Resume.
+     *
+     * @param Output Archivo de salida del proceso
+     * @return TRUE si existe el punto de control
+     */
+    public static boolean hasCheckpoint(FileManager Output) {
+        return (Output != null) && Output.isFile() && CuaimaCheckpoint.Sidecar(Output).isFile();
+    }
+
+    /**
+     * Ejecuta el proceso en la hebra que lo invoca, la cual ocupa el lugar de
+     * la hebra de ejecucion mientras dura el proceso
+     */
+    private int RunSync(FileManager Input, FileManager Output, int Opciones, boolean Coding, boolean Resuming) {
+        Thread Previous;
+
+        synchronized (this) {
+            if ((this.Ejecutando != null) && (this.Ejecutando.getState() != Thread.State.TERMINATED)) {
+                throw new IllegalStateException("The instance is already processing a file");
+            }
+            Previous = this.Ejecutando;
+            this.Progress = 0;
+            this.FileParameters = new FileOperationParameters(Input, Output, Opciones);
+            this.Coding = Coding;
+            this.Resuming = Resuming;
+            this.Ejecutando = Thread.currentThread();
+        }
+        try {
+            this.run();
+        } finally {
+            synchronized (this) {
+                this.Ejecutando = Previous;
+            }
+        }
+        return this.getErrorCode();
+    }
+
+    /**
+     * Decodifica solo los bytes Offset a Offset+Length-1 del archivo original
+     * contenido en Input, que debe tener el formato segmentado (opcion
+     * SEGMENTED), en la hebra que lo invoca.
+     *
+     * Como cada segmento tiene su propia clave y todos, excepto el ultimo,
+     * tienen el mismo tamaño, la posicion de cada segmento se calcula a partir
+     * del encabezado y solo se leen y decodifican los segmentos que contienen
+     * el rango; el costo es a lo sumo de un segmento adicional por cada
+     * extremo del rango, por lo que segmentos mas pequeños permiten accesos
+     * mas finos.
+     *
+     * El HASH del archivo cubre el archivo completo, por lo que NO se verifica
+     * al decodificar un rango.
+     *
+     * @param Input Archivo codificado con el formato segmentado
+     * @param Offset Posicion del primer byte en el archivo original
+     * @param Length Numero de bytes a decodificar
+     * @return Bytes decodificados, menos de Length si el rango pasa del fin
+     * del archivo original
+     * @throws UtilsException si no se pudo leer el archivo, la clave no esta
+     * definida o el archivo no tiene el formato segmentado
+     * @throws IllegalArgumentException si Input es null, Offset o Length son
+     * negativos
+     * @throws IllegalStateException si la instancia esta procesando otro
+     * archivo
+     */
+    public byte[] DecodecRange(FileManager Input, long Offset, int Length) throws UtilsException {
+        Thread Previous;
+
+        if ((Input == null) || (Offset < 0) || (Length < 0)) {
+            throw new IllegalArgumentException("Invalid input file or range");
+        }
+        synchronized (this) {
+            if ((this.Ejecutando != null) && (this.Ejecutando.getState() != Thread.State.TERMINATED)) {
+                throw new IllegalStateException("The instance is already processing a file");
+            }
+            Previous = this.Ejecutando;
+            this.Ejecutando = Thread.currentThread();
+        }
+        try {
+            return PrivDecodecRange(Input, Offset, Length);
+        } finally {
+            synchronized (this) {
+                this.Ejecutando = Previous;
+            }
+        }
+    }
+
     /**
      * Recupera el codigo de Error de la Ejecucion del algoritmo
      *
@@ -1439,14 +3491,24 @@ public class CuaimaFile implements CryptoFile, Runnable {
      */
     @Override
     public void run() {
+        ProgressMeter Medidor;
+        int Error;
 
         synchronized (this) {
             this.Done = false;
             this.ErrorCode = 0;
+            Medidor = new ProgressMeter(this.Listener, this.ListenerInterval, this.ListenerStep);
+            this.Meter = Medidor;
         }
         try {
-            if (this.Coding) {
-                this.PrivCodec();
+            if (this.Resuming) {
+                this.PrivResume();
+            } else if (this.Coding) {
+                if ((this.FileParameters != null) && ((this.FileParameters.getOpciones() & SEGMENTED) != 0)) {
+                    this.PrivCodecSegments();
+                } else {
+                    this.PrivCodec();
+                }
             } else {
                 this.PrivDecodec();
             }
@@ -1461,7 +3523,10 @@ public class CuaimaFile implements CryptoFile, Runnable {
                     if (this.FileParameters.Output.Exists()) {
                         if (this.FileParameters.Output.isFile()) {
                             this.FileParameters.Output.Close();
-                            this.FileParameters.Output.Wipe();
+                            // Conserva el archivo parcial que se puede continuar desde su punto de control
+                            if ((!this.Resuming) && (!hasCheckpoint(this.FileParameters.Output))) {
+                                this.FileParameters.Output.Wipe();
+                            }
                         }
                     }
                 }
@@ -1473,8 +3538,18 @@ public class CuaimaFile implements CryptoFile, Runnable {
             }
             this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, CuaimaFile.CLASSID, "041");
         } finally {
+            // Devuelve el buffer del proceso al pool compartido
+            BufferPool.Shared().Release(this.Pooled);
+            this.Pooled = null;
             synchronized (this) {
                 this.Done = true;
+                Error = this.ErrorCode;
+            }
+            // Notifica la conclusion del proceso al receptor del avance
+            if ((Error == 0) && (this.Progress == 100)) {
+                Medidor.Complete();
+            } else {
+                Medidor.Error(Error);
             }
         }
     }
@@ -0,0 +1,409 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.digest.BaseHash;
+import com.bolivartech.crypto.digest.CRC32;
+import com.bolivartech.crypto.digest.CRC64;
+import com.bolivartech.crypto.digest.Has160;
+import com.bolivartech.crypto.digest.Haval;
+import com.bolivartech.crypto.digest.MD2;
+import com.bolivartech.crypto.digest.MD4;
+import com.bolivartech.crypto.digest.MD5;
+import com.bolivartech.crypto.digest.RipeMD128;
+import com.bolivartech.crypto.digest.RipeMD160;
+import com.bolivartech.crypto.digest.Sha0;
+import com.bolivartech.crypto.digest.Sha160;
+import com.bolivartech.crypto.digest.Sha224;
+import com.bolivartech.crypto.digest.Sha256;
+import com.bolivartech.crypto.digest.Sha384;
+import com.bolivartech.crypto.digest.Sha512;
+import com.bolivartech.crypto.digest.Tiger;
+import com.bolivartech.crypto.digest.Tiger128;
+import com.bolivartech.crypto.digest.Tiger160;
+import com.bolivartech.crypto.digest.Tiger2;
+import com.bolivartech.crypto.digest.Whirlpool;
+import com.bolivartech.crypto.digest.Whirlpool2000;
+import com.bolivartech.crypto.digest.Whirlpool2003;
+import com.bolivartech.crypto.interfaces.CryptoStream;
+import com.bolivartech.utils.converters.Converter;
+import com.bolivartech.utils.random.MersenneTwisterPlus;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Soporte del formato por registros de CuaimaStream (VERSION 2), compartido
+ * por CuaimaStream, CuaimaOutputStream, CuaimaInputStream,
+ * CuaimaWritableChannel y CuaimaReadableChannel.</p>
+ *
+ * <p>
+ * El stream empieza con el encabezado de 32 bytes de CuaimaStream, seguido de
+ * registros codificados con la misma instancia de CuaimaCrypt. Cada registro
+ * tiene un encabezado de HEAD bytes con 4 bytes de ofuscacion, el tipo, la
+ * longitud de los datos y la marca RECORDMARK, seguido de los datos
+ * completados a multiplo de 16 bytes con bytes de ofuscacion. El ultimo
+ * registro es FINAL, con el HASH de los datos, o ABORT si el emisor
+ * interrumpio el stream.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.1.0
+ *
+ * <p>
+ * Change Log:
+ * </p>
+ * <ul>
+ * <li>v1.1.0 (2026-10-18) Registros sobre ByteBuffer para los canales de
+ * NIO.</li>
+ * </ul>
+ */
+final class CuaimaFrames {
+
+    /**
+     * Version del formato por registros de CuaimaStream
+     */
+    static final short VERSION = 2;
+
+    /**
+     * Tamaño del encabezado del stream en bytes
+     */
+    static final int STREAMHEAD = 32;
+
+    /**
+     * Tamaño del encabezado de los registros en bytes
+     */
+    static final int HEAD = 16;
+
+    /**
+     * Registro de datos
+     */
+    static final int DATA = 1;
+
+    /**
+     * Ultimo registro, que contiene el HASH de los datos
+     */
+    static final int FINAL = 2;
+
+    /**
+     * Ultimo registro de un stream interrumpido por el emisor
+     */
+    static final int ABORT = 3;
+
+    /**
+     * Mascara para recuperar el valor del algoritmo de HASH
+     */
+    static final int HASHMASK = 62;
+
+    // Marca del encabezado del stream
+    private static final long MARK = Converter.byte2long("CCPTTPCC".getBytes(StandardCharsets.US_ASCII))[0];
+    // Marca del encabezado de los registros
+    private static final byte RECORDMARK[] = "CCPT".getBytes(StandardCharsets.US_ASCII);
+
+    private CuaimaFrames() {
+    }
+
+    /**
+     * Genera el encabezado sin codificar de un stream
+     *
+     * @param HashType Tipo de HASH de los datos
+     * @param Version Version del formato del stream
+     * @param Rand Generador de los bytes de ofuscacion
+     * @return Encabezado de 4 palabras de 64 bits
+     */
+    static long[] Header(int HashType, int Version, MersenneTwisterPlus Rand) {
+        long Header[];
+
+        Header = new long[4];
+        Header[0] = (Rand.nextLong() << 32) | (MARK >>> 32);  // BYTES de OFUSCACION
+        Header[1] = (MARK << 32) | (Rand.nextLong() >>> 32);  // BYTES de OFUSCACION
+        Header[2] = Rand.nextLong();  // BYTES de OFUSCACION
+        Header[3] = Rand.nextLong() << 32;  // BYTES de OFUSCACION
+        Header[3] |= (HashType & HASHMASK) << 26;  // Hash usado en el mensaje
+        Header[3] |= Version & 0xFF;    // VERSION DEL STREAM
+        return Header;
+    }
+
+    /**
+     * Verifica la marca del encabezado decodificado de un stream
+     *
+     * @param Header Encabezado decodificado
+     * @return TRUE si el encabezado tiene la marca o FALSE si no
+     */
+    static boolean HasMark(long Header[]) {
+
+        return ((Header[0] << 32) | (Header[1] >>> 32)) == MARK;
+    }
+
+    /**
+     * @param Header Encabezado decodificado
+     * @return Version del formato del stream
+     */
+    static int Version(long Header[]) {
+        return (int) (Header[3] & 0xFFL);
+    }
+
+    /**
+     * @param Header Encabezado decodificado
+     * @return Tipo de HASH de los datos
+     */
+    static int HashType(long Header[]) {
+        return ((int) (Header[3] >>> 26)) & HASHMASK;
+    }
+
+    /**
+     * Crea el algoritmo de HASH de HashType, usando Whirlpool2003 si el tipo
+     * no se conoce
+     *
+     * @param HashType Tipo de HASH de CryptoStream
+     * @return Algoritmo de HASH o null si HashType es NO_HASH
+     */
+    static BaseHash NewHash(int HashType) {
+        BaseHash Hash;
+
+        switch (HashType) {
+            case CryptoStream.HASH_WHIRLPOOL2003:
+                Hash = new Whirlpool2003();
+                break;
+            case CryptoStream.HASH_WHIRLPOOL2000:
+                Hash = new Whirlpool2000();
+                break;
+            case CryptoStream.HASH_WHIRLPOOL:
+                Hash = new Whirlpool();
+                break;
+            case CryptoStream.HASH_SHA0:
+                Hash = new Sha0();
+                break;
+            case CryptoStream.HASH_SHA1:
+                Hash = new Sha160();
+                break;
+            case CryptoStream.HASH_SHA224:
+                Hash = new Sha224();
+                break;
+            case CryptoStream.HASH_SHA256:
+                Hash = new Sha256();
+                break;
+            case CryptoStream.HASH_SHA384:
+                Hash = new Sha384();
+                break;
+            case CryptoStream.HASH_SHA512:
+                Hash = new Sha512();
+                break;
+            case CryptoStream.HASH_TIGER:
+                Hash = new Tiger();
+                break;
+            case CryptoStream.HASH_TIGER2:
+                Hash = new Tiger2();
+                break;
+            case CryptoStream.HASH_TIGER128:
+                Hash = new Tiger128();
+                break;
+            case CryptoStream.HASH_TIGER160:
+                Hash = new Tiger160();
+                break;
+            case CryptoStream.HASH_RIPEMD128:
+                Hash = new RipeMD128();
+                break;
+            case CryptoStream.HASH_RIPEMD160:
+                Hash = new RipeMD160();
+                break;
+            case CryptoStream.HASH_MD2:
+                Hash = new MD2();
+                break;
+            case CryptoStream.HASH_MD4:
+                Hash = new MD4();
+                break;
+            case CryptoStream.HASH_MD5:
+                Hash = new MD5();
+                break;
+            case CryptoStream.HASH_HAVAL128:
+                Hash = new Haval(Haval.HAVAL_128_BIT);
+                break;
+            case CryptoStream.HASH_HAVAL160:
+                Hash = new Haval(Haval.HAVAL_160_BIT);
+                break;
+            case CryptoStream.HASH_HAVAL192:
+                Hash = new Haval(Haval.HAVAL_192_BIT);
+                break;
+            case CryptoStream.HASH_HAVAL224:
+                Hash = new Haval(Haval.HAVAL_224_BIT);
+                break;
+            case CryptoStream.HASH_HAVAL256:
+                Hash = new Haval(Haval.HAVAL_256_BIT);
+                break;
+            case CryptoStream.HASH_HAS160:
+                Hash = new Has160();
+                break;
+            case CryptoStream.HASH_CRC32:
+                Hash = new CRC32();
+                break;
+            case CryptoStream.HASH_CRC64:
+                Hash = new CRC64();
+                break;
+            case CryptoStream.NO_HASH:
+                Hash = null;
+                break;
+            default:
+                Hash = new Whirlpool2003();
+        }
+        if (Hash != null) {
+            Hash.reset();
+        }
+        return Hash;
+    }
+
+    /**
+     * Escribe al inicio de Buffer el encabezado de un registro de tipo Type
+     * cuyos Length bytes de datos ya estan en Buffer a partir de HEAD, y
+     * completa los datos a multiplo de 16 con bytes de ofuscacion.
+     *
+     * @param Buffer Buffer del registro
+     * @param Type Tipo del registro
+     * @param Length Numero de bytes de datos
+     * @param Rand Generador de los bytes de ofuscacion
+     * @return Tamaño del registro en bytes
+     */
+    static int Record(byte Buffer[], int Type, int Length, MersenneTwisterPlus Rand) {
+        return Record(ByteBuffer.wrap(Buffer), Type, Length, Rand);
+    }
+
+    /**
+     * Escribe al inicio de Buffer, con posiciones absolutas, el encabezado de
+     * un registro de tipo Type cuyos Length bytes de datos ya estan en Buffer
+     * a partir de HEAD, y completa los datos a multiplo de 16 con bytes de
+     * ofuscacion.
+     *
+     * @param Buffer Buffer del registro
+     * @param Type Tipo del registro
+     * @param Length Numero de bytes de datos
+     * @param Rand Generador de los bytes de ofuscacion
+     * @return Tamaño del registro en bytes
+     */
+    static int Record(ByteBuffer Buffer, int Type, int Length, MersenneTwisterPlus Rand) {
+        int i, End;
+
+        for (i = 0; i < 4; i++) {
+            Buffer.put(i, Rand.nextByte());
+        }
+        PutInt(Buffer, 4, Type);
+        PutInt(Buffer, 8, Length);
+        for (i = 0; i < RECORDMARK.length; i++) {
+            Buffer.put(12 + i, RECORDMARK[i]);
+        }
+        End = HEAD + Padded(Length);
+        for (i = HEAD + Length; i < End; i++) {
+            Buffer.put(i, Rand.nextByte());
+        }
+        return End;
+    }
+
+    /**
+     * @param Buffer Encabezado decodificado del registro
+     * @return Tipo del registro
+     */
+    static int RecordType(byte Buffer[]) {
+        return RecordType(ByteBuffer.wrap(Buffer));
+    }
+
+    /**
+     * @param Buffer Encabezado decodificado del registro, al inicio del buffer
+     * @return Tipo del registro
+     */
+    static int RecordType(ByteBuffer Buffer) {
+        return GetInt(Buffer, 4);
+    }
+
+    /**
+     * Recupera la longitud de los datos del encabezado decodificado de un
+     * registro, verificando su marca
+     *
+     * @param Buffer Encabezado decodificado del registro
+     * @return Numero de bytes de datos o -1 si el encabezado no es valido
+     */
+    static int RecordLength(byte Buffer[]) {
+        return RecordLength(ByteBuffer.wrap(Buffer));
+    }
+
+    /**
+     * Recupera la longitud de los datos del encabezado decodificado de un
+     * registro, al inicio del buffer, verificando su marca
+     *
+     * @param Buffer Encabezado decodificado del registro
+     * @return Numero de bytes de datos o -1 si el encabezado no es valido
+     */
+    static int RecordLength(ByteBuffer Buffer) {
+        int i, Length;
+
+        Length = GetInt(Buffer, 8);
+        for (i = 0; i < RECORDMARK.length; i++) {
+            if (Buffer.get(12 + i) != RECORDMARK[i]) {
+                Length = -1;
+            }
+        }
+        if (Length > Integer.MAX_VALUE - 16) {
+            Length = -1;
+        }
+        return Length;
+    }
+
+    /**
+     * @param Length Numero de bytes de datos
+     * @return Numero de bytes de datos completado a multiplo de 16
+     */
+    static int Padded(int Length) {
+        return (Length + 15) & ~15;
+    }
+
+    /**
+     * Actualiza Hash con los bytes de Buffer entre position y limit sin mover
+     * su posicion; los buffers que no estan en el heap se copian por partes en
+     * Scratch, ya que los algoritmos de HASH solo procesan arreglos
+     *
+     * @param Hash Algoritmo de HASH
+     * @param Buffer Datos a procesar
+     * @param Scratch Buffer temporal para los ByteBuffer fuera del heap
+     */
+    static void Update(BaseHash Hash, ByteBuffer Buffer, byte Scratch[]) {
+        ByteBuffer Slice;
+        int Len;
+
+        if (Buffer.hasArray()) {
+            Hash.update(Buffer.array(), Buffer.arrayOffset() + Buffer.position(), Buffer.remaining());
+        } else {
+            Slice = Buffer.duplicate();
+            while (Slice.hasRemaining()) {
+                Len = Math.min(Scratch.length, Slice.remaining());
+                Slice.get(Scratch, 0, Len);
+                Hash.update(Scratch, 0, Len);
+            }
+        }
+    }
+
+    /**
+     * Escribe Value en Buffer a partir de Posc en orden Big Endian
+     */
+    private static void PutInt(ByteBuffer Buffer, int Posc, int Value) {
+        Buffer.put(Posc, (byte) (Value >>> 24));
+        Buffer.put(Posc + 1, (byte) (Value >>> 16));
+        Buffer.put(Posc + 2, (byte) (Value >>> 8));
+        Buffer.put(Posc + 3, (byte) Value);
+    }
+
+    /**
+     * Lee un entero de Buffer a partir de Posc en orden Big Endian
+     */
+    private static int GetInt(ByteBuffer Buffer, int Posc) {
+        return ((Buffer.get(Posc) & 0xFF) << 24) | ((Buffer.get(Posc + 1) & 0xFF) << 16) | ((Buffer.get(Posc + 2) & 0xFF) << 8) | (Buffer.get(Posc + 3) & 0xFF);
+    }
+}
@@ -0,0 +1,362 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import com.bolivartech.crypto.digest.BaseHash;
+import com.bolivartech.crypto.interfaces.CryptoStream;
+import com.bolivartech.utils.converters.Converter;
+import com.bolivartech.utils.exception.UtilsException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage:
+ * <a href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage:
+ * <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is the CuaimaCrypt's util for Decode Stream data.</p>
+ *
+ * <p>
+ * InputStream que decodifica con CuaimaCrypt un stream con el formato por
+ * registros de CuaimaStream (opcion FRAMED), generado por CuaimaStream.Codec o
+ * por CuaimaOutputStream, en la hebra que lo lee y sin hebras
+ * adicionales.</p>
+ *
+ * <p>
+ * Del InputStream subyacente solo se leen los bytes del registro en curso, y
+ * sus datos se entregan a medida que se decodifican usando un buffer de
+ * BufferSize bytes. El HASH de los datos se verifica al llegar al ultimo
+ * registro, antes de retornar el fin del stream, por lo que los datos leidos
+ * solo estan verificados cuando read retorna -1. Los errores se reportan con
+ * IOException, cuya causa es una UtilsException con el codigo de error de
+ * CryptoStream. Una instancia es usada por una sola hebra a la vez.</p>
+ *
+ * <ul>
+ * <li>Class ID: "TR74ID8"</li>
+ * <li>Loc: 000-009</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+public class CuaimaInputStream extends FilterInputStream {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "TR74ID8";
+
+    /**
+     * Tamaño por defecto del buffer en bytes
+     */
+    public static final int DEFAULTBUFFERSIZE = 8192;
+
+    /**
+     * Tamaño minimo del buffer en bytes
+     */
+    public static final int MINBUFFERSIZE = 128;
+
+    // Algoritmo de decodificacion
+    private final CuaimaCrypt CCPT;
+    // Algoritmo de HASH, se crea al leer el encabezado
+    private BaseHash Hash;
+    // Buffer de datos decodificados
+    private final byte Buffer[];
+    // Posicion del siguiente byte a entregar
+    private int Posc;
+    // Fin de los datos decodificados en el buffer
+    private int Limit;
+    // Bytes del registro en curso que faltan por leer, incluyendo el relleno
+    private int Remain;
+    // Bytes de datos del registro en curso que faltan por leer
+    private int Data;
+    // TRUE si ya se leyo el encabezado del stream
+    private boolean Started;
+    // TRUE si se llego al ultimo registro y se verifico el HASH
+    private boolean Finished;
+    // TRUE si el stream fue cerrado
+    private boolean Closed;
+
+    /**
+     * Constructor con el InputStream de entrada y el password, usando un
+     * buffer de DEFAULTBUFFERSIZE bytes
+     *
+     * @param Input InputStream de donde se leen los datos codificados
+     * @param Password Password a usar para inicializar el algoritmo
+     * @throws UtilsException si no se puede inicializar el password
+     */
+    public CuaimaInputStream(InputStream Input, String Password) throws UtilsException {
+        this(Input, Password, DEFAULTBUFFERSIZE);
+    }
+
+    /**
+     * Constructor con el InputStream de entrada, el password y el tamaño del
+     * buffer, que se ajusta a multiplo de 16 y a un minimo de MINBUFFERSIZE
+     * bytes
+     *
+     * @param Input InputStream de donde se leen los datos codificados
+     * @param Password Password a usar para inicializar el algoritmo
+     * @param BufferSize Tamaño del buffer en bytes
+     * @throws UtilsException si no se puede inicializar el password
+     */
+    public CuaimaInputStream(InputStream Input, String Password, int BufferSize) throws UtilsException {
+        super(Input);
+        if (Input == null) {
+            throw new UtilsException("ERROR: InputStream is NULL", CryptoStream.ERROR_NULLINPUTSTREAM, CuaimaInputStream.CLASSID + "000");
+        }
+        this.CCPT = new CuaimaCrypt();
+        if ((Password == null) || (this.CCPT.Password(Password) != 0)) {
+            this.CCPT.destroy();
+            throw new UtilsException("ERROR: NO se pudo inicializar CuaimaInputStream, falla al inicializar el Password", CryptoStream.ERROR_PASSWD, CuaimaInputStream.CLASSID + "001");
+        }
+        this.CCPT.Reset();
+        BufferSize = Math.max(BufferSize, MINBUFFERSIZE);
+        this.Buffer = new byte[BufferSize - (BufferSize % 16)];
+        this.Posc = 0;
+        this.Limit = 0;
+        this.Remain = 0;
+        this.Data = 0;
+        this.Started = false;
+        this.Finished = false;
+        this.Closed = false;
+    }
+
+    /**
+     * Lee un byte decodificado
+     *
+     * @return Byte leido o -1 al final del stream
+     * @throws IOException si falla la lectura o la decodificacion
+     */
+    @Override
+    public int read() throws IOException {
+
+        if ((Posc >= Limit) && (!Fill())) {
+            return -1;
+        }
+        return Buffer[Posc++] & 0xFF;
+    }
+
+    /**
+     * Lee hasta Len bytes decodificados en b a partir de Off
+     *
+     * @param b Buffer destino
+     * @param Off Posicion inicial
+     * @param Len Numero maximo de bytes
+     * @return Numero de bytes leidos o -1 al final del stream
+     * @throws IOException si falla la lectura o la decodificacion
+     */
+    @Override
+    public int read(byte b[], int Off, int Len) throws IOException {
+        int Size;
+
+        if ((Off < 0) || (Len < 0) || (Off > b.length - Len)) {
+            throw new IndexOutOfBoundsException("Invalid byte range: off=" + Off + " len=" + Len);
+        }
+        if (Len == 0) {
+            return 0;
+        }
+        if ((Posc >= Limit) && (!Fill())) {
+            return -1;
+        }
+        Size = Math.min(Len, Limit - Posc);
+        System.arraycopy(Buffer, Posc, b, Off, Size);
+        Posc += Size;
+        return Size;
+    }
+
+    /**
+     * Descarta hasta N bytes decodificados
+     *
+     * @param N Numero de bytes a descartar
+     * @return Numero de bytes descartados
+     * @throws IOException si falla la lectura o la decodificacion
+     */
+    @Override
+    public long skip(long N) throws IOException {
+        long Skipped;
+        int Size;
+
+        Skipped = 0;
+        while ((Skipped < N) && ((Posc < Limit) || Fill())) {
+            Size = (int) Math.min(N - Skipped, Limit - Posc);
+            Posc += Size;
+            Skipped += Size;
+        }
+        return Skipped;
+    }
+
+    /**
+     * @return Bytes decodificados que se pueden leer sin bloquear
+     * @throws IOException si el stream esta cerrado
+     */
+    @Override
+    public int available() throws IOException {
+
+        Check();
+        return Limit - Posc;
+    }
+
+    /**
+     * Cierra el InputStream subyacente y borra la clave y el buffer de la
+     * memoria
+     *
+     * @throws IOException si falla el cierre
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (!Closed) {
+            Closed = true;
+            Arrays.fill(Buffer, (byte) 0);
+            Posc = Limit = 0;
+            CCPT.destroy();
+            in.close();
+        }
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int ReadLimit) {
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * Decodifica los siguientes datos del stream en el buffer, leyendo los
+     * encabezados de los registros que encuentre
+     *
+     * @return TRUE si hay datos en el buffer o FALSE al final del stream
+     */
+    private boolean Fill() throws IOException {
+        int Length, Size;
+
+        Check();
+        Posc = Limit = 0;
+        while ((Limit == 0) && (!Finished)) {
+            if (!Started) {
+                Start();
+            } else if (Remain == 0) {
+                // Recupera el encabezado del siguiente registro
+                ReadFully(CuaimaFrames.HEAD);
+                CCPT.Decodec(Buffer, 0, CuaimaFrames.HEAD);
+                Length = CuaimaFrames.RecordLength(Buffer);
+                if (Length < 0) {
+                    throw Failure("ERROR: NO se pudo Decodificar el registro del Stream", CryptoStream.ERROR_DECODEC, "002");
+                }
+                switch (CuaimaFrames.RecordType(Buffer)) {
+                    case CuaimaFrames.DATA:
+                        Remain = CuaimaFrames.Padded(Length);
+                        Data = Length;
+                        break;
+                    case CuaimaFrames.FINAL:
+                        Verify(Length);
+                        Finished = true;
+                        break;
+                    case CuaimaFrames.ABORT:
+                        throw Failure("ERROR: Stream interrupted by the sender", CryptoStream.ERROR_INTERRUPTED, "003");
+                    default:
+                        throw Failure("ERROR: NO se pudo Decodificar el registro del Stream", CryptoStream.ERROR_DECODEC, "004");
+                }
+            } else {
+                // Decodifica la siguiente parte de los datos del registro
+                Size = Math.min(Remain, Buffer.length);
+                ReadFully(Size);
+                CCPT.Decodec(Buffer, 0, Size);
+                Limit = Math.min(Size, Data);
+                if (Hash != null) {
+                    Hash.update(Buffer, 0, Limit);
+                }
+                Data -= Limit;
+                Remain -= Size;
+            }
+        }
+        return (Limit > 0);
+    }
+
+    /**
+     * Lee y verifica el encabezado del stream
+     */
+    private void Start() throws IOException {
+        long Header[];
+
+        ReadFully(CuaimaFrames.STREAMHEAD);
+        Header = Converter.byte2long(Arrays.copyOf(Buffer, CuaimaFrames.STREAMHEAD));
+        CCPT.Decodec(Header, 0, Header.length / 2);
+        if (!CuaimaFrames.HasMark(Header)) {
+            throw Failure("ERROR: NO se pudo Decodificar el Stream", CryptoStream.ERROR_DECODEC, "005");
+        }
+        if (CuaimaFrames.Version(Header) != (CuaimaFrames.VERSION & 0xFF)) {
+            throw Failure("ERROR: Version NO soportada del Stream, se requiere la opcion FRAMED", CryptoStream.ERROR_VERSION, "006");
+        }
+        Hash = CuaimaFrames.NewHash(CuaimaFrames.HashType(Header));
+        Started = true;
+    }
+
+    /**
+     * Verifica el HASH del ultimo registro, de Length bytes
+     */
+    private void Verify(int Length) throws IOException {
+        byte Digest[];
+
+        if (Length != ((Hash != null) ? Hash.hashSize() : 0)) {
+            throw Failure("ERROR: HASH NO COINCIDEN", CryptoStream.ERROR_HASHNOMACH, "007");
+        }
+        if (Hash != null) {
+            ReadFully(CuaimaFrames.Padded(Length));
+            CCPT.Decodec(Buffer, 0, CuaimaFrames.Padded(Length));
+            Digest = Hash.digest();
+            if (!Arrays.equals(Digest, Arrays.copyOf(Buffer, Length))) {
+                throw Failure("ERROR: HASH NO COINCIDEN", CryptoStream.ERROR_HASHNOMACH, "008");
+            }
+        }
+    }
+
+    /**
+     * Lee del InputStream subyacente exactamente Length bytes al inicio del
+     * buffer
+     */
+    private void ReadFully(int Length) throws IOException {
+        int ReadPos, NumBytesReads;
+
+        ReadPos = 0;
+        while (ReadPos < Length) {
+            NumBytesReads = in.read(Buffer, ReadPos, Length - ReadPos);
+            if (NumBytesReads < 0) {
+                throw Failure("ERROR: Input Stream Early End Of Data", CryptoStream.ERROR_READINPUTSTREAM, "009");
+            }
+            ReadPos += NumBytesReads;
+        }
+    }
+
+    /**
+     * Crea la IOException de un error, con la UtilsException del codigo de
+     * error como causa
+     */
+    private static IOException Failure(String Message, int Code, String Loc) {
+        return new IOException(Message, new UtilsException(Message, Code, CuaimaInputStream.CLASSID + Loc));
+    }
+
+    /**
+     * Verifica que el stream no este cerrado
+     */
+    private void Check() throws IOException {
+
+        if (Closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
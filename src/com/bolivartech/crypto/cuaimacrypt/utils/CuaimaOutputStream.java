@@ -0,0 +1,261 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import com.bolivartech.crypto.digest.BaseHash;
+import com.bolivartech.crypto.interfaces.CryptoStream;
+import com.bolivartech.utils.converters.Converter;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.random.MersenneTwisterPlus;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage:
+ * <a href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage:
+ * <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is the CuaimaCrypt's util for Code Stream data.</p>
+ *
+ * <p>
+ * OutputStream que codifica con CuaimaCrypt los datos que se escriben en el,
+ * en la hebra que los escribe y sin hebras adicionales, enviandolos al
+ * OutputStream subyacente con el formato por registros de CuaimaStream
+ * (opcion FRAMED), por lo que se decodifican con CuaimaStream.Decodec o con
+ * CuaimaInputStream.</p>
+ *
+ * <p>
+ * Los datos se acumulan en un buffer de BufferSize bytes y se envian como un
+ * registro cuando el buffer se llena o cuando se invoca flush; close envia el
+ * ultimo registro con el HASH de los datos y cierra el OutputStream
+ * subyacente. Una instancia es usada por una sola hebra a la vez.</p>
+ *
+ * <ul>
+ * <li>Class ID: "TR74ID7"</li>
+ * <li>Loc: 000-001</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+public class CuaimaOutputStream extends FilterOutputStream {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "TR74ID7";
+
+    /**
+     * Tamaño por defecto del buffer en bytes
+     */
+    public static final int DEFAULTBUFFERSIZE = 8192;
+
+    /**
+     * Tamaño minimo del buffer en bytes
+     */
+    public static final int MINBUFFERSIZE = 128;
+
+    // Algoritmo de codificacion
+    private final CuaimaCrypt CCPT;
+    // Generador de los bytes de ofuscacion
+    private final MersenneTwisterPlus Rand;
+    // Algoritmo de HASH o null si no se usa
+    private final BaseHash Hash;
+    // Tipo de HASH de los datos
+    private final int HashType;
+    // Buffer del registro en curso, cuyos datos empiezan en CuaimaFrames.HEAD
+    private final byte Buffer[];
+    // Bytes de datos en el buffer
+    private int Count;
+    // TRUE si ya se envio el encabezado del stream
+    private boolean Started;
+    // TRUE si el stream fue cerrado
+    private boolean Closed;
+
+    /**
+     * Constructor con el OutputStream de salida, el password y las opciones
+     * de codificacion, usando un buffer de DEFAULTBUFFERSIZE bytes
+     *
+     * @param Output OutputStream donde se escriben los datos codificados
+     * @param Password Password a usar para inicializar el algoritmo
+     * @param Opciones Tipo de HASH de CryptoStream
+     * @throws UtilsException si no se puede inicializar el password
+     */
+    public CuaimaOutputStream(OutputStream Output, String Password, int Opciones) throws UtilsException {
+        this(Output, Password, Opciones, DEFAULTBUFFERSIZE);
+    }
+
+    /**
+     * Constructor con el OutputStream de salida, el password, las opciones de
+     * codificacion y el tamaño del buffer, que se ajusta a multiplo de 16 y a
+     * un minimo de MINBUFFERSIZE bytes
+     *
+     * @param Output OutputStream donde se escriben los datos codificados
+     * @param Password Password a usar para inicializar el algoritmo
+     * @param Opciones Tipo de HASH de CryptoStream
+     * @param BufferSize Tamaño del buffer en bytes
+     * @throws UtilsException si no se puede inicializar el password
+     */
+    public CuaimaOutputStream(OutputStream Output, String Password, int Opciones, int BufferSize) throws UtilsException {
+        super(Output);
+        if (Output == null) {
+            throw new UtilsException("ERROR: OutputStream is NULL", CryptoStream.ERROR_NULLOUTPUTSTREAM, CuaimaOutputStream.CLASSID + "000");
+        }
+        this.CCPT = new CuaimaCrypt();
+        if ((Password == null) || (this.CCPT.Password(Password) != 0)) {
+            this.CCPT.destroy();
+            throw new UtilsException("ERROR: NO se pudo inicializar CuaimaOutputStream, falla al inicializar el Password", CryptoStream.ERROR_PASSWD, CuaimaOutputStream.CLASSID + "001");
+        }
+        this.CCPT.Reset();
+        this.Rand = new MersenneTwisterPlus();
+        this.HashType = Opciones & CuaimaFrames.HASHMASK;
+        this.Hash = CuaimaFrames.NewHash(this.HashType);
+        BufferSize = Math.max(BufferSize, MINBUFFERSIZE);
+        this.Buffer = new byte[BufferSize - (BufferSize % 16)];
+        this.Count = 0;
+        this.Started = false;
+        this.Closed = false;
+    }
+
+    /**
+     * Codifica y escribe un byte
+     *
+     * @param b Byte a escribir
+     * @throws IOException si falla la escritura o si el stream esta cerrado
+     */
+    @Override
+    public void write(int b) throws IOException {
+
+        Check();
+        if (Count == Capacity()) {
+            Emit();
+        }
+        Buffer[CuaimaFrames.HEAD + Count] = (byte) b;
+        Count++;
+    }
+
+    /**
+     * Codifica y escribe Len bytes de b a partir de Off
+     *
+     * @param b Bytes a escribir
+     * @param Off Posicion inicial
+     * @param Len Numero de bytes
+     * @throws IOException si falla la escritura o si el stream esta cerrado
+     */
+    @Override
+    public void write(byte b[], int Off, int Len) throws IOException {
+        int Size;
+
+        if ((Off < 0) || (Len < 0) || (Off > b.length - Len)) {
+            throw new IndexOutOfBoundsException("Invalid byte range: off=" + Off + " len=" + Len);
+        }
+        Check();
+        while (Len > 0) {
+            if (Count == Capacity()) {
+                Emit();
+            }
+            Size = Math.min(Len, Capacity() - Count);
+            System.arraycopy(b, Off, Buffer, CuaimaFrames.HEAD + Count, Size);
+            Count += Size;
+            Off += Size;
+            Len -= Size;
+        }
+    }
+
+    /**
+     * Envia como un registro los datos acumulados en el buffer y vacia el
+     * OutputStream subyacente
+     *
+     * @throws IOException si falla la escritura o si el stream esta cerrado
+     */
+    @Override
+    public void flush() throws IOException {
+
+        Check();
+        Emit();
+        out.flush();
+    }
+
+    /**
+     * Envia los datos acumulados y el ultimo registro con el HASH de los
+     * datos, cierra el OutputStream subyacente y borra la clave de la memoria
+     *
+     * @throws IOException si falla la escritura
+     */
+    @Override
+    public void close() throws IOException {
+        byte Digest[];
+        int Length;
+
+        if (!Closed) {
+            try {
+                Emit();
+                // El ultimo registro contiene el Hash de los datos
+                if (Hash != null) {
+                    Digest = Hash.digest();
+                    System.arraycopy(Digest, 0, Buffer, CuaimaFrames.HEAD, Digest.length);
+                    Length = CuaimaFrames.Record(Buffer, CuaimaFrames.FINAL, Digest.length, Rand);
+                } else {
+                    Length = CuaimaFrames.Record(Buffer, CuaimaFrames.FINAL, 0, Rand);
+                }
+                CCPT.Codec(Buffer, 0, Length);
+                out.write(Buffer, 0, Length);
+                out.flush();
+            } finally {
+                Closed = true;
+                Arrays.fill(Buffer, (byte) 0);
+                CCPT.destroy();
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Envia el encabezado del stream si aun no se ha enviado y los datos del
+     * buffer como un registro
+     */
+    private void Emit() throws IOException {
+        long Header[];
+        int Length;
+
+        if (!Started) {
+            Header = CuaimaFrames.Header(HashType, CuaimaFrames.VERSION, Rand);
+            CCPT.Codec(Header, 0, Header.length / 2);
+            out.write(Converter.long2byte(Header));
+            Started = true;
+        }
+        if (Count > 0) {
+            if (Hash != null) {
+                Hash.update(Buffer, CuaimaFrames.HEAD, Count);
+            }
+            Length = CuaimaFrames.Record(Buffer, CuaimaFrames.DATA, Count, Rand);
+            CCPT.Codec(Buffer, 0, Length);
+            out.write(Buffer, 0, Length);
+            Count = 0;
+        }
+    }
+
+    /**
+     * @return Bytes de datos que caben en un registro
+     */
+    private int Capacity() {
+        return Buffer.length - 2 * CuaimaFrames.HEAD;
+    }
+
+    /**
+     * Verifica que el stream no este cerrado
+     */
+    private void Check() throws IOException {
+
+        if (Closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
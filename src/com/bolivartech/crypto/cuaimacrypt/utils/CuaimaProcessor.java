@@ -0,0 +1,465 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import com.bolivartech.crypto.digest.BaseHash;
+import com.bolivartech.crypto.interfaces.CryptoFlow;
+import com.bolivartech.crypto.interfaces.CryptoStream;
+import com.bolivartech.utils.converters.Converter;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.random.MersenneTwisterPlus;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage:
+ * <a href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage:
+ * <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is the CuaimaCrypt's util for Code reactive streams.</p>
+ *
+ * <p>
+ * Processor reactivo que codifica con CuaimaCrypt los ByteBuffer que recibe y
+ * entrega, en orden, el encabezado del stream, un registro por cada bloque de
+ * hasta RecordSize bytes de datos y el ultimo registro con el HASH, con el
+ * formato por registros de CuaimaStream (opcion FRAMED), por lo que la salida
+ * concatenada se decodifica con CuaimaStream.Decodec, CuaimaInputStream o
+ * CuaimaReadableChannel.</p>
+ *
+ * <p>
+ * El trabajo se ejecuta en el Executor del llamador, sin hebras propias ni
+ * bloqueos: las señales se encolan y una sola tarea a la vez las procesa,
+ * cediendo la hebra despues de BATCH entregas para que muchos streams
+ * compartan un grupo pequeño de hebras. Solo se solicita un ByteBuffer al
+ * Publisher de entrada cuando el Subscriber de salida tiene demanda pendiente
+ * y se entregaron los registros del anterior, por lo que la memoria usada por
+ * stream esta acotada.</p>
+ *
+ * <p>
+ * Los ByteBuffer de entrada se leen sin modificar su posicion y los de salida
+ * son nuevos y pertenecen al Subscriber. Se admite un solo Subscriber; un
+ * error del Publisher de entrada se reenvia al Subscriber y la cancelacion del
+ * Subscriber cancela la entrada, y en ambos casos se borra la clave.</p>
+ *
+ * <ul>
+ * <li>Class ID: "TR74IDB"</li>
+ * <li>Loc: 000-001</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+public class CuaimaProcessor implements CryptoFlow.Processor<ByteBuffer, ByteBuffer> {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "TR74IDB";
+
+    /**
+     * Tamaño por defecto de los datos de un registro en bytes
+     */
+    public static final int DEFAULTRECORDSIZE = 65536;
+
+    /**
+     * Entregas por tarea antes de ceder la hebra del Executor
+     */
+    public static final int BATCH = 16;
+
+    // Executor donde se procesan las señales
+    private final Executor Exec;
+    // Algoritmo de codificacion
+    private final CuaimaCrypt CCPT;
+    // Generador de los bytes de ofuscacion
+    private final MersenneTwisterPlus Rand;
+    // Algoritmo de HASH o null si no se usa
+    private final BaseHash Hash;
+    // Tipo de HASH de los datos
+    private final int HashType;
+    // Maximo de bytes de datos por registro
+    private final int RecordSize;
+    // ByteBuffer recibidos pendientes por codificar
+    private final ConcurrentLinkedQueue<ByteBuffer> Input;
+    // Registros codificados pendientes por entregar, solo los usa Drain
+    private final ArrayDeque<ByteBuffer> Output;
+    // Numero de señales pendientes por procesar
+    private final AtomicInteger Wip;
+    // Demanda pendiente del Subscriber de salida
+    private final AtomicLong Demand;
+    // Suscripcion al Publisher de entrada
+    private final AtomicReference<CryptoFlow.Subscription> Upstream;
+    // Subscriber de salida
+    private final AtomicReference<CryptoFlow.Subscriber<? super ByteBuffer>> Downstream;
+    // TRUE si el Publisher de entrada concluyo
+    private volatile boolean UpstreamDone;
+    // Error del Publisher de entrada
+    private volatile Throwable UpstreamError;
+    // Error por una solicitud de demanda invalida
+    private volatile Throwable DemandError;
+    // TRUE si el Subscriber de salida cancelo
+    private volatile boolean Cancelled;
+    // Estados que solo usa Drain
+    private boolean Subscribed, Started, Requested, Finished, Terminated;
+
+    /**
+     * Constructor con el password, las opciones de codificacion y el
+     * Executor, usando registros de hasta DEFAULTRECORDSIZE bytes
+     *
+     * @param Password Password a usar para inicializar el algoritmo
+     * @param Opciones Tipo de HASH de CryptoStream
+     * @param Exec Executor donde se procesan las señales
+     * @throws UtilsException si no se puede inicializar el password
+     */
+    public CuaimaProcessor(String Password, int Opciones, Executor Exec) throws UtilsException {
+        this(Password, Opciones, Exec, DEFAULTRECORDSIZE);
+    }
+
+    /**
+     * Constructor con el password, las opciones de codificacion, el Executor
+     * y el maximo de bytes de datos por registro, que se ajusta a un minimo
+     * de 16 bytes
+     *
+     * @param Password Password a usar para inicializar el algoritmo
+     * @param Opciones Tipo de HASH de CryptoStream
+     * @param Exec Executor donde se procesan las señales
+     * @param RecordSize Maximo de bytes de datos por registro
+     * @throws UtilsException si no se puede inicializar el password
+     */
+    public CuaimaProcessor(String Password, int Opciones, Executor Exec, int RecordSize) throws UtilsException {
+
+        if (Exec == null) {
+            throw new UtilsException("ERROR: Executor is NULL", CryptoStream.ERROR_STREAMPARAMETERS, CuaimaProcessor.CLASSID + "000");
+        }
+        this.CCPT = new CuaimaCrypt();
+        if ((Password == null) || (this.CCPT.Password(Password) != 0)) {
+            this.CCPT.destroy();
+            throw new UtilsException("ERROR: NO se pudo inicializar CuaimaProcessor, falla al inicializar el Password", CryptoStream.ERROR_PASSWD, CuaimaProcessor.CLASSID + "001");
+        }
+        this.CCPT.Reset();
+        this.Exec = Exec;
+        this.Rand = new MersenneTwisterPlus();
+        this.HashType = Opciones & CuaimaFrames.HASHMASK;
+        this.Hash = CuaimaFrames.NewHash(this.HashType);
+        this.RecordSize = Math.max(RecordSize, 16);
+        this.Input = new ConcurrentLinkedQueue<ByteBuffer>();
+        this.Output = new ArrayDeque<ByteBuffer>();
+        this.Wip = new AtomicInteger(0);
+        this.Demand = new AtomicLong(0);
+        this.Upstream = new AtomicReference<CryptoFlow.Subscription>(null);
+        this.Downstream = new AtomicReference<CryptoFlow.Subscriber<? super ByteBuffer>>(null);
+        this.UpstreamDone = false;
+        this.UpstreamError = null;
+        this.DemandError = null;
+        this.Cancelled = false;
+    }
+
+    /**
+     * Agrega el Subscriber de salida; un segundo Subscriber recibe
+     * IllegalStateException
+     *
+     * @param Sub Subscriber de los registros codificados
+     */
+    @Override
+    public void subscribe(CryptoFlow.Subscriber<? super ByteBuffer> Sub) {
+
+        if (Sub == null) {
+            throw new NullPointerException("Subscriber is NULL");
+        }
+        if (Downstream.compareAndSet(null, Sub)) {
+            Schedule();
+        } else {
+            Sub.onSubscribe(new CryptoFlow.Subscription() {
+                @Override
+                public void request(long N) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            Sub.onError(new IllegalStateException("CuaimaProcessor admite un solo Subscriber"));
+        }
+    }
+
+    /**
+     * Recibe la suscripcion al Publisher de entrada; una segunda suscripcion
+     * se cancela
+     *
+     * @param Sub Suscripcion al Publisher de entrada
+     */
+    @Override
+    public void onSubscribe(CryptoFlow.Subscription Sub) {
+
+        if (Sub == null) {
+            throw new NullPointerException("Subscription is NULL");
+        }
+        if (Upstream.compareAndSet(null, Sub)) {
+            Schedule();
+        } else {
+            Sub.cancel();
+        }
+    }
+
+    /**
+     * Recibe los siguientes datos a codificar
+     *
+     * @param Item Datos entre position y limit
+     */
+    @Override
+    public void onNext(ByteBuffer Item) {
+
+        if (Item == null) {
+            throw new NullPointerException("Item is NULL");
+        }
+        Input.offer(Item);
+        Schedule();
+    }
+
+    /**
+     * El Publisher de entrada concluyo con error, que se reenvia al
+     * Subscriber de salida
+     *
+     * @param Error Causa del error
+     */
+    @Override
+    public void onError(Throwable Error) {
+
+        if (Error == null) {
+            throw new NullPointerException("Error is NULL");
+        }
+        UpstreamError = Error;
+        Schedule();
+    }
+
+    /**
+     * El Publisher de entrada concluyo, se entregan los registros pendientes
+     * y el ultimo registro con el HASH
+     */
+    @Override
+    public void onComplete() {
+
+        UpstreamDone = true;
+        Schedule();
+    }
+
+    /**
+     * Programa la tarea que procesa las señales si no esta en curso
+     */
+    private void Schedule() {
+
+        if (Wip.getAndIncrement() == 0) {
+            Exec.execute(this::Drain);
+        }
+    }
+
+    /**
+     * Procesa las señales pendientes en el Executor, una sola tarea a la vez
+     */
+    private void Drain() {
+        CryptoFlow.Subscriber<? super ByteBuffer> Sub;
+        CryptoFlow.Subscription Up;
+        ByteBuffer Item;
+        Throwable Error;
+        boolean Done;
+        int Missed, Sent;
+
+        Missed = 1;
+        Sent = 0;
+        do {
+            while (!Terminated) {
+                Sub = Downstream.get();
+                if (Sub == null) {
+                    break;
+                }
+                if (!Subscribed) {
+                    Subscribed = true;
+                    Sub.onSubscribe(new Link());
+                    continue;
+                }
+                Up = Upstream.get();
+                if (Cancelled) {
+                    Terminate(Up);
+                    break;
+                }
+                Error = DemandError;
+                if (Error != null) {
+                    Terminate(Up);
+                    Sub.onError(Error);
+                    break;
+                }
+                Error = UpstreamError;
+                if (Error != null) {
+                    // La entrada ya concluyo, no se cancela
+                    Terminate(null);
+                    Sub.onError(Error);
+                    break;
+                }
+                if (Output.isEmpty()) {
+                    if (!Started) {
+                        Output.add(HeaderRecord());
+                        Started = true;
+                        continue;
+                    }
+                    Done = UpstreamDone;
+                    Item = Input.poll();
+                    if (Item != null) {
+                        Requested = false;
+                        Encode(Item);
+                        continue;
+                    }
+                    if (Done) {
+                        if (!Finished) {
+                            Output.add(FinalRecord());
+                            Finished = true;
+                            continue;
+                        }
+                        Terminate(null);
+                        Sub.onComplete();
+                        break;
+                    }
+                    if ((Up != null) && (!Requested) && (Demand.get() > 0)) {
+                        Requested = true;
+                        Up.request(1);
+                        continue;
+                    }
+                    break;
+                }
+                if (Demand.get() == 0) {
+                    break;
+                }
+                if (Sent == BATCH) {
+                    // Cede la hebra conservando Wip, por lo que nadie mas programa la tarea
+                    Exec.execute(this::Drain);
+                    return;
+                }
+                if (Demand.get() != Long.MAX_VALUE) {
+                    Demand.decrementAndGet();
+                }
+                Sent++;
+                Sub.onNext(Output.poll());
+            }
+            if (Terminated) {
+                Input.clear();
+            }
+            Missed = Wip.addAndGet(-Missed);
+        } while (Missed != 0);
+    }
+
+    /**
+     * Concluye el procesamiento, cancela la entrada si Up no es null y borra
+     * la clave de la memoria
+     */
+    private void Terminate(CryptoFlow.Subscription Up) {
+
+        Terminated = true;
+        if (Up != null) {
+            Up.cancel();
+        }
+        Input.clear();
+        Output.clear();
+        CCPT.destroy();
+    }
+
+    /**
+     * @return Encabezado codificado del stream
+     */
+    private ByteBuffer HeaderRecord() {
+        long Header[];
+
+        Header = CuaimaFrames.Header(HashType, CuaimaFrames.VERSION, Rand);
+        CCPT.Codec(Header, 0, Header.length / 2);
+        return ByteBuffer.wrap(Converter.long2byte(Header));
+    }
+
+    /**
+     * Codifica los bytes de Item entre position y limit en registros de hasta
+     * RecordSize bytes de datos
+     */
+    private void Encode(ByteBuffer Item) {
+        ByteBuffer Part, Record;
+        int Size;
+
+        Part = Item.duplicate();
+        while (Part.hasRemaining()) {
+            Size = Math.min(Part.remaining(), RecordSize);
+            Record = ByteBuffer.allocate(CuaimaFrames.HEAD + CuaimaFrames.Padded(Size));
+            Record.position(CuaimaFrames.HEAD);
+            Record.limit(CuaimaFrames.HEAD + Size);
+            Part.limit(Part.position() + Size);
+            Record.put(Part);
+            Part.limit(Item.limit());
+            if (Hash != null) {
+                Hash.update(Record.array(), CuaimaFrames.HEAD, Size);
+            }
+            Output.add(Seal(Record, CuaimaFrames.DATA, Size));
+        }
+    }
+
+    /**
+     * @return Ultimo registro codificado, con el HASH de los datos
+     */
+    private ByteBuffer FinalRecord() {
+        ByteBuffer Record;
+        byte Digest[];
+
+        Digest = (Hash != null) ? Hash.digest() : new byte[0];
+        Record = ByteBuffer.allocate(CuaimaFrames.HEAD + CuaimaFrames.Padded(Digest.length));
+        Record.position(CuaimaFrames.HEAD);
+        Record.put(Digest);
+        return Seal(Record, CuaimaFrames.FINAL, Digest.length);
+    }
+
+    /**
+     * Completa el encabezado del registro de Length bytes de datos y lo
+     * codifica
+     */
+    private ByteBuffer Seal(ByteBuffer Record, int Type, int Length) {
+
+        Record.clear();
+        CuaimaFrames.Record(Record, Type, Length, Rand);
+        CCPT.Codec(Record);
+        Record.flip();
+        return Record;
+    }
+
+    /**
+     * Suscripcion del Subscriber de salida
+     */
+    private final class Link implements CryptoFlow.Subscription {
+
+        @Override
+        public void request(long N) {
+            long Current, Next;
+
+            if (N <= 0) {
+                DemandError = new IllegalArgumentException("Non-positive request: " + N);
+            } else {
+                do {
+                    Current = Demand.get();
+                    Next = Current + N;
+                    if (Next < 0) {
+                        Next = Long.MAX_VALUE;
+                    }
+                } while (!Demand.compareAndSet(Current, Next));
+            }
+            Schedule();
+        }
+
+        @Override
+        public void cancel() {
+
+            Cancelled = true;
+            Schedule();
+        }
+    }
+}
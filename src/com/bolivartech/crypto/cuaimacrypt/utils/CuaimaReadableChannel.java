@@ -0,0 +1,327 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import com.bolivartech.crypto.digest.BaseHash;
+import com.bolivartech.crypto.interfaces.CryptoStream;
+import com.bolivartech.utils.exception.UtilsException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage:
+ * <a href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage:
+ * <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is the CuaimaCrypt's util for Decode Channel data.</p>
+ *
+ * <p>
+ * ReadableByteChannel que lee del canal subyacente datos con el formato por
+ * registros de CuaimaStream (opcion FRAMED), generados por
+ * CuaimaWritableChannel, CuaimaOutputStream o CuaimaStream.Codec, y entrega
+ * los datos decodificados con CuaimaCrypt.</p>
+ *
+ * <p>
+ * Los registros se leen del canal subyacente a un buffer directo de
+ * BufferSize bytes donde se decodifican en sitio y desde el cual se copian a
+ * los ByteBuffer de destino, directos o del heap, sin pasar por arreglos de
+ * bytes, por lo que puede ser el origen de FileChannel.transferFrom. Solo el
+ * HASH procesa los datos por partes en un arreglo pequeño.</p>
+ *
+ * <p>
+ * Los datos se entregan a medida que se decodifican y el HASH se verifica al
+ * leer el ultimo registro, antes de indicar el final del canal; si la
+ * verificacion falla se lanza una IOException cuya causa es una
+ * UtilsException con el codigo de error de CryptoStream. El canal subyacente
+ * debe estar en modo bloqueante.</p>
+ *
+ * <ul>
+ * <li>Class ID: "TR74IDA"</li>
+ * <li>Loc: 000-009</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+public class CuaimaReadableChannel implements ReadableByteChannel {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "TR74IDA";
+
+    /**
+     * Tamaño por defecto del buffer en bytes
+     */
+    public static final int DEFAULTBUFFERSIZE = 65536;
+
+    /**
+     * Tamaño minimo del buffer en bytes
+     */
+    public static final int MINBUFFERSIZE = 128;
+
+    // Tamaño del buffer temporal del HASH
+    private static final int SCRATCH = 8192;
+
+    // Canal de donde se leen los datos codificados
+    private final ReadableByteChannel Channel;
+    // Algoritmo de decodificacion
+    private final CuaimaCrypt CCPT;
+    // Algoritmo de HASH, se crea al leer el encabezado
+    private BaseHash Hash;
+    // Buffer directo de datos decodificados, entregados de position a limit
+    private final ByteBuffer Buffer;
+    // Buffer temporal del HASH
+    private byte Scratch[];
+    // Bytes del registro en curso que faltan por leer, incluyendo el relleno
+    private int Remain;
+    // Bytes de datos del registro en curso que faltan por leer
+    private int Data;
+    // TRUE si ya se leyo el encabezado del stream
+    private boolean Started;
+    // TRUE si se llego al ultimo registro y se verifico el HASH
+    private boolean Finished;
+    // TRUE si el canal fue cerrado
+    private boolean Closed;
+
+    /**
+     * Constructor con el canal de entrada y el password, usando un buffer de
+     * DEFAULTBUFFERSIZE bytes
+     *
+     * @param Input Canal de donde se leen los datos codificados
+     * @param Password Password a usar para inicializar el algoritmo
+     * @throws UtilsException si no se puede inicializar el password
+     */
+    public CuaimaReadableChannel(ReadableByteChannel Input, String Password) throws UtilsException {
+        this(Input, Password, DEFAULTBUFFERSIZE);
+    }
+
+    /**
+     * Constructor con el canal de entrada, el password y el tamaño del
+     * buffer, que se ajusta a multiplo de 16 y a un minimo de MINBUFFERSIZE
+     * bytes
+     *
+     * @param Input Canal de donde se leen los datos codificados
+     * @param Password Password a usar para inicializar el algoritmo
+     * @param BufferSize Tamaño del buffer en bytes
+     * @throws UtilsException si no se puede inicializar el password
+     */
+    public CuaimaReadableChannel(ReadableByteChannel Input, String Password, int BufferSize) throws UtilsException {
+
+        if (Input == null) {
+            throw new UtilsException("ERROR: Input Channel is NULL", CryptoStream.ERROR_NULLINPUTSTREAM, CuaimaReadableChannel.CLASSID + "000");
+        }
+        this.CCPT = new CuaimaCrypt();
+        if ((Password == null) || (this.CCPT.Password(Password) != 0)) {
+            this.CCPT.destroy();
+            throw new UtilsException("ERROR: NO se pudo inicializar CuaimaReadableChannel, falla al inicializar el Password", CryptoStream.ERROR_PASSWD, CuaimaReadableChannel.CLASSID + "001");
+        }
+        this.CCPT.Reset();
+        this.Channel = Input;
+        BufferSize = Math.max(BufferSize, MINBUFFERSIZE);
+        this.Buffer = ByteBuffer.allocateDirect(BufferSize - (BufferSize % 16));
+        this.Buffer.limit(0);
+        this.Scratch = null;
+        this.Remain = 0;
+        this.Data = 0;
+        this.Started = false;
+        this.Finished = false;
+        this.Closed = false;
+    }
+
+    /**
+     * Lee datos decodificados en los bytes restantes de Dst
+     *
+     * @param Dst Buffer destino
+     * @return Numero de bytes leidos o -1 al final del canal
+     * @throws IOException si falla la lectura o la decodificacion
+     */
+    @Override
+    public synchronized int read(ByteBuffer Dst) throws IOException {
+        ByteBuffer Part;
+        int Size;
+
+        Check();
+        if (!Dst.hasRemaining()) {
+            return 0;
+        }
+        if ((!Buffer.hasRemaining()) && (!Fill())) {
+            return -1;
+        }
+        Size = Math.min(Dst.remaining(), Buffer.remaining());
+        Part = Buffer.duplicate();
+        Part.limit(Part.position() + Size);
+        Dst.put(Part);
+        Buffer.position(Buffer.position() + Size);
+        return Size;
+    }
+
+    /**
+     * @return TRUE si el canal y el canal subyacente estan abiertos
+     */
+    @Override
+    public synchronized boolean isOpen() {
+        return (!Closed) && Channel.isOpen();
+    }
+
+    /**
+     * Cierra el canal subyacente y borra la clave y el buffer de la memoria
+     *
+     * @throws IOException si falla el cierre
+     */
+    @Override
+    public synchronized void close() throws IOException {
+
+        if (!Closed) {
+            Closed = true;
+            Buffer.clear();
+            while (Buffer.hasRemaining()) {
+                Buffer.put((byte) 0);
+            }
+            Buffer.limit(0);
+            CCPT.destroy();
+            Channel.close();
+        }
+    }
+
+    /**
+     * Decodifica los siguientes datos del canal en el buffer, leyendo los
+     * encabezados de los registros que encuentre
+     *
+     * @return TRUE si hay datos en el buffer o FALSE al final del canal
+     */
+    private boolean Fill() throws IOException {
+        int Length, Size;
+
+        Buffer.limit(0);
+        while ((!Buffer.hasRemaining()) && (!Finished)) {
+            if (!Started) {
+                Start();
+            } else if (Remain == 0) {
+                // Recupera el encabezado del siguiente registro
+                ReadFully(CuaimaFrames.HEAD);
+                Length = CuaimaFrames.RecordLength(Buffer);
+                if (Length < 0) {
+                    throw Failure("ERROR: NO se pudo Decodificar el registro del Stream", CryptoStream.ERROR_DECODEC, "002");
+                }
+                switch (CuaimaFrames.RecordType(Buffer)) {
+                    case CuaimaFrames.DATA:
+                        Remain = CuaimaFrames.Padded(Length);
+                        Data = Length;
+                        break;
+                    case CuaimaFrames.FINAL:
+                        Verify(Length);
+                        Finished = true;
+                        break;
+                    case CuaimaFrames.ABORT:
+                        throw Failure("ERROR: Stream interrupted by the sender", CryptoStream.ERROR_INTERRUPTED, "003");
+                    default:
+                        throw Failure("ERROR: NO se pudo Decodificar el registro del Stream", CryptoStream.ERROR_DECODEC, "004");
+                }
+                Buffer.limit(0);
+            } else {
+                // Decodifica la siguiente parte de los datos del registro
+                Size = Math.min(Remain, Buffer.capacity());
+                ReadFully(Size);
+                Buffer.limit(Math.min(Size, Data));
+                if (Hash != null) {
+                    CuaimaFrames.Update(Hash, Buffer, Scratch);
+                }
+                Data -= Buffer.limit();
+                Remain -= Size;
+            }
+        }
+        return Buffer.hasRemaining();
+    }
+
+    /**
+     * Lee y verifica el encabezado del stream
+     */
+    private void Start() throws IOException {
+        long Header[];
+        int i;
+
+        ReadFully(CuaimaFrames.STREAMHEAD);
+        Header = new long[CuaimaFrames.STREAMHEAD / 8];
+        for (i = 0; i < Header.length; i++) {
+            Header[i] = Buffer.getLong(8 * i);
+        }
+        if (!CuaimaFrames.HasMark(Header)) {
+            throw Failure("ERROR: NO se pudo Decodificar el Stream", CryptoStream.ERROR_DECODEC, "005");
+        }
+        if (CuaimaFrames.Version(Header) != (CuaimaFrames.VERSION & 0xFF)) {
+            throw Failure("ERROR: Version NO soportada del Stream, se requiere la opcion FRAMED", CryptoStream.ERROR_VERSION, "006");
+        }
+        Hash = CuaimaFrames.NewHash(CuaimaFrames.HashType(Header));
+        if (Hash != null) {
+            Scratch = new byte[SCRATCH];
+        }
+        Buffer.limit(0);
+        Started = true;
+    }
+
+    /**
+     * Verifica el HASH del ultimo registro, de Length bytes
+     */
+    private void Verify(int Length) throws IOException {
+        byte Digest[];
+        int i;
+
+        if (Length != ((Hash != null) ? Hash.hashSize() : 0)) {
+            throw Failure("ERROR: HASH NO COINCIDEN", CryptoStream.ERROR_HASHNOMACH, "007");
+        }
+        if (Hash != null) {
+            ReadFully(CuaimaFrames.Padded(Length));
+            Digest = Hash.digest();
+            for (i = 0; i < Length; i++) {
+                if (Digest[i] != Buffer.get(i)) {
+                    throw Failure("ERROR: HASH NO COINCIDEN", CryptoStream.ERROR_HASHNOMACH, "008");
+                }
+            }
+        }
+    }
+
+    /**
+     * Lee del canal subyacente exactamente Length bytes al inicio del buffer
+     * y los decodifica en sitio, dejando el buffer con position en 0 y limit
+     * en Length
+     */
+    private void ReadFully(int Length) throws IOException {
+
+        Buffer.clear();
+        Buffer.limit(Length);
+        while (Buffer.hasRemaining()) {
+            if (Channel.read(Buffer) < 0) {
+                throw Failure("ERROR: Input Stream Early End Of Data", CryptoStream.ERROR_READINPUTSTREAM, "009");
+            }
+        }
+        Buffer.flip();
+        CCPT.Decodec(Buffer);
+        Buffer.flip();
+    }
+
+    /**
+     * Crea la IOException de un error, con la UtilsException del codigo de
+     * error como causa
+     */
+    private static IOException Failure(String Message, int Code, String Loc) {
+        return new IOException(Message, new UtilsException(Message, Code, CuaimaReadableChannel.CLASSID + Loc));
+    }
+
+    /**
+     * Verifica que el canal no este cerrado
+     */
+    private void Check() throws IOException {
+
+        if (Closed) {
+            throw new ClosedChannelException();
+        }
+    }
+}
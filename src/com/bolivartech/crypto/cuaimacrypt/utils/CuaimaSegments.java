@@ -0,0 +1,196 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Soporte del formato segmentado de CuaimaFile (VERSION 4).</p>
+ *
+ * <p>
+ * El contenido del archivo se divide en segmentos de tamaño fijo y cada
+ * segmento se codifica con una instancia independiente de CuaimaCrypt, cuya
+ * clave se deriva de la clave del archivo, de un valor aleatorio (Nonce) y del
+ * numero del segmento. Como los segmentos no comparten estado, se codifican y
+ * decodifican en paralelo en el ForkJoinPool comun.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.1
+ *
+ * <p>
+ * Change Log:
+ * </p>
+ * <ul>
+ * <li>v1.0.1 - La clave maestra se forma con las dos palabras en hexadecimal
+ * de ancho fijo, para que pares distintos no generen la misma clave.</li>
+ * </ul>
+ */
+final class CuaimaSegments {
+
+    /**
+     * Version del formato segmentado de CuaimaFile
+     */
+    static final short VERSION = 4;
+
+    /**
+     * Tamaño por defecto de los segmentos en bytes (4 MB)
+     */
+    static final int SEGMENTSIZE = 4194304;
+
+    /**
+     * Tamaño maximo de los segmentos en bytes (1 GB)
+     */
+    static final int MAXSEGMENTSIZE = 1073741824;
+
+    /**
+     * Marca del encabezado del formato segmentado
+     */
+    static final String MARK = "CCPTSGMT";
+
+    private CuaimaSegments() {
+    }
+
+    /**
+     * Retorna la cantidad de segmentos que se procesan en paralelo en cada
+     * ciclo de lectura y escritura
+     *
+     * @return Numero de segmentos por ciclo
+     */
+    static int WaveSize() {
+        return Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Deriva la clave maestra de los segmentos codificando con CCPT el Nonce y
+     * el tamaño de segmento del archivo.
+     *
+     * CCPT debe estar en el estado inmediatamente posterior a la codificacion
+     * o decodificacion del encabezado, de forma que el codificador y el
+     * decodificador obtienen la misma clave; el llamador debe sincronizar
+     * CCPT. Cada palabra se escribe con 16 digitos hexadecimales, de forma
+     * que la clave identifica sin ambiguedad al par de palabras.
+     *
+     * @param CCPT Codificador del archivo
+     * @param Nonce Valor aleatorio del encabezado
+     * @param SegmentSize Tamaño de los segmentos en bytes
+     * @return Clave maestra de los segmentos
+     */
+    static String Master(CuaimaCrypt CCPT, long Nonce, int SegmentSize) {
+        long K[];
+
+        K = new long[2];
+        K[0] = Nonce ^ ((long) SegmentSize << 32);
+        K[1] = ~Nonce ^ (VERSION & 0xFF);
+        CCPT.Codec(K, 0, 1);
+        return String.format("%016x%016x", K[0], K[1]);
+    }
+
+    /**
+     * Crea el codificador del segmento 'Index'
+     *
+     * Cada segmento deriva su clave completa con Password, por lo que las
+     * claves de los segmentos son independientes entre si. La derivacion
+     * cuesta del orden de 0.1 ms, despreciable frente a los milisegundos que
+     * toma codificar un segmento de SEGMENTSIZE bytes, pero domina el tiempo
+     * con segmentos de pocos KB.
+     *
+     * @param Master Clave maestra de los segmentos
+     * @param NumBlocks Numero de bloques de RakeCodecs del codificador
+     * @param Index Numero del segmento
+     * @return Codificador del segmento inicializado
+     */
+    static CuaimaCrypt SegmentCodec(String Master, int NumBlocks, long Index) {
+        CuaimaCrypt Salida;
+
+        Salida = new CuaimaCrypt(NumBlocks);
+        if (Salida.Password(Master + ":" + Long.toString(Index)) != 0) {
+            throw new IllegalArgumentException("No se pudo inicializar el codificador del segmento " + Index);
+        }
+        return Salida;
+    }
+
+    /**
+     * Codifica o decodifica en paralelo los segmentos Segments[0] a
+     * Segments[Count-1], donde Segments[i] es el segmento FirstIndex+i y
+     * Lengths[i] es su longitud en bytes, multiplo de 16.
+     *
+     * @param Segments Buffers de los segmentos
+     * @param Lengths Longitud de cada segmento
+     * @param Count Numero de segmentos a procesar
+     * @param Master Clave maestra de los segmentos
+     * @param NumBlocks Numero de bloques de RakeCodecs del codificador
+     * @param FirstIndex Numero del primer segmento
+     * @param Decodec true para decodificar y false para codificar
+     */
+    static void Codec(byte Segments[][], int Lengths[], int Count, String Master, int NumBlocks, long FirstIndex, boolean Decodec) {
+
+        if (Count == 1) {
+            new SegmentTask(Segments, Lengths, 0, 1, Master, NumBlocks, FirstIndex, Decodec).compute();
+        } else if (Count > 1) {
+            ForkJoinPool.commonPool().invoke(new SegmentTask(Segments, Lengths, 0, Count, Master, NumBlocks, FirstIndex, Decodec));
+        }
+    }
+
+    /**
+     * Tarea que procesa los segmentos [Low, High) dividiendo el rango a la
+     * mitad hasta llegar a un segmento por tarea
+     */
+    private static final class SegmentTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte Segments[][];
+        private final int Lengths[];
+        private final int Low;
+        private final int High;
+        private final String Master;
+        private final int NumBlocks;
+        private final long FirstIndex;
+        private final boolean Decodec;
+
+        SegmentTask(byte Segments[][], int Lengths[], int Low, int High, String Master, int NumBlocks, long FirstIndex, boolean Decodec) {
+            this.Segments = Segments;
+            this.Lengths = Lengths;
+            this.Low = Low;
+            this.High = High;
+            this.Master = Master;
+            this.NumBlocks = NumBlocks;
+            this.FirstIndex = FirstIndex;
+            this.Decodec = Decodec;
+        }
+
+        @Override
+        protected void compute() {
+            CuaimaCrypt Codec;
+            int Mid;
+
+            if ((High - Low) > 1) {
+                Mid = (Low + High) >>> 1;
+                invokeAll(new SegmentTask(Segments, Lengths, Low, Mid, Master, NumBlocks, FirstIndex, Decodec),
+                        new SegmentTask(Segments, Lengths, Mid, High, Master, NumBlocks, FirstIndex, Decodec));
+            } else if (High > Low) {
+                Codec = SegmentCodec(Master, NumBlocks, FirstIndex + Low);
+                if (Decodec) {
+                    Codec.Decodec(Segments[Low], 0, Lengths[Low]);
+                } else {
+                    Codec.Codec(Segments[Low], 0, Lengths[Low]);
+                }
+            }
+        }
+    }
+}
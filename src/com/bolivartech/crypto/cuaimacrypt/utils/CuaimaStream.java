@@ -2,28 +2,6 @@ package com.bolivartech.crypto.cuaimacrypt.utils;
 
 import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
 import com.bolivartech.crypto.digest.BaseHash;
-import com.bolivartech.crypto.digest.CRC32;
-import com.bolivartech.crypto.digest.CRC64;
-import com.bolivartech.crypto.digest.Has160;
-import com.bolivartech.crypto.digest.Haval;
-import com.bolivartech.crypto.digest.MD2;
-import com.bolivartech.crypto.digest.MD4;
-import com.bolivartech.crypto.digest.MD5;
-import com.bolivartech.crypto.digest.RipeMD128;
-import com.bolivartech.crypto.digest.RipeMD160;
-import com.bolivartech.crypto.digest.Sha0;
-import com.bolivartech.crypto.digest.Sha160;
-import com.bolivartech.crypto.digest.Sha224;
-import com.bolivartech.crypto.digest.Sha256;
-import com.bolivartech.crypto.digest.Sha384;
-import com.bolivartech.crypto.digest.Sha512;
-import com.bolivartech.crypto.digest.Tiger;
-import com.bolivartech.crypto.digest.Tiger128;
-import com.bolivartech.crypto.digest.Tiger160;
-import com.bolivartech.crypto.digest.Tiger2;
-import com.bolivartech.crypto.digest.Whirlpool;
-import com.bolivartech.crypto.digest.Whirlpool2000;
-import com.bolivartech.crypto.digest.Whirlpool2003;
 import com.bolivartech.crypto.interfaces.CryptoStream;
 import com.bolivartech.utils.array.ArrayUtils;
 import com.bolivartech.utils.converters.Converter;
@@ -64,12 +42,12 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  *
  * <ul>
  * <li>Class ID: "TR74ID2"</li>
- * <li>Loc: 000-044</li>
+ * <li>Loc: 000-058</li>
  * <ul>
  *
  * @author Julian Bolivar
  * @since 2016 | 2016-03-25
- * @version 1.0.1
+ * @version 1.5.0
  *
  * <p>
  * Change Log:
@@ -78,6 +56,26 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * <li>v1.0.0 (2016-01-31) Version Inicial.</li>
  * <li>v1.0.1 (2016-03-25) Se agrego el codigo de localizacion para la excepcion
  * y bitacoras.</li>
+ * <li>v1.0.2 (2026-10-18) Los buffers se codifican en bloque con
+ * CuaimaCrypt.Codec(byte[], int, int) sin arreglos temporales por bloque.</li>
+ * <li>v1.1.0 (2026-10-18) El HASH se calcula con ParallelHash en su propia
+ * hebra, en paralelo con la codificacion y con la escritura de los datos
+ * decodificados.</li>
+ * <li>v1.2.0 (2026-10-18) El buffer de entrada se toma del pool compartido
+ * BufferPool y se devuelve al concluir el proceso.</li>
+ * <li>v1.3.0 (2026-10-18) La cola se busca con TailFinder solo en los bytes
+ * recien decodificados, sin crear objetos por posicion; la decodificacion
+ * continua desde el ultimo bloque decodificado y retiene el posible Hash y el
+ * inicio de la cola, por lo que las lecturas de cualquier tamaño y los Hash
+ * que no son multiplo de 16 bytes se decodifican correctamente.</li>
+ * <li>v1.4.0 (2026-10-18) Se agrega el formato por registros (VERSION 2) con
+ * la opcion FRAMED, donde cada registro indica su longitud y el ultimo
+ * contiene el HASH, por lo que el receptor entrega los datos a medida que
+ * llegan con memoria constante; los streams de la VERSION 1 se siguen
+ * decodificando.</li>
+ * <li>v1.5.0 (2026-10-18) El encabezado, los registros y la creacion del HASH
+ * se comparten en CuaimaFrames con CuaimaOutputStream y
+ * CuaimaInputStream.</li>
  * </ul>
  */
 @ThreadSafe
@@ -111,6 +109,8 @@ public class CuaimaStream implements CryptoStream, Runnable {
     private Thread Ejecutor = null;
     // TRUE si es para codificar y FALSE si es para Decodificar
     private boolean Coding = true;
+    // Buffer del pool compartido usado por el proceso en ejecucion
+    private byte Pooled[];
     @GuardedBy("rwl")
     int ErrorCode = 0;  // Codigo de Error de la Ejecicion
     // Bandera para indicar is el proceso se finalizo        
@@ -131,6 +131,13 @@ public class CuaimaStream implements CryptoStream, Runnable {
      */
     private final static int HASHMASK = 62;
 
+    /**
+     * Codifica el stream en registros precedidos por su longitud, que se
+     * decodifican sin buscar la cola del stream, el Valor es 128.
+     */
+    public final static int FRAMED = 128;
+
+
     /**
      * La cantidad de bloques es menor a 2 para inicializar el algoritmo
      */
@@ -374,19 +381,17 @@ public class CuaimaStream implements CryptoStream, Runnable {
      */
     private void PrivCodec() throws UtilsException {
         MersenneTwisterPlus Rand;
-        int i, j;
         int NumBytesReads;
         byte InputBuffer[];
-        byte SubInputBuffer[];
         byte OutputBuffer[];
         long Header[];
         long Tail[];
-        long CBuffer[];
         int ReadPos;
         int DataLength;
         int DataRemain;
         int HashType;
         BaseHash Hash;
+        ParallelHash Hasher;
         boolean LContinue;
         InputStream Input;
         OutputStream Output;
@@ -408,116 +413,16 @@ public class CuaimaStream implements CryptoStream, Runnable {
                         }
                         // Inicializa el Algoritmo de HASH
                         HashType = Opciones & HASHMASK;
-                        switch (HashType) {
-                            case HASH_WHIRLPOOL2003:
-                                Hash = new Whirlpool2003();
-                                break;
-                            case HASH_WHIRLPOOL2000:
-                                Hash = new Whirlpool2000();
-                                break;
-                            case HASH_WHIRLPOOL:
-                                Hash = new Whirlpool();
-                                break;
-                            case HASH_SHA0:
-                                Hash = new Sha0();
-                                break;
-                            case HASH_SHA1:
-                                Hash = new Sha160();
-                                break;
-                            case HASH_SHA224:
-                                Hash = new Sha224();
-                                break;
-                            case HASH_SHA256:
-                                Hash = new Sha256();
-                                break;
-                            case HASH_SHA384:
-                                Hash = new Sha384();
-                                break;
-                            case HASH_SHA512:
-                                Hash = new Sha512();
-                                break;
-                            case HASH_TIGER:
-                                Hash = new Tiger();
-                                break;
-                            case HASH_TIGER2:
-                                Hash = new Tiger2();
-                                break;
-                            case HASH_TIGER128:
-                                Hash = new Tiger128();
-                                break;
-                            case HASH_TIGER160:
-                                Hash = new Tiger160();
-                                break;
-                            case HASH_RIPEMD128:
-                                Hash = new RipeMD128();
-                                break;
-                            case HASH_RIPEMD160:
-                                Hash = new RipeMD160();
-                                break;
-                            case HASH_MD2:
-                                Hash = new MD2();
-                                break;
-                            case HASH_MD4:
-                                Hash = new MD4();
-                                break;
-                            case HASH_MD5:
-                                Hash = new MD5();
-                                break;
-                            case HASH_HAVAL128:
-                                Hash = new Haval(Haval.HAVAL_128_BIT);
-                                break;
-                            case HASH_HAVAL160:
-                                Hash = new Haval(Haval.HAVAL_160_BIT);
-                                break;
-                            case HASH_HAVAL192:
-                                Hash = new Haval(Haval.HAVAL_192_BIT);
-                                break;
-                            case HASH_HAVAL224:
-                                Hash = new Haval(Haval.HAVAL_224_BIT);
-                                break;
-                            case HASH_HAVAL256:
-                                Hash = new Haval(Haval.HAVAL_256_BIT);
-                                break;
-                            case HASH_HAS160:
-                                Hash = new Has160();
-                                break;
-                            case HASH_CRC32:
-                                Hash = new CRC32();
-                                break;
-                            case HASH_CRC64:
-                                Hash = new CRC64();
-                                break;
-                            case NO_HASH:
-                                Hash = null;
-                                break;
-                            default:
-                                Hash = new Whirlpool2003();
-                        }
-                        if (Hash != null) {
-                            Hash.reset();
-                        }
+                        Hash = CuaimaFrames.NewHash(HashType);
                         // Genera el Encabezado del stream
-                        Header = new long[4];
-                        Header[0] = (Rand.nextLong() << 32) | (Converter.byte2long(new String("CCPTTPCC").getBytes(StandardCharsets.US_ASCII))[0] >>> 32);  // BYTES de OFUSCACION
-                        Header[1] = (Converter.byte2long(new String("CCPTTPCC").getBytes(StandardCharsets.US_ASCII))[0] << 32) | (Rand.nextLong() >>> 32);  // BYTES de OFUSCACION
-                        Header[2] = Rand.nextLong();  // BYTES de OFUSCACION
-                        Header[3] = Rand.nextLong() << 32;  // BYTES de OFUSCACION
-                        Header[3] |= HashType << 26;  // Hash usado en el mensaje
-                        Header[3] |= VERSION & 0xFF;    // VERSION DE CUAIMABINARY
+                        Header = CuaimaFrames.Header(HashType, ((Opciones & FRAMED) != 0 ? CuaimaFrames.VERSION : VERSION), Rand);
                         // Genera la cola de cierre del stream
                         Tail = new long[2];
                         Tail[0] = (Rand.nextLong() << 32) | (Converter.byte2long(new String("CCPTTPCC").getBytes(StandardCharsets.US_ASCII))[0] >>> 32);  // BYTES de OFUSCACION
                         Tail[1] = (Converter.byte2long(new String("CCPTTPCC").getBytes(StandardCharsets.US_ASCII))[0] << 32) | (Rand.nextLong() >>> 32);  // BYTES de OFUSCACION
                         // Codifica el Encabezado del archivo
-                        CBuffer = new long[2];
-                        for (i = 0; i < Header.length; i += 2) {
-                            CBuffer[0] = Header[i];
-                            CBuffer[1] = Header[i + 1];
-                            synchronized (CCPT) {
-                                CCPT.Codec(CBuffer);
-                            }
-                            Header[i] = CBuffer[0];
-                            Header[i + 1] = CBuffer[1];
+                        synchronized (CCPT) {
+                            CCPT.Codec(Header, 0, Header.length / 2);
                         }
                         // Envia el encabezado por el OutputStream
                         OutputBuffer = Converter.long2byte(Header);
@@ -527,144 +432,134 @@ public class CuaimaStream implements CryptoStream, Runnable {
                             // Error de lectura del archivo de entrada
                             throw new UtilsException("ERROR: Can't write to OutputStream to send Header [" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "005");
                         }
-                        // Codifica el InputStream
-                        this.rwl.readLock().lock();
-                        try {
-                            InputBuffer = new byte[this.BufferSize]; // Buffer de Entrada
-                            LContinue = this.Continue;
-                        } finally {
-                            this.rwl.readLock().unlock();
-                        }
-                        SubInputBuffer = new byte[16];
-                        NumBytesReads = 0;
-                        ReadPos = 0;
-                        // Lectura del InputStream
-                        while ((NumBytesReads >= 0) && (LContinue)) {
+                        if ((Opciones & FRAMED) != 0) {
+                            // Codifica el InputStream en registros con su longitud
+                            this.CodecRecords(Input, Output, Hash, Rand);
+                        } else {
+                            // Codifica el InputStream
+                            InputBuffer = PooledBuffer(); // Buffer de Entrada
+                            this.rwl.readLock().lock();
                             try {
-                                DataLength = InputBuffer.length - ReadPos;
-                                NumBytesReads = Input.read(InputBuffer, ReadPos, DataLength);
-                                if (NumBytesReads < 0) {
-                                    DataLength = ReadPos;
-                                } else {
-                                    DataLength = ReadPos + NumBytesReads;
-                                }
-                            } catch (IOException ex) {
-                                // Error de lectura del archivo de entrada
-                                throw new UtilsException("ERROR: Can't read from InputStream[" + ex.getMessage() + "]", ERROR_READINPUTSTREAM, CuaimaStream.CLASSID + "006");
+                                LContinue = this.Continue;
+                            } finally {
+                                this.rwl.readLock().unlock();
                             }
-                            // Verifica si se leyeron datos
-                            if (NumBytesReads > 0) {
-                                // Actualiza el Hash
-                                if (Hash != null) {
-                                    Hash.update(InputBuffer, ReadPos, NumBytesReads);
+                            NumBytesReads = 0;
+                            ReadPos = 0;
+                            // El Hash se calcula en su propia hebra mientras se codifica
+                            Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+                            // Lectura del InputStream
+                            while ((NumBytesReads >= 0) && (LContinue)) {
+                                try {
+                                    DataLength = InputBuffer.length - ReadPos;
+                                    NumBytesReads = Input.read(InputBuffer, ReadPos, DataLength);
+                                    if (NumBytesReads < 0) {
+                                        DataLength = ReadPos;
+                                    } else {
+                                        DataLength = ReadPos + NumBytesReads;
+                                    }
+                                } catch (IOException ex) {
+                                    // Error de lectura del archivo de entrada
+                                    throw new UtilsException("ERROR: Can't read from InputStream[" + ex.getMessage() + "]", ERROR_READINPUTSTREAM, CuaimaStream.CLASSID + "006");
                                 }
-                                // Realiza la codificacion del buffer leido desde el InputStream
-                                DataRemain = DataLength % 16;
-                                for (i = 0; i < (DataLength - DataRemain); i += 16) {
-                                    for (j = 0; j < 16; j++) {
-                                        SubInputBuffer[j] = InputBuffer[i + j];
+                                // Verifica si se leyeron datos
+                                if (NumBytesReads > 0) {
+                                    // Actualiza el Hash
+                                    if (Hasher != null) {
+                                        Hasher.Update(InputBuffer, ReadPos, NumBytesReads);
+                                    }
+                                    // Realiza la codificacion del buffer leido desde el InputStream
+                                    DataRemain = DataLength % 16;
+                                    if (Hasher != null) {
+                                        Hasher.Codec(InputBuffer, 0, DataLength - DataRemain, Buf -> {
+                                            synchronized (CCPT) {
+                                                CCPT.Codec(Buf);
+                                            }
+                                        });
+                                    } else {
+                                        synchronized (CCPT) {
+                                            CCPT.Codec(InputBuffer, 0, DataLength - DataRemain);
+                                        }
                                     }
-                                    // Codifica el bloque de 128 bits
-                                    CBuffer = Converter.byte2long(SubInputBuffer);
-                                    synchronized (CCPT) {
-                                        CCPT.Codec(CBuffer);
+                                    // Escribe la data codificada en el OutStream
+                                    try {
+                                        // Escribe el bloque de datos
+                                        Output.write(InputBuffer, 0, DataLength - DataRemain);
+                                    } catch (IOException ex) {
+                                        // Error de escritura del OutStream
+                                        throw new UtilsException("ERROR: Can't write in the OutStream[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "007");
                                     }
-                                    SubInputBuffer = Converter.long2byte(CBuffer);
-                                    for (j = 0; j < 16; j++) {
-                                        InputBuffer[i + j] = SubInputBuffer[j];
+                                    // Defragmenta el buffer moviendo al principio la data no codificada
+                                    // cuando el Hash la libera
+                                    if (Hasher != null) {
+                                        Hasher.Sync();
                                     }
+                                    ReadPos = this.defragBuffer(InputBuffer, DataRemain, DataLength);
+                                }
+                                // Verifica si se continua con el proceso de condificacion
+                                this.rwl.readLock().lock();
+                                try {
+                                    LContinue = this.Continue;
+                                } finally {
+                                    this.rwl.readLock().unlock();
+                                }
+                            }
+                            // Se verifica si el proceso no fue interrumpido y se termina de procesar lo que queda en el buffer
+                            if (LContinue) {
+                                OutputBuffer = Converter.long2byte(Tail);
+                                if (Hash != null) {
+                                    DataLength = ReadPos + Hash.hashSize() + OutputBuffer.length;
+                                } else {
+                                    DataLength = ReadPos + OutputBuffer.length;
+                                }
+                                // Verifca que sera multipo de 16 el buffer resultante
+                                DataRemain = ((DataLength % 16) != 0 ? 16 - (DataLength % 16) : 0);
+                                if (DataRemain > 0) {
+                                    DataLength += DataRemain;
+                                }
+                                if (DataLength > InputBuffer.length) {
+                                    // Realiza el redimensionamiento del buffer para incluir el Hash (si existe) y la cola del CuaimaStream
+                                    InputBuffer = (byte[]) ArrayUtils.resizeArray(InputBuffer, DataLength);
+                                }
+                                // Se agrega el Hash si hace falta
+                                if (Hash != null) {
+                                    ArrayUtils.arrayCopy(Hasher.Digest(), 0, InputBuffer, ReadPos, Hash.hashSize());
+                                    ReadPos += Hash.hashSize();
+                                }
+                                // Agrega la cola
+                                ArrayUtils.arrayCopy(OutputBuffer, 0, InputBuffer, ReadPos, OutputBuffer.length);
+                                ReadPos += OutputBuffer.length;
+                                // Completa cualquier byte vacio que quede al final del buffer con numeros random
+                                while (ReadPos < DataLength) {
+                                    InputBuffer[ReadPos] = Rand.nextByte();
+                                    ReadPos++;
+                                }
+                                // Realiza la codificacion del buffer de datos
+                                synchronized (CCPT) {
+                                    CCPT.Codec(InputBuffer, 0, DataLength);
                                 }
                                 // Escribe la data codificada en el OutStream
                                 try {
                                     // Escribe el bloque de datos
-                                    Output.write(InputBuffer, 0, DataLength - DataRemain);
+                                    Output.write(InputBuffer, 0, DataLength);
                                 } catch (IOException ex) {
                                     // Error de escritura del OutStream
-                                    throw new UtilsException("ERROR: Can't write in the OutStream[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "007");
+                                    throw new UtilsException("ERROR: Can't write in the OutStream to send the last packet[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "008");
                                 }
-                                // Defragmenta el buffer moviendo al principio la data no codificada
-                                ReadPos = this.defragBuffer(InputBuffer, DataRemain, DataLength);
-                            }
-                            // Verifica si se continua con el proceso de condificacion
-                            this.rwl.readLock().lock();
-                            try {
-                                LContinue = this.Continue;
-                            } finally {
-                                this.rwl.readLock().unlock();
-                            }
-                        }
-                        // Se verifica si el proceso no fue interrumpido y se termina de procesar lo que queda en el buffer
-                        if (LContinue) {
-                            OutputBuffer = Converter.long2byte(Tail);
-                            if (Hash != null) {
-                                DataLength = ReadPos + Hash.hashSize() + OutputBuffer.length;
                             } else {
-                                DataLength = ReadPos + OutputBuffer.length;
-                            }
-                            // Verifca que sera multipo de 16 el buffer resultante
-                            DataRemain = ((DataLength % 16) != 0 ? 16 - (DataLength % 16) : 0);
-                            if (DataRemain > 0) {
-                                DataLength += DataRemain;
-                            }
-                            if (DataLength > InputBuffer.length) {
-                                // Realiza el redimensionamiento del buffer para incluir el Hash (si existe) y la cola del CuaimaStream
-                                InputBuffer = (byte[]) ArrayUtils.resizeArray(InputBuffer, DataLength);
-                            }
-                            // Se agrega el Hash si hace falta
-                            if (Hash != null) {
-                                ArrayUtils.arrayCopy(Hash.digest(), 0, InputBuffer, ReadPos, Hash.hashSize());
-                                ReadPos += Hash.hashSize();
-                            }
-                            // Agrega la cola
-                            ArrayUtils.arrayCopy(OutputBuffer, 0, InputBuffer, ReadPos, OutputBuffer.length);
-                            ReadPos += OutputBuffer.length;
-                            // Completa cualquier byte vacio que quede al final del buffer con numeros random
-                            while (ReadPos < DataLength) {
-                                InputBuffer[ReadPos] = Rand.nextByte();
-                                ReadPos++;
-                            }
-                            // Realiza la codificacion del buffer de datos
-                            for (i = 0; i < DataLength; i += 16) {
-                                for (j = 0; j < 16; j++) {
-                                    SubInputBuffer[j] = InputBuffer[i + j];
-                                }
-                                // Codifica el bloque de 128 bits
-                                CBuffer = Converter.byte2long(SubInputBuffer);
+                                // Codifica y envia la cola del CuamiaStream para finalizar el protocolo 
+                                // pero sin enviar el hash ni la data remanente en el buffer
                                 synchronized (CCPT) {
-                                    CCPT.Codec(CBuffer);
-                                }
-                                SubInputBuffer = Converter.long2byte(CBuffer);
-                                for (j = 0; j < 16; j++) {
-                                    InputBuffer[i + j] = SubInputBuffer[j];
+                                    CCPT.Codec(Tail, 0, Tail.length / 2);
                                 }
-                            }
-                            // Escribe la data codificada en el OutStream
-                            try {
-                                // Escribe el bloque de datos
-                                Output.write(InputBuffer, 0, DataLength);
-                            } catch (IOException ex) {
-                                // Error de escritura del OutStream
-                                throw new UtilsException("ERROR: Can't write in the OutStream to send the last packet[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "008");
-                            }
-                        } else {
-                            // Codifica y envia la cola del CuamiaStream para finalizar el protocolo 
-                            // pero sin enviar el hash ni la data remanente en el buffer
-                            for (i = 0; i < Tail.length; i += 2) {
-                                CBuffer[0] = Tail[i];
-                                CBuffer[1] = Tail[i + 1];
-                                synchronized (CCPT) {
-                                    CCPT.Codec(CBuffer);
+                                // Envia la cola por el OutputStream
+                                OutputBuffer = Converter.long2byte(Tail);
+                                try {
+                                    Output.write(OutputBuffer);
+                                } catch (IOException ex) {
+                                    // Error de lectura del archivo de entrada
+                                    throw new UtilsException("ERROR: Can't write to OutputStream to send Tail [" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "009");
                                 }
-                                Tail[i] = CBuffer[0];
-                                Tail[i + 1] = CBuffer[1];
-                            }
-                            // Envia la cola por el OutputStream
-                            OutputBuffer = Converter.long2byte(Tail);
-                            try {
-                                Output.write(OutputBuffer);
-                            } catch (IOException ex) {
-                                // Error de lectura del archivo de entrada
-                                throw new UtilsException("ERROR: Can't write to OutputStream to send Tail [" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "009");
                             }
                         }
                         try {
@@ -689,41 +584,6 @@ public class CuaimaStream implements CryptoStream, Runnable {
         }
     }
 
-    /**
-     * Busca la cola de 8 bytes en el buffer a partir de la posicion 'readPos'
-     * hasta la posicion 'endDataPos'. Retorna la posicion donde empieza la cola
-     * o -1 si no la consiguio
-     *
-     * @param buffer Buffer donde buscar la cosa
-     * @param readPos Posicion inicial donde buscar
-     * @param endDataPos posicion final de busqueda
-     * @return Posicion de la cola o -1 si no la consiguio.
-     */
-    private int tailFinder(byte[] buffer, int readPos, int endDataPos) {
-        int Pos = -1;
-        int Diff, i, TailLength;
-        String Tail;
-        StringBuffer TailMark;
-
-        TailMark = new StringBuffer("CCPTTPCC");
-        TailLength = TailMark.toString().getBytes(StandardCharsets.US_ASCII).length;
-        Diff = endDataPos - readPos;
-        if (Diff >= TailLength) {
-            Diff = endDataPos - TailLength;
-            for (i = readPos; i < Diff; i++) {
-                Tail = new String((byte[]) ArrayUtils.subArray(buffer, i, TailLength), StandardCharsets.US_ASCII);
-                if (Tail.contentEquals(TailMark)) {
-                    Pos = i - 4;
-                    if (Pos < 0) {
-                        Pos = 0;
-                    }
-                    i = endDataPos;
-                }
-            }
-        }
-        return Pos;
-    }
-
     /**
      * Realiza la decodificacion de un archivo que recibe en Input en base a la
      * clave con la cual se inicializo el algoritmo.
@@ -740,15 +600,13 @@ public class CuaimaStream implements CryptoStream, Runnable {
      * @throws UtilsException
      */
     private void PrivDecodec() throws UtilsException {
-        int i, j;
+        int i;
         int NumBytesReads;
-        long Header[], HTemp[];
-        long DcBuffer[];
-        String HeaderDec;
+        long Header[];
         byte InputBuffer[];
-        byte SubInputBuffer[];
         int HashType;
         BaseHash Hash;
+        ParallelHash Hasher;
         byte[] OrgDigest = null;
         byte[] NewDigest = null;
         int Version;
@@ -759,6 +617,9 @@ public class CuaimaStream implements CryptoStream, Runnable {
         int DataLength;
         int DataRemain;
         int TailPos;
+        int Decoded;
+        int HoldBack;
+        TailFinder Finder;
 
         // Verifica si el algoritmo fue inicializado
         if (StreamParameters != null) {
@@ -804,213 +665,124 @@ public class CuaimaStream implements CryptoStream, Runnable {
                                 throw new UtilsException("ERROR: Can't read header from InputStream", ERROR_READINPUTSTREAM, CuaimaStream.CLASSID + "016");
                             }
                             // Decodifica el Encabezado del archivo
-                            DcBuffer = new long[2];
-                            for (i = 0; i < Header.length; i += 2) {
-                                DcBuffer[0] = Header[i];
-                                DcBuffer[1] = Header[i + 1];
-                                synchronized (CCPT) {
-                                    CCPT.Decodec(DcBuffer);
-                                }
-                                Header[i] = DcBuffer[0];
-                                Header[i + 1] = DcBuffer[1];
+                            synchronized (CCPT) {
+                                CCPT.Decodec(Header, 0, Header.length / 2);
                             }
-                            // Trata de Recuperar Informacion del Encabezado
-                            HTemp = new long[1];
-                            HTemp[0] = (Header[0] << 32) | (Header[1] >>> 32);
-                            HeaderDec = new String(Converter.long2byte(HTemp), StandardCharsets.US_ASCII);
                             // Verifica si se pudo recuperar la informacion del encabezado
-                            if (HeaderDec.contentEquals(new StringBuffer("CCPTTPCC"))) {
+                            if (CuaimaFrames.HasMark(Header)) {
                                 // Verifica la Version
-                                Version = (int) (Header[3] & 0xFFL);
-                                if (Version == (VERSION & 0xFF)) {
+                                Version = CuaimaFrames.Version(Header);
+                                if ((Version == (VERSION & 0xFF)) || (Version == (CuaimaFrames.VERSION & 0xFF))) {
                                     // Recupera el Tipo de Hash utilizado
-                                    HashType = ((int) (Header[3] >>> 26)) & HASHMASK;
-                                    switch (HashType) {
-                                        case HASH_WHIRLPOOL2003:
-                                            Hash = new Whirlpool2003();
-                                            break;
-                                        case HASH_WHIRLPOOL2000:
-                                            Hash = new Whirlpool2000();
-                                            break;
-                                        case HASH_WHIRLPOOL:
-                                            Hash = new Whirlpool();
-                                            break;
-                                        case HASH_SHA0:
-                                            Hash = new Sha0();
-                                            break;
-                                        case HASH_SHA1:
-                                            Hash = new Sha160();
-                                            break;
-                                        case HASH_SHA224:
-                                            Hash = new Sha224();
-                                            break;
-                                        case HASH_SHA256:
-                                            Hash = new Sha256();
-                                            break;
-                                        case HASH_SHA384:
-                                            Hash = new Sha384();
-                                            break;
-                                        case HASH_SHA512:
-                                            Hash = new Sha512();
-                                            break;
-                                        case HASH_TIGER:
-                                            Hash = new Tiger();
-                                            break;
-                                        case HASH_TIGER2:
-                                            Hash = new Tiger2();
-                                            break;
-                                        case HASH_TIGER128:
-                                            Hash = new Tiger128();
-                                            break;
-                                        case HASH_TIGER160:
-                                            Hash = new Tiger160();
-                                            break;
-                                        case HASH_RIPEMD128:
-                                            Hash = new RipeMD128();
-                                            break;
-                                        case HASH_RIPEMD160:
-                                            Hash = new RipeMD160();
-                                            break;
-                                        case HASH_MD2:
-                                            Hash = new MD2();
-                                            break;
-                                        case HASH_MD4:
-                                            Hash = new MD4();
-                                            break;
-                                        case HASH_MD5:
-                                            Hash = new MD5();
-                                            break;
-                                        case HASH_HAVAL128:
-                                            Hash = new Haval(Haval.HAVAL_128_BIT);
-                                            break;
-                                        case HASH_HAVAL160:
-                                            Hash = new Haval(Haval.HAVAL_160_BIT);
-                                            break;
-                                        case HASH_HAVAL192:
-                                            Hash = new Haval(Haval.HAVAL_192_BIT);
-                                            break;
-                                        case HASH_HAVAL224:
-                                            Hash = new Haval(Haval.HAVAL_224_BIT);
-                                            break;
-                                        case HASH_HAVAL256:
-                                            Hash = new Haval(Haval.HAVAL_256_BIT);
-                                            break;
-                                        case HASH_HAS160:
-                                            Hash = new Has160();
-                                            break;
-                                        case HASH_CRC32:
-                                            Hash = new CRC32();
-                                            break;
-                                        case HASH_CRC64:
-                                            Hash = new CRC64();
-                                            break;
-                                        case NO_HASH:
-                                            Hash = null;
-                                            break;
-                                        default:
-                                            Hash = new Whirlpool2003();
-                                    }
-                                    if (Hash != null) {
-                                        Hash.reset();
-                                    }
-                                    // Decodifica el InputStream
-                                    this.rwl.readLock().lock();
-                                    try {
-                                        InputBuffer = new byte[this.BufferSize]; // Buffer de Entrada
-                                        LContinue = this.Continue;
-                                    } finally {
-                                        this.rwl.readLock().unlock();
-                                    }
-                                    SubInputBuffer = new byte[16];
-                                    NumBytesReads = 0;
-                                    ReadPos = 0;
-                                    TailPos = -1;
-                                    // Lectura del InputStream
-                                    while ((NumBytesReads >= 0) && (LContinue) && (TailPos < 0)) {
+                                    HashType = CuaimaFrames.HashType(Header);
+                                    Hash = CuaimaFrames.NewHash(HashType);
+                                    if (Version == (CuaimaFrames.VERSION & 0xFF)) {
+                                        // Decodifica los registros del InputStream
+                                        this.DecodecRecords(Input, Output, Hash);
+                                    } else {
+                                        // Decodifica el InputStream
+                                        InputBuffer = PooledBuffer(); // Buffer de Entrada
+                                        this.rwl.readLock().lock();
                                         try {
-                                            DataLength = InputBuffer.length - ReadPos;
-                                            NumBytesReads = Input.read(InputBuffer, ReadPos, DataLength);
-                                            if (NumBytesReads < 0) {
-                                                DataLength = ReadPos;
-                                            } else {
-                                                DataLength = ReadPos + NumBytesReads;
-                                            }
-                                        } catch (IOException ex) {
-                                            // Error de lectura del archivo de entrada
-                                            throw new UtilsException("ERROR: Can't read from InputStream[" + ex.getMessage() + "]", ERROR_READINPUTSTREAM, CuaimaStream.CLASSID + "017");
+                                            LContinue = this.Continue;
+                                        } finally {
+                                            this.rwl.readLock().unlock();
                                         }
-                                        // Verifica si se leyeron datos
-                                        if (NumBytesReads > 0) {
-                                            // Realiza la decodificacion del buffer leido desde el InputStream
-                                            DataRemain = DataLength % 16;
-                                            for (i = ReadPos; i < (DataLength - DataRemain); i += 16) {
-                                                for (j = 0; j < 16; j++) {
-                                                    SubInputBuffer[j] = InputBuffer[i + j];
+                                        NumBytesReads = 0;
+                                        ReadPos = 0;
+                                        Decoded = 0;
+                                        TailPos = -1;
+                                        Finder = new TailFinder();
+                                        // Bytes que se retienen por poder ser el Hash o el inicio de la cola
+                                        HoldBack = (Hash != null ? Hash.hashSize() : 0) + TailFinder.PREFIX;
+                                        // El Hash se calcula en su propia hebra mientras se escriben los datos
+                                        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+                                        // Lectura del InputStream
+                                        while ((NumBytesReads >= 0) && (LContinue) && (TailPos < 0)) {
+                                            try {
+                                                DataLength = InputBuffer.length - ReadPos;
+                                                NumBytesReads = Input.read(InputBuffer, ReadPos, DataLength);
+                                                if (NumBytesReads < 0) {
+                                                    DataLength = ReadPos;
+                                                } else {
+                                                    DataLength = ReadPos + NumBytesReads;
                                                 }
-                                                // Codifica el bloque de 128 bits
-                                                DcBuffer = Converter.byte2long(SubInputBuffer);
-                                                synchronized (CCPT) {
-                                                    CCPT.Decodec(DcBuffer);
+                                            } catch (IOException ex) {
+                                                // Error de lectura del archivo de entrada
+                                                throw new UtilsException("ERROR: Can't read from InputStream[" + ex.getMessage() + "]", ERROR_READINPUTSTREAM, CuaimaStream.CLASSID + "017");
+                                            }
+                                            // Verifica si se leyeron datos
+                                            if (NumBytesReads > 0) {
+                                                // Decodifica los bloques completos que siguen a la data ya decodificada
+                                                i = (DataLength - Decoded) & ~15;
+                                                if (i > 0) {
+                                                    synchronized (CCPT) {
+                                                        CCPT.Decodec(InputBuffer, Decoded, i);
+                                                    }
                                                 }
-                                                SubInputBuffer = Converter.long2byte(DcBuffer);
-                                                for (j = 0; j < 16; j++) {
-                                                    InputBuffer[i + j] = SubInputBuffer[j];
+                                                // Busca la cola solo en los bytes recien decodificados
+                                                TailPos = Finder.Find(InputBuffer, Decoded, Decoded + i);
+                                                Decoded += i;
+                                                if (TailPos < 0) {
+                                                    // Retiene el posible Hash, el inicio de la cola y la parte de la marca ya encontrada
+                                                    DataRemain = Decoded - HoldBack - Finder.getMatched();
+                                                    DataRemain = (DataRemain > 0 ? DataRemain : 0);
+                                                    // Actualiza el Hash
+                                                    if (Hasher != null) {
+                                                        Hasher.Update(InputBuffer, 0, DataRemain);
+                                                    }
+                                                    // Escribe la data decodificados en el OutStream
+                                                    try {
+                                                        // Escribe el bloque de datos
+                                                        Output.write(InputBuffer, 0, DataRemain);
+                                                    } catch (IOException ex) {
+                                                        // Error de escritura del OutStream
+                                                        throw new UtilsException("ERROR: Can't write in the OutStream[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "018");
+                                                    }
+                                                    // Defragmenta el buffer moviendo al principio la data no codificada
+                                                    // cuando el Hash la libera
+                                                    if (Hasher != null) {
+                                                        Hasher.Sync();
+                                                    }
+                                                    ReadPos = this.defragBuffer(InputBuffer, (DataLength - DataRemain), DataLength);
+                                                    Decoded -= DataRemain;
                                                 }
                                             }
-                                            TailPos = this.tailFinder(InputBuffer, 0, DataLength - DataRemain);
-                                            if (TailPos < 0) {
-                                                // Actualiza el Hash
-                                                if (Hash != null) {
-                                                    DataRemain = (DataLength - DataRemain) - Hash.hashSize();
-                                                    DataRemain = (DataRemain > 0 ? DataRemain : 0);
-                                                    Hash.update(InputBuffer, 0, DataRemain);
-                                                } else {
-                                                    DataRemain = (DataLength - DataRemain);
-                                                    DataRemain = (DataRemain > 0 ? DataRemain : 0);
+                                            // Verifica si se continua con el proceso de condificacion
+                                            this.rwl.readLock().lock();
+                                            try {
+                                                LContinue = this.Continue;
+                                            } finally {
+                                                this.rwl.readLock().unlock();
+                                            }
+                                        }
+                                        if (TailPos >= 0) {
+                                            // Se encontro la cola
+                                            if (Hash != null) {
+                                                TailPos -= Hash.hashSize();
+                                                if (TailPos < 0) {
+                                                    throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH, CuaimaStream.CLASSID + "045");
                                                 }
-                                                // Escribe la data decodificados en el OutStream
-                                                try {
-                                                    // Escribe el bloque de datos
-                                                    Output.write(InputBuffer, 0, DataRemain);
-                                                } catch (IOException ex) {
-                                                    // Error de escritura del OutStream
-                                                    throw new UtilsException("ERROR: Can't write in the OutStream[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "018");
+                                                Hasher.Update(InputBuffer, 0, TailPos);
+                                                OrgDigest = (byte[]) ArrayUtils.subArray(InputBuffer, TailPos, Hash.hashSize());
+                                                NewDigest = Hasher.Digest();
+                                                if (!Arrays.equals(OrgDigest, NewDigest)) {
+                                                    throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH, CuaimaStream.CLASSID + "019");
                                                 }
-                                                // Defragmenta el buffer moviendo al principio la data no codificada
-                                                ReadPos = this.defragBuffer(InputBuffer, (DataLength - DataRemain), DataLength);
                                             }
-                                        }
-                                        // Verifica si se continua con el proceso de condificacion
-                                        this.rwl.readLock().lock();
-                                        try {
-                                            LContinue = this.Continue;
-                                        } finally {
-                                            this.rwl.readLock().unlock();
-                                        }
-                                    }
-                                    if (TailPos >= 0) {
-                                        // Se encontro la cola
-                                        if (Hash != null) {
-                                            TailPos -= Hash.hashSize();
-                                            Hash.update(InputBuffer, 0, TailPos);
-                                            OrgDigest = (byte[]) ArrayUtils.subArray(InputBuffer, TailPos, Hash.hashSize());
-                                            NewDigest = Hash.digest();
-                                            if (!Arrays.equals(OrgDigest, NewDigest)) {
-                                                throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH, CuaimaStream.CLASSID + "019");
+                                            // Escribe la data decodificados en el OutStream
+                                            try {
+                                                // Escribe el bloque de datos
+                                                Output.write(InputBuffer, 0, TailPos);
+                                            } catch (IOException ex) {
+                                                // Error de escritura del OutStream
+                                                throw new UtilsException("ERROR: Can't write in the OutStream[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "020");
                                             }
+                                        } else if (!LContinue) {
+                                            throw new UtilsException("WARING: Decode interrupted", ERROR_INTERRUPTED, CuaimaStream.CLASSID + "021");
+                                        } else {
+                                            throw new UtilsException("ERROR: Input Stream Early End Of Data", ERROR_READINPUTSTREAM, CuaimaStream.CLASSID + "022");
                                         }
-                                        // Escribe la data decodificados en el OutStream
-                                        try {
-                                            // Escribe el bloque de datos
-                                            Output.write(InputBuffer, 0, TailPos);
-                                        } catch (IOException ex) {
-                                            // Error de escritura del OutStream
-                                            throw new UtilsException("ERROR: Can't write in the OutStream[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "020");
-                                        }
-                                    } else if (!LContinue) {
-                                        throw new UtilsException("WARING: Decode interrupted", ERROR_INTERRUPTED, CuaimaStream.CLASSID + "021");
-                                    } else {
-                                        throw new UtilsException("ERROR: Input Stream Early End Of Data", ERROR_READINPUTSTREAM, CuaimaStream.CLASSID + "022");
                                     }
                                     try {
                                         Input.close();
@@ -1020,6 +792,8 @@ public class CuaimaStream implements CryptoStream, Runnable {
                                         // Error al vaciar el OutputStream
                                         throw new UtilsException("ERROR: Can't Flush OutputStream[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "023");
                                     }
+                                } else {
+                                    throw new UtilsException("ERROR: Version NO soportada del Stream", ERROR_VERSION, CuaimaStream.CLASSID + "046");
                                 }
                             } else {
                                 throw new UtilsException("ERROR: NO se pudo Decodificar el Stream", ERROR_DECODEC, CuaimaStream.CLASSID + "024");
@@ -1040,6 +814,229 @@ public class CuaimaStream implements CryptoStream, Runnable {
         }
     }
 
+    /**
+     * Codifica el InputStream con el formato por registros (VERSION 2),
+     * donde cada lectura del InputStream se envia como un registro con un
+     * encabezado de CuaimaFrames.HEAD bytes que contiene su tipo y su longitud,
+     * seguido de los datos completados a multiplo de 16 bytes. El ultimo
+     * registro contiene el HASH de los datos, o indica que el stream fue
+     * interrumpido.
+     *
+     * @param Input Stream de entrada
+     * @param Output Stream de salida
+     * @param Hash Algoritmo de HASH o null si no se usa
+     * @param Rand Generador de los bytes de ofuscacion
+     * @throws UtilsException
+     */
+    private void CodecRecords(InputStream Input, OutputStream Output, BaseHash Hash, MersenneTwisterPlus Rand) throws UtilsException {
+        byte InputBuffer[], Digest[];
+        ParallelHash Hasher;
+        boolean LContinue;
+        int NumBytesReads, Length, i;
+
+        InputBuffer = PooledBuffer(); // Buffer de Entrada
+        this.rwl.readLock().lock();
+        try {
+            LContinue = this.Continue;
+        } finally {
+            this.rwl.readLock().unlock();
+        }
+        NumBytesReads = 0;
+        // El Hash se calcula en su propia hebra mientras se codifica
+        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+        while ((NumBytesReads >= 0) && (LContinue)) {
+            try {
+                // Deja espacio para el encabezado y el relleno del registro
+                NumBytesReads = Input.read(InputBuffer, CuaimaFrames.HEAD, InputBuffer.length - 2 * CuaimaFrames.HEAD);
+            } catch (IOException ex) {
+                // Error de lectura del archivo de entrada
+                throw new UtilsException("ERROR: Can't read from InputStream[" + ex.getMessage() + "]", ERROR_READINPUTSTREAM, CuaimaStream.CLASSID + "047");
+            }
+            if (NumBytesReads > 0) {
+                if (Hasher != null) {
+                    Hasher.Update(InputBuffer, CuaimaFrames.HEAD, NumBytesReads);
+                }
+                Length = CuaimaFrames.Record(InputBuffer, CuaimaFrames.DATA, NumBytesReads, Rand);
+                if (Hasher != null) {
+                    Hasher.Codec(InputBuffer, 0, Length, Buf -> {
+                        synchronized (CCPT) {
+                            CCPT.Codec(Buf);
+                        }
+                    });
+                } else {
+                    synchronized (CCPT) {
+                        CCPT.Codec(InputBuffer, 0, Length);
+                    }
+                }
+                try {
+                    Output.write(InputBuffer, 0, Length);
+                } catch (IOException ex) {
+                    // Error de escritura del OutStream
+                    throw new UtilsException("ERROR: Can't write in the OutStream[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "048");
+                }
+            }
+            // Verifica si se continua con el proceso de condificacion
+            this.rwl.readLock().lock();
+            try {
+                LContinue = this.Continue;
+            } finally {
+                this.rwl.readLock().unlock();
+            }
+        }
+        if (LContinue) {
+            // El ultimo registro contiene el Hash de los datos
+            if (Hasher != null) {
+                Digest = Hasher.Digest();
+                for (i = 0; i < Digest.length; i++) {
+                    InputBuffer[CuaimaFrames.HEAD + i] = Digest[i];
+                }
+                Length = CuaimaFrames.Record(InputBuffer, CuaimaFrames.FINAL, Digest.length, Rand);
+            } else {
+                Length = CuaimaFrames.Record(InputBuffer, CuaimaFrames.FINAL, 0, Rand);
+            }
+        } else {
+            // Indica al receptor que el stream fue interrumpido
+            Length = CuaimaFrames.Record(InputBuffer, CuaimaFrames.ABORT, 0, Rand);
+        }
+        synchronized (CCPT) {
+            CCPT.Codec(InputBuffer, 0, Length);
+        }
+        try {
+            Output.write(InputBuffer, 0, Length);
+        } catch (IOException ex) {
+            // Error de escritura del OutStream
+            throw new UtilsException("ERROR: Can't write in the OutStream to send the last record[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "049");
+        }
+    }
+
+    /**
+     * Decodifica los registros del formato por registros que siguen al
+     * encabezado del stream. Los datos de cada registro se escriben en el
+     * OutputStream a medida que se decodifican, leyendo del InputStream solo
+     * los bytes del registro en curso, por lo que la memoria usada es la del
+     * buffer de entrada sin importar la longitud del stream.
+     *
+     * @param Input Stream de entrada
+     * @param Output Stream de salida
+     * @param Hash Algoritmo de HASH o null si no se usa
+     * @throws UtilsException
+     */
+    private void DecodecRecords(InputStream Input, OutputStream Output, BaseHash Hash) throws UtilsException {
+        byte InputBuffer[], OrgDigest[], NewDigest[];
+        ParallelHash Hasher;
+        boolean Final;
+        int Type, Length, Padded, Size, Data, i;
+
+        InputBuffer = PooledBuffer(); // Buffer de Entrada
+        // El Hash se calcula en su propia hebra mientras se escriben los datos
+        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+        Final = false;
+        while (!Final) {
+            // Recupera el encabezado del registro
+            this.ReadRecord(Input, InputBuffer, CuaimaFrames.HEAD);
+            synchronized (CCPT) {
+                CCPT.Decodec(InputBuffer, 0, CuaimaFrames.HEAD);
+            }
+            Type = CuaimaFrames.RecordType(InputBuffer);
+            Length = CuaimaFrames.RecordLength(InputBuffer);
+            if (Length < 0) {
+                throw new UtilsException("ERROR: NO se pudo Decodificar el registro del Stream", ERROR_DECODEC, CuaimaStream.CLASSID + "050");
+            }
+            Padded = CuaimaFrames.Padded(Length);
+            switch (Type) {
+                case CuaimaFrames.DATA:
+                    // Decodifica y escribe los datos por partes del tamaño del buffer
+                    Data = Length;
+                    while (Padded > 0) {
+                        Size = Math.min(Padded, InputBuffer.length);
+                        this.ReadRecord(Input, InputBuffer, Size);
+                        i = Math.min(Size, Data);
+                        if (Hasher != null) {
+                            Hasher.Decodec(InputBuffer, 0, Size, i, Buf -> {
+                                synchronized (CCPT) {
+                                    CCPT.Decodec(Buf);
+                                }
+                            });
+                        } else {
+                            synchronized (CCPT) {
+                                CCPT.Decodec(InputBuffer, 0, Size);
+                            }
+                        }
+                        try {
+                            Output.write(InputBuffer, 0, i);
+                        } catch (IOException ex) {
+                            // Error de escritura del OutStream
+                            throw new UtilsException("ERROR: Can't write in the OutStream[" + ex.getMessage() + "]", ERROR_WRITEOUTPUTSTREAM, CuaimaStream.CLASSID + "051");
+                        }
+                        // El buffer se reutiliza cuando el Hash lo libera
+                        if (Hasher != null) {
+                            Hasher.Sync();
+                        }
+                        Data -= i;
+                        Padded -= Size;
+                    }
+                    break;
+                case CuaimaFrames.FINAL:
+                    // Verifica el Hash de los datos
+                    if (Length != ((Hash != null) ? Hash.hashSize() : 0)) {
+                        throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH, CuaimaStream.CLASSID + "052");
+                    }
+                    if (Hasher != null) {
+                        this.ReadRecord(Input, InputBuffer, Padded);
+                        synchronized (CCPT) {
+                            CCPT.Decodec(InputBuffer, 0, Padded);
+                        }
+                        OrgDigest = Arrays.copyOf(InputBuffer, Length);
+                        NewDigest = Hasher.Digest();
+                        if (!Arrays.equals(OrgDigest, NewDigest)) {
+                            throw new UtilsException("ERROR: HASH NO COINCIDEN", ERROR_HASHNOMACH, CuaimaStream.CLASSID + "053");
+                        }
+                    }
+                    Final = true;
+                    break;
+                case CuaimaFrames.ABORT:
+                    throw new UtilsException("ERROR: Stream interrupted by the sender", ERROR_INTERRUPTED, CuaimaStream.CLASSID + "054");
+                default:
+                    throw new UtilsException("ERROR: NO se pudo Decodificar el registro del Stream", ERROR_DECODEC, CuaimaStream.CLASSID + "055");
+            }
+        }
+    }
+
+    /**
+     * Lee del InputStream exactamente Length bytes al inicio de Buffer
+     *
+     * @throws UtilsException si el stream termina antes, si falla la lectura
+     * o si se interrumpe el proceso
+     */
+    private void ReadRecord(InputStream Input, byte Buffer[], int Length) throws UtilsException {
+        int ReadPos, NumBytesReads;
+        boolean LContinue;
+
+        ReadPos = 0;
+        while (ReadPos < Length) {
+            try {
+                NumBytesReads = Input.read(Buffer, ReadPos, Length - ReadPos);
+            } catch (IOException ex) {
+                // Error de lectura del archivo de entrada
+                throw new UtilsException("ERROR: Can't read from InputStream[" + ex.getMessage() + "]", ERROR_READINPUTSTREAM, CuaimaStream.CLASSID + "056");
+            }
+            if (NumBytesReads < 0) {
+                throw new UtilsException("ERROR: Input Stream Early End Of Data", ERROR_READINPUTSTREAM, CuaimaStream.CLASSID + "057");
+            }
+            ReadPos += NumBytesReads;
+            // Verifica si se continua con el proceso de decodificacion
+            this.rwl.readLock().lock();
+            try {
+                LContinue = this.Continue;
+            } finally {
+                this.rwl.readLock().unlock();
+            }
+            if (!LContinue) {
+                throw new UtilsException("WARING: Decode interrupted", ERROR_INTERRUPTED, CuaimaStream.CLASSID + "058");
+            }
+        }
+    }
+
     /**
      * Retorna TRUE si se concluyo con el proceso de codificacion o FALSE si no.
      *
@@ -1065,6 +1062,10 @@ public class CuaimaStream implements CryptoStream, Runnable {
      * En opciones se especifican los parametros de configuracion del algoritmo
      * concatenados con 'or' |
      *
+     * Con la opcion FRAMED el stream se codifica en registros precedidos por
+     * su longitud, que el receptor decodifica y entrega a medida que llegan sin
+     * buscar la cola del stream; este formato solo lo decodifican las
+     * versiones de CuaimaStream que lo soportan.
      *
      * @param Input Stream de entrada a codificar
      * @param Output Stream de salida codificar
@@ -1269,6 +1270,25 @@ public class CuaimaStream implements CryptoStream, Runnable {
         return Result;
     }
 
+    /**
+     * Toma del pool compartido el buffer de entrada del proceso, el cual se
+     * devuelve al pool cuando el proceso concluye
+     *
+     * @return Buffer de BufferSize bytes
+     */
+    private byte[] PooledBuffer() {
+        int Size;
+
+        this.rwl.readLock().lock();
+        try {
+            Size = this.BufferSize;
+        } finally {
+            this.rwl.readLock().unlock();
+        }
+        this.Pooled = BufferPool.Shared().Acquire(Size);
+        return this.Pooled;
+    }
+
     /**
      * Ejecuta la Hebra que procesa el archivo
      */
@@ -1301,6 +1321,9 @@ public class CuaimaStream implements CryptoStream, Runnable {
             }
             this.BTLogF.LogMsg(LoggerManager.TYPE_ERROR, LoggerManager.LEVEL_ERROR, false, ex, null, CuaimaStream.CLASSID, "044");
         } finally {
+            // Devuelve el buffer del proceso al pool compartido
+            BufferPool.Shared().Release(this.Pooled);
+            this.Pooled = null;
             this.rwl.writeLock().lock();
             try {
                 this.isFinished = true;
@@ -1311,6 +1334,87 @@ public class CuaimaStream implements CryptoStream, Runnable {
         }
     }
 
+    /**
+     * Busca la marca de la cola del stream en la data decodificada con el
+     * algoritmo de Knuth-Morris-Pratt, directamente sobre los bytes y sin crear
+     * objetos. La busqueda es incremental: conserva entre llamadas los bytes de
+     * la marca encontrados al final de la busqueda anterior, por lo que cada
+     * byte se revisa una sola vez aunque la marca quede dividida entre dos
+     * lecturas.
+     */
+    private static final class TailFinder {
+
+        // Marca de la cola
+        private static final byte MARK[] = "CCPTTPCC".getBytes(StandardCharsets.US_ASCII);
+        // Bytes que preceden a la marca en el bloque de la cola
+        private static final int PREFIX = 4;
+        // Funcion de falla de la marca
+        private static final int FAILURE[] = Failure(MARK);
+
+        // Bytes de la marca encontrados al final de la ultima busqueda
+        private int Matched = 0;
+
+        /**
+         * Continua la busqueda de la marca en Buffer desde From hasta To, sin
+         * incluir To, a partir de la posicion donde termino la busqueda
+         * anterior.
+         *
+         * @param Buffer Buffer de datos decodificados
+         * @param From Posicion inicial de busqueda
+         * @param To Posicion final de busqueda
+         * @return Posicion donde empieza la cola o -1 si no la consiguio
+         */
+        int Find(byte Buffer[], int From, int To) {
+            int i, Pos;
+
+            Pos = -1;
+            for (i = From; (i < To) && (Pos < 0); i++) {
+                while ((Matched > 0) && (Buffer[i] != MARK[Matched])) {
+                    Matched = FAILURE[Matched - 1];
+                }
+                if (Buffer[i] == MARK[Matched]) {
+                    Matched++;
+                    if (Matched == MARK.length) {
+                        Pos = i + 1 - MARK.length - PREFIX;
+                        if (Pos < 0) {
+                            Pos = 0;
+                        }
+                    }
+                }
+            }
+            return Pos;
+        }
+
+        /**
+         * @return Bytes de la marca encontrados al final de la ultima
+         * busqueda, que pueden ser el inicio de la marca
+         */
+        int getMatched() {
+            return Matched;
+        }
+
+        /**
+         * Calcula la funcion de falla de Knuth-Morris-Pratt de Mark
+         */
+        private static int[] Failure(byte Mark[]) {
+            int Result[];
+            int i, k;
+
+            Result = new int[Mark.length];
+            k = 0;
+            for (i = 1; i < Mark.length; i++) {
+                while ((k > 0) && (Mark[i] != Mark[k])) {
+                    k = Result[k - 1];
+                }
+                if (Mark[i] == Mark[k]) {
+                    k++;
+                }
+                Result[i] = k;
+            }
+            return Result;
+        }
+    }
+
     /**
      * Clase privada que almacena la informacion de los archivos a procesar asi
      * como las opciones a utilizar
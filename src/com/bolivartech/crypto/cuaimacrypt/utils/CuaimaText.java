@@ -1,6 +1,7 @@
 package com.bolivartech.crypto.cuaimacrypt.utils;
 
 import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import com.bolivartech.crypto.cuaimacrypt.CuaimaKeySchedule;
 import com.bolivartech.crypto.digest.BaseHash;
 import com.bolivartech.crypto.digest.CRC32;
 import com.bolivartech.crypto.digest.CRC64;
@@ -51,16 +52,19 @@ import java.util.Arrays;
  * codificada en Base64.
  * 
  * Class ID: "TR74ID0" 
- * Loc: 000-010
+ * Loc: 000-012
  *
  * @author Julian Bolivar
  * @since 2007 - March 25, 2016.
- * @version 3.0.2
+ * @version 3.2.0
  *
  * <p>
  * Change Log:
  * </p>
  * <ul>
+ * <li>v3.2.0 (2026-10-18) Constructor con un CuaimaCryptPool compartido, del que Codec y Decodec toman prestada la instancia de CuaimaCrypt.</li>
+ * <li>v3.1.0 (2026-10-18) Se agrego setKeyCache para obtener la programacion de la clave de un KeyScheduleCache compartido.</li>
+ * <li>v3.0.3 (2026-10-18) El buffer se codifica en bloque con CuaimaCrypt.Codec(long[], int, int).</li>
  * <li>v3.0.2 (2016-03-25) Se agrego el codigo de localizacion para la excepcion y bitacoras.</li>
  * <li>v3.0.1 - Se forza la utilizacion del US-ASCII para las marcas del encabezado.</li>
  * <li>v3.0.0 - Se realiza la estandarizacion de la mascara para el control de
@@ -79,6 +83,8 @@ public class CuaimaText implements CryptoText {
     private CuaimaCrypt CCPT;
     private int PasswdLength;
     private double HeadPos;
+    private KeyScheduleCache<CuaimaKeySchedule> KeyCache;
+    private CuaimaCryptPool Pool;
     private int LineLength = 76;
 
     /**
@@ -100,6 +106,10 @@ public class CuaimaText implements CryptoText {
      * La cantidad de bloques es menor a 2 para inicializar el algoritmo
      */
     public final static int ERROR_NUMBLCK = -3;
+    /**
+     * Se interrumpio la espera de una instancia del pool
+     */
+    public final static int ERROR_INTERRUPTED = -4;
     /**
      * La cantidad de caracteres es menor a 2 para formatear la salida
      */
@@ -195,6 +205,27 @@ public class CuaimaText implements CryptoText {
         }
     }
 
+    /**
+     * Constructor con inicializacion del password de CuaimaText, que toma
+     * prestada una instancia de CuaimaCrypt del pool en cada Codec y Decodec
+     * en lugar de derivar la clave. El pool se debe crear con el mismo
+     * Password y se puede compartir entre varias instancias y hebras.
+     *
+     * @param Password
+     * @param Pool Pool creado con CuaimaCryptPool(String, int, int, int)
+     * @throws UtilsException si el pool no corresponde al Password
+     */
+    public CuaimaText(String Password, CuaimaCryptPool Pool) throws UtilsException {
+
+        PasswdLength = -1;
+        if ((Pool == null) || !Pool.Matches(Password)) {
+            throw new UtilsException("ERROR: NO se pudo inicializar CuaimaText, el pool no corresponde al Password", ERROR_PASSWD,CuaimaText.CLASSID+"011");
+        }
+        this.Pool = Pool;
+        PasswdLength = Password.length();
+        this.CalcHeadPos(Password);
+    }
+
     /**
      * Retorna el identificador de la Clase
      * 
@@ -203,6 +234,52 @@ public class CuaimaText implements CryptoText {
     public static String getCLASSID() {
         return CLASSID;
     }
+
+    /**
+     * Establece el cache de programaciones de clave que utiliza Password, o
+     * null para derivar la clave en cada llamada (por defecto). El cache se
+     * puede compartir entre varias instancias.
+     *
+     * @param KeyCache Cache de programaciones de clave o null
+     */
+    public void setKeyCache(KeyScheduleCache<CuaimaKeySchedule> KeyCache) {
+        this.KeyCache = KeyCache;
+    }
+
+    /**
+     * Retorna el cache de programaciones de clave que utiliza Password
+     *
+     * @return Cache de programaciones de clave o null
+     */
+    public KeyScheduleCache<CuaimaKeySchedule> getKeyCache() {
+        return KeyCache;
+    }
+
+    /**
+     * Retorna el pool del que se toman prestadas las instancias de
+     * CuaimaCrypt
+     *
+     * @return Pool o null si se usa una instancia propia
+     */
+    public CuaimaCryptPool getPool() {
+        return Pool;
+    }
+
+    /**
+     * Toma prestada una instancia del pool
+     *
+     * @return Instancia de CuaimaCrypt
+     * @throws UtilsException si la hebra se interrumpe mientras espera
+     */
+    private CuaimaCrypt Borrow() throws UtilsException {
+
+        try {
+            return Pool.Acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new UtilsException("ERROR: Se interrumpio la espera de una instancia del pool", ERROR_INTERRUPTED,CuaimaText.CLASSID+"012");
+        }
+    }
     
     /**
      * Establece la clave que utiliza CuaimaText para codificar el texto, la
@@ -214,12 +291,30 @@ public class CuaimaText implements CryptoText {
      */
     @Override
     public boolean Password(String Passw) throws UtilsException {
-        boolean salida;
+        CuaimaCrypt Nuevo;
+        boolean salida, Error;
 
         salida = false;
         PasswdLength = -1;
+        if (Pool != null) {
+            // Deja de usar el pool y deriva la nueva clave en una instancia propia
+            CCPT = new CuaimaCrypt(Pool.GetNumBlocks());
+            Pool = null;
+        }
         if (CCPT != null) {
-            if (CCPT.Password(Passw) != 0) {
+            if (KeyCache != null) {
+                // Obtiene la programacion del cache o la deriva con CCPT
+                Nuevo = KeyCache.Apply(Passw, "CuaimaCrypt:" + CCPT.GetNumSeeds(),
+                        P -> (CCPT.Password(P) == 0) ? CCPT.GetKeySchedule() : null,
+                        S -> (S != null) ? new CuaimaCrypt(S) : null);
+                Error = (Nuevo == null);
+                if (!Error) {
+                    CCPT = Nuevo;
+                }
+            } else {
+                Error = (CCPT.Password(Passw) != 0);
+            }
+            if (Error) {
                 throw new UtilsException("ERROR: NO se pudo inicializar la clave en CuaimaText", ERROR_PASSWD,CuaimaText.CLASSID+"004");
             } else {
                 PasswdLength = Passw.length();
@@ -234,7 +329,7 @@ public class CuaimaText implements CryptoText {
      * Reinicia los ShiftCodecs a las semillas iniciales de los mismos
      */
     public void Reset() {
-        if (PasswdLength > 0) {
+        if ((PasswdLength > 0) && (CCPT != null)) {
             CCPT.Reset();
         }
     }
@@ -257,6 +352,23 @@ public class CuaimaText implements CryptoText {
      */
     @Override
     public String Codec(String Input, int Opciones) throws UtilsException {
+
+        if (Pool == null) {
+            return CodecBody(Input, Opciones);
+        }
+        CCPT = Borrow();
+        try {
+            return CodecBody(Input, Opciones);
+        } finally {
+            Pool.Release(CCPT);
+            CCPT = null;
+        }
+    }
+
+    /**
+     * Cuerpo de Codec con la instancia de CuaimaCrypt vigente
+     */
+    private String CodecBody(String Input, int Opciones) throws UtilsException {
         String Salida = null;
         MersenneTwisterPlus Rand;
         long Header[];
@@ -419,19 +531,8 @@ public class CuaimaText implements CryptoText {
                 BufferPost++;
             }
             // Codifica el Buffer de Salida
-            A = new long[2];
-            BufferPost = HPosc;
-            for (i = 0; i < CodecBuffer.length; i += 2) {
-                if (BufferPost == CodecBuffer.length) {
-                    BufferPost = 0;
-                }
-                A[0] = CodecBuffer[(int) BufferPost];
-                A[1] = CodecBuffer[(int) BufferPost + 1];
-                CCPT.Codec(A);
-                CodecBuffer[(int) BufferPost] = A[0];
-                CodecBuffer[(int) BufferPost + 1] = A[1];
-                BufferPost += 2;
-            }
+            CCPT.Codec(CodecBuffer, (int) HPosc, (CodecBuffer.length - (int) HPosc) / 2);
+            CCPT.Codec(CodecBuffer, 0, (int) HPosc / 2);
             try {
                 // Codifica el mensaje encriptado a Base64
                 Salida = Base64.encodeBytes(Converter.long2byte(CodecBuffer), Base64.URL_SAFE);
@@ -470,11 +571,27 @@ public class CuaimaText implements CryptoText {
      */
     @Override
     public String Decodec(String Input) throws UtilsException {
+
+        if (Pool == null) {
+            return DecodecBody(Input);
+        }
+        CCPT = Borrow();
+        try {
+            return DecodecBody(Input);
+        } finally {
+            Pool.Release(CCPT);
+            CCPT = null;
+        }
+    }
+
+    /**
+     * Cuerpo de Decodec con la instancia de CuaimaCrypt vigente
+     */
+    private String DecodecBody(String Input) throws UtilsException {
         String Salida = null;
         long DecodecBuffer[] = null;
         long[] Header, HTemp;
         String HeaderDec;
-        long A[];
         long HPosc, BufferPost;
         double Temp;
         int i;
@@ -508,19 +625,8 @@ public class CuaimaText implements CryptoText {
                 HPosc = DecodecBuffer.length - Header.length;
             }
             // Decodifica el Buffer de Salida
-            A = new long[2];
-            BufferPost = HPosc;
-            for (i = 0; i < DecodecBuffer.length; i += 2) {
-                if (BufferPost == DecodecBuffer.length) {
-                    BufferPost = 0;
-                }
-                A[0] = DecodecBuffer[(int) BufferPost];
-                A[1] = DecodecBuffer[(int) BufferPost + 1];
-                CCPT.Decodec(A);
-                DecodecBuffer[(int) BufferPost] = A[0];
-                DecodecBuffer[(int) BufferPost + 1] = A[1];
-                BufferPost += 2;
-            }
+            CCPT.Decodec(DecodecBuffer, (int) HPosc, (DecodecBuffer.length - (int) HPosc) / 2);
+            CCPT.Decodec(DecodecBuffer, 0, (int) HPosc / 2);
             // Recupera El Encabezado
             for (i = 0; i < Header.length; i++) {
                 Header[i] = DecodecBuffer[(int) (HPosc + i)];
@@ -0,0 +1,290 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import com.bolivartech.crypto.digest.BaseHash;
+import com.bolivartech.crypto.interfaces.CryptoStream;
+import com.bolivartech.utils.converters.Converter;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.random.MersenneTwisterPlus;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage:
+ * <a href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage:
+ * <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is the CuaimaCrypt's util for Code Channel data.</p>
+ *
+ * <p>
+ * WritableByteChannel que codifica con CuaimaCrypt los datos que se escriben
+ * en el y los envia al canal subyacente con el formato por registros de
+ * CuaimaStream (opcion FRAMED), por lo que se decodifican con
+ * CuaimaReadableChannel, CuaimaInputStream o CuaimaStream.Decodec.</p>
+ *
+ * <p>
+ * Los datos se copian de los ByteBuffer de origen, directos o del heap, a un
+ * buffer directo de BufferSize bytes donde se codifican en sitio y desde el
+ * cual se escriben al canal subyacente, sin pasar por arreglos de bytes, por
+ * lo que puede ser el destino de FileChannel.transferTo. Solo el HASH procesa
+ * los datos por partes en un arreglo pequeño, ya que los algoritmos de HASH
+ * solo reciben arreglos.</p>
+ *
+ * <p>
+ * El canal subyacente debe estar en modo bloqueante; close envia el ultimo
+ * registro con el HASH de los datos y cierra el canal subyacente.</p>
+ *
+ * <ul>
+ * <li>Class ID: "TR74ID9"</li>
+ * <li>Loc: 000-001</li>
+ * </ul>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+public class CuaimaWritableChannel implements WritableByteChannel {
+
+    // Codigo de identificacion de la clase
+    private static final String CLASSID = "TR74ID9";
+
+    /**
+     * Tamaño por defecto del buffer en bytes
+     */
+    public static final int DEFAULTBUFFERSIZE = 65536;
+
+    /**
+     * Tamaño minimo del buffer en bytes
+     */
+    public static final int MINBUFFERSIZE = 128;
+
+    // Tamaño del buffer temporal del HASH
+    private static final int SCRATCH = 8192;
+
+    // Canal donde se escriben los datos codificados
+    private final WritableByteChannel Channel;
+    // Algoritmo de codificacion
+    private final CuaimaCrypt CCPT;
+    // Generador de los bytes de ofuscacion
+    private final MersenneTwisterPlus Rand;
+    // Algoritmo de HASH o null si no se usa
+    private final BaseHash Hash;
+    // Tipo de HASH de los datos
+    private final int HashType;
+    // Buffer directo del registro en curso, cuyos datos empiezan en CuaimaFrames.HEAD
+    private final ByteBuffer Buffer;
+    // Buffer temporal del HASH o null si no se usa
+    private final byte Scratch[];
+    // Bytes de datos en el buffer
+    private int Count;
+    // TRUE si ya se envio el encabezado del stream
+    private boolean Started;
+    // TRUE si el canal fue cerrado
+    private boolean Closed;
+
+    /**
+     * Constructor con el canal de salida, el password y las opciones de
+     * codificacion, usando un buffer de DEFAULTBUFFERSIZE bytes
+     *
+     * @param Output Canal donde se escriben los datos codificados
+     * @param Password Password a usar para inicializar el algoritmo
+     * @param Opciones Tipo de HASH de CryptoStream
+     * @throws UtilsException si no se puede inicializar el password
+     */
+    public CuaimaWritableChannel(WritableByteChannel Output, String Password, int Opciones) throws UtilsException {
+        this(Output, Password, Opciones, DEFAULTBUFFERSIZE);
+    }
+
+    /**
+     * Constructor con el canal de salida, el password, las opciones de
+     * codificacion y el tamaño del buffer, que se ajusta a multiplo de 16 y a
+     * un minimo de MINBUFFERSIZE bytes
+     *
+     * @param Output Canal donde se escriben los datos codificados
+     * @param Password Password a usar para inicializar el algoritmo
+     * @param Opciones Tipo de HASH de CryptoStream
+     * @param BufferSize Tamaño del buffer en bytes
+     * @throws UtilsException si no se puede inicializar el password
+     */
+    public CuaimaWritableChannel(WritableByteChannel Output, String Password, int Opciones, int BufferSize) throws UtilsException {
+
+        if (Output == null) {
+            throw new UtilsException("ERROR: Output Channel is NULL", CryptoStream.ERROR_NULLOUTPUTSTREAM, CuaimaWritableChannel.CLASSID + "000");
+        }
+        this.CCPT = new CuaimaCrypt();
+        if ((Password == null) || (this.CCPT.Password(Password) != 0)) {
+            this.CCPT.destroy();
+            throw new UtilsException("ERROR: NO se pudo inicializar CuaimaWritableChannel, falla al inicializar el Password", CryptoStream.ERROR_PASSWD, CuaimaWritableChannel.CLASSID + "001");
+        }
+        this.CCPT.Reset();
+        this.Channel = Output;
+        this.Rand = new MersenneTwisterPlus();
+        this.HashType = Opciones & CuaimaFrames.HASHMASK;
+        this.Hash = CuaimaFrames.NewHash(this.HashType);
+        this.Scratch = (this.Hash != null) ? new byte[SCRATCH] : null;
+        BufferSize = Math.max(BufferSize, MINBUFFERSIZE);
+        this.Buffer = ByteBuffer.allocateDirect(BufferSize - (BufferSize % 16));
+        this.Count = 0;
+        this.Started = false;
+        this.Closed = false;
+    }
+
+    /**
+     * Codifica y escribe los bytes restantes de Src, que queda con position
+     * igual a limit
+     *
+     * @param Src Bytes a escribir
+     * @return Numero de bytes escritos
+     * @throws IOException si falla la escritura o si el canal esta cerrado
+     */
+    @Override
+    public synchronized int write(ByteBuffer Src) throws IOException {
+        ByteBuffer Part;
+        int Size, Written;
+
+        Check();
+        Written = 0;
+        while (Src.hasRemaining()) {
+            if (Count == Capacity()) {
+                Emit();
+            }
+            Size = Math.min(Src.remaining(), Capacity() - Count);
+            Part = Src.duplicate();
+            Part.limit(Part.position() + Size);
+            Buffer.clear();
+            Buffer.position(CuaimaFrames.HEAD + Count);
+            Buffer.put(Part);
+            Src.position(Src.position() + Size);
+            Count += Size;
+            Written += Size;
+        }
+        return Written;
+    }
+
+    /**
+     * Envia como un registro los datos acumulados en el buffer
+     *
+     * @throws IOException si falla la escritura o si el canal esta cerrado
+     */
+    public synchronized void flush() throws IOException {
+
+        Check();
+        Emit();
+    }
+
+    /**
+     * @return TRUE si el canal y el canal subyacente estan abiertos
+     */
+    @Override
+    public synchronized boolean isOpen() {
+        return (!Closed) && Channel.isOpen();
+    }
+
+    /**
+     * Envia los datos acumulados y el ultimo registro con el HASH de los
+     * datos, cierra el canal subyacente y borra la clave de la memoria
+     *
+     * @throws IOException si falla la escritura
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        byte Digest[];
+        int Length;
+
+        if (!Closed) {
+            try {
+                Emit();
+                // El ultimo registro contiene el Hash de los datos
+                Buffer.clear();
+                if (Hash != null) {
+                    Digest = Hash.digest();
+                    Buffer.position(CuaimaFrames.HEAD);
+                    Buffer.put(Digest);
+                    Length = CuaimaFrames.Record(Buffer, CuaimaFrames.FINAL, Digest.length, Rand);
+                } else {
+                    Length = CuaimaFrames.Record(Buffer, CuaimaFrames.FINAL, 0, Rand);
+                }
+                Send(Length);
+            } finally {
+                Closed = true;
+                Buffer.clear();
+                while (Buffer.hasRemaining()) {
+                    Buffer.put((byte) 0);
+                }
+                CCPT.destroy();
+                Channel.close();
+            }
+        }
+    }
+
+    /**
+     * Envia el encabezado del stream si aun no se ha enviado y los datos del
+     * buffer como un registro
+     */
+    private void Emit() throws IOException {
+        ByteBuffer Head;
+        long Header[];
+
+        if (!Started) {
+            Header = CuaimaFrames.Header(HashType, CuaimaFrames.VERSION, Rand);
+            CCPT.Codec(Header, 0, Header.length / 2);
+            Head = ByteBuffer.wrap(Converter.long2byte(Header));
+            while (Head.hasRemaining()) {
+                Channel.write(Head);
+            }
+            Started = true;
+        }
+        if (Count > 0) {
+            if (Hash != null) {
+                Buffer.limit(CuaimaFrames.HEAD + Count);
+                Buffer.position(CuaimaFrames.HEAD);
+                CuaimaFrames.Update(Hash, Buffer, Scratch);
+                Buffer.clear();
+            }
+            Send(CuaimaFrames.Record(Buffer, CuaimaFrames.DATA, Count, Rand));
+            Count = 0;
+        }
+    }
+
+    /**
+     * Codifica en sitio los primeros Length bytes del buffer y los escribe en
+     * el canal subyacente
+     */
+    private void Send(int Length) throws IOException {
+
+        Buffer.limit(Length);
+        Buffer.position(0);
+        CCPT.Codec(Buffer);
+        Buffer.position(0);
+        while (Buffer.hasRemaining()) {
+            Channel.write(Buffer);
+        }
+        Buffer.clear();
+    }
+
+    /**
+     * @return Bytes de datos que caben en un registro
+     */
+    private int Capacity() {
+        return Buffer.capacity() - 2 * CuaimaFrames.HEAD;
+    }
+
+    /**
+     * Verifica que el canal no este cerrado
+     */
+    private void Check() throws IOException {
+
+        if (Closed) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.digest.BaseHash;
+import com.bolivartech.crypto.digest.Sha256;
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import javax.security.auth.DestroyFailedException;
+import javax.security.auth.Destroyable;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Cache acotado de programaciones de clave (CuaimaKeySchedule o
+ * AESKeySchedule) para servidores que reutilizan un conjunto pequeño de
+ * passwords, evitando repetir la derivacion de la clave en cada
+ * inicializacion.</p>
+ *
+ * <p>
+ * Las entradas se indexan por el SHA-256 del dominio y del password, de forma
+ * que el password no se guarda en el cache. Se desalojan por tamaño (la usada
+ * menos recientemente) y por tiempo de vida, y toda entrada desalojada o
+ * eliminada con Clear se borra de la memoria con destroy en cuanto ninguna
+ * hebra la esta usando.</p>
+ *
+ * <p>
+ * El cache solo se bloquea para buscar, agregar y desalojar entradas; la
+ * derivacion de una clave nueva se realiza fuera del bloqueo, una sola vez
+ * por llave, y las hebras que piden la misma llave esperan su resultado sin
+ * bloquear a las que usan otras llaves.</p>
+ *
+ * <p>
+ * El cache es opcional y se comparte entre hebras; se asigna con setKeyCache
+ * en CuaimaText, CuaimaBinary, AESText y AESBinary.</p>
+ *
+ * @param <T> Tipo de la programacion de clave
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.1.0
+ *
+ * <p>
+ * Change Log:
+ * </p>
+ * <ul>
+ * <li>v1.1.0 - La derivacion y el uso de las programaciones se realizan fuera
+ * del bloqueo del cache, con una derivacion en curso por llave y un contador
+ * de usuarios que impide borrar una entrada desalojada mientras se usa.</li>
+ * </ul>
+ */
+public final class KeyScheduleCache<T extends Destroyable> {
+
+    // Entradas en orden de acceso, de la menos a la mas usada
+    @GuardedBy("this")
+    private final LinkedHashMap<ByteBuffer, Entry<T>> Entries;
+    // Maximo numero de entradas
+    private final int MaxEntries;
+    // Tiempo de vida de las entradas en nanosegundos, 0 sin limite
+    private final long TimeToLive;
+    // Contadores
+    @GuardedBy("this")
+    private long Hits;
+    @GuardedBy("this")
+    private long Misses;
+    @GuardedBy("this")
+    private long Evictions;
+
+    /**
+     * Entrada del cache con la derivacion de su programacion, su instante de
+     * creacion y las hebras que la estan usando
+     */
+    private static final class Entry<T> {
+
+        private final FutureTask<T> Schedule;
+        private final long Created;
+        // Hebras que esperan o usan la programacion, protegido por el cache
+        private int Users;
+        // TRUE si la entrada ya no esta en el cache, protegido por el cache
+        private boolean Evicted;
+
+        Entry(FutureTask<T> Schedule, long Created) {
+            this.Schedule = Schedule;
+            this.Created = Created;
+            this.Users = 0;
+            this.Evicted = false;
+        }
+    }
+
+    /**
+     * Constructor con el maximo numero de entradas y su tiempo de vida
+     *
+     * @param MaxEntries Maximo numero de entradas, mayor a 0
+     * @param TimeToLive Tiempo de vida de las entradas en milisegundos, 0 para
+     * no expirar las entradas
+     * @throws IllegalArgumentException si MaxEntries es menor a 1 o
+     * TimeToLive es negativo
+     */
+    public KeyScheduleCache(int MaxEntries, long TimeToLive) {
+
+        if (MaxEntries < 1) {
+            throw new IllegalArgumentException("The cache must hold at least one entry");
+        }
+        if (TimeToLive < 0) {
+            throw new IllegalArgumentException("The time to live can't be negative");
+        }
+        this.MaxEntries = MaxEntries;
+        this.TimeToLive = TimeToLive * 1000000L;
+        this.Entries = new LinkedHashMap<ByteBuffer, Entry<T>>(16, 0.75f, true);
+        this.Hits = 0;
+        this.Misses = 0;
+        this.Evictions = 0;
+    }
+
+    /**
+     * Calcula la llave de la entrada como el SHA-256 del dominio, un byte 0 y
+     * el password en UTF-8
+     */
+    private static ByteBuffer Key(String Password, String Domain) {
+        BaseHash Hash;
+        byte Data[];
+
+        Hash = new Sha256();
+        Data = Domain.getBytes(StandardCharsets.UTF_8);
+        Hash.update(Data, 0, Data.length);
+        Hash.update(new byte[1], 0, 1);
+        Data = Password.getBytes(StandardCharsets.UTF_8);
+        Hash.update(Data, 0, Data.length);
+        Arrays.fill(Data, (byte) 0);
+        return ByteBuffer.wrap(Hash.digest());
+    }
+
+    /**
+     * Espera sin interrupciones el resultado de la derivacion de la
+     * programacion, relanzando la excepcion de 'Derive' si fallo
+     */
+    private static <T> T Await(FutureTask<T> Task) {
+        boolean Interrupted;
+        Throwable Cause;
+
+        Interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return Task.get();
+                } catch (InterruptedException ex) {
+                    Interrupted = true;
+                } catch (ExecutionException ex) {
+                    Cause = ex.getCause();
+                    if (Cause instanceof RuntimeException) {
+                        throw (RuntimeException) Cause;
+                    }
+                    if (Cause instanceof Error) {
+                        throw (Error) Cause;
+                    }
+                    throw new IllegalStateException(Cause);
+                }
+            }
+        } finally {
+            if (Interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Borra de la memoria la programacion de clave de una entrada que ya no
+     * esta en el cache ni en uso
+     */
+    private static <T extends Destroyable> void Destroy(Entry<T> Old) {
+        T Schedule;
+
+        if (Old.Schedule.isDone()) {
+            try {
+                Schedule = Old.Schedule.get();
+                if (Schedule != null) {
+                    Schedule.destroy();
+                }
+            } catch (InterruptedException | ExecutionException | DestroyFailedException ex) {
+                // La derivacion fallo o la entrada ya no es accesible desde el cache
+            }
+        }
+    }
+
+    /**
+     * Marca como desalojada una entrada ya retirada del mapa y la borra de la
+     * memoria si ninguna hebra la esta usando
+     */
+    private void Evict(Entry<T> Old, boolean Count) {
+
+        if (Count) {
+            Evictions++;
+        }
+        Old.Evicted = true;
+        if (Old.Users == 0) {
+            Destroy(Old);
+        }
+    }
+
+    /**
+     * Desaloja las entradas que superaron su tiempo de vida
+     */
+    private void PurgeExpired(long Now) {
+        Iterator<Entry<T>> It;
+        Entry<T> Old;
+
+        if (TimeToLive > 0) {
+            It = Entries.values().iterator();
+            while (It.hasNext()) {
+                Old = It.next();
+                if ((Now - Old.Created) >= TimeToLive) {
+                    It.remove();
+                    Evict(Old, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Termina el uso de la entrada 'Actual' de la llave 'Llave'; si su
+     * derivacion no produjo una programacion la retira del cache, y si fue
+     * desalojada y era el ultimo usuario la borra de la memoria
+     */
+    private synchronized void Release(ByteBuffer Llave, Entry<T> Actual, boolean Failed) {
+
+        Actual.Users--;
+        if (Failed && (!Actual.Evicted) && Entries.remove(Llave, Actual)) {
+            Actual.Evicted = true;
+        }
+        if (Actual.Evicted && (Actual.Users == 0)) {
+            Destroy(Actual);
+        }
+    }
+
+    /**
+     * Obtiene la programacion de clave de 'Password' en 'Domain', derivandola
+     * con 'Derive' si no esta en el cache, y la entrega a 'Use'.
+     *
+     * 'Derive' y 'Use' se ejecutan sin bloquear el cache. 'Derive' se ejecuta
+     * una sola vez por llave aunque varias hebras pidan la misma programacion
+     * al mismo tiempo; las demas esperan su resultado. Mientras 'Use' se
+     * ejecuta la programacion no se borra aunque sea desalojada, por lo que
+     * 'Use' debe limitarse a crear la instancia a partir de ella y no
+     * conservarla. Si 'Derive' retorna null, por ejemplo porque el password no
+     * es valido, no se conserva ninguna entrada y 'Use' recibe null.
+     *
+     * @param <R> Tipo del resultado
+     * @param Password Password de la programacion de clave
+     * @param Domain Dominio de la programacion, por ejemplo el algoritmo y su
+     * numero de bloques
+     * @param Derive Funcion que deriva la programacion a partir del password
+     * @param Use Funcion que crea el resultado a partir de la programacion
+     * @return Resultado de 'Use'
+     */
+    public <R> R Apply(String Password, String Domain, Function<String, T> Derive, Function<T, R> Use) {
+        ByteBuffer Llave;
+        Entry<T> Actual;
+        Iterator<Entry<T>> It;
+        Entry<T> Old;
+        T Schedule;
+        boolean Owner, Failed;
+        long Now;
+
+        Llave = Key(Password, Domain);
+        Owner = false;
+        synchronized (this) {
+            Now = System.nanoTime();
+            PurgeExpired(Now);
+            Actual = Entries.get(Llave);
+            if (Actual != null) {
+                Hits++;
+            } else {
+                Misses++;
+                Actual = new Entry<T>(new FutureTask<T>(() -> Derive.apply(Password)), Now);
+                Entries.put(Llave, Actual);
+                Owner = true;
+                It = Entries.values().iterator();
+                while (Entries.size() > MaxEntries) {
+                    Old = It.next();
+                    It.remove();
+                    Evict(Old, true);
+                }
+            }
+            Actual.Users++;
+        }
+        Failed = true;
+        try {
+            if (Owner) {
+                Actual.Schedule.run();
+            }
+            Schedule = Await(Actual.Schedule);
+            Failed = (Schedule == null);
+            return Use.apply(Schedule);
+        } finally {
+            Release(Llave, Actual, Failed);
+        }
+    }
+
+    /**
+     * @return Numero de programaciones obtenidas del cache
+     */
+    public synchronized long GetHits() {
+        return Hits;
+    }
+
+    /**
+     * @return Numero de programaciones derivadas por no estar en el cache
+     */
+    public synchronized long GetMisses() {
+        return Misses;
+    }
+
+    /**
+     * @return Numero de entradas desalojadas por tamaño o tiempo de vida
+     */
+    public synchronized long GetEvictions() {
+        return Evictions;
+    }
+
+    /**
+     * @return Numero de entradas vigentes en el cache
+     */
+    public synchronized int Size() {
+        PurgeExpired(System.nanoTime());
+        return Entries.size();
+    }
+
+    /**
+     * @return Maximo numero de entradas del cache
+     */
+    public int GetMaxEntries() {
+        return MaxEntries;
+    }
+
+    /**
+     * Elimina todas las entradas del cache, borrandolas de la memoria en
+     * cuanto ninguna hebra las este usando
+     */
+    public synchronized void Clear() {
+        Iterator<Entry<T>> It;
+        Entry<T> Old;
+
+        It = Entries.values().iterator();
+        while (It.hasNext()) {
+            Old = It.next();
+            It.remove();
+            Evict(Old, false);
+        }
+    }
+}
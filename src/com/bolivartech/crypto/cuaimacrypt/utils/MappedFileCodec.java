@@ -0,0 +1,300 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.digest.BaseHash;
+import com.bolivartech.utils.random.MersenneTwisterPlus;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Motor de entrada y salida por archivos mapeados en memoria para el formato
+ * clasico (VERSION 3) de CuaimaFile y AESFile, en el cual el encabezado
+ * codificado se inserta en la palabra de 64 bits HPosc del archivo y el resto
+ * del archivo es el flujo de datos: el archivo original, su HASH y relleno
+ * aleatorio hasta completar el tamaño del archivo codificado.</p>
+ *
+ * <p>
+ * Los datos se codifican y decodifican en sitio sobre ventanas del archivo de
+ * salida mapeadas con FileChannel.map, copiadas directamente desde ventanas
+ * mapeadas del archivo de entrada, sin pasar por un buffer en el heap; las
+ * ventanas se cortan en el borde del encabezado para que cada una sea contigua
+ * en ambos archivos. Solo el HASH y la cola del archivo decodificado se
+ * procesan en buffers pequeños del heap.</p>
+ *
+ * <p>
+ * Los archivos generados son identicos en formato a los de la lectura y
+ * escritura por buffers, por lo que ambos motores se pueden mezclar al
+ * codificar y decodificar.</p>
+ *
+ * <p>
+ * El HASH se calcula con ParallelHash en su propia hebra sobre las mismas
+ * ventanas mapeadas, en paralelo con el algoritmo de codificacion.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.2.0
+ *
+ * <p>
+ * Change Log:
+ * </p>
+ * <ul>
+ * <li>v1.2.0 - Progress receives the processed bytes instead of a
+ * percentage.</li>
+ * <li>v1.1.0 - The hash runs on its own thread through ParallelHash.</li>
+ * </ul>
+ */
+public final class MappedFileCodec {
+
+    // Tamaño del bloque de los algoritmos en bytes
+    private static final int BLOCKSIZE = 16;
+
+    /**
+     * Algoritmo de bloques que codifica o decodifica en sitio los bytes
+     * restantes de un buffer, los cuales son multiplo de 16
+     */
+    public interface BlockCipher {
+
+        /**
+         * Codifica o decodifica en sitio los bytes de Buf entre position y
+         * limit
+         *
+         * @param Buf Buffer a procesar
+         */
+        void Apply(ByteBuffer Buf);
+    }
+
+    private MappedFileCodec() {
+    }
+
+    /**
+     * Codifica el flujo de datos del archivo In en el archivo Out, el cual se
+     * redimensiona a 'OutputLength' palabras de 64 bits, y escribe el
+     * encabezado ya codificado en la palabra HPosc.
+     *
+     * El cifrador debe estar en el estado siguiente a la codificacion del
+     * encabezado.
+     *
+     * @param In Archivo original abierto para lectura
+     * @param InputLength Tamaño del archivo original en bytes
+     * @param Out Archivo codificado abierto para lectura y escritura
+     * @param Header Encabezado codificado
+     * @param HPosc Posicion del encabezado en palabras de 64 bits
+     * @param OutputLength Tamaño del archivo codificado en palabras de 64 bits
+     * @param Hash Algoritmo de HASH del archivo original o null
+     * @param Rand Generador del relleno aleatorio
+     * @param Window Tamaño de las ventanas mapeadas en bytes, multiplo de 16
+     * @param Cipher Algoritmo de codificacion
+     * @param Progress Recibe el numero de bytes procesados del flujo de datos
+     * @throws IOException si falla la lectura, el mapeo o la escritura
+     */
+    public static void Codec(FileChannel In, long InputLength, FileChannel Out, byte Header[], long HPosc, long OutputLength, BaseHash Hash, MersenneTwisterPlus Rand, int Window, BlockCipher Cipher, LongConsumer Progress) throws IOException {
+        MappedByteBuffer Target;
+        ByteBuffer Source;
+        ParallelHash Hasher;
+        byte Digest[];
+        long DataLength;
+        long HeaderStart;
+        long Posc, End, Real, i;
+
+        HeaderStart = 8 * HPosc;
+        DataLength = 8 * OutputLength - Header.length;
+        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+        Digest = null;
+        // Pre-dimensiona el archivo de salida y escribe el encabezado en su posicion
+        Out.truncate(0);
+        WriteFully(Out, ByteBuffer.wrap(new byte[1]), 8 * OutputLength - 1);
+        WriteFully(Out, ByteBuffer.wrap(Header), HeaderStart);
+        Posc = 0;
+        while (Posc < DataLength) {
+            End = WindowEnd(Posc, DataLength, HeaderStart, Window);
+            Target = Out.map(FileChannel.MapMode.READ_WRITE, Posc < HeaderStart ? Posc : Posc + Header.length, End - Posc);
+            // Copia los datos del archivo original
+            Real = Math.min(End, InputLength) - Posc;
+            if (Real > 0) {
+                Source = In.map(FileChannel.MapMode.READ_ONLY, Posc, Real);
+                if (Hasher != null) {
+                    Hasher.Update(Source);
+                }
+                Target.put(Source);
+            }
+            // Completa con el HASH y el relleno aleatorio
+            for (i = Math.max(Posc, InputLength); i < End; i++) {
+                if ((Hasher != null) && (i - InputLength < Hasher.hashSize())) {
+                    if (Digest == null) {
+                        Digest = Hasher.Digest();
+                    }
+                    Target.put(Digest[(int) (i - InputLength)]);
+                } else {
+                    Target.put(Rand.nextByte());
+                }
+            }
+            Target.flip();
+            Cipher.Apply(Target);
+            Posc = End;
+            Progress.accept(Posc);
+        }
+        if ((Hasher != null) && (Digest == null)) {
+            Hasher.Sync();
+        }
+    }
+
+    /**
+     * Decodifica el flujo de datos del archivo In, que tiene el encabezado de
+     * 'HeaderLength' palabras de 64 bits en la palabra HPosc, escribiendo los
+     * primeros 'OutputLength' bytes en el archivo Out.
+     *
+     * El cifrador debe estar en el estado siguiente a la decodificacion del
+     * encabezado; el HASH, si no es null, se calcula sobre los datos
+     * decodificados.
+     *
+     * @param In Archivo codificado abierto para lectura
+     * @param HPosc Posicion del encabezado en palabras de 64 bits
+     * @param HeaderLength Tamaño del encabezado en palabras de 64 bits
+     * @param Out Archivo decodificado abierto para lectura y escritura
+     * @param OutputLength Tamaño del archivo original en bytes
+     * @param Hash Algoritmo de HASH del archivo original o null
+     * @param Window Tamaño de las ventanas mapeadas en bytes, multiplo de 16
+     * @param Cipher Algoritmo de decodificacion
+     * @param Progress Recibe el numero de bytes procesados del flujo de datos
+     * @return HASH almacenado en el archivo codificado o null si Hash es null
+     * @throws IOException si falla la lectura, el mapeo o la escritura, o si
+     * el archivo codificado es mas corto que los datos que declara
+     */
+    public static byte[] Decodec(FileChannel In, long HPosc, int HeaderLength, FileChannel Out, long OutputLength, BaseHash Hash, int Window, BlockCipher Cipher, LongConsumer Progress) throws IOException {
+        MappedByteBuffer Target;
+        ByteBuffer Tail;
+        ParallelHash Hasher;
+        byte Digest[];
+        long DataLength;
+        long HeaderStart;
+        long Full;
+        long Posc, End;
+        int HashSize;
+        int Rest;
+
+        HeaderStart = 8 * HPosc;
+        DataLength = In.size() - 8L * HeaderLength;
+        DataLength -= DataLength % BLOCKSIZE;
+        HashSize = (Hash != null) ? Hash.hashSize() : 0;
+        if ((HeaderStart > DataLength) || (OutputLength + HashSize > DataLength)) {
+            throw new IOException("The encoded file is shorter than its header declares");
+        }
+        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+        Out.truncate(0);
+        // Decodifica los bloques completos del archivo original en el archivo de salida
+        Full = OutputLength - (OutputLength % BLOCKSIZE);
+        Posc = 0;
+        while (Posc < Full) {
+            End = WindowEnd(Posc, Full, HeaderStart, Window);
+            Target = Out.map(FileChannel.MapMode.READ_WRITE, Posc, End - Posc);
+            Target.put(In.map(FileChannel.MapMode.READ_ONLY, Posc < HeaderStart ? Posc : Posc + 8L * HeaderLength, End - Posc));
+            Target.flip();
+            Cipher.Apply(Target);
+            if (Hasher != null) {
+                Target.flip();
+                Hasher.Update(Target);
+            }
+            Posc = End;
+            Progress.accept(Posc);
+        }
+        // Decodifica la cola del archivo original y el HASH en el heap
+        Rest = (int) (OutputLength - Full);
+        Tail = ByteBuffer.allocate((int) Math.min(DataLength - Full, (Rest + HashSize + BLOCKSIZE - 1) & ~(BLOCKSIZE - 1)));
+        ReadData(In, Full, HeaderStart, 8L * HeaderLength, Tail);
+        Tail.flip();
+        Cipher.Apply(Tail);
+        Tail.flip();
+        Tail.limit(Rest);
+        if (Hasher != null) {
+            Hasher.Update(Tail.array(), 0, Rest);
+            Hasher.Sync();
+        }
+        WriteFully(Out, Tail, Full);
+        Digest = null;
+        if (Hash != null) {
+            Digest = new byte[HashSize];
+            Tail.limit(Rest + HashSize);
+            Tail.position(Rest);
+            Tail.get(Digest);
+        }
+        return Digest;
+    }
+
+    /**
+     * Calcula el fin de la ventana que inicia en Posc del flujo de datos,
+     * cortandola en el borde del encabezado
+     */
+    private static long WindowEnd(long Posc, long Limit, long HeaderStart, int Window) {
+        long End;
+
+        End = Math.min(Limit, Posc + Window);
+        if ((Posc < HeaderStart) && (End > HeaderStart)) {
+            End = HeaderStart;
+        }
+        return End;
+    }
+
+    /**
+     * Lee desde la posicion Posc del flujo de datos de In hasta llenar Dst,
+     * saltando el encabezado
+     */
+    static void ReadData(FileChannel In, long Posc, long HeaderStart, long HeaderBytes, ByteBuffer Dst) throws IOException {
+        int Len;
+
+        while (Dst.hasRemaining()) {
+            if (Posc < HeaderStart) {
+                Len = In.read((ByteBuffer) Dst.duplicate().limit(Dst.position() + (int) Math.min(Dst.remaining(), HeaderStart - Posc)), Posc);
+            } else {
+                Len = In.read(Dst.duplicate(), Posc + HeaderBytes);
+            }
+            if (Len < 0) {
+                throw new IOException("Unexpected end of the encoded file");
+            }
+            Dst.position(Dst.position() + Len);
+            Posc += Len;
+        }
+    }
+
+    /**
+     * Escribe los bytes restantes de Src en la posicion Posc del flujo de datos
+     * de Out, saltando el encabezado
+     */
+    static void WriteData(FileChannel Out, long Posc, long HeaderStart, long HeaderBytes, ByteBuffer Src) throws IOException {
+        ByteBuffer Part;
+
+        if ((Posc < HeaderStart) && (Posc + Src.remaining() > HeaderStart)) {
+            Part = Src.duplicate();
+            Part.limit(Part.position() + (int) (HeaderStart - Posc));
+            WriteFully(Out, Part, Posc);
+            Src.position(Part.limit());
+            Posc = HeaderStart;
+        }
+        WriteFully(Out, Src, Posc < HeaderStart ? Posc : Posc + HeaderBytes);
+    }
+
+    /**
+     * Escribe todos los bytes restantes de Src en la posicion Posc de Out
+     */
+    static void WriteFully(FileChannel Out, ByteBuffer Src, long Posc) throws IOException {
+
+        while (Src.hasRemaining()) {
+            Posc += Out.write(Src, Posc);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.digest.BaseHash;
+import com.bolivartech.utils.btthreads.annotations.GuardedBy;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Calcula un HASH (BaseHash) en una hebra propia sobre los mismos buffers que
+ * se codifican, sin copiarlos, para que el HASH y el algoritmo de codificacion
+ * se ejecuten en paralelo. Los datos se entregan en rebanadas de SLICE bytes:
+ * al codificar, el algoritmo procesa cada rebanada despues de que el HASH paso
+ * por ella (Codec) y, al decodificar, el HASH procesa cada rebanada despues de
+ * decodificada (Decodec).</p>
+ *
+ * <p>
+ * Los bytes entregados con Update no se deben modificar hasta que el HASH los
+ * procese, lo cual se garantiza con Codec, Sync o Digest. La hebra del HASH
+ * termina sola cuando no recibe datos durante IDLE milisegundos, por lo que no
+ * es necesario cerrar la instancia.</p>
+ *
+ * <p>
+ * Una instancia es usada por un solo trabajo de codificacion a la vez.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+public final class ParallelHash {
+
+    /**
+     * Tamaño de las rebanadas en bytes, multiplo de 16
+     */
+    public static final int SLICE = 262144;
+    // Tiempo de espera de la hebra inactiva antes de terminar en milisegundos
+    private static final long IDLE = 1000;
+    // Tamaño del buffer para los ByteBuffer que no estan en el heap
+    private static final int SCRATCH = 65536;
+
+    // Algoritmo de HASH
+    private final BaseHash Hash;
+    // Rebanadas pendientes, la primera es la que se esta procesando
+    @GuardedBy("this")
+    private final ArrayDeque<ByteBuffer> Pending;
+    // Total de bytes entregados y procesados
+    @GuardedBy("this")
+    private long Submitted;
+    @GuardedBy("this")
+    private long Hashed;
+    // Hebra del HASH, null si no esta activa
+    @GuardedBy("this")
+    private Thread Worker;
+    // Falla del HASH
+    @GuardedBy("this")
+    private RuntimeException Failure;
+    // Ultima entrega de un arreglo, para Codec
+    @GuardedBy("this")
+    private byte LastBuf[];
+    @GuardedBy("this")
+    private int LastOff;
+    @GuardedBy("this")
+    private int LastLen;
+    @GuardedBy("this")
+    private long LastStart;
+
+    /**
+     * Constructor con el algoritmo de HASH, el cual solo debe ser usado a
+     * traves de esta instancia hasta obtener el Digest
+     *
+     * @param Hash Algoritmo de HASH
+     * @throws IllegalArgumentException si Hash es null
+     */
+    public ParallelHash(BaseHash Hash) {
+
+        if (Hash == null) {
+            throw new IllegalArgumentException("The hash can't be null");
+        }
+        this.Hash = Hash;
+        this.Pending = new ArrayDeque<ByteBuffer>();
+        this.Submitted = 0;
+        this.Hashed = 0;
+        this.Worker = null;
+        this.Failure = null;
+        this.LastBuf = null;
+    }
+
+    /**
+     * Entrega al HASH los bytes Buf[Off] a Buf[Off+Len-1], que no se deben
+     * modificar hasta que el HASH los procese
+     *
+     * @param Buf Arreglo de bytes
+     * @param Off Posicion inicial
+     * @param Len Numero de bytes
+     */
+    public void Update(byte Buf[], int Off, int Len) {
+
+        synchronized (this) {
+            LastBuf = Buf;
+            LastOff = Off;
+            LastLen = Len;
+            LastStart = Submitted;
+        }
+        Update(ByteBuffer.wrap(Buf, Off, Len));
+    }
+
+    /**
+     * Entrega al HASH los bytes restantes de Buf, sin modificar su position,
+     * que no se deben modificar hasta que el HASH los procese
+     *
+     * @param Buf Buffer de bytes
+     */
+    public synchronized void Update(ByteBuffer Buf) {
+        ByteBuffer Slice;
+        int Posc, End;
+
+        Posc = Buf.position();
+        End = Buf.limit();
+        while (Posc < End) {
+            Slice = Buf.duplicate();
+            Slice.position(Posc);
+            Slice.limit(Math.min(End, Posc + SLICE));
+            Pending.addLast(Slice);
+            Submitted += Slice.remaining();
+            Posc = Slice.limit();
+        }
+        if (Worker == null) {
+            Worker = new Thread(this::Run, "CuaimaCrypt Hash");
+            Worker.setDaemon(true);
+            Worker.start();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Aplica en sitio Cipher a los bytes Buf[Off] a Buf[Off+Len-1] por
+     * rebanadas, esperando en cada una que el HASH haya procesado los bytes de
+     * la ultima entrega de Buf con Update; las entregas anteriores de Buf ya
+     * deben estar procesadas.
+     *
+     * @param Buf Arreglo de bytes
+     * @param Off Posicion inicial
+     * @param Len Numero de bytes, multiplo de 16
+     * @param Cipher Algoritmo de codificacion
+     */
+    public void Codec(byte Buf[], int Off, int Len, MappedFileCodec.BlockCipher Cipher) {
+        int Posc, End;
+        long Need;
+
+        Posc = Off;
+        while (Posc < Off + Len) {
+            End = Math.min(Off + Len, Posc + SLICE);
+            synchronized (this) {
+                if ((Buf == LastBuf) && (End > LastOff)) {
+                    Need = LastStart + Math.min(End, LastOff + LastLen) - LastOff;
+                } else {
+                    Need = 0;
+                }
+            }
+            Await(Need);
+            Cipher.Apply(ByteBuffer.wrap(Buf, Posc, End - Posc));
+            Posc = End;
+        }
+    }
+
+    /**
+     * Aplica en sitio Cipher a los bytes Buf[Off] a Buf[Off+Len-1] por
+     * rebanadas, entregando al HASH cada rebanada despues de procesada, hasta
+     * un maximo de HashLen bytes
+     *
+     * @param Buf Arreglo de bytes
+     * @param Off Posicion inicial
+     * @param Len Numero de bytes, multiplo de 16
+     * @param HashLen Numero de bytes iniciales que se entregan al HASH
+     * @param Cipher Algoritmo de decodificacion
+     */
+    public void Decodec(byte Buf[], int Off, int Len, int HashLen, MappedFileCodec.BlockCipher Cipher) {
+        int Posc, End;
+
+        Posc = Off;
+        while (Posc < Off + Len) {
+            End = Math.min(Off + Len, Posc + SLICE);
+            Cipher.Apply(ByteBuffer.wrap(Buf, Posc, End - Posc));
+            if (Posc < Off + HashLen) {
+                Update(Buf, Posc, Math.min(End, Off + HashLen) - Posc);
+            }
+            Posc = End;
+        }
+    }
+
+    /**
+     * Espera que el HASH procese todos los bytes entregados, despues de lo
+     * cual los buffers se pueden modificar
+     */
+    public void Sync() {
+        long Total;
+
+        synchronized (this) {
+            Total = Submitted;
+        }
+        Await(Total);
+    }
+
+    /**
+     * Espera que el HASH procese todos los bytes entregados y retorna su
+     * resultado, reiniciando el HASH
+     *
+     * @return HASH de los bytes entregados
+     */
+    public byte[] Digest() {
+
+        Sync();
+        synchronized (this) {
+            LastBuf = null;
+            return Hash.digest();
+        }
+    }
+
+    /**
+     * @return Tamaño del HASH en bytes
+     */
+    public int hashSize() {
+        return Hash.hashSize();
+    }
+
+    /**
+     * Espera que el HASH haya procesado 'Total' bytes
+     *
+     * @throws IllegalStateException si el HASH fallo o la espera fue
+     * interrumpida
+     */
+    private synchronized void Await(long Total) {
+
+        while (Hashed < Total) {
+            if (Failure != null) {
+                throw new IllegalStateException("The hash failed", Failure);
+            }
+            try {
+                wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the hash", ex);
+            }
+        }
+        if (Failure != null) {
+            throw new IllegalStateException("The hash failed", Failure);
+        }
+    }
+
+    /**
+     * Ciclo de la hebra del HASH
+     */
+    private void Run() {
+        ByteBuffer Slice;
+        byte Scratch[];
+        int Count, Len;
+
+        Scratch = null;
+        while (true) {
+            synchronized (this) {
+                if (Pending.isEmpty()) {
+                    try {
+                        wait(IDLE);
+                    } catch (InterruptedException ex) {
+                        // Termina la hebra, se reinicia con la proxima entrega
+                    }
+                    if (Pending.isEmpty()) {
+                        Worker = null;
+                        return;
+                    }
+                }
+                Slice = Pending.peekFirst();
+            }
+            Count = Slice.remaining();
+            try {
+                if (Slice.hasArray()) {
+                    Hash.update(Slice.array(), Slice.arrayOffset() + Slice.position(), Slice.remaining());
+                } else {
+                    if (Scratch == null) {
+                        Scratch = new byte[SCRATCH];
+                    }
+                    while (Slice.hasRemaining()) {
+                        Len = Math.min(Scratch.length, Slice.remaining());
+                        Slice.get(Scratch, 0, Len);
+                        Hash.update(Scratch, 0, Len);
+                    }
+                }
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    Failure = ex;
+                    Pending.clear();
+                    Worker = null;
+                    notifyAll();
+                }
+                return;
+            }
+            synchronized (this) {
+                Pending.removeFirst();
+                Hashed += Count;
+                notifyAll();
+            }
+        }
+    }
+}
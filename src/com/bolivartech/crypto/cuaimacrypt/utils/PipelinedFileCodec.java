@@ -0,0 +1,476 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.digest.BaseHash;
+import com.bolivartech.utils.random.MersenneTwisterPlus;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Motor en tres etapas (pipeline) para el formato clasico (VERSION 3) de
+ * CuaimaFile: una hebra de lectura, la hebra que lo invoca, que codifica o
+ * decodifica, y una hebra de escritura, las cuales intercambian un anillo de
+ * 'Depth' buffers reutilizados. Mientras un buffer se codifica el siguiente se
+ * lee y el anterior se escribe, por lo que el tiempo total tiende al mayor
+ * entre el de entrada y salida y el del algoritmo en lugar de su suma.</p>
+ *
+ * <p>
+ * La distribucion del archivo es la misma de MappedFileCodec: el encabezado
+ * codificado en la palabra de 64 bits HPosc y el flujo de datos alrededor de
+ * el, por lo que los archivos son compatibles con los demas motores.</p>
+ *
+ * <p>
+ * El HASH se calcula con ParallelHash en una cuarta hebra sobre los mismos
+ * buffers del anillo: al codificar va delante del algoritmo y al decodificar
+ * detras, y la hebra de escritura solo devuelve un buffer al anillo cuando el
+ * HASH termino con el.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.3.0
+ *
+ * <p>
+ * Change Log:
+ * </p>
+ * <ul>
+ * <li>v1.3.0 - The ring buffers are taken from the shared BufferPool.</li>
+ * <li>v1.2.0 - Progress receives the processed bytes instead of a
+ * percentage.</li>
+ * <li>v1.1.0 - The hash runs on its own thread through ParallelHash.</li>
+ * </ul>
+ */
+public final class PipelinedFileCodec {
+
+    // Tamaño del bloque de los algoritmos en bytes
+    private static final int BLOCKSIZE = 16;
+    // Intervalo de espera entre verificaciones de falla en milisegundos
+    private static final long POLL = 50;
+
+    /**
+     * Buffer del anillo con la posicion de sus datos en el flujo de datos
+     */
+    private static final class Chunk {
+
+        private final byte Data[];
+        // Posicion del buffer en el flujo de datos
+        private long Posc;
+        // Numero de bytes validos del buffer, -1 marca el fin del flujo
+        private int Length;
+        // Numero de bytes a escribir
+        private int Write;
+
+        Chunk(byte Data[]) {
+            this.Data = Data;
+        }
+    }
+
+    /**
+     * Estado compartido por las tres etapas de una operacion
+     */
+    private static final class Pipeline {
+
+        // Buffers libres, leidos y procesados
+        private final BlockingQueue<Chunk> Free;
+        private final BlockingQueue<Chunk> Read;
+        private final BlockingQueue<Chunk> Done;
+        // Primera falla de cualquiera de las etapas
+        private final AtomicReference<Throwable> Failure;
+        // Buffers del anillo tomados del pool compartido
+        private final Chunk All[];
+
+        Pipeline(int Depth, int Size) {
+            int i;
+
+            Free = new ArrayBlockingQueue<Chunk>(Depth);
+            Read = new ArrayBlockingQueue<Chunk>(Depth + 1);
+            Done = new ArrayBlockingQueue<Chunk>(Depth + 1);
+            Failure = new AtomicReference<Throwable>();
+            All = new Chunk[Depth];
+            for (i = 0; i < Depth; i++) {
+                All[i] = new Chunk(BufferPool.Shared().Acquire(Size));
+                Free.add(All[i]);
+            }
+        }
+
+        /**
+         * Devuelve los buffers del anillo al pool compartido; si alguna etapa
+         * sigue activa los descarta, porque todavia los puede estar usando
+         */
+        void Release(Thread Reader, Thread Writer) {
+            boolean Reuse;
+            int i;
+
+            Reuse = !Reader.isAlive() && !Writer.isAlive();
+            for (i = 0; i < All.length; i++) {
+                if (Reuse) {
+                    BufferPool.Shared().Release(All[i].Data);
+                } else {
+                    BufferPool.Shared().Discard(All[i].Data);
+                }
+            }
+        }
+
+        /**
+         * Toma el siguiente buffer de Queue, abortando si otra etapa fallo
+         */
+        Chunk Take(BlockingQueue<Chunk> Queue) throws IOException {
+            Chunk Salida;
+
+            try {
+                do {
+                    if (Failure.get() != null) {
+                        throw new InterruptedIOException("Pipeline aborted");
+                    }
+                    Salida = Queue.poll(POLL, TimeUnit.MILLISECONDS);
+                } while (Salida == null);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Pipeline interrupted");
+            }
+            return Salida;
+        }
+
+        /**
+         * Coloca el buffer en Queue, la cual nunca esta llena porque solo
+         * circulan 'Depth' buffers y una marca de fin
+         */
+        void Put(BlockingQueue<Chunk> Queue, Chunk Item) {
+            Queue.add(Item);
+        }
+
+        /**
+         * Registra la falla de una etapa
+         */
+        void Fail(Throwable Cause) {
+            Failure.compareAndSet(null, Cause);
+        }
+
+        /**
+         * Espera el fin de las hebras de lectura y escritura y lanza la primera
+         * falla registrada
+         */
+        void Join(Thread Reader, Thread Writer) throws IOException {
+            Throwable Cause;
+
+            try {
+                Reader.join();
+                Writer.join();
+            } catch (InterruptedException ex) {
+                Fail(ex);
+                Reader.interrupt();
+                Writer.interrupt();
+                Thread.currentThread().interrupt();
+            }
+            Cause = Failure.get();
+            if (Cause instanceof IOException) {
+                throw (IOException) Cause;
+            } else if (Cause instanceof RuntimeException) {
+                throw (RuntimeException) Cause;
+            } else if (Cause instanceof Error) {
+                throw (Error) Cause;
+            } else if (Cause != null) {
+                throw new InterruptedIOException("Pipeline interrupted");
+            }
+        }
+    }
+
+    /**
+     * Etapa ejecutada por las hebras de lectura y escritura
+     */
+    private interface Stage {
+
+        void Run(Pipeline Pipe) throws IOException;
+    }
+
+    private PipelinedFileCodec() {
+    }
+
+    /**
+     * Codifica el flujo de datos del archivo In en el archivo Out y escribe el
+     * encabezado ya codificado en la palabra HPosc.
+     *
+     * El cifrador debe estar en el estado siguiente a la codificacion del
+     * encabezado y se invoca desde la hebra que llama a este metodo.
+     *
+     * @param In Archivo original abierto para lectura
+     * @param InputLength Tamaño del archivo original en bytes
+     * @param Out Archivo codificado abierto para escritura
+     * @param Header Encabezado codificado
+     * @param HPosc Posicion del encabezado en palabras de 64 bits
+     * @param OutputLength Tamaño del archivo codificado en palabras de 64 bits
+     * @param Hash Algoritmo de HASH del archivo original o null
+     * @param Rand Generador del relleno aleatorio
+     * @param BufferSize Tamaño de los buffers en bytes, multiplo de 16
+     * @param Depth Numero de buffers del anillo, minimo 2
+     * @param Cipher Algoritmo de codificacion
+     * @param Progress Recibe el numero de bytes procesados del flujo de datos
+     * @throws IOException si falla la lectura o la escritura
+     * @throws IllegalArgumentException si Depth es menor a 2
+     */
+    public static void Codec(FileChannel In, long InputLength, FileChannel Out, byte Header[], long HPosc, long OutputLength, BaseHash Hash, MersenneTwisterPlus Rand, int BufferSize, int Depth, MappedFileCodec.BlockCipher Cipher, LongConsumer Progress) throws IOException {
+        final long DataLength;
+        final long HeaderStart;
+        final int HeaderBytes;
+        ParallelHash Hasher;
+        Pipeline Pipe;
+        Thread Reader, Writer;
+        Chunk Item;
+        byte Digest[];
+        int Real, i;
+        long Posc;
+
+        if (Depth < 2) {
+            throw new IllegalArgumentException("The pipeline needs at least two buffers");
+        }
+        HeaderStart = 8 * HPosc;
+        HeaderBytes = Header.length;
+        DataLength = 8 * OutputLength - HeaderBytes;
+        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+        Out.truncate(0);
+        MappedFileCodec.WriteFully(Out, ByteBuffer.wrap(Header), HeaderStart);
+        Pipe = new Pipeline(Depth, BufferSize);
+        Reader = Start("CuaimaFile Reader", Pipe, P -> {
+            Chunk R;
+            long Offset;
+            int Len;
+
+            Offset = 0;
+            while (Offset < DataLength) {
+                R = P.Take(P.Free);
+                R.Posc = Offset;
+                R.Length = (int) Math.min(R.Data.length, DataLength - Offset);
+                Len = (int) Math.max(0, Math.min(R.Length, InputLength - Offset));
+                ReadFully(In, ByteBuffer.wrap(R.Data, 0, Len), Offset);
+                P.Put(P.Read, R);
+                Offset += R.Length;
+            }
+            P.Put(P.Read, EndMark());
+        });
+        Writer = Start("CuaimaFile Writer", Pipe, P -> {
+            Chunk W;
+
+            while ((W = P.Take(P.Done)).Length >= 0) {
+                MappedFileCodec.WriteData(Out, W.Posc, HeaderStart, HeaderBytes, ByteBuffer.wrap(W.Data, 0, W.Write));
+                Progress.accept(W.Posc + W.Length);
+                P.Put(P.Free, W);
+            }
+        });
+        // Etapa de codificacion
+        Digest = null;
+        try {
+            while ((Item = Pipe.Take(Pipe.Read)).Length >= 0) {
+                Posc = Item.Posc;
+                Real = (int) Math.max(0, Math.min(Item.Length, InputLength - Posc));
+                if ((Hasher != null) && (Real > 0)) {
+                    Hasher.Update(Item.Data, 0, Real);
+                }
+                // Completa con el HASH y el relleno aleatorio
+                for (i = Real; i < Item.Length; i++) {
+                    if ((Hasher != null) && (Posc + i - InputLength < Hasher.hashSize())) {
+                        if (Digest == null) {
+                            Digest = Hasher.Digest();
+                        }
+                        Item.Data[i] = Digest[(int) (Posc + i - InputLength)];
+                    } else {
+                        Item.Data[i] = Rand.nextByte();
+                    }
+                }
+                if (Hasher != null) {
+                    Hasher.Codec(Item.Data, 0, Item.Length, Cipher);
+                } else {
+                    Cipher.Apply(ByteBuffer.wrap(Item.Data, 0, Item.Length));
+                }
+                Item.Write = Item.Length;
+                Pipe.Put(Pipe.Done, Item);
+            }
+            Pipe.Put(Pipe.Done, EndMark());
+        } catch (IOException | RuntimeException | Error ex) {
+            Pipe.Fail(ex);
+        }
+        try {
+            Pipe.Join(Reader, Writer);
+        } finally {
+            Pipe.Release(Reader, Writer);
+        }
+    }
+
+    /**
+     * Decodifica el flujo de datos del archivo In, que tiene el encabezado de
+     * 'HeaderLength' palabras de 64 bits en la palabra HPosc, escribiendo los
+     * primeros 'OutputLength' bytes en el archivo Out.
+     *
+     * El cifrador debe estar en el estado siguiente a la decodificacion del
+     * encabezado y se invoca desde la hebra que llama a este metodo; el HASH,
+     * si no es null, se calcula sobre los datos decodificados.
+     *
+     * @param In Archivo codificado abierto para lectura
+     * @param HPosc Posicion del encabezado en palabras de 64 bits
+     * @param HeaderLength Tamaño del encabezado en palabras de 64 bits
+     * @param Out Archivo decodificado abierto para escritura
+     * @param OutputLength Tamaño del archivo original en bytes
+     * @param Hash Algoritmo de HASH del archivo original o null
+     * @param BufferSize Tamaño de los buffers en bytes, multiplo de 16
+     * @param Depth Numero de buffers del anillo, minimo 2
+     * @param Cipher Algoritmo de decodificacion
+     * @param Progress Recibe el numero de bytes procesados del flujo de datos
+     * @return HASH almacenado en el archivo codificado o null si Hash es null
+     * @throws IOException si falla la lectura o la escritura, o si el archivo
+     * codificado es mas corto que los datos que declara
+     * @throws IllegalArgumentException si Depth es menor a 2
+     */
+    public static byte[] Decodec(FileChannel In, long HPosc, int HeaderLength, FileChannel Out, long OutputLength, BaseHash Hash, int BufferSize, int Depth, MappedFileCodec.BlockCipher Cipher, LongConsumer Progress) throws IOException {
+        final long DataLength;
+        final long HeaderStart;
+        final long HeaderBytes;
+        final ParallelHash Hasher;
+        Pipeline Pipe;
+        Thread Reader, Writer;
+        Chunk Item;
+        byte Digest[];
+        int HashSize;
+        int Plain, i;
+        long Posc;
+
+        if (Depth < 2) {
+            throw new IllegalArgumentException("The pipeline needs at least two buffers");
+        }
+        HeaderStart = 8 * HPosc;
+        HeaderBytes = 8L * HeaderLength;
+        HashSize = (Hash != null) ? Hash.hashSize() : 0;
+        Posc = In.size() - HeaderBytes;
+        Posc -= Posc % BLOCKSIZE;
+        if ((HeaderStart > Posc) || (OutputLength + HashSize > Posc)) {
+            throw new IOException("The encoded file is shorter than its header declares");
+        }
+        // Solo se leen los bloques que contienen el archivo original y su HASH
+        DataLength = (OutputLength + HashSize + BLOCKSIZE - 1) & ~(long) (BLOCKSIZE - 1);
+        Hasher = (Hash != null) ? new ParallelHash(Hash) : null;
+        Out.truncate(0);
+        Pipe = new Pipeline(Depth, BufferSize);
+        Reader = Start("CuaimaFile Reader", Pipe, P -> {
+            Chunk R;
+            long Offset;
+
+            Offset = 0;
+            while (Offset < DataLength) {
+                R = P.Take(P.Free);
+                R.Posc = Offset;
+                R.Length = (int) Math.min(R.Data.length, DataLength - Offset);
+                MappedFileCodec.ReadData(In, Offset, HeaderStart, HeaderBytes, ByteBuffer.wrap(R.Data, 0, R.Length));
+                P.Put(P.Read, R);
+                Offset += R.Length;
+            }
+            P.Put(P.Read, EndMark());
+        });
+        Writer = Start("CuaimaFile Writer", Pipe, P -> {
+            Chunk W;
+
+            while ((W = P.Take(P.Done)).Length >= 0) {
+                MappedFileCodec.WriteFully(Out, ByteBuffer.wrap(W.Data, 0, W.Write), W.Posc);
+                Progress.accept(W.Posc + W.Write);
+                if (Hasher != null) {
+                    Hasher.Sync();
+                }
+                P.Put(P.Free, W);
+            }
+        });
+        // Etapa de decodificacion
+        Digest = (Hash != null) ? new byte[HashSize] : null;
+        try {
+            while ((Item = Pipe.Take(Pipe.Read)).Length >= 0) {
+                Posc = Item.Posc;
+                Plain = (int) Math.max(0, Math.min(Item.Length, OutputLength - Posc));
+                if (Hasher != null) {
+                    Hasher.Decodec(Item.Data, 0, Item.Length, Plain, Cipher);
+                    // Recupera el HASH almacenado despues del archivo original
+                    for (i = Plain; i < Item.Length; i++) {
+                        if (Posc + i - OutputLength < HashSize) {
+                            Digest[(int) (Posc + i - OutputLength)] = Item.Data[i];
+                        }
+                    }
+                } else {
+                    Cipher.Apply(ByteBuffer.wrap(Item.Data, 0, Item.Length));
+                }
+                Item.Write = Plain;
+                Pipe.Put(Pipe.Done, Item);
+            }
+            Pipe.Put(Pipe.Done, EndMark());
+        } catch (IOException | RuntimeException | Error ex) {
+            Pipe.Fail(ex);
+        }
+        try {
+            Pipe.Join(Reader, Writer);
+        } finally {
+            Pipe.Release(Reader, Writer);
+        }
+        if (Hasher != null) {
+            Hasher.Sync();
+        }
+        return Digest;
+    }
+
+    /**
+     * @return Marca de fin del flujo
+     */
+    private static Chunk EndMark() {
+        Chunk Salida;
+
+        Salida = new Chunk(new byte[0]);
+        Salida.Length = -1;
+        return Salida;
+    }
+
+    /**
+     * Inicia la hebra de una etapa, que registra su falla en el estado
+     * compartido
+     */
+    private static Thread Start(String Name, Pipeline Pipe, Stage Body) {
+        Thread Salida;
+
+        Salida = new Thread(() -> {
+            try {
+                Body.Run(Pipe);
+            } catch (IOException | RuntimeException | Error ex) {
+                Pipe.Fail(ex);
+            }
+        }, Name);
+        Salida.setDaemon(true);
+        Salida.start();
+        return Salida;
+    }
+
+    /**
+     * Lee desde la posicion Posc de In hasta llenar Dst
+     */
+    private static void ReadFully(FileChannel In, ByteBuffer Dst, long Posc) throws IOException {
+        int Len;
+
+        while (Dst.hasRemaining()) {
+            Len = In.read(Dst, Posc);
+            if (Len < 0) {
+                throw new IOException("Unexpected end of the input file");
+            }
+            Posc += Len;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.interfaces.CryptoFileListener;
+import com.bolivartech.crypto.interfaces.CryptoFileProgress;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech INC</p>
+ *
+ * <p>
+ * Homepage: <a
+ * href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ * <p>
+ * BolivarTech Homepage: <a
+ * href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ * <p>
+ * This Class is part of the CuaimaCrypt's utils.</p>
+ *
+ * <p>
+ * Mide el avance de un proceso de CuaimaFile o AESFile y lo publica a un
+ * CryptoFileListener. Los contadores son atomicos, sin monitores, por lo que
+ * las hebras que procesan el archivo (incluyendo las de los motores en
+ * etapas) los actualizan sin competir con quien los consulta.</p>
+ *
+ * <p>
+ * onProgress se invoca como maximo una vez cada 'Interval' milisegundos o,
+ * si Step es mayor a 0, cada Step bytes, ademas de en cada cambio de fase;
+ * cuando varias hebras cruzan el umbral a la vez solo una publica. Sin
+ * listener el medidor solo cuenta.</p>
+ *
+ * @author Julian Bolivar
+ * @since 2026-10-18
+ * @version 1.0.0
+ */
+public final class ProgressMeter {
+
+    /**
+     * Intervalo por defecto entre notificaciones en milisegundos
+     */
+    public static final long INTERVAL = 250;
+
+    // Receptor de las notificaciones o null
+    private final CryptoFileListener Listener;
+    // Intervalo entre notificaciones en nanosegundos y en bytes
+    private final long IntervalNanos;
+    private final long Step;
+    // Inicio del proceso en nanosegundos
+    private final long Start;
+    // Bytes procesados y totales
+    private final AtomicLong Bytes;
+    private volatile long Total;
+    private volatile int Phase;
+    // Umbrales de la proxima notificacion
+    private final AtomicLong NextTime;
+    private final AtomicLong NextBytes;
+
+    /**
+     * Estado inmutable del proceso
+     */
+    private static final class Snapshot implements CryptoFileProgress {
+
+        private final int Phase;
+        private final long Bytes;
+        private final long Total;
+        private final long Elapsed;
+
+        private Snapshot(int Phase, long Bytes, long Total, long Elapsed) {
+            this.Phase = Phase;
+            this.Bytes = Bytes;
+            this.Total = Total;
+            this.Elapsed = Elapsed;
+        }
+
+        @Override
+        public int getPhase() {
+            return Phase;
+        }
+
+        @Override
+        public long getBytes() {
+            return Bytes;
+        }
+
+        @Override
+        public long getTotalBytes() {
+            return Total;
+        }
+
+        @Override
+        public long getElapsed() {
+            return Elapsed;
+        }
+
+        @Override
+        public double getThroughput() {
+            return (Elapsed > 0) ? (Bytes * 1e9) / Elapsed : 0;
+        }
+
+        @Override
+        public long getETA() {
+
+            if ((Bytes <= 0) || (Total <= 0)) {
+                return -1;
+            }
+            return (long) (((double) Math.max(0, Total - Bytes) * Elapsed) / Bytes);
+        }
+
+        @Override
+        public int getPercent() {
+
+            if (Phase == PHASE_DONE) {
+                return 100;
+            }
+            if (Total <= 0) {
+                return 0;
+            }
+            return (int) Math.min(99, (100 * Bytes) / Total);
+        }
+    }
+
+    /**
+     * Constructor con el receptor y los intervalos de notificacion; el
+     * proceso inicia en la fase PHASE_HEADER
+     *
+     * @param Listener Receptor de las notificaciones o null
+     * @param Interval Intervalo minimo entre notificaciones en milisegundos
+     * @param Step Bytes entre notificaciones, 0 para usar solo el tiempo
+     */
+    public ProgressMeter(CryptoFileListener Listener, long Interval, long Step) {
+
+        this.Listener = Listener;
+        this.IntervalNanos = Math.max(0, Interval) * 1000000L;
+        this.Step = (Step > 0) ? Step : Long.MAX_VALUE;
+        this.Start = System.nanoTime();
+        this.Bytes = new AtomicLong();
+        this.Total = 0;
+        this.Phase = CryptoFileProgress.PHASE_HEADER;
+        this.NextTime = new AtomicLong(this.Start + this.IntervalNanos);
+        this.NextBytes = new AtomicLong(this.Step);
+    }
+
+    /**
+     * Establece el tamaño del archivo original en bytes
+     *
+     * @param Total Tamaño en bytes
+     */
+    public void Total(long Total) {
+        this.Total = Math.max(0, Total);
+    }
+
+    /**
+     * Cambia la fase del proceso y lo notifica
+     *
+     * @param Phase Una de las constantes PHASE_ de CryptoFileProgress
+     */
+    public void Phase(int Phase) {
+
+        if (this.Phase != Phase) {
+            this.Phase = Phase;
+            if (Listener != null) {
+                NextTime.set(System.nanoTime() + IntervalNanos);
+                NextBytes.set(Math.max(Step, Bytes.get() + Step));
+                Listener.onProgress(Snapshot());
+            }
+        }
+    }
+
+    /**
+     * Suma 'Count' bytes procesados
+     *
+     * @param Count Numero de bytes
+     */
+    public void Add(long Count) {
+        Check(Bytes.addAndGet(Count));
+    }
+
+    /**
+     * Establece el total de bytes procesados, si es mayor al actual
+     *
+     * @param Count Numero de bytes
+     */
+    public void Set(long Count) {
+        long Actual;
+
+        do {
+            Actual = Bytes.get();
+        } while ((Count > Actual) && !Bytes.compareAndSet(Actual, Count));
+        Check(Math.max(Actual, Count));
+    }
+
+    /**
+     * Notifica que el proceso concluyo sin errores
+     */
+    public void Complete() {
+
+        Phase = CryptoFileProgress.PHASE_DONE;
+        if (Listener != null) {
+            Listener.onComplete(Snapshot());
+        }
+    }
+
+    /**
+     * Notifica que el proceso concluyo con error
+     *
+     * @param ErrorCode Codigo de Error del proceso
+     */
+    public void Error(int ErrorCode) {
+
+        Phase = CryptoFileProgress.PHASE_DONE;
+        if (Listener != null) {
+            Listener.onError(Snapshot(), ErrorCode);
+        }
+    }
+
+    /**
+     * @return Estado actual del proceso
+     */
+    public CryptoFileProgress Snapshot() {
+        return new Snapshot(Phase, Bytes.get(), Total, System.nanoTime() - Start);
+    }
+
+    /**
+     * Publica el avance si se cruzo el umbral de tiempo o de bytes
+     */
+    private void Check(long Count) {
+        long Now, Next;
+
+        if (Listener == null) {
+            return;
+        }
+        Next = NextTime.get();
+        Now = System.nanoTime();
+        if ((Now - Next >= 0) || (Count >= NextBytes.get())) {
+            if (NextTime.compareAndSet(Next, Now + IntervalNanos)) {
+                NextBytes.set(Count + Math.min(Step, Long.MAX_VALUE - Count));
+                Listener.onProgress(Snapshot());
+            }
+        }
+    }
+}
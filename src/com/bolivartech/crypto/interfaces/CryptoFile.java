@@ -1,5 +1,6 @@
 package com.bolivartech.crypto.interfaces;
 
+import com.bolivartech.crypto.cuaimacrypt.utils.ProgressMeter;
 import com.bolivartech.utils.exception.UtilsException;
 import com.bolivartech.utils.files.FileManager;
 
@@ -16,9 +17,12 @@ import com.bolivartech.utils.files.FileManager;
  *
  * Verison 2.0.0: Se agrego el soporte de algoritmos HASH
  * Version 3.1.0: Se estandarizaron los codigos para los algorimos de Hash
+ * Version 3.2.0: Se agrego la codificacion y decodificacion en la hebra que las invoca
+ * Version 3.3.0: Se agrego el receptor del avance CryptoFileListener, con implementacion
+ *                por defecto que lo ignora
  * 
  * @author Julian Bolivar
- * @version 3.1.0
+ * @version 3.3.0
  */
 public interface CryptoFile {
     
@@ -170,6 +174,33 @@ public interface CryptoFile {
      */
     public void Decodec(FileManager Input, FileManager Output);
     
+    /**
+     * Realiza la codificacion de un archivo igual que Codec, pero en la hebra
+     * que lo invoca, retornando cuando el proceso concluye.
+     * 
+     * Mientras se ejecuta, Progress reporta el avance a las demas hebras.
+     * 
+     * @param Input  Objeto que define el archivo a codificar
+     * @param Output Objeto que define el archivo codificado
+     * @param Opciones Parametros de configuracion del codificador
+     * @return Codigo de Error del proceso, 0 si concluyo sin errores
+     * @throws IllegalStateException si la instancia esta procesando otro archivo
+     */
+    public int CodecSync(FileManager Input, FileManager Output, int Opciones);
+    
+    /**
+     * Realiza la decodificacion de un archivo igual que Decodec, pero en la
+     * hebra que lo invoca, retornando cuando el proceso concluye.
+     * 
+     * Mientras se ejecuta, Progress reporta el avance a las demas hebras.
+     * 
+     * @param Input Archivo de entrada a decodificar
+     * @param Output Archivo de salida decodificado
+     * @return Codigo de Error del proceso, 0 si concluyo sin errores
+     * @throws IllegalStateException si la instancia esta procesando otro archivo
+     */
+    public int DecodecSync(FileManager Input, FileManager Output);
+    
         /**
      * Retorna el numero de bytes del buffer de lectura para la codificacion del
      * archivo.
@@ -196,6 +227,38 @@ public interface CryptoFile {
      */
     public int Progress();
     
+    /**
+     * Establece el receptor que es notificado del avance de los procesos de
+     * codificacion y decodificacion, en lugar de consultar Progress; null lo
+     * elimina. Aplica a partir del proximo proceso.
+     * 
+     * El avance se notifica como maximo cada ProgressMeter.INTERVAL
+     * milisegundos. La implementacion por defecto invoca
+     * setProgressListener(Listener, ProgressMeter.INTERVAL, 0).
+     *
+     * @param Listener Receptor del avance o null
+     */
+    public default void setProgressListener(CryptoFileListener Listener) {
+        setProgressListener(Listener, ProgressMeter.INTERVAL, 0);
+    }
+    
+    /**
+     * Establece el receptor que es notificado del avance de los procesos de
+     * codificacion y decodificacion, como maximo cada 'Interval' milisegundos
+     * o, si Step es mayor a 0, cada Step bytes; null lo elimina. Aplica a
+     * partir del proximo proceso.
+     * 
+     * La implementacion por defecto no hace nada, para las implementaciones
+     * que no notifican el avance; con ellas el avance se consulta con Progress
+     * e isDone. CuaimaFile y AESFile la sobreescriben.
+     *
+     * @param Listener Receptor del avance o null
+     * @param Interval Intervalo minimo entre notificaciones en milisegundos
+     * @param Step Bytes entre notificaciones, 0 para usar solo el tiempo
+     */
+    public default void setProgressListener(CryptoFileListener Listener, long Interval, long Step) {
+    }
+    
     /**
      * Retorna true si el proceso fue concluido y false si todavia no se ha finalizado.
      * 
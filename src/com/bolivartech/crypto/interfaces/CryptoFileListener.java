@@ -0,0 +1,42 @@
+package com.bolivartech.crypto.interfaces;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech C.A.
+ *
+ *  <p>Homepage: <a href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Interface is the CuaimaCrypt's util for code files.
+ *
+ *   Recibe el avance de los procesos de CryptoFile sin necesidad de consultar
+ *   Progress periodicamente. Los metodos se invocan desde la hebra que procesa
+ *   el archivo, por lo que deben ser rapidos y no lanzar excepciones.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+public interface CryptoFileListener {
+
+    /**
+     * Avance del proceso, invocado como maximo una vez por intervalo de tiempo
+     * o de bytes y en cada cambio de fase
+     *
+     * @param Status Estado del proceso
+     */
+    public void onProgress(CryptoFileProgress Status);
+
+    /**
+     * El proceso concluyo sin errores
+     *
+     * @param Status Estado final del proceso
+     */
+    public void onComplete(CryptoFileProgress Status);
+
+    /**
+     * El proceso concluyo con error
+     *
+     * @param Status Estado del proceso al momento del error
+     * @param ErrorCode Codigo de Error del proceso
+     */
+    public void onError(CryptoFileProgress Status, int ErrorCode);
+}
@@ -0,0 +1,63 @@
+package com.bolivartech.crypto.interfaces;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech C.A.
+ *
+ *  <p>Homepage: <a href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Interface is the CuaimaCrypt's util for code files.
+ *
+ *   Define el estado de avance de un proceso de CryptoFile en un instante,
+ *   entregado a CryptoFileListener; los valores no cambian despues de creado.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+public interface CryptoFileProgress {
+
+    /** Fase de lectura y codificacion del encabezado, el Valor es 1. */
+    public final static int PHASE_HEADER = 1;
+    /** Fase de codificacion o decodificacion de los datos, el Valor es 2. */
+    public final static int PHASE_BODY = 2;
+    /** Fase de calculo o verificacion del HASH, el Valor es 3. */
+    public final static int PHASE_HASH = 3;
+    /** El proceso concluyo, con o sin error, el Valor es 4. */
+    public final static int PHASE_DONE = 4;
+
+    /**
+     * @return Fase del proceso, una de las constantes PHASE_
+     */
+    public int getPhase();
+
+    /**
+     * @return Bytes del archivo original procesados
+     */
+    public long getBytes();
+
+    /**
+     * @return Tamaño del archivo original en bytes, 0 si todavia no se conoce
+     */
+    public long getTotalBytes();
+
+    /**
+     * @return Tiempo transcurrido desde el inicio del proceso en nanosegundos
+     */
+    public long getElapsed();
+
+    /**
+     * @return Velocidad promedio del proceso en bytes por segundo
+     */
+    public double getThroughput();
+
+    /**
+     * @return Tiempo restante estimado en nanosegundos, -1 si no se puede
+     * estimar
+     */
+    public long getETA();
+
+    /**
+     * @return Porcentaje de avance 0 &lt;= Salida &lt;= 100
+     */
+    public int getPercent();
+}
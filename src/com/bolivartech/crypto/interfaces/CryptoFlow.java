@@ -0,0 +1,104 @@
+package com.bolivartech.crypto.interfaces;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014,2015,2016 BolivarTech C.A.
+ *
+ *  <p>Homepage: <a href="http://www.cuaimacrypt.com">http://www.cuaimacrypt.com</a>.</p>
+ *  <p>BolivarTech Homepage: <a href="http://www.bolivartech.com">http://www.bolivartech.com</a>.</p>
+ *
+ *   This Interface is the CuaimaCrypt's util for reactive streams.
+ *
+ *   Interfaces de flujos reactivos con control de demanda, con los mismos
+ *   metodos y reglas de java.util.concurrent.Flow, que no existe en Java 8;
+ *   los adaptadores hacia Flow o Reactive Streams solo reenvian las llamadas.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+public final class CryptoFlow {
+
+    private CryptoFlow() {
+    }
+
+    /**
+     * Productor de elementos que se entregan a sus Subscriber segun la
+     * demanda que estos solicitan
+     *
+     * @param <T> Tipo de los elementos producidos
+     */
+    public interface Publisher<T> {
+
+        /**
+         * Agrega un Subscriber, que recibe onSubscribe y luego los elementos
+         * que solicite
+         *
+         * @param Sub Subscriber a agregar
+         */
+        public void subscribe(Subscriber<? super T> Sub);
+    }
+
+    /**
+     * Consumidor de elementos; sus metodos se invocan en orden y nunca en
+     * paralelo
+     *
+     * @param <T> Tipo de los elementos consumidos
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * Primer metodo invocado, con la suscripcion para solicitar
+         * elementos
+         *
+         * @param Sub Suscripcion
+         */
+        public void onSubscribe(Subscription Sub);
+
+        /**
+         * Siguiente elemento, solo si fue solicitado
+         *
+         * @param Item Elemento
+         */
+        public void onNext(T Item);
+
+        /**
+         * El flujo concluyo con error, no se invocan mas metodos
+         *
+         * @param Error Causa del error
+         */
+        public void onError(Throwable Error);
+
+        /**
+         * El flujo concluyo sin errores, no se invocan mas metodos
+         */
+        public void onComplete();
+    }
+
+    /**
+     * Enlace entre un Publisher y un Subscriber
+     */
+    public interface Subscription {
+
+        /**
+         * Solicita N elementos adicionales; si N no es positivo el flujo
+         * concluye con IllegalArgumentException
+         *
+         * @param N Numero de elementos
+         */
+        public void request(long N);
+
+        /**
+         * Cancela la suscripcion; los elementos ya en camino se pueden
+         * seguir recibiendo
+         */
+        public void cancel();
+    }
+
+    /**
+     * Etapa que consume elementos de tipo T y produce elementos de tipo R
+     *
+     * @param <T> Tipo de los elementos consumidos
+     * @param <R> Tipo de los elementos producidos
+     */
+    public interface Processor<T, R> extends Subscriber<T>, Publisher<R> {
+    }
+}
@@ -0,0 +1,269 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt's tests.
+ *
+ * Verifica que el kernel BitPermutation sea identico bit a bit a los metodos
+ * originales de CuaimaCrypt basados en GetBit y Get8Bits, cuya copia se
+ * conserva en esta clase como referencia: todos los valores de cada byte de
+ * las dos palabras del bloque sobre fondos fijos y aleatorios, y bloques de
+ * 128 bits aleatorios.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+public class BitPermutationTest {
+
+    // Bloques aleatorios a comparar
+    private static final int RANDOMBLOCKS = 1000000;
+
+    /**
+     * Todos los valores de cada byte de las dos palabras, con el resto del
+     * bloque en ceros, en unos y aleatorio
+     */
+    @Test
+    public void testAllBytePatternsPerLane() {
+        Random Rand;
+        long Fondos[][];
+        long Bloque[];
+        int f, Lane, Valor;
+
+        Rand = new Random(0x43435054L);
+        Fondos = new long[][]{{0L, 0L}, {-1L, -1L}, {Rand.nextLong(), Rand.nextLong()}, {Rand.nextLong(), Rand.nextLong()}};
+        for (f = 0; f < Fondos.length; f++) {
+            for (Lane = 0; Lane < 16; Lane++) {
+                for (Valor = 0; Valor < 256; Valor++) {
+                    Bloque = Fondos[f].clone();
+                    Bloque[Lane / 8] &= ~(0xFFL << (8 * (Lane % 8)));
+                    Bloque[Lane / 8] |= ((long) Valor) << (8 * (Lane % 8));
+                    Compare("fondo " + f + " byte " + Lane + " valor " + Valor, Bloque);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bloques de 128 bits aleatorios
+     */
+    @Test
+    public void testRandomBlocks() {
+        Random Rand;
+        long Bloque[];
+        int i;
+
+        Rand = new Random(0x54544343L);
+        Bloque = new long[2];
+        for (i = 0; i < RANDOMBLOCKS; i++) {
+            Bloque[0] = Rand.nextLong();
+            Bloque[1] = Rand.nextLong();
+            Compare("bloque " + i, Bloque);
+        }
+    }
+
+    /**
+     * Todos los valores de cada byte de la palabra en las transposiciones
+     */
+    @Test
+    public void testTransposeAllBytePatterns() {
+        long x;
+        int Lane, Valor;
+
+        for (Lane = 0; Lane < 8; Lane++) {
+            for (Valor = 0; Valor < 256; Valor++) {
+                x = ((long) Valor) << (8 * Lane);
+                assertEquals("TransposeLeft " + Long.toHexString(x), TransposeLeft(x), BitPermutation.transposeLeft(x));
+                assertEquals("TransposeRight " + Long.toHexString(x), TransposeRight(x), BitPermutation.transposeRight(x));
+                x = ~x;
+                assertEquals("TransposeLeft " + Long.toHexString(x), TransposeLeft(x), BitPermutation.transposeLeft(x));
+                assertEquals("TransposeRight " + Long.toHexString(x), TransposeRight(x), BitPermutation.transposeRight(x));
+            }
+        }
+    }
+
+    /**
+     * Compara Interleaving y DeInterleaving de 'Bloque' contra los metodos
+     * originales y verifica que uno deshaga al otro
+     */
+    private static void Compare(String Caso, long Bloque[]) {
+        long Esperado[], Obtenido[];
+
+        // Interleaving
+        Esperado = Bloque.clone();
+        Interleaving(Esperado);
+        Obtenido = new long[]{7L, Bloque[0], Bloque[1]};
+        BitPermutation.interleave(Obtenido, 1);
+        assertEquals("Interleaving " + Caso, Esperado[0], Obtenido[1]);
+        assertEquals("Interleaving " + Caso, Esperado[1], Obtenido[2]);
+        assertEquals("Interleaving fuera de rango " + Caso, 7L, Obtenido[0]);
+        // DeInterleaving
+        Esperado = Bloque.clone();
+        DeInterleaving(Esperado);
+        Obtenido = Bloque.clone();
+        BitPermutation.deinterleave(Obtenido, 0);
+        assertArrayEquals("DeInterleaving " + Caso, Esperado, Obtenido);
+        // Ida y vuelta
+        BitPermutation.interleave(Obtenido, 0);
+        assertArrayEquals("Ida y vuelta " + Caso, Bloque, Obtenido);
+    }
+
+    // Copia de los metodos originales de CuaimaCrypt (v3.1.0) como referencia
+
+    private static long GetBit(long in, int pos) {
+        long SR;
+        int shift;
+
+        SR = in;
+        shift = (int) (63 - pos);
+        SR = SR << shift;
+        SR = SR >>> 63;
+        return SR;
+    }
+
+    private static long TransposeLeft(long in) {
+        int grupo, bit;
+        long SR, Temp;
+
+        SR = 0;
+        for (bit = 0; bit < 8; bit++) {
+            for (grupo = 7; grupo >= 0; grupo--) {
+                SR = SR << 1;
+                Temp = GetBit(in, (8 * grupo + bit));
+                SR = SR | Temp;
+            }
+        }
+        return SR;
+    }
+
+    private static long TransposeRight(long in) {
+        int grupo, bit;
+        long SR, Temp;
+
+        SR = 0;
+        for (bit = 7; bit >= 0; bit--) {
+            for (grupo = 0; grupo < 8; grupo++) {
+                SR = SR << 1;
+                Temp = GetBit(in, (8 * grupo + bit));
+                SR = SR | Temp;
+            }
+        }
+        return SR;
+    }
+
+    private static long Get8Bits(long in, int pos) {
+        long SR;
+        int shift;
+
+        SR = in;
+        shift = (int) (56 - pos);
+        SR = SR << shift;
+        SR = SR >>> 56;
+        return SR;
+    }
+
+    private static void Interleaving(long in[]) {
+        long[] Temporal;
+        int i;
+
+        Temporal = new long[2];
+        // Realiza el cruce de las primeras filas de la matriz A
+        // con las ultimas de la matriz B
+        for (i = 0; i < 4; i++) {
+            Temporal[0] = Temporal[0] << 8;
+            Temporal[0] = Temporal[0] | Get8Bits(in[0], (8 * i));
+            Temporal[0] = Temporal[0] << 8;
+            Temporal[0] = Temporal[0] | Get8Bits(in[1], (8 * (7 - i)));
+        }
+        // Realiza el cruce de las ultimas filas de la matriz A
+        // con las primeras de la matriz B
+        for (i = 0; i < 4; i++) {
+            Temporal[1] = Temporal[1] << 8;
+            Temporal[1] = Temporal[1] | Get8Bits(in[0], (8 * (7 - i)));
+            Temporal[1] = Temporal[1] << 8;
+            Temporal[1] = Temporal[1] | Get8Bits(in[1], (8 * i));
+        }
+        // Realiza la Transposicion de los bits
+        in[0] = TransposeRight(Temporal[0]);
+        in[1] = TransposeLeft(Temporal[1]);
+        Temporal[0] = in[0];
+        Temporal[1] = in[1];
+        // Realiza el cruce de las filas de la matriz A
+        // con las de la matriz B
+        for (i = 0; i < 4; i++) {
+            Temporal[0] = Temporal[0] << 8;
+            Temporal[0] = Temporal[0] | Get8Bits(in[0], (8 * i));
+            Temporal[0] = Temporal[0] << 8;
+            Temporal[0] = Temporal[0] | Get8Bits(in[1], (8 * i));
+        }
+        // Realiza el cruce de las filas de la matriz A
+        // con las de la matriz B
+        for (i = 4; i < 8; i++) {
+            Temporal[1] = Temporal[1] << 8;
+            Temporal[1] = Temporal[1] | Get8Bits(in[0], (8 * i));
+            Temporal[1] = Temporal[1] << 8;
+            Temporal[1] = Temporal[1] | Get8Bits(in[1], (8 * i));
+        }
+        // Realiza la Transposicion de los bits
+        in[0] = TransposeRight(Temporal[0]);
+        in[1] = TransposeLeft(Temporal[1]);
+    }
+
+    private static void DeInterleaving(long in[]) {
+        long[] Temporal;
+        int i;
+
+        Temporal = new long[2];
+        // Realiza la Transposicion de los bits
+        Temporal[0] = TransposeLeft(in[0]);
+        Temporal[1] = TransposeRight(in[1]);
+        in[0] = Temporal[0];
+        in[1] = Temporal[1];
+        Temporal[0] = 0L;
+        Temporal[1] = 0L;
+        // Realiza el cruce de las filas de la matriz A
+        // con las de la matriz B
+        for (i = 0; i < 8; i += 2) {
+            Temporal[0] = Temporal[0] << 8;
+            Temporal[0] = Temporal[0] | Get8Bits(in[1], (8 * (i + 1)));
+            Temporal[1] = Temporal[1] << 8;
+            Temporal[1] = Temporal[1] | Get8Bits(in[1], (8 * i));
+        }
+        // Realiza el cruce de las filas de la matriz A
+        // con las de la matriz B
+        for (i = 0; i < 8; i += 2) {
+            Temporal[0] = Temporal[0] << 8;
+            Temporal[0] = Temporal[0] | Get8Bits(in[0], (8 * (i + 1)));
+            Temporal[1] = Temporal[1] << 8;
+            Temporal[1] = Temporal[1] | Get8Bits(in[0], (8 * i));
+        }
+        // Realiza la Transposicion de los bits
+        in[0] = TransposeLeft(Temporal[0]);
+        in[1] = TransposeRight(Temporal[1]);
+        Temporal[0] = 0L;
+        Temporal[1] = 0L;
+        // Realiza el cruce de las primeras filas de la matriz A
+        // con las ultimas de la matriz B
+        for (i = 7; i >= 0; i -= 2) {
+            Temporal[0] = Temporal[0] << 8;
+            Temporal[0] = Temporal[0] | Get8Bits(in[1], (8 * i));
+            Temporal[1] = Temporal[1] << 8;
+            Temporal[1] = Temporal[1] | Get8Bits(in[0], (8 * (i - 1)));
+        }
+        // Realiza el cruce de las ultimas filas de la matriz A
+        // con las primeras de la matriz B
+        for (i = 0; i < 8; i += 2) {
+            Temporal[0] = Temporal[0] << 8;
+            Temporal[0] = Temporal[0] | Get8Bits(in[0], (8 * (i + 1)));
+            Temporal[1] = Temporal[1] << 8;
+            Temporal[1] = Temporal[1] | Get8Bits(in[1], (8 * i));
+        }
+        in[0] = Temporal[0];
+        in[1] = Temporal[1];
+    }
+}
@@ -0,0 +1,145 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt's tests.
+ *
+ * Verifica que el codificador especializado que emite CuaimaSpecializer
+ * produzca la misma salida que el motor empaquetado al codificar y
+ * decodificar, para todos los tamaños de NumRCA que se pueden especializar y
+ * con todos los cruces de bytes.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+public class CuaimaSpecializerTest {
+
+    // Palabras de 64 bits a codificar por cada caso
+    private static final int WORDS = 512;
+
+    /**
+     * Codec y Decodec especializados contra el motor empaquetado para todos
+     * los tamaños de NumRCA hasta MAXSEEDS semillas
+     */
+    @Test
+    public void testMatchesPackedEngine() {
+        Random Rand;
+        int NumRCA;
+
+        Rand = new Random(0x53504543L);
+        for (NumRCA = 2; NumRCA <= CuaimaSpecializer.MAXSEEDS / PackedCodec.TEETHS; NumRCA++) {
+            Compare(NumRCA, "clave" + NumRCA, Rand);
+        }
+    }
+
+    /**
+     * Cada uno de los cruces de bytes en todas las posiciones
+     */
+    @Test
+    public void testAllCrossBytes() {
+        CuaimaCrypt Normal, Especial;
+        Random Rand;
+        long Datos[], Esperado[], Obtenido[];
+        int NumRCA, Cruce, i;
+
+        Rand = new Random(0x43524F53L);
+        NumRCA = 5;
+        for (Cruce = 0; Cruce < 4; Cruce++) {
+            Normal = new CuaimaCrypt(NumRCA);
+            Normal.Password("cruce" + Cruce);
+            for (i = 0; i < NumRCA - 1; i++) {
+                Normal.SetCrossBits(i, Cruce);
+            }
+            Especial = Normal.Copy();
+            assertTrue("Cruce " + Cruce, Especial.Specialize());
+            Datos = Words(Rand);
+            Esperado = Datos.clone();
+            Obtenido = Datos.clone();
+            Normal.Codec(Esperado, 0, WORDS / 2);
+            Especial.Codec(Obtenido, 0, WORDS / 2);
+            assertArrayEquals("Cruce " + Cruce, Esperado, Obtenido);
+        }
+    }
+
+    /**
+     * Las configuraciones con mas de MAXSEEDS semillas no se especializan
+     */
+    @Test
+    public void testTooManySeeds() {
+        CuaimaCrypt Cuaima;
+
+        Cuaima = new CuaimaCrypt((CuaimaSpecializer.MAXSEEDS / PackedCodec.TEETHS) + 1);
+        Cuaima.Password("grande");
+        assertFalse(Cuaima.Specialize());
+        assertFalse(Cuaima.IsSpecialized());
+    }
+
+    /**
+     * Una configuracion que no se puede empaquetar no se especializa, y
+     * vuelve a especializarse cuando la clave la reemplaza
+     */
+    @Test
+    public void testRepackAfterReconfigure() {
+        CuaimaCrypt Cuaima, Ajena;
+
+        Cuaima = new CuaimaCrypt(4);
+        Cuaima.Password("cadena");
+        Ajena = new CuaimaCrypt(4);
+        Ajena.Password("cadena");
+        // Una cadena hacia un ShiftCodec de otra instancia no se puede empaquetar
+        Cuaima.SetUpChain(0, Ajena.GetShiftCodec(0));
+        assertFalse(Cuaima.Specialize());
+        assertFalse(Cuaima.Specialize());
+        Cuaima.Password("cadena");
+        assertTrue(Cuaima.Specialize());
+    }
+
+    /**
+     * Codifica y decodifica los mismos datos con y sin el codificador
+     * especializado
+     */
+    private static void Compare(int NumRCA, String Password, Random Rand) {
+        CuaimaCrypt Normal, Especial;
+        long Datos[], Esperado[], Obtenido[];
+
+        Normal = new CuaimaCrypt(NumRCA);
+        Normal.Password(Password);
+        Especial = Normal.Copy();
+        assertTrue("NumRCA " + NumRCA, Especial.Specialize());
+        Datos = Words(Rand);
+        Esperado = Datos.clone();
+        Obtenido = Datos.clone();
+        Normal.Codec(Esperado, 0, WORDS / 2);
+        Especial.Codec(Obtenido, 0, WORDS / 2);
+        assertArrayEquals("Codec NumRCA " + NumRCA, Esperado, Obtenido);
+        Normal = new CuaimaCrypt(NumRCA);
+        Normal.Password(Password);
+        Especial = Normal.Copy();
+        assertTrue("NumRCA " + NumRCA, Especial.Specialize());
+        Normal.Decodec(Esperado, 0, WORDS / 2);
+        Especial.Decodec(Obtenido, 0, WORDS / 2);
+        assertArrayEquals("Decodec NumRCA " + NumRCA, Datos, Esperado);
+        assertArrayEquals("Decodec NumRCA " + NumRCA, Esperado, Obtenido);
+    }
+
+    /**
+     * Palabras aleatorias
+     */
+    private static long[] Words(Random Rand) {
+        long Salida[];
+        int i;
+
+        Salida = new long[WORDS];
+        for (i = 0; i < WORDS; i++) {
+            Salida[i] = Rand.nextLong();
+        }
+        return Salida;
+    }
+}
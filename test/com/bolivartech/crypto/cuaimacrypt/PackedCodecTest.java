@@ -0,0 +1,185 @@
+package com.bolivartech.crypto.cuaimacrypt;
+
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import org.junit.Test;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt's tests.
+ *
+ * Verifica que el salto de las semillas precompilado en una permutacion
+ * (PackedCodec.CompileHop y PackedCodec.SeedHop) deje los registros identicos
+ * a los intercambios en orden del CuaimaCrypt.SeedHop original, cuya copia se
+ * conserva en esta clase como referencia, para todos los tamaños de NumRCA y
+ * secuencias de saltos con valores fuera de rango.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+public class PackedCodecTest {
+
+    // Mayor numero de RakeCodec a verificar
+    private static final int MAXNUMRCA = 32;
+
+    // Secuencias de saltos aleatorias por cada tamaño
+    private static final int SEQUENCES = 64;
+
+    // Saltos aplicados por cada secuencia
+    private static final int HOPS = 8;
+
+    /**
+     * Secuencias de saltos por defecto, permutaciones, con repeticiones y con
+     * valores fuera de rango para todos los tamaños de NumRCA
+     */
+    @Test
+    public void testSeedHopMatchesLegacy() {
+        Random Rand;
+        int Hop[];
+        int NumRCA, NumSeed, i, s;
+
+        Rand = new Random(0x484F50L);
+        for (NumRCA = 2; NumRCA <= MAXNUMRCA; NumRCA++) {
+            NumSeed = NumRCA * PackedCodec.TEETHS;
+            // Secuencia por defecto de los constructores de CuaimaCrypt
+            Hop = new int[NumSeed];
+            for (i = 0; i < NumSeed; i++) {
+                Hop[i] = (i + 1) % NumSeed;
+            }
+            Compare(NumRCA, Hop, Rand);
+            for (s = 0; s < SEQUENCES; s++) {
+                Hop = new int[NumSeed];
+                switch (s % 3) {
+                    case 0:
+                        // Permutacion, como la generada por Password
+                        for (i = 0; i < NumSeed; i++) {
+                            Hop[i] = i;
+                        }
+                        Shuffle(Hop, Rand);
+                        break;
+                    case 1:
+                        // Saltos con repeticiones
+                        for (i = 0; i < NumSeed; i++) {
+                            Hop[i] = Rand.nextInt(NumSeed);
+                        }
+                        break;
+                    default:
+                        // Saltos que incluyen valores fuera de rango
+                        for (i = 0; i < NumSeed; i++) {
+                            Hop[i] = Rand.nextInt(NumSeed + 8) - 4;
+                        }
+                        Hop[Rand.nextInt(NumSeed)] = Integer.MIN_VALUE;
+                        Hop[Rand.nextInt(NumSeed)] = Integer.MAX_VALUE;
+                        Hop[Rand.nextInt(NumSeed)] = NumSeed;
+                        Hop[Rand.nextInt(NumSeed)] = -1;
+                }
+                Compare(NumRCA, Hop, Rand);
+            }
+        }
+    }
+
+    /**
+     * Todos los saltos fuera de rango dejan los registros sin cambios
+     */
+    @Test
+    public void testOutOfRangeHopsAreIgnored() {
+        int Hop[], Perm[];
+        int NumRCA, NumSeed, i;
+
+        for (NumRCA = 2; NumRCA <= MAXNUMRCA; NumRCA++) {
+            NumSeed = NumRCA * PackedCodec.TEETHS;
+            Hop = new int[NumSeed];
+            for (i = 0; i < NumSeed; i++) {
+                Hop[i] = ((i % 2) == 0) ? -1 - i : NumSeed + i;
+            }
+            Perm = PackedCodec.CompileHop(Hop, NumSeed);
+            for (i = 0; i < NumSeed; i++) {
+                assertEquals("NumRCA " + NumRCA + " registro " + i, i, Perm[i]);
+            }
+        }
+    }
+
+    /**
+     * Aplica HOPS saltos de la secuencia 'Hop' con los intercambios originales
+     * y con el motor empaquetado sobre los mismos registros aleatorios
+     */
+    private static void Compare(int NumRCA, int Hop[], Random Rand) {
+        PackedCodec Engine;
+        long Esperado[];
+        int Perm[];
+        int i, h;
+
+        Engine = PackedCodec.Pack(Rakes(NumRCA, Rand));
+        assertNotNull("NumRCA " + NumRCA, Engine);
+        assertEquals("NumRCA " + NumRCA, NumRCA * PackedCodec.TEETHS, Engine.NumSeeds());
+        for (i = 0; i < Engine.NumSeeds(); i++) {
+            Engine.GetRegs()[i] = Rand.nextLong();
+        }
+        Esperado = Engine.GetRegs().clone();
+        Perm = PackedCodec.CompileHop(Hop, Hop.length);
+        for (h = 0; h < HOPS; h++) {
+            SeedHop(Esperado, Hop);
+            Engine.SeedHop(Perm);
+            assertArrayEquals("NumRCA " + NumRCA + " salto " + h, Esperado, Engine.GetRegs());
+        }
+        Engine.Clear();
+    }
+
+    /**
+     * Construye NumRCA RakeCodec con las cadenas enlazadas al azar entre sus
+     * ShiftCodec, como lo hace CuaimaCrypt.Password
+     */
+    private static RakeCodec[] Rakes(int NumRCA, Random Rand) {
+        RakeCodec RCA[];
+        int i, u, d, NumSeed, Teeths;
+
+        RCA = new RakeCodec[NumRCA];
+        for (i = 0; i < NumRCA; i++) {
+            RCA[i] = new RakeCodec();
+        }
+        Teeths = RCA[0].GetNumSC();
+        NumSeed = NumRCA * Teeths;
+        for (i = 0; i < NumSeed; i++) {
+            u = Rand.nextInt(NumSeed);
+            d = Rand.nextInt(NumSeed);
+            RCA[i / Teeths].SetUpChain(i % Teeths, RCA[u / Teeths].GetShiftCodec(u % Teeths));
+            RCA[i / Teeths].SetDownChain(i % Teeths, RCA[d / Teeths].GetShiftCodec(d % Teeths));
+        }
+        return RCA;
+    }
+
+    /**
+     * Mezcla 'Valores' con Fisher-Yates
+     */
+    private static void Shuffle(int Valores[], Random Rand) {
+        int i, j, Temp;
+
+        for (i = Valores.length - 1; i > 0; i--) {
+            j = Rand.nextInt(i + 1);
+            Temp = Valores[i];
+            Valores[i] = Valores[j];
+            Valores[j] = Temp;
+        }
+    }
+
+    // Copia del CuaimaCrypt.SeedHop original (v3.4.0) sobre un arreglo de
+    // registros como referencia
+    private static void SeedHop(long State[], int SeedHoppingSeq[]) {
+        int i, NumSeed;
+        long Semilla;
+
+        NumSeed = SeedHoppingSeq.length;
+        for (i = 0; i < NumSeed; i++) {
+            // Verifica que sea un salto valido
+            if ((SeedHoppingSeq[i] >= 0) && (SeedHoppingSeq[i] < NumSeed)) {
+                // Realiza el swap de las dos semillas
+                Semilla = State[SeedHoppingSeq[i]];
+                State[SeedHoppingSeq[i]] = State[i];
+                State[i] = Semilla;
+            }
+        }
+    }
+}
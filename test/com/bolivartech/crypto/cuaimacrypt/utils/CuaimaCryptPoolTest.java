@@ -0,0 +1,139 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.cuaimacrypt.CuaimaCrypt;
+import com.bolivartech.utils.exception.UtilsException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt's tests.
+ *
+ * Verifica que CuaimaCryptPool no tenga mas de MaxTotal instancias vivas y
+ * que CuaimaText y CuaimaBinary produzcan la misma salida con el pool que con
+ * una instancia propia.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+public class CuaimaCryptPoolTest {
+
+    // Tiempo maximo de espera de cada operacion en segundos
+    private static final long TIMEOUT = 10;
+
+    private static final String PASSWORD = "Clave del pool";
+
+    /**
+     * TryAcquire retorna null al alcanzar MaxTotal y vuelve a prestar cuando se
+     * devuelve una instancia
+     */
+    @Test
+    public void testTryAcquireAtLimit() {
+        CuaimaCryptPool Pool;
+        CuaimaCrypt Primera, Segunda;
+
+        Pool = new CuaimaCryptPool(PASSWORD, 2, 1, 2);
+        Primera = Pool.TryAcquire();
+        Segunda = Pool.TryAcquire();
+        assertNotNull(Primera);
+        assertNotNull(Segunda);
+        assertNull(Pool.TryAcquire());
+        assertEquals(2, Pool.GetLent());
+        Pool.Release(Primera);
+        assertSame(Primera, Pool.TryAcquire());
+        Pool.Release(Segunda);
+        assertEquals(1, Pool.GetIdle());
+        assertEquals(2, Pool.GetCreated());
+    }
+
+    /**
+     * Acquire espera a que se devuelva una instancia cuando se alcanza MaxTotal
+     */
+    @Test
+    public void testAcquireWaitsForRelease() throws Exception {
+        final CuaimaCryptPool Pool;
+        CuaimaCrypt Primera;
+        ExecutorService Hebras;
+        Future<CuaimaCrypt> Espera;
+
+        Pool = new CuaimaCryptPool(PASSWORD, 2, 1, 1);
+        Primera = Pool.Acquire();
+        Hebras = Executors.newSingleThreadExecutor();
+        try {
+            Espera = Hebras.submit(() -> Pool.Acquire());
+            Thread.sleep(100);
+            assertFalse(Espera.isDone());
+            Pool.Release(Primera);
+            assertSame(Primera, Espera.get(TIMEOUT, TimeUnit.SECONDS));
+        } finally {
+            Hebras.shutdownNow();
+        }
+        assertEquals(1, Pool.GetCreated());
+    }
+
+    /**
+     * CuaimaText y CuaimaBinary con el pool interoperan con los de instancia
+     * propia y devuelven la instancia prestada
+     */
+    @Test
+    public void testTextAndBinaryWithPool() throws UtilsException {
+        CuaimaCryptPool Pool;
+        CuaimaText TextPool, Text;
+        CuaimaBinary BinaryPool, Binary;
+        byte[] Mensaje;
+
+        Pool = new CuaimaCryptPool(PASSWORD, 9, 1, 1);
+        TextPool = new CuaimaText(PASSWORD, Pool);
+        Text = new CuaimaText(PASSWORD);
+        assertEquals("Mensaje de prueba", Text.Decodec(TextPool.Codec("Mensaje de prueba", 0)));
+        assertEquals("Mensaje de prueba", TextPool.Decodec(Text.Codec("Mensaje de prueba", 0)));
+        BinaryPool = new CuaimaBinary(PASSWORD, Pool);
+        Binary = new CuaimaBinary(PASSWORD);
+        Mensaje = "Mensaje binario de prueba".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(Mensaje, Binary.Decodec(BinaryPool.Codec(Mensaje, 0)));
+        assertArrayEquals(Mensaje, BinaryPool.Decodec(Binary.Codec(Mensaje, 0)));
+        assertEquals(0, Pool.GetLent());
+        assertEquals(1, Pool.GetCreated());
+        // Un Password nuevo deja de usar el pool
+        assertTrue(TextPool.Password("Otra clave"));
+        assertNull(TextPool.getPool());
+        assertEquals("Otra", new CuaimaText("Otra clave").Decodec(TextPool.Codec("Otra", 0)));
+    }
+
+    /**
+     * Un pool creado con otro Password o con la programacion de la clave no se
+     * acepta
+     */
+    @Test
+    public void testPoolMustMatchPassword() {
+        CuaimaCrypt CCPT;
+
+        try {
+            new CuaimaText("Otra clave", new CuaimaCryptPool(PASSWORD, 9, 1, 1));
+            fail("Pool with another password accepted");
+        } catch (UtilsException ex) {
+            assertEquals(CuaimaText.ERROR_PASSWD, ex.getErrorCode());
+        }
+        CCPT = new CuaimaCrypt();
+        assertEquals(0, CCPT.Password(PASSWORD));
+        try {
+            new CuaimaBinary(PASSWORD, new CuaimaCryptPool(CCPT.GetKeySchedule(), 1));
+            fail("Pool without password accepted");
+        } catch (UtilsException ex) {
+            assertEquals(CuaimaBinary.ERROR_PASSWD, ex.getErrorCode());
+        }
+    }
+}
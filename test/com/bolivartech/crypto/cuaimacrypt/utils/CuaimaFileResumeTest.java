@@ -0,0 +1,117 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import com.bolivartech.crypto.interfaces.CryptoFile;
+import com.bolivartech.crypto.interfaces.CryptoFileListener;
+import com.bolivartech.crypto.interfaces.CryptoFileProgress;
+import com.bolivartech.utils.exception.UtilsException;
+import com.bolivartech.utils.files.FileManager;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt's tests.
+ *
+ * Verifica que al continuar un proceso del formato clasico con HASH desde un
+ * punto de control el buffer del proceso se devuelva al pool compartido.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+public class CuaimaFileResumeTest {
+
+    private static final String PASSWORD = "Clave de prueba";
+
+    // Byte en el que se simula la caida del proceso
+    private volatile long StopAt;
+
+    /**
+     * Crea un CuaimaFile con puntos de control cada MB que falla al superar
+     * StopAt bytes procesados
+     */
+    private CuaimaFile Create() throws UtilsException {
+        CuaimaFile Salida;
+
+        Salida = new CuaimaFile(PASSWORD, null);
+        Salida.setBufferSize(1 << 20);
+        Salida.setCheckpointInterval(1 << 20);
+        Salida.setProgressListener(new CryptoFileListener() {
+            @Override
+            public void onProgress(CryptoFileProgress Status) {
+                if (Status.getBytes() >= StopAt) {
+                    throw new IllegalStateException("Simulated crash");
+                }
+            }
+
+            @Override
+            public void onComplete(CryptoFileProgress Status) {
+            }
+
+            @Override
+            public void onError(CryptoFileProgress Status, int ErrorCode) {
+            }
+        }, 0, 1 << 16);
+        return Salida;
+    }
+
+    /**
+     * Codifica y decodifica con una caida a mitad de cada proceso; cada
+     * continuacion devuelve el buffer que tomo del pool
+     */
+    @Test
+    public void testResumeReleasesPooledBuffer() throws Exception {
+        Path Dir;
+        byte[] Data;
+        FileManager In, Out, Dec;
+        CuaimaFile Cipher;
+        long InUse;
+
+        Dir = Files.createTempDirectory("cuaimafile");
+        try {
+            Data = new byte[3_000_017];
+            new Random(19).nextBytes(Data);
+            Files.write(Dir.resolve("in.bin"), Data);
+            In = new FileManager(Dir.resolve("in.bin").toString());
+            Out = new FileManager(Dir.resolve("out.ccpt").toString());
+            Dec = new FileManager(Dir.resolve("dec.bin").toString());
+            InUse = BufferPool.Shared().getInUseBytes();
+            Cipher = Create();
+            StopAt = 2_000_000;
+            try {
+                Cipher.CodecSync(In, Out, CryptoFile.HASH_SHA256);
+                fail("The simulated crash did not happen");
+            } catch (IllegalStateException ex) {
+                // Caida simulada
+            }
+            assertTrue(CuaimaFile.hasCheckpoint(Out));
+            StopAt = Long.MAX_VALUE;
+            assertEquals(0, Cipher.ResumeSync(In, Out));
+            assertEquals(InUse, BufferPool.Shared().getInUseBytes());
+            StopAt = 2_000_000;
+            try {
+                Cipher.DecodecSync(Out, Dec);
+                fail("The simulated crash did not happen");
+            } catch (IllegalStateException ex) {
+                // Caida simulada
+            }
+            assertTrue(CuaimaFile.hasCheckpoint(Dec));
+            StopAt = Long.MAX_VALUE;
+            assertEquals(0, Cipher.ResumeSync(Out, Dec));
+            assertEquals(InUse, BufferPool.Shared().getInUseBytes());
+            assertArrayEquals(Data, Files.readAllBytes(Dir.resolve("dec.bin")));
+        } finally {
+            for (File F : Dir.toFile().listFiles()) {
+                F.delete();
+            }
+            Dir.toFile().delete();
+        }
+    }
+}
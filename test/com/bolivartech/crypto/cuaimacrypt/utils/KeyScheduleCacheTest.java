@@ -0,0 +1,179 @@
+package com.bolivartech.crypto.cuaimacrypt.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.security.auth.Destroyable;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Copyright 2007,2009,2010,2011,2012,2013,2014 BolivarTech C.A.
+ *
+ * This Class is part of CuaimaCrypt's tests.
+ *
+ * Verifica que KeyScheduleCache derive cada llave una sola vez sin bloquear
+ * a las hebras que usan otras llaves, y que una programacion desalojada no se
+ * borre mientras una hebra la esta usando.
+ *
+ * @author Julian Bolivar
+ * @version 1.0.0
+ */
+public class KeyScheduleCacheTest {
+
+    // Tiempo maximo de espera de cada operacion en segundos
+    private static final long TIMEOUT = 10;
+
+    /**
+     * Programacion de clave de prueba que registra si fue borrada
+     */
+    private static final class Programa implements Destroyable {
+
+        private final String Password;
+        private volatile boolean Destroyed;
+
+        Programa(String Password) {
+            this.Password = Password;
+        }
+
+        @Override
+        public void destroy() {
+            Destroyed = true;
+        }
+
+        @Override
+        public boolean isDestroyed() {
+            return Destroyed;
+        }
+    }
+
+    /**
+     * Una derivacion lenta no bloquea a las hebras que piden otra llave
+     */
+    @Test
+    public void testSlowMissDoesNotBlockOtherKeys() throws Exception {
+        final KeyScheduleCache<Programa> Cache;
+        final CountDownLatch Started, Gate;
+        ExecutorService Pool;
+        Future<String> Lenta, Rapida;
+
+        Cache = new KeyScheduleCache<Programa>(4, 0);
+        Started = new CountDownLatch(1);
+        Gate = new CountDownLatch(1);
+        Pool = Executors.newFixedThreadPool(2);
+        try {
+            Lenta = Pool.submit(() -> Cache.Apply("lenta", "test", P -> {
+                Started.countDown();
+                try {
+                    Gate.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Programa(P);
+            }, S -> S.Password));
+            assertTrue(Started.await(TIMEOUT, TimeUnit.SECONDS));
+            Rapida = Pool.submit(() -> Cache.Apply("rapida", "test", Programa::new, S -> S.Password));
+            assertEquals("rapida", Rapida.get(TIMEOUT, TimeUnit.SECONDS));
+            assertFalse(Lenta.isDone());
+            Gate.countDown();
+            assertEquals("lenta", Lenta.get(TIMEOUT, TimeUnit.SECONDS));
+        } finally {
+            Gate.countDown();
+            Pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Las hebras que piden la misma llave al mismo tiempo comparten una sola
+     * derivacion
+     */
+    @Test
+    public void testSameKeyDerivedOnce() throws Exception {
+        final KeyScheduleCache<Programa> Cache;
+        final AtomicInteger Derivaciones;
+        final CountDownLatch Start;
+        ExecutorService Pool;
+        List<Future<Programa>> Resultados;
+        Programa Primera;
+        int i, Hebras;
+
+        Cache = new KeyScheduleCache<Programa>(4, 0);
+        Derivaciones = new AtomicInteger();
+        Start = new CountDownLatch(1);
+        Hebras = 8;
+        Pool = Executors.newFixedThreadPool(Hebras);
+        Resultados = new ArrayList<Future<Programa>>();
+        try {
+            for (i = 0; i < Hebras; i++) {
+                Resultados.add(Pool.submit(() -> {
+                    Start.await();
+                    return Cache.Apply("comun", "test", P -> {
+                        Derivaciones.incrementAndGet();
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return new Programa(P);
+                    }, S -> S);
+                }));
+            }
+            Start.countDown();
+            Primera = Resultados.get(0).get(TIMEOUT, TimeUnit.SECONDS);
+            for (i = 1; i < Hebras; i++) {
+                assertSame(Primera, Resultados.get(i).get(TIMEOUT, TimeUnit.SECONDS));
+            }
+        } finally {
+            Pool.shutdownNow();
+        }
+        assertEquals(1, Derivaciones.get());
+        assertEquals(1, Cache.GetMisses());
+        assertEquals(Hebras - 1, Cache.GetHits());
+    }
+
+    /**
+     * Una programacion desalojada mientras se usa se borra cuando termina su
+     * uso
+     */
+    @Test
+    public void testEvictedScheduleKeptWhileInUse() {
+        final KeyScheduleCache<Programa> Cache;
+        Programa Primera;
+
+        Cache = new KeyScheduleCache<Programa>(1, 0);
+        Primera = Cache.Apply("primera", "test", Programa::new, S -> {
+            // Desaloja la primera entrada mientras se usa
+            Cache.Apply("segunda", "test", Programa::new, T -> T);
+            assertEquals(1, Cache.GetEvictions());
+            assertFalse(S.isDestroyed());
+            return S;
+        });
+        assertTrue(Primera.isDestroyed());
+        assertEquals(1, Cache.Size());
+        Cache.Clear();
+        assertEquals(0, Cache.Size());
+    }
+
+    /**
+     * Una derivacion que no produce programacion no queda en el cache
+     */
+    @Test
+    public void testFailedDeriveIsNotCached() {
+        KeyScheduleCache<Programa> Cache;
+
+        Cache = new KeyScheduleCache<Programa>(4, 0);
+        assertNull(Cache.Apply("invalida", "test", P -> null, S -> S));
+        assertEquals(0, Cache.Size());
+        assertNull(Cache.Apply("invalida", "test", P -> null, S -> S));
+        assertEquals(2, Cache.GetMisses());
+    }
+}